@@ -0,0 +1,34 @@
+package com.mariaribeiro.webhookprocessor.benchmark;
+
+/**
+ * Deterministic JSON bodies of roughly a given size for the benchmarks.
+ */
+public final class Payloads {
+
+    /**
+     * A payload object of about {@code size} bytes: a fixed header plus an array of line items.
+     */
+    public static String payload(int size) {
+        StringBuilder json = new StringBuilder(size + 128)
+                .append("{\"type\":\"invoice.paid\",\"currency\":\"eur\",\"customer\":\"cus_8412\",\"lines\":[");
+        int i = 0;
+        while (json.length() < size - 2) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"sku\":\"sku_").append(i).append("\",\"quantity\":").append(i % 7 + 1)
+                    .append(",\"amount\":").append(1000 + i * 13).append('}');
+            i++;
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * The envelope {@code POST /webhooks/{source}} expects around {@link #payload(int)}.
+     */
+    public static String envelope(String eventKey, int payloadSize) {
+        return "{\"eventKey\":\"" + eventKey + "\",\"payload\":" + payload(payloadSize) + "}";
+    }
+
+    private Payloads() { }
+}
@@ -0,0 +1,44 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.benchmark.Payloads;
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envelope parsing as {@code WebhookController.ingest} does it: one streaming pass over the captured
+ * body, then the payload slice copied out as a string.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EnvelopeExtractorBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    int payloadSize;
+
+    EnvelopeExtractor extractor;
+    byte[] body;
+
+    @Setup
+    public void setUp() {
+        extractor = new EnvelopeExtractor(JsonMapper.builder().build(), new WebhookProperties());
+        body = Payloads.envelope("evt_1", payloadSize).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String extract() {
+        WebhookEnvelope envelope = extractor.extract("stripe", body, 0, body.length);
+        return envelope.payload(body);
+    }
+}
@@ -0,0 +1,35 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import com.mariaribeiro.webhookprocessor.benchmark.Payloads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WebhookDtoMapperBenchmark {
+
+    WebhookEvent event;
+
+    @Setup
+    public void setUp() {
+        event = new WebhookEvent(UUID.randomUUID(), "stripe", "evt_1", Payloads.payload(1024),
+                EventStatus.RECEIVED, Instant.now(), null);
+    }
+
+    @Benchmark
+    public WebhookIngestionResponse toResponse() {
+        return WebhookDtoMapper.toResponse(event);
+    }
+}
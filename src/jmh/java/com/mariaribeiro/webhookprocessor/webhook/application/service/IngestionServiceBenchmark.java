@@ -0,0 +1,117 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.benchmark.Payloads;
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.application.admission.AdmissionControl;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link WebhookIngestionService#ingest} in front of an in-memory repository, so what is measured is
+ * validation, the idempotency cache and event construction rather than the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IngestionServiceBenchmark {
+
+    WebhookIngestionService service;
+    String payload;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        InMemoryRepository repository = new InMemoryRepository();
+        Clock clock = Clock.systemUTC();
+        WebhookProperties properties = new WebhookProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IdempotencyCache cache = new IdempotencyCache(properties, clock, meterRegistry);
+        service = new WebhookIngestionService(repository::insertIfAbsent, repository, cache, clock,
+                new IngestionMetrics(source -> true, meterRegistry), new AdmissionControl(properties, source -> true, meterRegistry));
+        payload = Payloads.payload(1024);
+    }
+
+    @Benchmark
+    public InsertResult ingestNew() {
+        return service.ingest("stripe", "evt_" + sequence.incrementAndGet(), payload);
+    }
+
+    @Benchmark
+    public InsertResult ingestDuplicate() {
+        return service.ingest("stripe", "evt_duplicate", payload);
+    }
+
+    static final class InMemoryRepository implements WebhookEventRepository {
+
+        // Bounded so a long run measures steady state rather than map growth.
+        private static final int MAX_EVENTS = 1 << 20;
+
+        final ConcurrentHashMap<String, WebhookEvent> stored = new ConcurrentHashMap<>();
+
+        @Override
+        public WebhookEvent save(WebhookEvent webhookEvent) {
+            stored.put(webhookEvent.eventKey(), webhookEvent);
+            return webhookEvent;
+        }
+
+        @Override
+        public InsertResult insertIfAbsent(WebhookEvent webhookEvent) {
+            if (stored.size() >= MAX_EVENTS) {
+                stored.clear();
+            }
+            WebhookEvent existing = stored.putIfAbsent(webhookEvent.eventKey(), webhookEvent);
+            return existing == null ? new InsertResult(webhookEvent, true) : new InsertResult(existing, false);
+        }
+
+        @Override
+        public List<InsertResult> insertAllIfAbsent(List<WebhookEvent> webhookEvents) {
+            List<InsertResult> results = new ArrayList<>(webhookEvents.size());
+            for (WebhookEvent webhookEvent : webhookEvents) {
+                results.add(insertIfAbsent(webhookEvent));
+            }
+            return results;
+        }
+
+        @Override
+        public Set<String> findExistingEventKeys(String source, Collection<String> eventKeys) {
+            Set<String> existing = new HashSet<>();
+            for (String eventKey : eventKeys) {
+                if (stored.containsKey(eventKey)) {
+                    existing.add(eventKey);
+                }
+            }
+            return existing;
+        }
+
+        @Override
+        public Optional<WebhookEvent> findBySourceAndEventKey(String source, String eventId) {
+            return Optional.ofNullable(stored.get(eventId));
+        }
+
+        @Override
+        public Optional<WebhookEvent> findById(UUID id) {
+            return stored.values().stream().filter(event -> event.id().equals(id)).findFirst();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import com.mariaribeiro.webhookprocessor.benchmark.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HmacBenchmark {
+
+    private static final String SECRET = "super-secret-stripe";
+
+    @Param({"256", "4096", "65536"})
+    int payloadSize;
+
+    String message;
+    String signature;
+    String mismatch;
+
+    @Setup
+    public void setUp() {
+        message = "1700000000." + Payloads.envelope("evt_1", payloadSize);
+        signature = HmacSha256Verifier.signHex(SECRET, message);
+        mismatch = signature.substring(0, signature.length() - 1) + (signature.endsWith("0") ? "1" : "0");
+    }
+
+    @Benchmark
+    public String signHex() {
+        return HmacSha256Verifier.signHex(SECRET, message);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return HmacSha256Verifier.constantTimeEquals(signature, HmacSha256Verifier.signHex(SECRET, message));
+    }
+
+    @Benchmark
+    public boolean constantTimeEquals() {
+        return HmacSha256Verifier.constantTimeEquals(signature, mismatch);
+    }
+}
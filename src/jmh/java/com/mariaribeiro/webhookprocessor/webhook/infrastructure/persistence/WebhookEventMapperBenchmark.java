@@ -0,0 +1,58 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.benchmark.Payloads;
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Domain to entity and back, with payload compression off (text column) and on (deflate, no dictionary).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WebhookEventMapperBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    int payloadSize;
+
+    @Param({"false", "true"})
+    boolean compression;
+
+    PayloadCodec codec;
+    WebhookEvent event;
+
+    @Setup
+    public void setUp() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.getPersistence().getCompression().setEnabled(compression);
+        PayloadDictionaries noDictionaries = new PayloadDictionaries(null, Clock.systemUTC()) {
+            @Override
+            Dictionary current(String source) {
+                return null;
+            }
+        };
+        codec = new PayloadCodec(properties, noDictionaries, new SimpleMeterRegistry());
+        event = new WebhookEvent(UUID.randomUUID(), "stripe", "evt_1", Payloads.payload(payloadSize),
+                EventStatus.RECEIVED, Instant.now(), null);
+    }
+
+    @Benchmark
+    public WebhookEvent roundTrip() {
+        return WebhookEventMapper.toDomain(WebhookEventMapper.toEntity(event, codec), codec);
+    }
+}
@@ -0,0 +1,40 @@
+package com.mariaribeiro.webhookprocessor.config;
+
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Execution mode wiring. Tomcat follows {@code spring.threads.virtual.enabled} on its own; this
+ * applies the same switch to our own threads and, in virtual mode, puts a semaphore sized to the
+ * Hikari pool in front of the {@link DataSource} so waiting requests park cheaply.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    @Bean
+    WorkerThreads workerThreads(Environment environment) {
+        return new WorkerThreads(Threading.VIRTUAL.isActive(environment));
+    }
+
+    @Bean
+    static BeanPostProcessor dataSourceConcurrencyLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && Threading.VIRTUAL.isActive(environment)) {
+                    return new ConcurrencyLimitingDataSource(hikari, hikari.getMaximumPoolSize(),
+                            Duration.ofMillis(hikari.getConnectionTimeout()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,10 +1,19 @@
 package com.mariaribeiro.webhookprocessor.config;
 
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacAlgorithm;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.SignatureScheme;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.PartitionInterval;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Setter
@@ -12,14 +21,602 @@ import java.util.Map;
 @ConfigurationProperties(prefix = "webhook")
 public class WebhookProperties {
 
+    private static final SourceProperties DEFAULT_SOURCE = new SourceProperties();
+
+    /**
+     * One secret per source, always in effect; {@code webhook.sources.<name>.keys} adds rotating ones.
+     */
     private Map<String, String> secrets = new HashMap<>();
 
-    public String secretFor(String source) {
-        String secret = secrets.get(source);
-        if (secret == null || secret.isBlank()) {
-            throw new IllegalArgumentException("Unknown source or missing secret: " + source);
-        }
-        return secret;
+    private SecretStore secretStore = new SecretStore();
+
+    private Map<String, SourceProperties> sources = new HashMap<>();
+
+    private Persistence persistence = new Persistence();
+
+    private Idempotency idempotency = new Idempotency();
+
+    private Ingestion ingestion = new Ingestion();
+
+    private Processing processing = new Processing();
+
+    private Delivery delivery = new Delivery();
+
+    private Admin admin = new Admin();
+
+    private Admission admission = new Admission();
+
+    public SourceProperties sourceOptions(String source) {
+        return sources.getOrDefault(source, DEFAULT_SOURCE);
+    }
+
+    @Setter
+    @Getter
+    public static class SourceProperties {
+
+        private SignatureScheme signatureScheme = SignatureScheme.TIMESTAMPED;
+
+        private HmacAlgorithm algorithm = HmacAlgorithm.HMAC_SHA256;
+
+        /**
+         * Keys next to the one in {@code webhook.secrets}, each with an optional validity window.
+         */
+        private List<SourceKey> keys = new ArrayList<>();
+
+        private Retry retry = new Retry();
+
+        private Envelope envelope = new Envelope();
+
+        /**
+         * Endpoints that receive a copy of every processed event of this source, signed with their own secret.
+         */
+        private List<Subscriber> subscribers = new ArrayList<>();
+
+        /**
+         * Dotted path ({@code $.a.b}) into the stored payload of the value whose events are handled in order
+         * when {@code webhook.processing.lanes.enabled}; unset orders all of the source's events.
+         */
+        private String orderingKeyPath;
+
+        /**
+         * Train a deflate dictionary from this source's payloads when compression is enabled.
+         */
+        private boolean compressionDictionary = false;
+
+        /**
+         * Overrides {@code webhook.persistence.partitioning.retention} for this source.
+         */
+        private Duration retention;
+
+        /**
+         * Requests per second admitted for this source when {@code webhook.admission.enabled}; 0 is unlimited.
+         */
+        private double rateLimit = 0;
+
+        /**
+         * Requests admitted back to back after an idle period; 0 means one second's worth of {@code rateLimit}.
+         */
+        private int burst = 0;
+
+        /**
+         * Upper bound on this source's requests in flight; 0 uses {@code webhook.admission.max-limit}.
+         */
+        private int maxConcurrent = 0;
+    }
+
+    @Setter
+    @Getter
+    public static class Subscriber {
+
+        private String url;
+
+        /**
+         * Signs the requests sent to {@code url}; never the source's inbound secret, which the provider holds.
+         */
+        private String secret;
+    }
+
+    @Setter
+    @Getter
+    public static class SourceKey {
+
+        /**
+         * Names the key in logs; defaults to its position.
+         */
+        private String id;
+
+        private String secret;
+
+        private Instant notBefore;
+
+        private Instant notAfter;
+    }
+
+    @Setter
+    @Getter
+    public static class SecretStore {
+
+        /**
+         * JSON file of {@code {"<source>": [{"id", "secret", "notBefore", "notAfter"}]}} read
+         * again whenever it changes.
+         */
+        private Path file;
+
+        /**
+         * Also read keys from the {@code webhook_source_key} table.
+         */
+        private boolean jdbc = false;
+
+        /**
+         * How often the file and the table are checked for new keys.
+         */
+        private Duration reloadInterval = Duration.ofSeconds(10);
     }
 
+    @Setter
+    @Getter
+    public static class Envelope {
+
+        /**
+         * Dotted path ({@code $.a.b}) of the idempotency key in the request body.
+         */
+        private String eventKeyPath = "$.eventKey";
+
+        /**
+         * Dotted path of the stored payload; {@code $} keeps the whole body.
+         */
+        private String payloadPath = "$.payload";
+    }
+
+    @Setter
+    @Getter
+    public static class Retry {
+
+        /**
+         * Handling attempts before an event stays {@code FAILED} for good.
+         */
+        private int maxAttempts = 5;
+
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        private double multiplier = 2.0;
+    }
+
+    @Setter
+    @Getter
+    public static class Persistence {
+
+        /**
+         * Repository adapter backing the ingestion path: {@code jpa} or {@code jdbc}.
+         */
+        private String mode = "jpa";
+
+        private Compression compression = new Compression();
+
+        private Partitioning partitioning = new Partitioning();
+    }
+
+    @Setter
+    @Getter
+    public static class Partitioning {
+
+        /**
+         * Range of each {@code webhook_event} partition on PostgreSQL: {@code day} or {@code week}.
+         */
+        private PartitionInterval interval = PartitionInterval.DAY;
+
+        /**
+         * Partitions kept created ahead of the current one.
+         */
+        private int premake = 7;
+
+        /**
+         * Age after which events are removed; unset keeps them.
+         */
+        private Duration retention;
+
+        /**
+         * How long event keys are remembered for deduplication; unset remembers them as long as the event is kept.
+         */
+        private Duration dedupeHorizon;
+
+        private Duration maintenanceInterval = Duration.ofHours(1);
+
+        /**
+         * Rows removed per statement where retention falls back to deletes.
+         */
+        private int deleteBatchSize = 5_000;
+    }
+
+    @Setter
+    @Getter
+    public static class Compression {
+
+        /**
+         * Store new payloads compressed in {@code payload_data} and convert existing text rows in the background.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Deflate level, 1 (fastest) to 9 (smallest).
+         */
+        private int level = 6;
+
+        private DataSize dictionarySize = DataSize.ofKilobytes(4);
+
+        /**
+         * Recent payloads a dictionary is trained from; training waits until the source has this many.
+         */
+        private int dictionarySamples = 200;
+
+        private int recompressBatchSize = 500;
+
+        private Duration recompressInterval = Duration.ofSeconds(30);
+    }
+
+    @Setter
+    @Getter
+    public static class Idempotency {
+
+        private boolean enabled = true;
+
+        private int maxSize = 100_000;
+
+        /**
+         * Estimated heap the cached keys may hold; the oldest entries are evicted beyond it.
+         */
+        private DataSize maxWeight = DataSize.ofMegabytes(32);
+
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Setter
+    @Getter
+    public static class Ingestion {
+
+        /**
+         * How accepted events are written: {@code direct}, {@code group-commit} or {@code journal}.
+         */
+        private String mode = "direct";
+
+        /**
+         * Largest accepted webhook body; larger requests are rejected with 413 before they are read.
+         */
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        /**
+         * Body limit for {@code /webhooks/{source}/batch}.
+         */
+        private DataSize maxBatchBodySize = DataSize.ofMegabytes(16);
+
+        /**
+         * Batch lines deduplicated and inserted together.
+         */
+        private int batchChunkSize = 500;
+
+        private GroupCommit groupCommit = new GroupCommit();
+
+        private Journal journal = new Journal();
+
+        private ReplayCache replayCache = new ReplayCache();
+    }
+
+    @Setter
+    @Getter
+    public static class ReplayCache {
+
+        /**
+         * Answers a byte-identical copy of a recently accepted request (same source, signature and
+         * timestamp headers) with 200 before reading or verifying it.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Fingerprints held across the whole replay window; 16 bytes of memory each.
+         */
+        private int maxEntries = 200_000;
+
+        /**
+         * Slices of the window that expire together.
+         */
+        private int intervals = 10;
+    }
+
+    @Setter
+    @Getter
+    public static class GroupCommit {
+
+        /**
+         * Ring buffer slots; must be a power of two.
+         */
+        private int capacity = 4096;
+
+        private int batchSize = 128;
+
+        private Duration linger = Duration.ofNanos(500_000);
+
+        private Duration publishTimeout = Duration.ofSeconds(1);
+
+        /**
+         * How long a request waits for its batch to commit before failing; the event may still be committed.
+         */
+        private Duration writeTimeout = Duration.ofSeconds(10);
+    }
+
+    @Setter
+    @Getter
+    public static class Journal {
+
+        /**
+         * Holds the segment files and the replay checkpoint; must not be shared between instances.
+         */
+        private Path directory = Path.of("data/journal");
+
+        /**
+         * Size of each memory-mapped segment file; one event must fit in a segment.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Ring buffer slots; must be a power of two.
+         */
+        private int capacity = 4096;
+
+        /**
+         * Events appended, and forced to disk, together.
+         */
+        private int batchSize = 128;
+
+        private Duration linger = Duration.ofNanos(200_000);
+
+        private Duration publishTimeout = Duration.ofSeconds(1);
+
+        /**
+         * How long a request waits for its batch to reach the journal before failing; the event may still be appended.
+         */
+        private Duration writeTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Force each batch to the device before acknowledging it. Off, a batch is acknowledged once it
+         * is in the page cache, which survives a process crash but not a power loss.
+         */
+        private boolean fsync = true;
+
+        /**
+         * Journaled events inserted into the database per transaction.
+         */
+        private int replayBatchSize = 500;
+
+        /**
+         * Wait before retrying a batch the database rejected.
+         */
+        private Duration replayRetryInterval = Duration.ofSeconds(1);
+    }
+
+    @Setter
+    @Getter
+    public static class Processing {
+
+        private boolean enabled = false;
+
+        /**
+         * Claim loops per instance.
+         */
+        private int workers = 2;
+
+        private int batchSize = 100;
+
+        /**
+         * Handler invocations running at once across all claim loops.
+         */
+        private int handlerConcurrency = 8;
+
+        private Duration pollInterval = Duration.ofMillis(200);
+
+        /**
+         * Resolution of the in-memory retry wheel.
+         */
+        private Duration retryTick = Duration.ofMillis(100);
+
+        /**
+         * Buckets in the retry wheel (power of two); tick times this is how far ahead retries are held in memory.
+         */
+        private int retryTicksPerWheel = 512;
+
+        /**
+         * A claimed event not written back within this is returned to {@code RECEIVED} and handled again;
+         * keep it well above the slowest batch.
+         */
+        private Duration claimTimeout = Duration.ofMinutes(5);
+
+        private Leases leases = new Leases();
+
+        private Lanes lanes = new Lanes();
+    }
+
+    @Setter
+    @Getter
+    public static class Lanes {
+
+        /**
+         * Handles events on single-threaded lanes chosen by ordering key instead of the shared handler executor.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of lanes; 0 uses one per available processor.
+         */
+        private int count = 0;
+
+        /**
+         * Events queued per lane (power of two); a claimer waits while the lane of its next event is full.
+         */
+        private int capacity = 256;
+
+        /**
+         * A lane that completed this many times the average of all lanes since the last check is reported hot.
+         */
+        private double hotLaneFactor = 4.0;
+
+        /**
+         * A lane must complete at least this many events since the last check to be reported hot by its share.
+         */
+        private long hotLaneMinEvents = 100;
+
+        private Duration hotLaneCheckInterval = Duration.ofSeconds(10);
+    }
+
+    @Setter
+    @Getter
+    public static class Leases {
+
+        /**
+         * Splits processing across instances by leased logical partitions instead of every instance claiming from all.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Identifies this instance in the lease tables; a random id when empty.
+         */
+        private String nodeId = "";
+
+        private Duration heartbeatInterval = Duration.ofSeconds(2);
+
+        /**
+         * How long a lease and a node heartbeat stay valid without renewal; a node silent this long is rebalanced away.
+         */
+        private Duration leaseDuration = Duration.ofSeconds(10);
+    }
+
+    @Setter
+    @Getter
+    public static class Delivery {
+
+        private boolean enabled = false;
+
+        /**
+         * Requests in flight per subscriber host.
+         */
+        private int maxConcurrencyPerDestination = 4;
+
+        /**
+         * How long a delivery waits for a free slot on its host before failing and being retried later.
+         */
+        private Duration acquireTimeout = Duration.ofMillis(100);
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration requestTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Consecutive failures that open a destination's circuit.
+         */
+        private int failureThreshold = 5;
+
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+
+    @Setter
+    @Getter
+    public static class Admin {
+
+        /**
+         * Exposes the unauthenticated {@code /admin/events} read endpoints; keep them off public networks.
+         */
+        private boolean enabled = false;
+
+        private int defaultPageSize = 100;
+
+        private int maxPageSize = 1_000;
+
+        /**
+         * Rows fetched per round trip while an export streams.
+         */
+        private int exportFetchSize = 1_000;
+
+        private BulkImport bulkImport = new BulkImport();
+
+        private DeadLetterReplay deadLetterReplay = new DeadLetterReplay();
+    }
+
+    @Setter
+    @Getter
+    public static class BulkImport {
+
+        /**
+         * NDJSON files named in {@code POST /admin/imports} are resolved in this directory and may not leave it.
+         */
+        private Path directory = Path.of("data/import");
+
+        /**
+         * Events parsed, and loaded in one transaction, together.
+         */
+        private int chunkSize = 5_000;
+
+        /**
+         * Threads parsing chunks while the previous ones load.
+         */
+        private int parseThreads = 2;
+
+        private Duration progressInterval = Duration.ofSeconds(10);
+
+        /**
+         * How long a finished import stays readable at {@code /admin/imports/{id}}.
+         */
+        private Duration jobRetention = Duration.ofHours(1);
+    }
+
+    @Setter
+    @Getter
+    public static class DeadLetterReplay {
+
+        /**
+         * Dead letters read per query while a replay streams its selection.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Ceiling on events requeued per second by all replays together; a request may ask for less, never more.
+         */
+        private double maxRate = 100;
+
+        private Duration progressInterval = Duration.ofSeconds(10);
+
+        /**
+         * How long a finished replay stays readable at {@code /admin/dead-letters/replays/{id}}.
+         */
+        private Duration jobRetention = Duration.ofHours(1);
+    }
+
+    @Setter
+    @Getter
+    public static class Admission {
+
+        /**
+         * Sheds over-budget webhook requests with 429 before their body is read.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Adapts each source's concurrency limit to insert latency (AIMD); otherwise the limit stays at
+         * the source's {@code max-concurrent}.
+         */
+        private boolean adaptive = true;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        /**
+         * Insert latency above which a source's limit is cut by {@code backoff-ratio}; below it the
+         * limit grows by one per limit's worth of requests.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(250);
+
+        private double backoffRatio = 0.9;
+    }
 }
@@ -0,0 +1,53 @@
+package com.mariaribeiro.webhookprocessor.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the application's background threads and executors, following the execution mode
+ * selected with {@code spring.threads.virtual.enabled}: virtual threads when it is on, named
+ * daemon platform threads otherwise.
+ */
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    public WorkerThreads(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public boolean virtual() {
+        return virtual;
+    }
+
+    public Thread newThread(String name, Runnable task) {
+        return virtual
+                ? Thread.ofVirtual().name(name).unstarted(task)
+                : Thread.ofPlatform().name(name).daemon(true).unstarted(task);
+    }
+
+    /**
+     * Executor running at most {@code concurrency} tasks at once; with virtual threads the pooled
+     * threads are virtual, so the bound is kept while blocked tasks release their carriers.
+     */
+    public ExecutorService newBoundedExecutor(String namePrefix, int concurrency) {
+        return Executors.newFixedThreadPool(concurrency, factory(namePrefix));
+    }
+
+    /**
+     * Executor without a bound, for callers that limit concurrency themselves. Only the virtual mode
+     * starts a thread per task; the platform mode reuses cached threads.
+     */
+    public ExecutorService newUnboundedExecutor(String namePrefix) {
+        return virtual
+                ? Executors.newThreadPerTaskExecutor(factory(namePrefix))
+                : Executors.newCachedThreadPool(factory(namePrefix));
+    }
+
+    private ThreadFactory factory(String namePrefix) {
+        return virtual
+                ? Thread.ofVirtual().name(namePrefix, 0).factory()
+                : Thread.ofPlatform().name(namePrefix, 0).daemon(true).factory();
+    }
+}
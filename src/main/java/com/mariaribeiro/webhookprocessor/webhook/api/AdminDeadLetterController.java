@@ -0,0 +1,81 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.DeadLetterPageResponse;
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.ReplayJobResponse;
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.ReplayRequest;
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.WebhookDtoMapper;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.DeadLetterService;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.ReplayJob;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterQuery;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * The dead-letter quarantine, filtered by source, reason, {@code [from, to)} on dead-lettering time
+ * and a substring of the last error. {@code GET /admin/dead-letters} pages like {@code /admin/events};
+ * {@code POST /admin/dead-letters/replays} starts requeueing the matches at a bounded rate and answers
+ * 202 at once; {@code GET /admin/dead-letters/replays/{id}} reports its progress.
+ */
+@RestController
+@RequestMapping("/admin/dead-letters")
+@ConditionalOnProperty(prefix = "webhook.admin", name = "enabled", havingValue = "true")
+public class AdminDeadLetterController {
+
+    private final DeadLetterService deadLetterService;
+
+    public AdminDeadLetterController(DeadLetterService deadLetterService) {
+        this.deadLetterService = deadLetterService;
+    }
+
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeadLetterPageResponse> list(@RequestParam(required = false) String source,
+                                                       @RequestParam(required = false) DeadLetterReason reason,
+                                                       @RequestParam(required = false) Instant from,
+                                                       @RequestParam(required = false) Instant to,
+                                                       @RequestParam(required = false) String error,
+                                                       @RequestParam(required = false) String after,
+                                                       @RequestParam(required = false) Integer limit) {
+        DeadLetterCursor cursor = null;
+        if (after != null) {
+            cursor = WebhookDtoMapper.fromDeadLetterCursorToken(after);
+            if (cursor == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        DeadLetterQuery query = new DeadLetterQuery(source, reason, from, to, error);
+        return ResponseEntity.ok(WebhookDtoMapper.toDeadLetterPageResponse(deadLetterService.page(query, cursor, limit)));
+    }
+
+    @PostMapping(value = "/replays", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<ReplayJobResponse> replay(@RequestBody ReplayRequest request) {
+        if (request.maxRate() != null && !(request.maxRate() > 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        DeadLetterQuery query = new DeadLetterQuery(request.source(), request.reason(), request.from(), request.to(), request.error());
+        ReplayJob job = deadLetterService.startReplay(query, request.maxRate());
+        return ResponseEntity.accepted()
+                .location(URI.create("/admin/dead-letters/replays/" + job.id()))
+                .body(WebhookDtoMapper.toReplayJobResponse(job));
+    }
+
+    @GetMapping(value = "/replays/{id}", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<ReplayJobResponse> get(@PathVariable UUID id) {
+        ReplayJob job = deadLetterService.findReplay(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(WebhookDtoMapper.toReplayJobResponse(job));
+    }
+}
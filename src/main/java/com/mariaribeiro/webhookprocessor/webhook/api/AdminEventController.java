@@ -0,0 +1,83 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.AdminEventPageResponse;
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.WebhookDtoMapper;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.EventQueryService;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventQuery;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+import static com.mariaribeiro.webhookprocessor.webhook.api.WebhookBatchController.NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Triage reads over stored events, filtered by source, status and {@code [from, to)} on received time.
+ * {@code GET /admin/events} pages with an opaque {@code after} cursor; {@code GET /admin/events/export}
+ * streams every match as NDJSON. Payloads are left out unless {@code includePayload=true}.
+ */
+@RestController
+@RequestMapping("/admin/events")
+@ConditionalOnProperty(prefix = "webhook.admin", name = "enabled", havingValue = "true")
+public class AdminEventController {
+
+    private final EventQueryService queryService;
+    private final ObjectMapper objectMapper;
+
+    public AdminEventController(EventQueryService queryService, ObjectMapper objectMapper) {
+        this.queryService = queryService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<AdminEventPageResponse> list(@RequestParam(required = false) String source,
+                                                       @RequestParam(required = false) EventStatus status,
+                                                       @RequestParam(required = false) Instant from,
+                                                       @RequestParam(required = false) Instant to,
+                                                       @RequestParam(required = false) String after,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(defaultValue = "false") boolean includePayload) {
+        EventCursor cursor = null;
+        if (after != null) {
+            cursor = WebhookDtoMapper.fromCursorToken(after);
+            if (cursor == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        EventQuery query = new EventQuery(source, status, from, to, includePayload);
+        return ResponseEntity.ok(WebhookDtoMapper.toAdminPageResponse(queryService.page(query, cursor, limit)));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void export(@RequestParam(required = false) String source,
+                       @RequestParam(required = false) EventStatus status,
+                       @RequestParam(required = false) Instant from,
+                       @RequestParam(required = false) Instant to,
+                       @RequestParam(defaultValue = "false") boolean includePayload,
+                       HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+        queryService.export(new EventQuery(source, status, from, to, includePayload), event -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(WebhookDtoMapper.toAdminResponse(event)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+}
@@ -0,0 +1,59 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.ImportJobResponse;
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.ImportRequest;
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.WebhookDtoMapper;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.EventImportService;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.ImportJob;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Backfills from archives on the server's disk. {@code POST /admin/imports} starts an import of files
+ * in {@code webhook.admin.bulk-import.directory} and answers 202 at once; {@code GET /admin/imports/{id}}
+ * reports its progress.
+ */
+@RestController
+@RequestMapping("/admin/imports")
+@ConditionalOnProperty(prefix = "webhook.admin", name = "enabled", havingValue = "true")
+public class AdminImportController {
+
+    private final EventImportService importService;
+    private final ArchivedEventParser parser;
+
+    public AdminImportController(EventImportService importService, ArchivedEventParser parser) {
+        this.importService = importService;
+        this.parser = parser;
+    }
+
+    @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobResponse> start(@RequestBody ImportRequest request) {
+        List<Path> files = importService.resolve(request.files());
+        if (files == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        ImportJob job = importService.start(files, parser::parse);
+        return ResponseEntity.accepted()
+                .location(URI.create("/admin/imports/" + job.id()))
+                .body(WebhookDtoMapper.toImportJobResponse(job));
+    }
+
+    @GetMapping(value = "/{id}", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobResponse> get(@PathVariable UUID id) {
+        ImportJob job = importService.find(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(WebhookDtoMapper.toImportJobResponse(job));
+    }
+}
@@ -0,0 +1,94 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reads one line of an archive in the shape written by {@code GET /admin/events/export?includePayload=true}.
+ * Only {@code source}, {@code eventKey} and {@code payload} are required; a missing id, status or
+ * received time becomes a fresh id, {@code RECEIVED} and now. Like {@link EnvelopeExtractor}, the
+ * payload is kept as the exact bytes of the line rather than re-serialized.
+ */
+@Component
+public class ArchivedEventParser {
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    public ArchivedEventParser(ObjectMapper objectMapper, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns {@code null} when the line is not a JSON object, a field has the wrong type or format,
+     * or a required field is missing or too long for its column.
+     */
+    public WebhookEvent parse(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        UUID id = null;
+        String source = null;
+        String eventKey = null;
+        EventStatus status = null;
+        Instant receivedAt = null;
+        Instant processedAt = null;
+        String payload = null;
+        try (JsonParser parser = objectMapper.createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (name) {
+                    case "id" -> id = token == JsonToken.VALUE_NULL ? null : UUID.fromString(text(parser, token));
+                    case "source" -> source = text(parser, token);
+                    case "eventKey" -> eventKey = text(parser, token);
+                    case "status" -> status = token == JsonToken.VALUE_NULL ? null : EventStatus.valueOf(text(parser, token));
+                    case "receivedAt" -> receivedAt = token == JsonToken.VALUE_NULL ? null : Instant.parse(text(parser, token));
+                    case "processedAt" -> processedAt = token == JsonToken.VALUE_NULL ? null : Instant.parse(text(parser, token));
+                    case "payload" -> {
+                        long start = parser.currentTokenLocation().getByteOffset();
+                        parser.skipChildren();
+                        if (token.isScalarValue()) {
+                            parser.finishToken();
+                        }
+                        long end = parser.currentLocation().getByteOffset();
+                        payload = new String(bytes, (int) start, (int) (end - start), StandardCharsets.UTF_8);
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return null;
+            }
+        } catch (JacksonException | IllegalArgumentException e) {
+            return null;
+        }
+        if (source == null || source.isBlank() || source.length() > WebhookEvent.MAX_SOURCE_LENGTH
+                || eventKey == null || eventKey.isBlank() || eventKey.length() > WebhookEvent.MAX_EVENT_KEY_LENGTH
+                || payload == null) {
+            return null;
+        }
+        return new WebhookEvent(id == null ? UUID.randomUUID() : id, source, eventKey, payload,
+                status == null ? EventStatus.RECEIVED : status,
+                receivedAt == null ? Instant.now(clock) : receivedAt, processedAt);
+    }
+
+    private static String text(JsonParser parser, JsonToken token) {
+        if (token != JsonToken.VALUE_STRING) {
+            throw new IllegalArgumentException("Expected a string, got " + token);
+        }
+        return parser.getString();
+    }
+}
@@ -0,0 +1,140 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the event key and payload location from a request body in one streaming pass. Subtrees off
+ * the configured paths are skipped token by token, so no tree is built and the payload is never
+ * re-serialized: what gets stored is the exact byte range the sender signed.
+ */
+@Component
+public class EnvelopeExtractor {
+
+    private final ObjectMapper objectMapper;
+    private final Paths defaultPaths;
+    private final Map<String, Paths> pathsBySource;
+
+    public EnvelopeExtractor(ObjectMapper objectMapper, WebhookProperties webhookProperties) {
+        this.objectMapper = objectMapper;
+        this.defaultPaths = Paths.of(new WebhookProperties.Envelope());
+        Map<String, Paths> bySource = new HashMap<>();
+        webhookProperties.getSources().forEach((source, options) -> bySource.put(source, Paths.of(options.getEnvelope())));
+        this.pathsBySource = Map.copyOf(bySource);
+    }
+
+    /**
+     * Returns {@code null} when the body is not a JSON object, is malformed, or lacks a scalar event key
+     * or a payload at the source's paths.
+     */
+    public WebhookEnvelope extract(String source, byte[] body, int offset, int length) {
+        Paths paths = pathsBySource.getOrDefault(source, defaultPaths);
+        Match match = new Match();
+        try (JsonParser parser = objectMapper.createParser(body, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            long start = parser.currentTokenLocation().getByteOffset();
+            readObject(parser, paths, 0, true, paths.payload().length > 0, match);
+            if (paths.payload().length == 0) {
+                match.payload(start, parser.currentLocation().getByteOffset());
+            }
+        } catch (JacksonException e) {
+            return null;
+        }
+        if (match.eventKey == null || match.eventKey.isBlank() || match.payloadStart < 0) {
+            return null;
+        }
+        return new WebhookEnvelope(match.eventKey, offset + (int) match.payloadStart, (int) (match.payloadEnd - match.payloadStart));
+    }
+
+    /**
+     * Walks the object whose START_OBJECT is the current token, through its END_OBJECT, unless the
+     * root level has found everything it needs.
+     */
+    private static void readObject(JsonParser parser, Paths paths, int depth, boolean onKey, boolean onPayload, Match match) {
+        String[] keyPath = paths.eventKey();
+        String[] payloadPath = paths.payload();
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            boolean key = onKey && match.eventKey == null && depth < keyPath.length && keyPath[depth].equals(name);
+            boolean payload = onPayload && depth < payloadPath.length && payloadPath[depth].equals(name);
+
+            if (key && depth == keyPath.length - 1) {
+                if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                    match.eventKey = parser.getValueAsString();
+                }
+                key = false;
+            }
+
+            if (payload && depth == payloadPath.length - 1) {
+                long start = parser.currentTokenLocation().getByteOffset();
+                descendOrSkip(parser, paths, depth, token, key, false, match);
+                if (token.isScalarValue()) {
+                    // strings are read lazily; finishing moves the location past the closing quote
+                    parser.finishToken();
+                }
+                match.payload(start, parser.currentLocation().getByteOffset());
+            } else {
+                descendOrSkip(parser, paths, depth, token, key, payload, match);
+            }
+
+            if (depth == 0 && match.eventKey != null && match.payloadStart >= 0) {
+                return;
+            }
+        }
+    }
+
+    private static void descendOrSkip(JsonParser parser, Paths paths, int depth, JsonToken token,
+                                      boolean onKey, boolean onPayload, Match match) {
+        if ((onKey || onPayload) && token == JsonToken.START_OBJECT) {
+            readObject(parser, paths, depth + 1, onKey, onPayload, match);
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private record Paths(String[] eventKey, String[] payload) {
+
+        static Paths of(WebhookProperties.Envelope envelope) {
+            String[] eventKey = parse(envelope.getEventKeyPath());
+            if (eventKey.length == 0) {
+                throw new IllegalArgumentException("Event key path must name a field: " + envelope.getEventKeyPath());
+            }
+            return new Paths(eventKey, parse(envelope.getPayloadPath()));
+        }
+
+        private static String[] parse(String path) {
+            if (path == null || !path.startsWith("$")) {
+                throw new IllegalArgumentException("Envelope path must start with '$': " + path);
+            }
+            if (path.equals("$")) {
+                return new String[0];
+            }
+            if (!path.startsWith("$.") || path.endsWith(".") || path.contains("..") || path.contains("[")) {
+                throw new IllegalArgumentException("Unsupported envelope path: " + path);
+            }
+            return path.substring(2).split("\\.");
+        }
+    }
+
+    private static final class Match {
+
+        String eventKey;
+        long payloadStart = -1;
+        long payloadEnd = -1;
+
+        void payload(long start, long end) {
+            payloadStart = start;
+            payloadEnd = end;
+        }
+    }
+}
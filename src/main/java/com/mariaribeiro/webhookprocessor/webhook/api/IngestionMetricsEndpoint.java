@@ -0,0 +1,111 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.application.service.IngestionMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/webhooks}: live per-source latency of ingestion requests by outcome and by stage,
+ * next to each Hikari pool's connection acquire time, so a rising insert stage can be told apart
+ * from waiting on the pool. {@code /actuator/webhooks/{source}} narrows to one source.
+ */
+@Component
+@Endpoint(id = "webhooks")
+public class IngestionMetricsEndpoint {
+
+    private final IngestionMetrics metrics;
+    private final MeterRegistry meterRegistry;
+
+    public IngestionMetricsEndpoint(IngestionMetrics metrics, MeterRegistry meterRegistry) {
+        this.metrics = metrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Breakdown breakdown() {
+        Map<String, SourceBreakdown> sources = new TreeMap<>();
+        metrics.timers().forEach((source, timers) -> sources.put(source, breakdown(timers)));
+        return new Breakdown(sources, pools());
+    }
+
+    @ReadOperation
+    public SourceBreakdown source(@Selector String source) {
+        IngestionMetrics.SourceTimers timers = metrics.timers().get(source);
+        return timers == null ? null : breakdown(timers);
+    }
+
+    private static SourceBreakdown breakdown(IngestionMetrics.SourceTimers timers) {
+        Map<String, TimerStats> requests = new LinkedHashMap<>();
+        timers.requests().forEach((outcome, timer) -> {
+            if (timer.count() > 0) {
+                requests.put(outcome.tag(), TimerStats.of(timer));
+            }
+        });
+        Map<String, TimerStats> stages = new LinkedHashMap<>();
+        timers.stages().forEach((stage, timer) -> {
+            if (timer.count() > 0) {
+                stages.put(stage.tag(), TimerStats.of(timer));
+            }
+        });
+        return new SourceBreakdown(requests, stages);
+    }
+
+    private Map<String, PoolBreakdown> pools() {
+        Map<String, PoolBreakdown> pools = new TreeMap<>();
+        for (Timer acquire : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            String pool = acquire.getId().getTag("pool");
+            pools.put(pool, new PoolBreakdown(TimerStats.of(acquire),
+                    gauge("hikaricp.connections.pending", pool),
+                    gauge("hikaricp.connections.active", pool),
+                    gauge("hikaricp.connections.idle", pool),
+                    gauge("hikaricp.connections.max", pool)));
+        }
+        return pools;
+    }
+
+    private Double gauge(String name, String pool) {
+        Gauge gauge = meterRegistry.find(name).tag("pool", pool).gauge();
+        return gauge == null ? null : gauge.value();
+    }
+
+    public record Breakdown(Map<String, SourceBreakdown> sources, Map<String, PoolBreakdown> pools) {
+    }
+
+    public record SourceBreakdown(Map<String, TimerStats> requests, Map<String, TimerStats> stages) {
+    }
+
+    public record PoolBreakdown(TimerStats acquire, Double pending, Double active, Double idle, Double max) {
+    }
+
+    /**
+     * Durations in milliseconds. Percentiles are decaying client-side estimates, present only for
+     * timers that publish them (ours do; Hikari's when configured under
+     * {@code management.metrics.distribution.percentiles}).
+     */
+    public record TimerStats(long count, double meanMs, double maxMs, Map<String, Double> percentilesMs) {
+
+        static TimerStats of(Timer timer) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                String label = BigDecimal.valueOf(value.percentile()).movePointRight(2).stripTrailingZeros().toPlainString();
+                percentiles.put("p" + label, value.value(TimeUnit.MILLISECONDS));
+            }
+            return new TimerStats(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.BatchItemResponse;
+import com.mariaribeiro.webhookprocessor.webhook.api.dto.WebhookDtoMapper;
+import com.mariaribeiro.webhookprocessor.webhook.api.security.CapturedBody;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.BatchItem;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.BatchItemResult;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.WebhookIngestionService;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.VerificationResult;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code POST /webhooks/{source}/batch}: newline-delimited envelopes signed once over the whole
+ * body. Lines are parsed in place from the captured buffer and ingested chunk by chunk; each
+ * chunk's results are written and flushed as NDJSON before the next chunk is parsed. The status is
+ * committed with the first chunk, so a chunk that fails to store answers {@code error} on each of its
+ * lines instead, and the following chunks are still ingested.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/webhooks")
+public class WebhookBatchController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final WebhookIngestionService ingestionService;
+    private final EnvelopeExtractor envelopeExtractor;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public WebhookBatchController(WebhookIngestionService ingestionService, EnvelopeExtractor envelopeExtractor,
+                                  ObjectMapper objectMapper, WebhookProperties webhookProperties) {
+        this.ingestionService = ingestionService;
+        this.envelopeExtractor = envelopeExtractor;
+        this.objectMapper = objectMapper;
+        this.chunkSize = webhookProperties.getIngestion().getBatchChunkSize();
+    }
+
+    @PostMapping(value = "/{source}/batch", consumes = NDJSON)
+    public void ingestBatch(@PathVariable String source,
+                            @RequestAttribute(CapturedBody.ATTRIBUTE) CapturedBody body,
+                            HttpServletResponse response) throws IOException {
+        if (!body.sourceKnown()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (body.verification() != VerificationResult.VERIFIED) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+
+        byte[] buffer = body.buffer();
+        Chunk chunk = new Chunk(chunkSize);
+        int lineNumber = 0;
+        int start = 0;
+        while (start < body.length()) {
+            int end = indexOf(buffer, (byte) '\n', start, body.length());
+            int next = end + 1;
+            if (end > start && buffer[end - 1] == '\r') {
+                end--;
+            }
+            lineNumber++;
+            if (!isBlank(buffer, start, end)) {
+                WebhookEnvelope envelope = envelopeExtractor.extract(source, buffer, start, end - start);
+                if (envelope == null || envelope.eventKey().isBlank()
+                        || envelope.eventKey().length() > WebhookEvent.MAX_EVENT_KEY_LENGTH) {
+                    chunk.invalid(lineNumber);
+                } else {
+                    chunk.add(lineNumber, new BatchItem(envelope.eventKey(), envelope.payload(buffer)));
+                }
+                if (chunk.size() == chunkSize) {
+                    flush(source, chunk, out);
+                }
+            }
+            start = next;
+        }
+        flush(source, chunk, out);
+    }
+
+    private void flush(String source, Chunk chunk, OutputStream out) throws IOException {
+        if (chunk.size() == 0) {
+            return;
+        }
+        List<BatchItemResult> results = null;
+        if (!chunk.items.isEmpty()) {
+            try {
+                results = ingestionService.ingestAll(source, chunk.items);
+            } catch (RuntimeException e) {
+                log.warn("Ingesting a chunk of {} events from {} failed", chunk.items.size(), source, e);
+            }
+        }
+        int next = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            BatchItemResponse line;
+            if (!chunk.valid.get(i)) {
+                line = new BatchItemResponse(chunk.lines.get(i), null, BatchItemResponse.INVALID, null);
+            } else if (results == null) {
+                line = new BatchItemResponse(chunk.lines.get(i), chunk.items.get(next++).eventKey(), BatchItemResponse.ERROR, null);
+            } else {
+                line = WebhookDtoMapper.toBatchItemResponse(chunk.lines.get(i), results.get(next++));
+            }
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+        }
+        out.flush();
+        chunk.clear();
+    }
+
+    private static int indexOf(byte[] buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == value) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static boolean isBlank(byte[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] != ' ' && buffer[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lines of the current chunk in body order; only the valid ones are sent to the service.
+     */
+    private static final class Chunk {
+
+        final List<Integer> lines;
+        final List<Boolean> valid;
+        final List<BatchItem> items;
+
+        Chunk(int capacity) {
+            this.lines = new ArrayList<>(capacity);
+            this.valid = new ArrayList<>(capacity);
+            this.items = new ArrayList<>(capacity);
+        }
+
+        void add(int line, BatchItem item) {
+            lines.add(line);
+            valid.add(true);
+            items.add(item);
+        }
+
+        void invalid(int line) {
+            lines.add(line);
+            valid.add(false);
+        }
+
+        int size() {
+            return lines.size();
+        }
+
+        void clear() {
+            lines.clear();
+            valid.clear();
+            items.clear();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Event key and the location of the payload inside the raw request body.
+ */
+public record WebhookEnvelope(String eventKey, int payloadOffset, int payloadLength) {
+
+    /**
+     * The payload exactly as the sender wrote it.
+     */
+    public String payload(byte[] body) {
+        return new String(body, payloadOffset, payloadLength, StandardCharsets.UTF_8);
+    }
+}
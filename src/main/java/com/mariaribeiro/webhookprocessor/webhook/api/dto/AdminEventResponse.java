@@ -0,0 +1,22 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An event as listed by the admin endpoints; {@code payload} is the stored JSON, present only when requested.
+ */
+public record AdminEventResponse(
+        UUID id,
+        String source,
+        String eventKey,
+        EventStatus status,
+        Instant receivedAt,
+        Instant processedAt,
+        @JsonRawValue @JsonInclude(JsonInclude.Include.NON_NULL) String payload
+) {
+}
@@ -0,0 +1,20 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import java.util.UUID;
+
+/**
+ * One NDJSON result line of a batch; {@code line} is the 1-based line in the request body.
+ */
+public record BatchItemResponse(
+        int line,
+        String eventKey,
+        String status,
+        UUID id
+) {
+
+    public static final String CREATED = "created";
+    public static final String DUPLICATE = "duplicate";
+    public static final String INVALID = "invalid";
+    /** The line was valid but its chunk could not be stored; it is safe to send again. */
+    public static final String ERROR = "error";
+}
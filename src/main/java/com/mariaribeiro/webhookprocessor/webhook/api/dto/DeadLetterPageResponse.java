@@ -0,0 +1,12 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import java.util.List;
+
+/**
+ * {@code next} is passed back as {@code after} to read the following page; null on the last page.
+ */
+public record DeadLetterPageResponse(
+        List<DeadLetterResponse> deadLetters,
+        String next
+) {
+}
@@ -0,0 +1,18 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record DeadLetterResponse(
+        UUID eventId,
+        String source,
+        String eventKey,
+        Instant receivedAt,
+        Instant deadLetteredAt,
+        DeadLetterReason reason,
+        String lastError,
+        int attemptCount
+) {
+}
@@ -0,0 +1,24 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.ImportJob;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of an import; {@code eventsPerSecond} counts valid events loaded, duplicates included.
+ */
+public record ImportJobResponse(
+        UUID id,
+        ImportJob.State state,
+        long lines,
+        long stored,
+        long duplicates,
+        long invalid,
+        double eventsPerSecond,
+        Instant startedAt,
+        Instant finishedAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String error
+) {
+}
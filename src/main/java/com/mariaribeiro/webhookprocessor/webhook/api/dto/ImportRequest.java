@@ -0,0 +1,11 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import java.util.List;
+
+/**
+ * NDJSON files to import, relative to the configured import directory.
+ */
+public record ImportRequest(
+        List<String> files
+) {
+}
@@ -0,0 +1,24 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.ReplayJob;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a replay; {@code skipped} counts dead letters whose event was no longer dead-lettered or stored.
+ */
+public record ReplayJobResponse(
+        UUID id,
+        ReplayJob.State state,
+        double maxRate,
+        long selected,
+        long requeued,
+        long skipped,
+        double eventsPerSecond,
+        Instant startedAt,
+        Instant finishedAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String error
+) {
+}
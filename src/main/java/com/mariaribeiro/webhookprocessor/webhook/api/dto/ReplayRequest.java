@@ -0,0 +1,19 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.dto;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+
+import java.time.Instant;
+
+/**
+ * Dead letters to replay, with the filters of {@code GET /admin/dead-letters}; absent fields match
+ * everything. {@code maxRate} lowers the configured ceiling in events per second for this replay.
+ */
+public record ReplayRequest(
+        String source,
+        DeadLetterReason reason,
+        Instant from,
+        Instant to,
+        String error,
+        Double maxRate
+) {
+}
@@ -1,6 +1,19 @@
 package com.mariaribeiro.webhookprocessor.webhook.api.dto;
 
+import com.mariaribeiro.webhookprocessor.webhook.application.service.BatchItemResult;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.ImportJob;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.ReplayJob;
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetter;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterPage;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventPage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
 
 public final class WebhookDtoMapper {
 
@@ -15,4 +28,128 @@ public final class WebhookDtoMapper {
                 webhookEvent.processedAt()
         );
     }
+
+    public static BatchItemResponse toBatchItemResponse(int line, BatchItemResult result) {
+        return new BatchItemResponse(
+                line,
+                result.eventKey(),
+                result.created() ? BatchItemResponse.CREATED : BatchItemResponse.DUPLICATE,
+                result.eventId()
+        );
+    }
+
+    public static AdminEventResponse toAdminResponse(WebhookEvent webhookEvent) {
+        return new AdminEventResponse(
+                webhookEvent.id(),
+                webhookEvent.source(),
+                webhookEvent.eventKey(),
+                webhookEvent.status(),
+                webhookEvent.receivedAt(),
+                webhookEvent.processedAt(),
+                webhookEvent.payload()
+        );
+    }
+
+    public static AdminEventPageResponse toAdminPageResponse(EventPage page) {
+        return new AdminEventPageResponse(
+                page.events().stream().map(WebhookDtoMapper::toAdminResponse).toList(),
+                page.next() == null ? null : toCursorToken(page.next())
+        );
+    }
+
+    public static ImportJobResponse toImportJobResponse(ImportJob job) {
+        return new ImportJobResponse(
+                job.id(),
+                job.state(),
+                job.lines(),
+                job.stored(),
+                job.duplicates(),
+                job.invalid(),
+                job.eventsPerSecond(),
+                job.startedAt(),
+                job.finishedAt(),
+                job.error()
+        );
+    }
+
+    public static DeadLetterResponse toDeadLetterResponse(DeadLetter deadLetter) {
+        return new DeadLetterResponse(
+                deadLetter.eventId(),
+                deadLetter.source(),
+                deadLetter.eventKey(),
+                deadLetter.receivedAt(),
+                deadLetter.deadLetteredAt(),
+                deadLetter.reason(),
+                deadLetter.lastError(),
+                deadLetter.attemptCount()
+        );
+    }
+
+    public static DeadLetterPageResponse toDeadLetterPageResponse(DeadLetterPage page) {
+        return new DeadLetterPageResponse(
+                page.deadLetters().stream().map(WebhookDtoMapper::toDeadLetterResponse).toList(),
+                page.next() == null ? null : toCursorToken(page.next().deadLetteredAt(), page.next().eventId())
+        );
+    }
+
+    public static ReplayJobResponse toReplayJobResponse(ReplayJob job) {
+        return new ReplayJobResponse(
+                job.id(),
+                job.state(),
+                job.maxRate(),
+                job.selected(),
+                job.requeued(),
+                job.skipped(),
+                job.eventsPerSecond(),
+                job.startedAt(),
+                job.finishedAt(),
+                job.error()
+        );
+    }
+
+    /**
+     * Opaque form of a cursor for the {@code after} query parameter.
+     */
+    public static String toCursorToken(EventCursor cursor) {
+        return toCursorToken(cursor.receivedAt(), cursor.id());
+    }
+
+    /**
+     * The cursor of a token from {@link #toCursorToken(EventCursor)}, or null if it is not one.
+     */
+    public static EventCursor fromCursorToken(String token) {
+        String[] parts = splitCursorToken(token);
+        try {
+            return parts == null ? null : new EventCursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The dead-letter cursor of a {@code next} token from {@link #toDeadLetterPageResponse(DeadLetterPage)}, or null if it is not one.
+     */
+    public static DeadLetterCursor fromDeadLetterCursorToken(String token) {
+        String[] parts = splitCursorToken(token);
+        try {
+            return parts == null ? null : new DeadLetterCursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String toCursorToken(Instant at, UUID id) {
+        String plain = at + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] splitCursorToken(String token) {
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = plain.indexOf('|');
+            return separator < 0 ? null : new String[]{plain.substring(0, separator), plain.substring(separator + 1)};
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.security;
+
+import com.mariaribeiro.webhookprocessor.webhook.application.admission.AdmissionControl;
+import com.mariaribeiro.webhookprocessor.webhook.application.admission.Permit;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.IngestionMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs ahead of {@link RawBodyCaptureFilter}: a webhook request its source has no budget for is
+ * answered 429 with {@code Retry-After} before the body is read or any HMAC work starts.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+    private final IngestionMetrics metrics;
+
+    public AdmissionControlFilter(AdmissionControl admissionControl, IngestionMetrics metrics) {
+        this.admissionControl = admissionControl;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !request.getRequestURI().startsWith(RawBodyCaptureFilter.PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        String source = RawBodyCaptureFilter.sourceOf(request.getRequestURI());
+        Permit permit = admissionControl.tryAdmit(source);
+        if (!permit.admitted()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(permit.retryAfterSeconds()));
+            if (!RawBodyCaptureFilter.isBatch(request.getRequestURI())) {
+                metrics.request(source, IngestionMetrics.Outcome.THROTTLED, System.nanoTime() - start);
+            }
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permit.release();
+        }
+    }
+}
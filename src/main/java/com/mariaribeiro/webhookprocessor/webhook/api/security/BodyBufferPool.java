@@ -0,0 +1,69 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.security;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free pool of request body buffers in power-of-two size classes, from 4 KiB up to the
+ * class holding the largest accepted body. Acquiring from an empty class allocates; releasing
+ * into a full class drops the buffer.
+ */
+public class BodyBufferPool {
+
+    private static final int MIN_SHIFT = 12;
+    private static final int SLOTS_PER_CLASS = 32;
+
+    private final AtomicReferenceArray<byte[]>[] classes;
+
+    @SuppressWarnings("unchecked")
+    public BodyBufferPool(int maxBufferSize) {
+        int classCount = shiftFor(maxBufferSize) - MIN_SHIFT + 1;
+        this.classes = new AtomicReferenceArray[classCount];
+        for (int i = 0; i < classCount; i++) {
+            classes[i] = new AtomicReferenceArray<>(SLOTS_PER_CLASS);
+        }
+    }
+
+    /**
+     * A buffer of at least {@code minCapacity} bytes; its contents are undefined.
+     */
+    public byte[] acquire(int minCapacity) {
+        int shift = shiftFor(minCapacity);
+        int index = shift - MIN_SHIFT;
+        if (index >= classes.length) {
+            throw new IllegalArgumentException("Buffer of " + minCapacity + " bytes exceeds the pool limit");
+        }
+        AtomicReferenceArray<byte[]> slots = classes[index];
+        int start = startIndex();
+        for (int i = 0; i < SLOTS_PER_CLASS; i++) {
+            byte[] buffer = slots.getAndSet((start + i) % SLOTS_PER_CLASS, null);
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return new byte[1 << shift];
+    }
+
+    public void release(byte[] buffer) {
+        int index = Integer.numberOfTrailingZeros(buffer.length) - MIN_SHIFT;
+        if (Integer.bitCount(buffer.length) != 1 || index < 0 || index >= classes.length) {
+            return;
+        }
+        AtomicReferenceArray<byte[]> slots = classes[index];
+        int start = startIndex();
+        for (int i = 0; i < SLOTS_PER_CLASS; i++) {
+            int idx = (start + i) % SLOTS_PER_CLASS;
+            if (slots.get(idx) == null && slots.compareAndSet(idx, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    private static int shiftFor(int capacity) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+        return Math.max(shift, MIN_SHIFT);
+    }
+
+    private static int startIndex() {
+        return (int) (Thread.currentThread().threadId() % SLOTS_PER_CLASS);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.security;
+
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.VerificationResult;
+
+/**
+ * Webhook body as read by {@link RawBodyCaptureFilter}, with the signature outcome computed while
+ * reading. {@code buffer} is pooled: only the first {@code length} bytes are the body, and it is
+ * reused once the request completes. {@code verification} is {@code null} for unknown sources.
+ */
+public record CapturedBody(byte[] buffer, int length, VerificationResult verification) {
+
+    public static final String ATTRIBUTE = "webhook.capturedBody";
+
+    public boolean sourceKnown() {
+        return verification != null;
+    }
+}
@@ -1,30 +1,202 @@
 package com.mariaribeiro.webhookprocessor.webhook.api.security;
 
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.IngestionMetrics;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.SignatureCheck;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.SignatureVerifierRegistry;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.SourceVerifier;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.VerificationResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.atomic.LongAdder;
 
-@RequiredArgsConstructor
+/**
+ * Reads webhook bodies once, into a pooled buffer sized from {@code Content-Length}, and feeds each
+ * chunk to the source's HMAC as it arrives. The controller receives a {@link CapturedBody} whose
+ * signature is already checked. Bodies above {@code webhook.ingestion.max-body-size} get 413, before
+ * reading when the length is declared ({@code max-batch-body-size} for batch requests). Single-event
+ * requests are timed here end to end, with the outcome taken from the response status.
+ * <p>
+ * A request whose source, signature and timestamp headers match one accepted within the replay
+ * window is answered 202 with {@code {"replayed":true}} once its headers pass, without reading the
+ * body or touching the database; see {@link SignatureReplayCache}. The cache holds fingerprints only,
+ * so it cannot rebuild the stored event for the usual duplicate response.
+ */
 @Component
 public class RawBodyCaptureFilter extends OncePerRequestFilter {
 
+    private static final long REPLAY_WINDOW_SECONDS = 300;
+    static final String PATH_PREFIX = "/webhooks/";
+    private static final String BATCH_SUFFIX = "/batch";
+    private static final int UNKNOWN_LENGTH_BUFFER = 8 * 1024;
+    private static final byte[] EMPTY = new byte[0];
+    private static final byte[] REPLAYED_BODY = "{\"replayed\":true}".getBytes(StandardCharsets.US_ASCII);
+
+    private final SignatureVerifierRegistry verifiers;
+    private final Clock clock;
+    private final BodyBufferPool buffers;
+    private final IngestionMetrics metrics;
+    private final SignatureReplayCache replays;
+    private final LongAdder replayHits = new LongAdder();
+    private final int maxBodySize;
+    private final int maxBatchBodySize;
+
+    public RawBodyCaptureFilter(SignatureVerifierRegistry verifiers, Clock clock, WebhookProperties webhookProperties,
+                                IngestionMetrics metrics, MeterRegistry meterRegistry) {
+        this.verifiers = verifiers;
+        this.clock = clock;
+        this.metrics = metrics;
+        this.maxBodySize = Math.toIntExact(webhookProperties.getIngestion().getMaxBodySize().toBytes());
+        this.maxBatchBodySize = Math.toIntExact(webhookProperties.getIngestion().getMaxBatchBodySize().toBytes());
+        this.buffers = new BodyBufferPool(Math.max(maxBodySize, maxBatchBodySize));
+
+        WebhookProperties.ReplayCache replayCache = webhookProperties.getIngestion().getReplayCache();
+        this.replays = replayCache.isEnabled()
+                ? new SignatureReplayCache(REPLAY_WINDOW_SECONDS * 1_000, replayCache.getIntervals(), replayCache.getMaxEntries())
+                : null;
+        if (replays != null) {
+            FunctionCounter.builder("webhook.replay.hits", replayHits, LongAdder::sum).register(meterRegistry);
+            Gauge.builder("webhook.replay.cache.size", replays, SignatureReplayCache::size).register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !request.getRequestURI().startsWith(PATH_PREFIX);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        ContentCachingRequestWrapper wrapped = new ContentCachingRequestWrapper(request, 1024 * 1024);
-        filterChain.doFilter(wrapped, response);
+        if (isBatch(request.getRequestURI())) {
+            capture(request, response, filterChain, maxBatchBodySize);
+            return;
+        }
+
+        long start = System.nanoTime();
+        IngestionMetrics.Outcome outcome = IngestionMetrics.Outcome.ERROR;
+        try {
+            boolean replayed = capture(request, response, filterChain, maxBodySize);
+            outcome = replayed ? IngestionMetrics.Outcome.REPLAYED : IngestionMetrics.Outcome.of(response.getStatus());
+        } finally {
+            metrics.request(sourceOf(request.getRequestURI()), outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns whether the request was answered as a replay.
+     */
+    private boolean capture(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, int limit)
+            throws ServletException, IOException {
+        long declared = request.getContentLengthLong();
+        if (declared > limit) {
+            response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return false;
+        }
 
-        if(request.getRequestURI().startsWith("/webhooks/")) {
-            byte[] buf = wrapped.getContentAsByteArray();
-            String raw = new String(buf, StandardCharsets.UTF_8);
-            request.setAttribute("RAW_BODY", raw);
+        String source = sourceOf(request.getRequestURI());
+        SourceVerifier verifier = verifiers.find(source);
+        if (verifier == null) {
+            request.setAttribute(CapturedBody.ATTRIBUTE, new CapturedBody(EMPTY, 0, null));
+            filterChain.doFilter(request, response);
+            return false;
         }
+
+        String signature = request.getHeader("X-Signature");
+        String timestamp = request.getHeader("X-Timestamp");
+        SignatureCheck check = verifier.begin(signature, timestamp, clock.instant().getEpochSecond(), REPLAY_WINDOW_SECONDS);
+        if (check.failedEarly()) {
+            request.setAttribute(CapturedBody.ATTRIBUTE, new CapturedBody(EMPTY, 0, check.finish(EMPTY, 0, 0)));
+            filterChain.doFilter(request, response);
+            return false;
+        }
+
+        long fingerprint = replays == null ? 0 : SignatureReplayCache.fingerprint(source, signature, timestamp);
+        if (replays != null && replays.seen(fingerprint, clock.instant().toEpochMilli())) {
+            check.abort();
+            replayHits.increment();
+            response.setStatus(HttpServletResponse.SC_ACCEPTED);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(REPLAYED_BODY.length);
+            response.getOutputStream().write(REPLAYED_BODY);
+            return true;
+        }
+
+        byte[] buffer = buffers.acquire(declared >= 0 ? (int) declared : Math.min(UNKNOWN_LENGTH_BUFFER, limit));
+        long hmacNanos = 0;
+        try {
+            int length = 0;
+            InputStream in = request.getInputStream();
+            while (declared < 0 || length < declared) {
+                if (length == Math.min(buffer.length, limit)) {
+                    if (length == limit) {
+                        if (in.read() < 0) {
+                            break;
+                        }
+                        response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                        return false;
+                    }
+                    buffer = grow(buffer, length, limit);
+                }
+                int read = in.read(buffer, length, Math.min(buffer.length, limit) - length);
+                if (read < 0) {
+                    break;
+                }
+                long hmacStart = System.nanoTime();
+                check.update(buffer, length, read);
+                hmacNanos += System.nanoTime() - hmacStart;
+                length += read;
+            }
+
+            long hmacStart = System.nanoTime();
+            VerificationResult verification = check.finish(buffer, 0, length);
+            metrics.stage(source, IngestionMetrics.Stage.HMAC, hmacNanos + System.nanoTime() - hmacStart);
+            request.setAttribute(CapturedBody.ATTRIBUTE, new CapturedBody(buffer, length, verification));
+            filterChain.doFilter(request, response);
+            if (replays != null && verification == VerificationResult.VERIFIED && accepted(response.getStatus())) {
+                replays.remember(fingerprint, clock.instant().toEpochMilli());
+            }
+            return false;
+        } finally {
+            check.abort();
+            request.removeAttribute(CapturedBody.ATTRIBUTE);
+            buffers.release(buffer);
+        }
+    }
+
+    private static boolean accepted(int status) {
+        return status == HttpServletResponse.SC_OK || status == HttpServletResponse.SC_CREATED;
+    }
+
+    private byte[] grow(byte[] buffer, int length, int limit) {
+        byte[] larger = buffers.acquire(Math.min(buffer.length * 2, limit));
+        System.arraycopy(buffer, 0, larger, 0, length);
+        buffers.release(buffer);
+        return larger;
+    }
+
+    /**
+     * True only for {@code /webhooks/{source}/batch}; {@code /webhooks/batch} is a single event of source {@code batch}.
+     */
+    static boolean isBatch(String uri) {
+        int end = uri.indexOf('/', PATH_PREFIX.length());
+        return end > PATH_PREFIX.length() && uri.length() - end == BATCH_SUFFIX.length() && uri.startsWith(BATCH_SUFFIX, end);
+    }
+
+    static String sourceOf(String uri) {
+        int end = uri.indexOf('/', PATH_PREFIX.length());
+        return uri.substring(PATH_PREFIX.length(), end < 0 ? uri.length() : end);
     }
 }
@@ -0,0 +1,140 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fingerprints of recently accepted signatures, kept for at least the replay window. Time is cut
+ * into intervals of {@code window / intervals}; each interval has its own fixed-size open-addressing
+ * set of 64-bit fingerprints, and the ring holds one more interval than the window needs so a
+ * fingerprint is never dropped early. A slot is reused, and cleared, when its interval comes round
+ * again, so expiry costs nothing per entry. A set that reaches its capacity stops remembering until
+ * it rotates: replays it misses just take the normal HMAC and dedupe path, which keeps memory fixed
+ * at any request rate. Lookups and inserts are lock-free; a race with rotation can only cause a miss.
+ */
+final class SignatureReplayCache {
+
+    private static final long EMPTY = 0;
+
+    private final long intervalMillis;
+    private final int capacity;
+    private final Interval[] ring;
+
+    SignatureReplayCache(long windowMillis, int intervals, int maxEntries) {
+        if (intervals < 1 || windowMillis < intervals) {
+            throw new IllegalArgumentException("Need 1 <= intervals <= windowMillis: " + intervals + ", " + windowMillis);
+        }
+        this.intervalMillis = Math.ceilDiv(windowMillis, intervals);
+        this.ring = new Interval[intervals + 1];
+        this.capacity = Math.max(1, maxEntries / ring.length);
+        int slots = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Interval(slots);
+        }
+    }
+
+    boolean seen(long fingerprint, long nowMillis) {
+        long current = nowMillis / intervalMillis;
+        for (Interval interval : ring) {
+            long number = interval.number.get();
+            if (number > current - ring.length && number <= current && interval.contains(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void remember(long fingerprint, long nowMillis) {
+        long current = nowMillis / intervalMillis;
+        Interval interval = ring[(int) Math.floorMod(current, (long) ring.length)];
+        long number = interval.number.get();
+        if (number < current && interval.number.compareAndSet(number, current)) {
+            interval.clear();
+        }
+        if (interval.size.get() < capacity) {
+            interval.add(fingerprint);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Interval interval : ring) {
+            size += interval.size.get();
+        }
+        return size;
+    }
+
+    /**
+     * 64-bit fingerprint of what makes a signed request byte-identical on the wire: the source, the
+     * signature header and the timestamp header (the signature already covers the body). Never 0.
+     */
+    static long fingerprint(String source, String signatureHeader, String timestampHeader) {
+        long h = 0x9E3779B97F4A7C15L;
+        h = mix(h, source);
+        h = mix(h, signatureHeader);
+        h = mix(h, timestampHeader == null ? "" : timestampHeader);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+
+    private static long mix(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return (h ^ value.length()) * 0x100000001B3L;
+    }
+
+    private static final class Interval {
+
+        final AtomicLong number = new AtomicLong(Long.MIN_VALUE);
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicLongArray slots;
+        final int mask;
+
+        Interval(int slots) {
+            this.slots = new AtomicLongArray(slots);
+            this.mask = slots - 1;
+        }
+
+        boolean contains(long fingerprint) {
+            for (int i = (int) fingerprint & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                long slot = slots.get(i);
+                if (slot == fingerprint) {
+                    return true;
+                }
+                if (slot == EMPTY) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        void add(long fingerprint) {
+            for (int i = (int) fingerprint & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                long slot = slots.get(i);
+                if (slot == fingerprint) {
+                    return;
+                }
+                if (slot == EMPTY && slots.compareAndSet(i, EMPTY, fingerprint)) {
+                    size.incrementAndGet();
+                    return;
+                }
+                if (slots.get(i) == fingerprint) {
+                    return;
+                }
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i <= mask; i++) {
+                slots.set(i, EMPTY);
+            }
+            size.set(0);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.admission;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.KnownSources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-source admission for webhook requests: an optional token bucket
+ * ({@code webhook.sources.<name>.rate-limit}) and a concurrency limit that, when adaptive, follows
+ * the source's insert latency. A request over either budget is shed without touching shared
+ * resources, so one source replaying a backlog cannot take the request threads and connections the
+ * others need. Sources without a signing key are not tracked; they are rejected downstream
+ * before any work is done.
+ */
+@Component
+public class AdmissionControl {
+
+    /**
+     * Retry-After for requests shed on concurrency, where there is no refill time to report.
+     */
+    private static final long CONCURRENCY_RETRY_AFTER_SECONDS = 1;
+
+    private final WebhookProperties webhookProperties;
+    private final KnownSources knownSources;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, SourceAdmission> sources = new ConcurrentHashMap<>();
+
+    public AdmissionControl(WebhookProperties webhookProperties, KnownSources knownSources, MeterRegistry meterRegistry) {
+        this.webhookProperties = webhookProperties;
+        this.knownSources = knownSources;
+        this.meterRegistry = meterRegistry;
+        this.enabled = webhookProperties.getAdmission().isEnabled();
+    }
+
+    public Permit tryAdmit(String source) {
+        if (!enabled) {
+            return Permit.UNLIMITED;
+        }
+        SourceAdmission admission = admission(source);
+        if (admission == null) {
+            return Permit.UNLIMITED;
+        }
+
+        if (admission.bucket() != null) {
+            long waitNanos = admission.bucket().tryAcquire(System.nanoTime());
+            if (waitNanos > 0) {
+                admission.shedByRate().increment();
+                return Permit.shed(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000));
+            }
+        }
+        if (!admission.limiter().tryAcquire()) {
+            admission.shedByConcurrency().increment();
+            return Permit.shed(CONCURRENCY_RETRY_AFTER_SECONDS);
+        }
+        return Permit.admitted(admission.limiter());
+    }
+
+    /**
+     * Feeds an insert's latency to the source's adaptive limit.
+     */
+    public void onInsert(String source, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        SourceAdmission admission = admission(source);
+        if (admission != null) {
+            admission.limiter().onSample(nanos);
+        }
+    }
+
+    private SourceAdmission admission(String source) {
+        SourceAdmission existing = sources.get(source);
+        if (existing != null) {
+            return existing;
+        }
+        if (!knownSources.isKnown(source)) {
+            return null;
+        }
+        return sources.computeIfAbsent(source, this::create);
+    }
+
+    private SourceAdmission create(String source) {
+        WebhookProperties.Admission config = webhookProperties.getAdmission();
+        WebhookProperties.SourceProperties options = webhookProperties.sourceOptions(source);
+
+        TokenBucket bucket = null;
+        if (options.getRateLimit() > 0) {
+            long burst = options.getBurst() > 0 ? options.getBurst() : (long) Math.ceil(options.getRateLimit());
+            bucket = new TokenBucket(options.getRateLimit(), Math.min(burst, TokenBucket.MAX_CAPACITY), System.nanoTime());
+        }
+        int maxLimit = options.getMaxConcurrent() > 0 ? options.getMaxConcurrent() : config.getMaxLimit();
+        AimdLimiter limiter = new AimdLimiter(config.isAdaptive(), config.getInitialLimit(),
+                Math.min(config.getMinLimit(), maxLimit), maxLimit, config.getLatencyThreshold().toNanos(),
+                config.getBackoffRatio());
+
+        Gauge.builder("webhook.admission.limit", limiter, AimdLimiter::limit).tag("source", source).register(meterRegistry);
+        Gauge.builder("webhook.admission.in.flight", limiter, AimdLimiter::inFlight).tag("source", source).register(meterRegistry);
+        return new SourceAdmission(bucket, limiter,
+                Counter.builder("webhook.admission.shed").tag("source", source).tag("reason", "rate").register(meterRegistry),
+                Counter.builder("webhook.admission.shed").tag("source", source).tag("reason", "concurrency").register(meterRegistry));
+    }
+
+    private record SourceAdmission(TokenBucket bucket, AimdLimiter limiter, Counter shedByRate, Counter shedByConcurrency) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit with additive increase, multiplicative decrease. A latency sample above the
+ * threshold multiplies the limit by {@code backoffRatio}; any other sample adds {@code 1 / limit},
+ * about one per limit's worth of requests. Both the limit (as double bits) and the in-flight count
+ * are updated by CAS. With {@code adaptive} off the limit stays at {@code maxLimit}.
+ */
+final class AimdLimiter {
+
+    private final boolean adaptive;
+    private final double minLimit;
+    private final double maxLimit;
+    private final long thresholdNanos;
+    private final double backoffRatio;
+    private final AtomicLong limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    AimdLimiter(boolean adaptive, int initialLimit, int minLimit, int maxLimit, long thresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Need 1 <= minLimit <= maxLimit: " + minLimit + ", " + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1: " + backoffRatio);
+        }
+        this.adaptive = adaptive;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.thresholdNanos = thresholdNanos;
+        this.backoffRatio = backoffRatio;
+        int start = adaptive ? Math.clamp(initialLimit, minLimit, maxLimit) : maxLimit;
+        this.limit = new AtomicLong(Double.doubleToLongBits(start));
+    }
+
+    boolean tryAcquire() {
+        int max = limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    void onSample(long latencyNanos) {
+        if (!adaptive) {
+            return;
+        }
+        while (true) {
+            long bits = limit.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = latencyNanos > thresholdNanos
+                    ? Math.max(minLimit, current * backoffRatio)
+                    : Math.min(maxLimit, current + 1 / current);
+            if (next == current || limit.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    int limit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,42 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.admission;
+
+/**
+ * Outcome of {@link AdmissionControl#tryAdmit(String)}. An admitted permit must be released once
+ * the request completes; a shed one carries the {@code Retry-After} to send with the 429.
+ */
+public final class Permit {
+
+    static final Permit UNLIMITED = new Permit(true, null, 0);
+
+    private final boolean admitted;
+    private final AimdLimiter limiter;
+    private final long retryAfterSeconds;
+
+    private Permit(boolean admitted, AimdLimiter limiter, long retryAfterSeconds) {
+        this.admitted = admitted;
+        this.limiter = limiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    static Permit admitted(AimdLimiter limiter) {
+        return new Permit(true, limiter, 0);
+    }
+
+    static Permit shed(long retryAfterSeconds) {
+        return new Permit(false, null, retryAfterSeconds);
+    }
+
+    public boolean admitted() {
+        return admitted;
+    }
+
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void release() {
+        if (limiter != null) {
+            limiter.release();
+        }
+    }
+}
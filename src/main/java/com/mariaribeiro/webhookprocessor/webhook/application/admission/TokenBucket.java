@@ -0,0 +1,64 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Tokens and the last refill time share one {@code long} (22 high bits of
+ * whole tokens, 42 low bits of microseconds since creation, wrapping after about 50 days), so a
+ * refill and a take are a single CAS. The refill time only advances by the time that produced whole
+ * tokens, so fractions carry over between calls instead of being lost.
+ */
+final class TokenBucket {
+
+    private static final int TIME_BITS = 42;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    static final long MAX_CAPACITY = (1L << (Long.SIZE - TIME_BITS)) - 1;
+
+    private final double permitsPerMicro;
+    private final long capacity;
+    private final long originNanos;
+    private final AtomicLong state;
+
+    TokenBucket(double permitsPerSecond, long capacity, long nowNanos) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        }
+        this.permitsPerMicro = permitsPerSecond / 1_000_000;
+        this.capacity = capacity;
+        this.originNanos = nowNanos;
+        this.state = new AtomicLong(pack(capacity, 0));
+    }
+
+    /**
+     * Takes one token. Returns 0 on success, otherwise how many nanoseconds until a token is due.
+     */
+    long tryAcquire(long nowNanos) {
+        long now = ((nowNanos - originNanos) / 1_000) & TIME_MASK;
+        while (true) {
+            long current = state.get();
+            long tokens = current >>> TIME_BITS;
+            long refilledAt = current & TIME_MASK;
+            long elapsed = (now - refilledAt) & TIME_MASK;
+
+            long added = (long) (elapsed * permitsPerMicro);
+            if (added > 0) {
+                tokens = Math.min(capacity, tokens + added);
+                refilledAt = tokens == capacity ? now : (refilledAt + (long) (added / permitsPerMicro)) & TIME_MASK;
+            }
+            if (tokens == 0) {
+                long sinceRefill = (now - refilledAt) & TIME_MASK;
+                return Math.max(1, (long) Math.ceil(1 / permitsPerMicro) - sinceRefill) * 1_000;
+            }
+            if (state.compareAndSet(current, pack(tokens - 1, refilledAt))) {
+                return 0;
+            }
+        }
+    }
+
+    private static long pack(long tokens, long micros) {
+        return tokens << TIME_BITS | micros;
+    }
+}
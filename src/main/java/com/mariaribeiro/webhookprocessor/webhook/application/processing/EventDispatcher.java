@@ -0,0 +1,37 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Where {@link EventProcessingWorkers} runs the handling of claimed events.
+ */
+public interface EventDispatcher {
+
+    /**
+     * Schedules {@code task} for {@code event}. May block the caller while the dispatcher is saturated.
+     */
+    <T> CompletableFuture<T> dispatch(WebhookEvent event, Supplier<T> task);
+
+    /**
+     * {@link #dispatch(WebhookEvent, Supplier)} for an event whose {@link #orderingKey} the caller already has.
+     */
+    default <T> CompletableFuture<T> dispatch(WebhookEvent event, String orderingKey, Supplier<T> task) {
+        return dispatch(event, task);
+    }
+
+    /**
+     * The key whose events run in dispatch order, or null if this dispatcher does not order {@code event}.
+     */
+    default String orderingKey(WebhookEvent event) {
+        return null;
+    }
+
+    /**
+     * True if tasks for events with the same ordering key run one at a time in dispatch order; claimers
+     * must then dispatch in claim order.
+     */
+    boolean ordered();
+}
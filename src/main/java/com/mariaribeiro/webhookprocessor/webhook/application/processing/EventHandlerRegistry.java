@@ -0,0 +1,51 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class EventHandlerRegistry {
+
+    /**
+     * Source of a handler that takes every event without a source-specific handler.
+     */
+    public static final String ANY_SOURCE = "*";
+
+    private static final WebhookEventHandler NO_OP = new WebhookEventHandler() {
+        @Override
+        public String source() {
+            return ANY_SOURCE;
+        }
+
+        @Override
+        public void handle(WebhookEvent event) {
+        }
+    };
+
+    private final Map<String, WebhookEventHandler> handlers;
+    private final WebhookEventHandler fallback;
+
+    public EventHandlerRegistry(List<WebhookEventHandler> handlers) {
+        Map<String, WebhookEventHandler> bySource = new HashMap<>();
+        for (WebhookEventHandler handler : handlers) {
+            WebhookEventHandler previous = bySource.put(handler.source(), handler);
+            if (previous != null) {
+                throw new IllegalStateException("More than one handler registered for source " + handler.source());
+            }
+        }
+        this.fallback = bySource.getOrDefault(ANY_SOURCE, NO_OP);
+        this.handlers = Map.copyOf(bySource);
+    }
+
+    /**
+     * Handler for {@code source}, else the {@link #ANY_SOURCE} handler; with neither, events are stored
+     * only and complete as processed.
+     */
+    public WebhookEventHandler handlerFor(String source) {
+        return handlers.getOrDefault(source, fallback);
+    }
+}
@@ -0,0 +1,306 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.application.retry.RetryPolicy;
+import com.mariaribeiro.webhookprocessor.webhook.application.retry.RetryScheduler;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.ClaimedEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventClaimRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.ScheduledRetry;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.StatusUpdate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Claim loops that drain {@code RECEIVED} events. Each worker thread claims a batch, runs the
+ * per-source handlers on a shared bounded executor and writes all final statuses back in one batch.
+ * Handlers are started with {@link WebhookEventHandler#handleAsync}, so one waiting on I/O only holds
+ * its handler thread while it starts the work, except on ordered lanes, which wait for each event.
+ * Events out of retries, or rejected with {@link PoisonEventException}, end {@code DEAD_LETTERED}.
+ * With partition leases on, claims are limited to the partitions {@link PartitionCoordinator} holds.
+ * When the {@link EventDispatcher} is ordered, claiming and dispatching a batch is done under one
+ * lock, so batches reach the dispatcher in the order they were claimed, and while an event waits
+ * for a retry, later events with its ordering key are held back until it succeeds or is
+ * dead-lettered: they go back to {@code FAILED} without using an attempt, due with the retry.
+ * A sweeper returns claims
+ * older than {@code claim-timeout} to {@code RECEIVED}, so events claimed by a crashed worker or
+ * whose write-back failed are handled again rather than left {@code PROCESSING}. Claimed events the
+ * dispatcher refuses, as a stopping one does, are returned to {@code RECEIVED} at once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "webhook.processing", name = "enabled", havingValue = "true")
+public class EventProcessingWorkers {
+
+    private final EventClaimRepository claims;
+    private final PartitionCoordinator partitions;
+    private final EventHandlerRegistry handlers;
+    private final EventDispatcher dispatcher;
+    private final RetryScheduler retryScheduler;
+    private final Clock clock;
+    private final WebhookProperties webhookProperties;
+    private final WebhookProperties.Processing config;
+    private final WorkerThreads workerThreads;
+    private final ReentrantLock orderedClaim = new ReentrantLock();
+    private final ConcurrentHashMap<String, PendingRetry> pendingRetries = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Thread sweeper;
+    private volatile boolean running = true;
+
+    public EventProcessingWorkers(EventClaimRepository claims, PartitionCoordinator partitions, EventHandlerRegistry handlers,
+                                  EventDispatcher dispatcher, RetryScheduler retryScheduler, Clock clock,
+                                  WorkerThreads workerThreads, WebhookProperties webhookProperties) {
+        this.claims = claims;
+        this.partitions = partitions;
+        this.handlers = handlers;
+        this.dispatcher = dispatcher;
+        this.retryScheduler = retryScheduler;
+        this.clock = clock;
+        this.webhookProperties = webhookProperties;
+        this.config = webhookProperties.getProcessing();
+        this.workerThreads = workerThreads;
+        this.sweeper = workerThreads.newThread("webhook-claim-sweeper", this::sweepLoop);
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < config.getWorkers(); i++) {
+            Thread worker = workerThreads.newThread("webhook-worker-" + i, this::claimLoop);
+            worker.start();
+            workers.add(worker);
+        }
+        sweeper.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+            worker.join();
+        }
+        sweeper.interrupt();
+        sweeper.join();
+    }
+
+    /**
+     * Claims and processes one batch; returns how many events it handled.
+     */
+    int processBatch() {
+        List<CompletableFuture<StatusUpdate>> outcomes;
+        if (dispatcher.ordered()) {
+            orderedClaim.lock();
+            try {
+                outcomes = claimAndDispatch();
+            } finally {
+                orderedClaim.unlock();
+            }
+        } else {
+            outcomes = claimAndDispatch();
+        }
+        if (outcomes.isEmpty()) {
+            return 0;
+        }
+
+        List<StatusUpdate> updates = new ArrayList<>(outcomes.size());
+        for (CompletableFuture<StatusUpdate> outcome : outcomes) {
+            updates.add(outcome.join());
+        }
+        List<StatusUpdate> completed = claims.completeAll(updates);
+        if (completed.size() < updates.size()) {
+            log.warn("Dropped {} outcomes whose claim was released and taken again meanwhile", updates.size() - completed.size());
+        }
+
+        for (StatusUpdate update : completed) {
+            if (update.nextAttemptAt() != null) {
+                retryScheduler.schedule(new ScheduledRetry(update.eventId(), update.nextAttemptAt()));
+            }
+        }
+        return outcomes.size();
+    }
+
+    private List<CompletableFuture<StatusUpdate>> claimAndDispatch() {
+        int[] owned = partitions.owned();
+        List<ClaimedEvent> batch = owned == null
+                ? claims.claimReceived(config.getBatchSize())
+                : claims.claimReceived(config.getBatchSize(), owned, partitions.nodeId());
+        List<CompletableFuture<StatusUpdate>> outcomes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                outcomes.add(dispatch(batch.get(i)));
+            } catch (RuntimeException e) {
+                // Nothing would write these back, so they go to the next claimer rather than wait out claim-timeout.
+                List<UUID> undispatched = batch.subList(i, batch.size()).stream().map(claimed -> claimed.event().id()).toList();
+                log.warn("Dispatcher refused {} claimed events, returning them to RECEIVED", undispatched.size(), e);
+                claims.releaseClaims(undispatched);
+                break;
+            }
+        }
+        return outcomes;
+    }
+
+    private CompletableFuture<StatusUpdate> dispatch(ClaimedEvent claimed) {
+        if (dispatcher.ordered()) {
+            // A lane starts the next event of a key when this task returns, so it waits for the handling.
+            String key = dispatcher.orderingKey(claimed.event());
+            return dispatcher.dispatch(claimed.event(), key, () -> handleInOrder(key, claimed));
+        }
+        return dispatcher.dispatch(claimed.event(), () -> handle(claimed)).thenCompose(Function.identity());
+    }
+
+    /**
+     * Runs on the lane of {@code key}, so the pending retry of a key is only changed by one thread at a time.
+     */
+    private StatusUpdate handleInOrder(String key, ClaimedEvent claimed) {
+        if (key == null) {
+            return handle(claimed).join();
+        }
+        PendingRetry pending = pendingRetries.get(key);
+        if (pending != null && !pending.eventId().equals(claimed.event().id())) {
+            Instant now = Instant.now(clock);
+            if (pending.nextAttemptAt().plus(config.getClaimTimeout()).isAfter(now)) {
+                return holdBehind(claimed, pending, now);
+            }
+            // The retry never came back here, e.g. its partition moved to another node.
+            pendingRetries.remove(key, pending);
+        }
+        StatusUpdate update = handle(claimed).join();
+        if (update.status() == EventStatus.FAILED) {
+            pendingRetries.put(key, new PendingRetry(update.eventId(), update.nextAttemptAt()));
+        } else if (pending != null) {
+            pendingRetries.remove(key, pending);
+        }
+        return update;
+    }
+
+    private StatusUpdate holdBehind(ClaimedEvent claimed, PendingRetry pending, Instant now) {
+        // Not before the next poll, so a retry that is due but not yet handled is not waited for in a busy loop.
+        Instant pollAt = now.plus(config.getPollInterval());
+        Instant nextAttemptAt = pending.nextAttemptAt().isAfter(pollAt) ? pending.nextAttemptAt() : pollAt;
+        log.debug("Holding event {} until {} behind the retry of event {}", claimed.event().id(), nextAttemptAt, pending.eventId());
+        return new StatusUpdate(claimed, EventStatus.FAILED, now, claimed.attemptCount(), nextAttemptAt);
+    }
+
+    private CompletableFuture<StatusUpdate> handle(ClaimedEvent claimed) {
+        CompletableFuture<Void> handled;
+        try {
+            handled = handlers.handlerFor(claimed.event().source()).handleAsync(claimed.event());
+        } catch (RuntimeException e) {
+            handled = CompletableFuture.failedFuture(e);
+        }
+        return handled.handle((ignored, error) ->
+                outcome(claimed, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+    }
+
+    private StatusUpdate outcome(ClaimedEvent claimed, Throwable error) {
+        WebhookEvent event = claimed.event();
+        Instant now = Instant.now(clock);
+        if (error == null) {
+            return new StatusUpdate(claimed, EventStatus.PROCESSED, now, claimed.attemptCount() + 1, null);
+        }
+        if (!(error instanceof Exception e)) {
+            throw new CompletionException(error);
+        }
+        int attempts = claimed.attemptCount() + 1;
+        if (e instanceof PoisonEventException) {
+            log.warn("Handler rejected event {} ({}/{}), dead-lettering it", event.id(), event.source(), event.eventKey(), e);
+            return new StatusUpdate(claimed, EventStatus.DEAD_LETTERED, now, attempts, null,
+                    DeadLetterReason.REJECTED, e.toString());
+        }
+        RetryPolicy policy = retryPolicyFor(event.source());
+        if (!policy.shouldRetry(attempts)) {
+            log.warn("Handler failed for event {} ({}/{}), attempt {}, dead-lettering it",
+                    event.id(), event.source(), event.eventKey(), attempts, e);
+            return new StatusUpdate(claimed, EventStatus.DEAD_LETTERED, now, attempts, null,
+                    DeadLetterReason.RETRIES_EXHAUSTED, e.toString());
+        }
+        Instant nextAttemptAt = now.plus(policy.backoff(attempts));
+        log.warn("Handler failed for event {} ({}/{}), attempt {}, next attempt at {}",
+                event.id(), event.source(), event.eventKey(), attempts, nextAttemptAt, e);
+        return new StatusUpdate(claimed, EventStatus.FAILED, now, attempts, nextAttemptAt);
+    }
+
+    /**
+     * Returns expired claims to {@code RECEIVED}; returns how many.
+     */
+    int releaseExpiredClaims() {
+        int released = claims.releaseExpiredClaims(Instant.now(clock).minus(config.getClaimTimeout()));
+        if (released > 0) {
+            log.warn("Returned {} events claimed more than {} ago to RECEIVED", released, config.getClaimTimeout());
+        }
+        return released;
+    }
+
+    /**
+     * Forgets pending retries that did not come back within {@code claim-timeout} of being due.
+     */
+    void forgetLostRetries() {
+        Instant cutoff = Instant.now(clock).minus(config.getClaimTimeout());
+        pendingRetries.values().removeIf(pending -> pending.nextAttemptAt().isBefore(cutoff));
+    }
+
+    private RetryPolicy retryPolicyFor(String source) {
+        WebhookProperties.Retry retry = webhookProperties.sourceOptions(source).getRetry();
+        return new RetryPolicy(retry.getMaxAttempts(), retry.getInitialBackoff(), retry.getMaxBackoff(), retry.getMultiplier());
+    }
+
+    private void claimLoop() {
+        while (running) {
+            try {
+                if (processBatch() == 0) {
+                    Thread.sleep(config.getPollInterval().toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Processing batch failed", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void sweepLoop() {
+        long intervalMillis = config.getClaimTimeout().toMillis() / 2;
+        while (running) {
+            try {
+                Thread.sleep(intervalMillis);
+                releaseExpiredClaims();
+                forgetLostRetries();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Releasing expired claims failed", e);
+            }
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(config.getPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record PendingRetry(UUID eventId, Instant nextAttemptAt) {
+    }
+}
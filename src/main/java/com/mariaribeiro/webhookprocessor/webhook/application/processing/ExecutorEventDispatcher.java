@@ -0,0 +1,44 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs handlers on one bounded executor shared by all claim loops, in no particular order.
+ */
+@Component
+@ConditionalOnProperty(prefix = "webhook.processing.lanes", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class ExecutorEventDispatcher implements EventDispatcher {
+
+    private final ExecutorService handlerExecutor;
+
+    public ExecutorEventDispatcher(WorkerThreads workerThreads, WebhookProperties webhookProperties) {
+        this.handlerExecutor = workerThreads.newBoundedExecutor("webhook-handler-",
+                webhookProperties.getProcessing().getHandlerConcurrency());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        handlerExecutor.shutdown();
+        handlerExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> dispatch(WebhookEvent event, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, handlerExecutor);
+    }
+
+    @Override
+    public boolean ordered() {
+        return false;
+    }
+}
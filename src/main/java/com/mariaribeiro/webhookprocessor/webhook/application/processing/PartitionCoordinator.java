@@ -0,0 +1,196 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.LogicalPartitions;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventClaimRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.PartitionLease;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.PartitionLeaseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which logical partitions this instance's workers claim from. With leases off every
+ * instance claims from all of them. With leases on, each node heartbeats, and on every heartbeat
+ * works out its fair share from the live nodes (sorted by id, the first {@code COUNT % nodes} take
+ * one extra), renews what it holds, gives back what is over its share and takes free or expired
+ * partitions up to it. Nodes joining, leaving or going silent are absorbed within a couple of
+ * heartbeats. Leases only keep nodes off each other's rows: the claim itself still moves each
+ * event out of {@code RECEIVED} exactly once, so a brief overlap during a hand-off is harmless.
+ * Claims record the node that made them; a node taking partitions over puts back to {@code RECEIVED}
+ * the events in them still {@code PROCESSING} under a node that is no longer live.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "webhook.processing", name = "enabled", havingValue = "true")
+public class PartitionCoordinator {
+
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Heartbeats after which a silent node's row is deleted.
+     */
+    private static final int FORGET_AFTER_LEASES = 10;
+
+    private final PartitionLeaseRepository leases;
+    private final EventClaimRepository claims;
+    private final Clock clock;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration heartbeatInterval;
+    private final Duration leaseDuration;
+    private final Thread heartbeat;
+    private volatile int[] owned = NONE;
+    private volatile long ownedUntilNanos;
+    private volatile boolean running = true;
+
+    public PartitionCoordinator(PartitionLeaseRepository leases, EventClaimRepository claims, Clock clock,
+                                WorkerThreads workerThreads, WebhookProperties webhookProperties,
+                                MeterRegistry meterRegistry) {
+        WebhookProperties.Leases config = webhookProperties.getProcessing().getLeases();
+        this.leases = leases;
+        this.claims = claims;
+        this.clock = clock;
+        this.enabled = config.isEnabled();
+        this.nodeId = config.getNodeId().isBlank() ? UUID.randomUUID().toString() : config.getNodeId();
+        this.heartbeatInterval = config.getHeartbeatInterval();
+        this.leaseDuration = config.getLeaseDuration();
+        if (enabled && !heartbeatInterval.multipliedBy(2).minus(leaseDuration).isNegative()) {
+            throw new IllegalArgumentException("Lease duration must exceed two heartbeat intervals: "
+                    + leaseDuration + ", " + heartbeatInterval);
+        }
+        this.heartbeat = workerThreads.newThread("webhook-partition-heartbeat", this::heartbeatLoop);
+        this.ownedUntilNanos = System.nanoTime();
+
+        if (enabled) {
+            Gauge.builder("webhook.processing.partitions.owned", this, coordinator -> coordinator.owned().length)
+                    .description("Logical partitions this instance holds leases for")
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            leases.createPartitions(LogicalPartitions.COUNT);
+            heartbeat.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        stopHeartbeat();
+        owned = NONE;
+        try {
+            leases.leave(nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release partitions of node {}; they free up when the leases expire", nodeId, e);
+        }
+    }
+
+    /**
+     * Stops heartbeating without giving anything back, as a node that hangs or loses the database would.
+     */
+    void stopHeartbeat() throws InterruptedException {
+        running = false;
+        heartbeat.interrupt();
+        heartbeat.join();
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Partitions to claim from, or null when leases are off and every partition is this instance's.
+     * Empty once the last renewal is older than the lease, as the leases may have moved on.
+     */
+    public int[] owned() {
+        if (!enabled) {
+            return null;
+        }
+        return System.nanoTime() - ownedUntilNanos < 0 ? owned : NONE;
+    }
+
+    /**
+     * One heartbeat: renews, then gives back or takes partitions to match this node's share.
+     */
+    void rebalance() {
+        long startNanos = System.nanoTime();
+        Instant now = Instant.now(clock);
+        Instant expiresAt = now.plus(leaseDuration);
+        leases.heartbeat(nodeId, now);
+        leases.renew(nodeId, expiresAt);
+        leases.removeNodes(now.minus(leaseDuration.multipliedBy(FORGET_AFTER_LEASES)));
+
+        List<String> nodes = leases.liveNodes(now.minus(leaseDuration));
+        int index = Math.max(0, nodes.indexOf(nodeId));
+        int size = Math.max(1, nodes.size());
+        int share = LogicalPartitions.COUNT / size + (index < LogicalPartitions.COUNT % size ? 1 : 0);
+
+        List<Integer> mine = new ArrayList<>();
+        List<Integer> free = new ArrayList<>();
+        for (PartitionLease lease : leases.leases()) {
+            if (nodeId.equals(lease.ownerId())) {
+                mine.add(lease.partition());
+            } else if (lease.ownerId() == null || !lease.expiresAt().isAfter(now)) {
+                free.add(lease.partition());
+            }
+        }
+        while (mine.size() > share) {
+            leases.release(mine.removeLast(), nodeId);
+        }
+        // Start at a different point per node so joining nodes do not all race for the same partitions.
+        int offset = free.isEmpty() ? 0 : Math.floorMod(nodeId.hashCode(), free.size());
+        List<Integer> acquired = new ArrayList<>();
+        for (int i = 0; i < free.size() && mine.size() < share; i++) {
+            int partition = free.get((offset + i) % free.size());
+            if (leases.acquire(partition, nodeId, now, expiresAt)) {
+                mine.add(partition);
+                acquired.add(partition);
+            }
+        }
+        if (!acquired.isEmpty()) {
+            int released = claims.releaseClaimsOfDeadNodes(acquired.stream().mapToInt(Integer::intValue).toArray(), nodes);
+            if (released > 0) {
+                log.info("Node {} returned {} events claimed by dead nodes to RECEIVED", nodeId, released);
+            }
+        }
+
+        int[] snapshot = mine.stream().mapToInt(Integer::intValue).sorted().toArray();
+        owned = snapshot;
+        ownedUntilNanos = startNanos + leaseDuration.toNanos();
+    }
+
+    private void heartbeatLoop() {
+        while (running) {
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                log.warn("Partition heartbeat of node {} failed", nodeId, e);
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(heartbeatInterval.toNanos());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+/**
+ * Thrown by a {@link WebhookEventHandler} for an event that can never succeed, such as one it cannot
+ * parse. The event is dead-lettered at once instead of using up its retries.
+ */
+public class PoisonEventException extends RuntimeException {
+
+    public PoisonEventException(String message) {
+        super(message);
+    }
+
+    public PoisonEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
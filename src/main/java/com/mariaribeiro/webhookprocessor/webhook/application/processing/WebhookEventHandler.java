@@ -0,0 +1,29 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Business handling for events of one source. Register implementations as beans; throwing marks
+ * the event as failed, or dead-lettered without retries for {@link PoisonEventException}.
+ */
+public interface WebhookEventHandler {
+
+    String source();
+
+    void handle(WebhookEvent event) throws Exception;
+
+    /**
+     * For handlers that mostly wait on I/O: starts the handling and returns without blocking the
+     * handler thread. The default runs {@link #handle} on the calling thread.
+     */
+    default CompletableFuture<Void> handleAsync(WebhookEvent event) {
+        try {
+            handle(event);
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
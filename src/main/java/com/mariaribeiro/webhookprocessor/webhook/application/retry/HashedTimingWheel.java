@@ -0,0 +1,105 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel (Varghese &amp; Lauck). {@link #schedule} is thread-safe and O(1); items
+ * are parked in a hand-off queue and only placed into buckets by the thread that calls
+ * {@link #advanceTo}, so buckets need no locking. Deadlines beyond one revolution are kept
+ * with a remaining-rounds counter.
+ */
+public final class HashedTimingWheel<T> {
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickNanos, int ticksPerWheel, long startNanos) {
+        if (ticksPerWheel < 2 || Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("Ticks per wheel must be a power of two: " + ticksPerWheel);
+        }
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+        this.buckets = (Timeout<T>[]) new Timeout[ticksPerWheel];
+        this.mask = ticksPerWheel - 1;
+    }
+
+    public void schedule(T item, long deadlineNanos) {
+        pending.offer(new Timeout<>(item, deadlineNanos));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Processes every tick that has fully elapsed by {@code nowNanos} and returns the items that
+     * expired, in tick order. Single thread only.
+     */
+    public List<T> advanceTo(long nowNanos) {
+        List<T> expired = new ArrayList<>();
+        while (startNanos + (tick + 1) * tickNanos <= nowNanos) {
+            transferPending();
+            expireBucket((int) (tick & mask), expired);
+            tick++;
+        }
+        size.addAndGet(-expired.size());
+        return expired;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long horizonNanos() {
+        return tickNanos * buckets.length;
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            long calculated = Math.max((timeout.deadlineNanos - startNanos) / tickNanos, tick);
+            timeout.remainingRounds = (calculated - tick) / buckets.length;
+            int idx = (int) (calculated & mask);
+            timeout.next = buckets[idx];
+            buckets[idx] = timeout;
+        }
+    }
+
+    private void expireBucket(int idx, List<T> expired) {
+        Timeout<T> previous = null;
+        Timeout<T> current = buckets[idx];
+        while (current != null) {
+            Timeout<T> next = current.next;
+            if (current.remainingRounds <= 0) {
+                expired.add(current.item);
+                if (previous == null) {
+                    buckets[idx] = next;
+                } else {
+                    previous.next = next;
+                }
+            } else {
+                current.remainingRounds--;
+                previous = current;
+            }
+            current = next;
+        }
+    }
+
+    private static final class Timeout<T> {
+        final T item;
+        final long deadlineNanos;
+        long remainingRounds;
+        Timeout<T> next;
+
+        Timeout(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
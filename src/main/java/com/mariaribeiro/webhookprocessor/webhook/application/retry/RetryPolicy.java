@@ -0,0 +1,22 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with "equal jitter": the delay for attempt {@code n} is drawn from
+ * {@code [d/2, d]} where {@code d = min(max, initial * multiplier^(n-1))}.
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double multiplier) {
+
+    public boolean shouldRetry(int failedAttempts) {
+        return failedAttempts < maxAttempts;
+    }
+
+    public Duration backoff(int failedAttempts) {
+        double exponential = initialBackoff.toMillis() * Math.pow(multiplier, Math.max(0, failedAttempts - 1));
+        long capped = (long) Math.min(exponential, maxBackoff.toMillis());
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(capped - half + 1));
+    }
+}
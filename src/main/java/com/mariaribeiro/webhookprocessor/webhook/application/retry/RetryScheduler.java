@@ -0,0 +1,138 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.retry;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.RetryRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.ScheduledRetry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires retries of failed events. Retries due within one wheel revolution live in a
+ * {@link HashedTimingWheel} and are released to {@code RECEIVED} on time without polling the
+ * database; later ones stay in the table and are loaded window by window as they come into range.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "webhook.processing", name = "enabled", havingValue = "true")
+public class RetryScheduler {
+
+    private static final int LOAD_PAGE_SIZE = 1_000;
+
+    private final RetryRepository retries;
+    private final Clock clock;
+    private final HashedTimingWheel<ScheduledRetry> wheel;
+    private final long tickNanos;
+    private final long loadIntervalNanos;
+    private final Thread ticker;
+    private volatile Instant loadedUntil = Instant.EPOCH;
+    private volatile boolean running = true;
+
+    public RetryScheduler(RetryRepository retries, Clock clock, WorkerThreads workerThreads, WebhookProperties webhookProperties,
+                          MeterRegistry meterRegistry) {
+        WebhookProperties.Processing config = webhookProperties.getProcessing();
+        this.retries = retries;
+        this.clock = clock;
+        this.tickNanos = config.getRetryTick().toNanos();
+        this.wheel = new HashedTimingWheel<>(tickNanos, config.getRetryTicksPerWheel(), System.nanoTime());
+        this.loadIntervalNanos = wheel.horizonNanos() / 2;
+        this.ticker = workerThreads.newThread("webhook-retry-wheel", this::tickLoop);
+
+        Gauge.builder("webhook.retry.scheduled", wheel, HashedTimingWheel::size)
+                .description("Retries held in the in-memory timing wheel")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        ticker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        ticker.interrupt();
+        ticker.join();
+    }
+
+    /**
+     * Called after a failed attempt has been committed with its {@code next_attempt_at}.
+     * Retries beyond the loaded window are left for the loader.
+     */
+    public void schedule(ScheduledRetry retry) {
+        if (!retry.nextAttemptAt().isAfter(loadedUntil)) {
+            wheel.schedule(retry, toNanos(retry.nextAttemptAt()));
+        }
+    }
+
+    private void tickLoop() {
+        long nextLoad = System.nanoTime();
+        while (running) {
+            try {
+                long now = System.nanoTime();
+                if (now - nextLoad >= 0) {
+                    loadWindow();
+                    nextLoad = now + loadIntervalNanos;
+                }
+                List<ScheduledRetry> due = wheel.advanceTo(now);
+                if (!due.isEmpty()) {
+                    release(due);
+                }
+                TimeUnit.NANOSECONDS.sleep(tickNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Retry wheel tick failed", e);
+            }
+        }
+    }
+
+    /**
+     * Loads retries due up to one revolution ahead. The watermark moves before the query, so a
+     * retry committed concurrently is either seen here or scheduled by its worker (possibly
+     * both, which the guarded release tolerates).
+     */
+    void loadWindow() {
+        Instant after = loadedUntil;
+        Instant until = clock.instant().plusNanos(wheel.horizonNanos());
+        loadedUntil = until;
+
+        ScheduledRetry last = null;
+        List<ScheduledRetry> page;
+        do {
+            page = retries.findDue(after, until, last, LOAD_PAGE_SIZE);
+            for (ScheduledRetry retry : page) {
+                wheel.schedule(retry, toNanos(retry.nextAttemptAt()));
+            }
+            last = page.isEmpty() ? last : page.get(page.size() - 1);
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    private void release(List<ScheduledRetry> due) {
+        try {
+            retries.release(due);
+        } catch (RuntimeException e) {
+            log.warn("Releasing {} retries failed, rescheduling", due.size(), e);
+            long later = System.nanoTime() + 10 * tickNanos;
+            for (ScheduledRetry retry : due) {
+                wheel.schedule(retry, later);
+            }
+        }
+    }
+
+    private long toNanos(Instant at) {
+        long delayNanos = Math.max(0, at.toEpochMilli() - clock.millis()) * 1_000_000L;
+        return System.nanoTime() + delayNanos;
+    }
+}
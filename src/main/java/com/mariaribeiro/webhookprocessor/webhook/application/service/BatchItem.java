@@ -0,0 +1,4 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+public record BatchItem(String eventKey, String payload) {
+}
@@ -0,0 +1,9 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one batch item; {@code eventId} is only known for events this batch created.
+ */
+public record BatchItemResult(String eventKey, boolean created, UUID eventId) {
+}
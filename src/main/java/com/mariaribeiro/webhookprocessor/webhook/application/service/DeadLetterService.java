@@ -0,0 +1,157 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetter;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterPage;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterQuery;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inspection and replay of dead-lettered events. A replay streams its selection in chunks of
+ * {@code chunk-size} and requeues each chunk in slices of a tenth of a second's worth of its rate,
+ * sleeping before each slice so the average since the start never exceeds the rate. Concurrent
+ * replays also reserve each slice on one schedule at the configured ceiling, so together they stay
+ * under it. The selection is cut off at the start of the replay, so events that fail again while it
+ * runs are not picked up a second time.
+ */
+@Slf4j
+@Service
+public class DeadLetterService {
+
+    private static final int SLICES_PER_SECOND = 10;
+
+    private final DeadLetterRepository repository;
+    private final WorkerThreads workerThreads;
+    private final Clock clock;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int chunkSize;
+    private final double maxRate;
+    private final long progressIntervalNanos;
+    private final Duration jobRetention;
+    private final ConcurrentHashMap<UUID, ReplayJob> replays = new ConcurrentHashMap<>();
+    private long ceilingDueNanos = System.nanoTime();
+
+    public DeadLetterService(DeadLetterRepository repository, WorkerThreads workerThreads, Clock clock,
+                             WebhookProperties webhookProperties) {
+        WebhookProperties.Admin admin = webhookProperties.getAdmin();
+        WebhookProperties.DeadLetterReplay config = admin.getDeadLetterReplay();
+        this.repository = repository;
+        this.workerThreads = workerThreads;
+        this.clock = clock;
+        this.defaultPageSize = admin.getDefaultPageSize();
+        this.maxPageSize = admin.getMaxPageSize();
+        this.chunkSize = config.getChunkSize();
+        this.maxRate = config.getMaxRate();
+        this.progressIntervalNanos = config.getProgressInterval().toNanos();
+        this.jobRetention = config.getJobRetention();
+    }
+
+    /**
+     * One page of matching dead letters; {@code limit} defaults when null and is capped at the configured maximum.
+     */
+    public DeadLetterPage page(DeadLetterQuery query, DeadLetterCursor after, Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.clamp(limit, 1, maxPageSize);
+        return repository.findPage(query, after, size);
+    }
+
+    /**
+     * Starts requeueing the matching dead letters in the background, at {@code rate} events per
+     * second or the configured ceiling when {@code rate} is null or higher.
+     */
+    public ReplayJob startReplay(DeadLetterQuery query, Double rate) {
+        if (rate != null && !(rate > 0)) {
+            throw new IllegalArgumentException("Replay rate must be positive: " + rate);
+        }
+        Instant now = Instant.now(clock);
+        Instant to = query.to() == null || query.to().isAfter(now) ? now : query.to();
+        DeadLetterQuery selection = new DeadLetterQuery(query.source(), query.reason(), query.from(), to, query.error());
+        ReplayJob job = new ReplayJob(UUID.randomUUID(), selection, rate == null ? maxRate : Math.min(rate, maxRate), now);
+        forgetFinished();
+        replays.put(job.id(), job);
+        workerThreads.newThread("webhook-replay-" + job.id(), () -> run(job)).start();
+        return job;
+    }
+
+    public ReplayJob findReplay(UUID id) {
+        forgetFinished();
+        return replays.get(id);
+    }
+
+    private void forgetFinished() {
+        Instant cutoff = Instant.now(clock).minus(jobRetention);
+        replays.values().removeIf(job -> job.finishedAt() != null && job.finishedAt().isBefore(cutoff));
+    }
+
+    void run(ReplayJob job) {
+        log.info("Replay {} started: {} at {} events/s", job.id(), job.query(), job.maxRate());
+        int slice = (int) Math.clamp((long) Math.ceil(job.maxRate() / SLICES_PER_SECOND), 1, chunkSize);
+        long startNanos = System.nanoTime();
+        long nextReport = startNanos + progressIntervalNanos;
+        Throwable failure = null;
+        try {
+            DeadLetterCursor after = null;
+            do {
+                DeadLetterPage page = repository.findPage(job.query(), after, chunkSize);
+                List<DeadLetter> deadLetters = page.deadLetters();
+                for (int from = 0; from < deadLetters.size(); from += slice) {
+                    List<DeadLetter> part = deadLetters.subList(from, Math.min(from + slice, deadLetters.size()));
+                    // A slice waits for its share of its own rate and of the ceiling, so even a short replay stays under both.
+                    long due = startNanos + (long) ((job.selected() + part.size()) * 1e9 / job.maxRate());
+                    sleepUntil(reserveUnderCeiling(part.size(), due));
+                    job.requeued(part.size(), repository.requeue(part));
+                    if (System.nanoTime() - nextReport >= 0) {
+                        report(job);
+                        nextReport = System.nanoTime() + progressIntervalNanos;
+                    }
+                }
+                after = page.next();
+            } while (after != null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        job.finish(Instant.now(clock), failure);
+        if (failure == null) {
+            report(job);
+        } else {
+            log.warn("Replay {} failed after {} dead letters", job.id(), job.selected(), failure);
+        }
+    }
+
+    /**
+     * Reserves {@code events} on the ceiling shared by all replays, no earlier than {@code notBeforeNanos};
+     * returns when they may be requeued. Unused time is not saved up, so a quiet spell allows no burst.
+     */
+    private synchronized long reserveUnderCeiling(int events, long notBeforeNanos) {
+        long due = Math.max(ceilingDueNanos, System.nanoTime()) + (long) (events * 1e9 / maxRate);
+        ceilingDueNanos = Math.max(due, notBeforeNanos);
+        return ceilingDueNanos;
+    }
+
+    private static void sleepUntil(long dueNanos) throws InterruptedException {
+        long wait = dueNanos - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    private static void report(ReplayJob job) {
+        log.info("Replay {}: {} selected, {} requeued, {} skipped, {} events/s",
+                job.id(), job.selected(), job.requeued(), job.skipped(), Math.round(job.eventsPerSecond()));
+    }
+}
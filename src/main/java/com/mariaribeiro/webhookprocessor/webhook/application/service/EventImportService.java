@@ -0,0 +1,201 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Backfills archived events from NDJSON files, bypassing the per-event ingestion path. A reader
+ * thread cuts the files into chunks of lines, a small pool parses chunks ahead, and the job thread
+ * loads parsed chunks in order through {@link EventImportRepository}, so parsing overlaps loading.
+ * The queue between them is bounded, so a slow database holds back reading rather than memory.
+ * Events whose key is already stored are skipped, which makes an interrupted import safe to rerun.
+ * Finished jobs are forgotten {@code job-retention} after they finish.
+ */
+@Slf4j
+@Service
+public class EventImportService {
+
+    private static final CompletableFuture<List<WebhookEvent>> END = CompletableFuture.completedFuture(null);
+
+    private final EventImportRepository repository;
+    private final WorkerThreads workerThreads;
+    private final Clock clock;
+    private final Path directory;
+    private final int chunkSize;
+    private final int parseThreads;
+    private final long progressIntervalNanos;
+    private final Duration jobRetention;
+    private final ConcurrentHashMap<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public EventImportService(EventImportRepository repository, WorkerThreads workerThreads, Clock clock,
+                              WebhookProperties webhookProperties) {
+        WebhookProperties.BulkImport config = webhookProperties.getAdmin().getBulkImport();
+        this.repository = repository;
+        this.workerThreads = workerThreads;
+        this.clock = clock;
+        this.directory = config.getDirectory().toAbsolutePath().normalize();
+        this.chunkSize = config.getChunkSize();
+        this.parseThreads = config.getParseThreads();
+        this.progressIntervalNanos = config.getProgressInterval().toNanos();
+        this.jobRetention = config.getJobRetention();
+    }
+
+    /**
+     * The files in the import directory, or null if a name is empty, leaves the directory or is not a regular file.
+     */
+    public List<Path> resolve(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return null;
+        }
+        List<Path> files = new ArrayList<>(names.size());
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                return null;
+            }
+            Path file = directory.resolve(name).normalize();
+            if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+                return null;
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Starts importing {@code files} in the background. {@code parser} turns a line into an event,
+     * or null when the line is invalid; invalid lines are counted and skipped.
+     */
+    public ImportJob start(List<Path> files, Function<String, WebhookEvent> parser) {
+        forgetFinished();
+        ImportJob job = new ImportJob(UUID.randomUUID(), files, Instant.now(clock));
+        jobs.put(job.id(), job);
+        workerThreads.newThread("webhook-import-" + job.id(), () -> run(job, parser)).start();
+        return job;
+    }
+
+    public ImportJob find(UUID id) {
+        forgetFinished();
+        return jobs.get(id);
+    }
+
+    private void forgetFinished() {
+        Instant cutoff = Instant.now(clock).minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt() != null && job.finishedAt().isBefore(cutoff));
+    }
+
+    void run(ImportJob job, Function<String, WebhookEvent> parser) {
+        log.info("Import {} started: {}", job.id(), job.files());
+        ExecutorService parsers = workerThreads.newBoundedExecutor("webhook-import-parse-", parseThreads);
+        BlockingQueue<Future<List<WebhookEvent>>> chunks = new ArrayBlockingQueue<>(parseThreads * 2);
+        Thread reader = workerThreads.newThread("webhook-import-read-" + job.id(), () -> read(job, parser, parsers, chunks));
+        reader.start();
+        Throwable failure = null;
+        try {
+            long nextReport = System.nanoTime() + progressIntervalNanos;
+            for (Future<List<WebhookEvent>> chunk; (chunk = chunks.take()) != END; ) {
+                List<WebhookEvent> events = chunk.get();
+                repository.prepare(events);
+                job.loaded(events.size(), repository.importAll(events));
+                if (System.nanoTime() - nextReport >= 0) {
+                    report(job);
+                    nextReport = System.nanoTime() + progressIntervalNanos;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            reader.interrupt();
+            parsers.shutdownNow();
+        }
+        job.finish(Instant.now(clock), failure);
+        if (failure == null) {
+            report(job);
+        } else {
+            log.warn("Import {} failed after {} lines", job.id(), job.lines(), failure);
+        }
+    }
+
+    private void read(ImportJob job, Function<String, WebhookEvent> parser, ExecutorService parsers,
+                      BlockingQueue<Future<List<WebhookEvent>>> chunks) {
+        try {
+            for (Path file : job.files()) {
+                try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    List<String> lines = new ArrayList<>(chunkSize);
+                    for (String line; (line = in.readLine()) != null; ) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        lines.add(line);
+                        if (lines.size() == chunkSize) {
+                            chunks.put(parse(job, parser, parsers, lines));
+                            lines = new ArrayList<>(chunkSize);
+                        }
+                    }
+                    if (!lines.isEmpty()) {
+                        chunks.put(parse(job, parser, parsers, lines));
+                    }
+                }
+            }
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // the job stopped taking chunks
+        } catch (IOException | RuntimeException e) {
+            try {
+                // Not offer: a failure dropped on a full queue would leave the job waiting for chunks forever.
+                chunks.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException stopped) {
+                // the job stopped taking chunks
+            }
+        }
+    }
+
+    private static Future<List<WebhookEvent>> parse(ImportJob job, Function<String, WebhookEvent> parser,
+                                                    ExecutorService parsers, List<String> lines) {
+        job.read(lines.size());
+        return parsers.submit(() -> {
+            List<WebhookEvent> events = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                WebhookEvent event = parser.apply(line);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            job.invalid(lines.size() - events.size());
+            return events;
+        });
+    }
+
+    private static void report(ImportJob job) {
+        log.info("Import {}: {} lines, {} stored, {} duplicates, {} invalid, {} events/s",
+                job.id(), job.lines(), job.stored(), job.duplicates(), job.invalid(), Math.round(job.eventsPerSecond()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventPage;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventQuery;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventQueryRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+
+@Service
+public class EventQueryService {
+
+    private final EventQueryRepository repository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public EventQueryService(EventQueryRepository repository, WebhookProperties webhookProperties) {
+        this.repository = repository;
+        this.defaultPageSize = webhookProperties.getAdmin().getDefaultPageSize();
+        this.maxPageSize = webhookProperties.getAdmin().getMaxPageSize();
+    }
+
+    /**
+     * One page of matching events; {@code limit} defaults when null and is capped at the configured maximum.
+     */
+    public EventPage page(EventQuery query, EventCursor after, Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.clamp(limit, 1, maxPageSize);
+        return repository.findPage(query, after, size);
+    }
+
+    public void export(EventQuery query, Consumer<WebhookEvent> action) {
+        repository.forEach(query, action);
+    }
+}
@@ -0,0 +1,224 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of recently stored {@code (source, eventKey)} pairs in front of the repository.
+ * Known duplicates are answered from memory, and concurrent first deliveries of the same key
+ * are coalesced so only one caller runs the insert while the others wait for its result.
+ * Only the stored id and receive time are kept, so a cached duplicate has no status or payload.
+ * The cache is bounded both by entry count and by an estimate of the heap its entries hold.
+ */
+@Component
+public class IdempotencyCache {
+
+    /**
+     * Rough heap cost of an entry besides its key strings: map node, key, entry, UUID, Instant and queue node.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Key, CompletableFuture<InsertResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong weight = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long maxWeight;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    public IdempotencyCache(WebhookProperties webhookProperties, Clock clock, MeterRegistry meterRegistry) {
+        WebhookProperties.Idempotency config = webhookProperties.getIdempotency();
+        this.enabled = config.isEnabled();
+        this.maxSize = config.getMaxSize();
+        this.maxWeight = config.getMaxWeight().toBytes();
+        this.ttlMillis = config.getTtl().toMillis();
+        this.clock = clock;
+
+        FunctionCounter.builder("webhook.idempotency.cache", hits, LongAdder::sum).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("webhook.idempotency.cache", misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("webhook.idempotency.cache", coalesced, LongAdder::sum).tag("result", "coalesced").register(meterRegistry);
+        Gauge.builder("webhook.idempotency.cache.size", entries, ConcurrentHashMap::size).register(meterRegistry);
+        Gauge.builder("webhook.idempotency.cache.weight", weight, AtomicLong::get).baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached event for the key, or runs {@code insert} once across all concurrent
+     * callers for that key and caches what it stored.
+     */
+    public InsertResult getOrInsert(String source, String eventKey, Supplier<InsertResult> insert) {
+        return getOrInsert(source, eventKey, true, insert);
+    }
+
+    /**
+     * Like {@link #getOrInsert(String, String, Supplier)}; with {@code remember} false the result of
+     * {@code insert} is not cached, for writers whose result is not yet the stored event. Those
+     * report stored events through {@link #remember(WebhookEvent)} instead.
+     */
+    public InsertResult getOrInsert(String source, String eventKey, boolean remember, Supplier<InsertResult> insert) {
+        if (!enabled) {
+            return insert.get();
+        }
+        Key key = new Key(source, eventKey);
+
+        Entry cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return new InsertResult(new WebhookEvent(cached.id(), source, eventKey, null, null, cached.receivedAt(), null), false);
+        }
+
+        CompletableFuture<InsertResult> mine = new CompletableFuture<>();
+        CompletableFuture<InsertResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return new InsertResult(await(running).event(), false);
+        }
+
+        misses.increment();
+        try {
+            InsertResult result = insert.get();
+            if (remember) {
+                put(key, result.event());
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Caches an event known to be stored.
+     */
+    public void remember(WebhookEvent stored) {
+        if (enabled) {
+            put(new Key(stored.source(), stored.eventKey()), stored);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Estimated bytes held by the cached entries.
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    private Entry lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.millis()) {
+            remove(entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private void put(Key key, WebhookEvent event) {
+        long now = clock.millis();
+        Entry entry = new Entry(key, event.id(), event.receivedAt(), now + ttlMillis);
+        Entry replaced = entries.put(key, entry);
+        weight.addAndGet(entry.weight() - (replaced == null ? 0 : replaced.weight()));
+        insertionOrder.offer(entry);
+
+        evictStale(now);
+        while (entries.size() > maxSize || weight.get() > maxWeight) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            remove(oldest);
+        }
+    }
+
+    /**
+     * Drops nodes from the head of {@link #insertionOrder} that expired or were replaced or removed since.
+     * The TTL is fixed, so insertion order is expiry order and a live head means the expired nodes are gone;
+     * without this, a cache below its bounds would keep every node it ever queued.
+     */
+    private void evictStale(long now) {
+        Entry head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.expiresAtMillis() <= now || entries.get(head.key()) != head)) {
+            // remove(head) rather than poll(): a concurrent put may have taken the head already.
+            if (insertionOrder.remove(head)) {
+                remove(head);
+            }
+        }
+    }
+
+    /**
+     * Nodes in {@link #insertionOrder}, stale ones included; for tests.
+     */
+    int queued() {
+        return insertionOrder.size();
+    }
+
+    private void remove(Entry entry) {
+        if (entries.remove(entry.key(), entry)) {
+            weight.addAndGet(-entry.weight());
+        }
+    }
+
+    private static InsertResult await(CompletableFuture<InsertResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String source, String eventKey) { }
+
+    private record Entry(Key key, UUID id, Instant receivedAt, long expiresAtMillis) {
+
+        long weight() {
+            return ENTRY_OVERHEAD_BYTES + 2L * (key.source().length() + key.eventKey().length());
+        }
+    }
+}
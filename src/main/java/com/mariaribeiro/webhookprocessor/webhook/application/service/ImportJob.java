@@ -0,0 +1,112 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk import. Counters are updated while it runs and can be read at any time.
+ */
+public final class ImportJob {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final UUID id;
+    private final List<Path> files;
+    private final Instant startedAt;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong lines = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile long elapsedNanos = -1;
+    private volatile String error;
+
+    ImportJob(UUID id, List<Path> files, Instant startedAt) {
+        this.id = id;
+        this.files = List.copyOf(files);
+        this.startedAt = startedAt;
+    }
+
+    public UUID id() {
+        return id;
+    }
+
+    public List<Path> files() {
+        return files;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    public Instant finishedAt() {
+        return finishedAt;
+    }
+
+    public String error() {
+        return error;
+    }
+
+    /**
+     * Non-blank lines read so far.
+     */
+    public long lines() {
+        return lines.get();
+    }
+
+    public long invalid() {
+        return invalid.get();
+    }
+
+    public long stored() {
+        return stored.get();
+    }
+
+    /**
+     * Valid events skipped because their key was already stored.
+     */
+    public long duplicates() {
+        return loaded.get() - stored.get();
+    }
+
+    /**
+     * Valid events loaded, stored or not, per second since the start.
+     */
+    public double eventsPerSecond() {
+        long nanos = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+        return nanos == 0 ? 0 : loaded.get() * 1e9 / nanos;
+    }
+
+    void read(int count) {
+        lines.addAndGet(count);
+    }
+
+    void invalid(int count) {
+        invalid.addAndGet(count);
+    }
+
+    void loaded(int count, int storedCount) {
+        loaded.addAndGet(count);
+        stored.addAndGet(storedCount);
+    }
+
+    void finish(Instant at, Throwable failure) {
+        elapsedNanos = System.nanoTime() - startNanos;
+        finishedAt = at;
+        if (failure != null) {
+            error = failure.toString();
+        }
+        state = failure == null ? State.COMPLETED : State.FAILED;
+    }
+}
@@ -0,0 +1,117 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.webhook.port.out.KnownSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code POST /webhooks/{source}} as a whole ({@code webhook.ingest.requests}, tagged by
+ * outcome) and per stage ({@code webhook.ingest.stage}). Both publish percentile histograms. The
+ * {@code source} tag is the path value only for sources with a signing key, and
+ * {@value #UNKNOWN_SOURCE} otherwise, so arbitrary paths cannot create meters.
+ */
+@Component
+public class IngestionMetrics {
+
+    public static final String UNKNOWN_SOURCE = "unknown";
+
+    /**
+     * Hard cap on tagged sources in case the configuration itself is huge.
+     */
+    private static final int MAX_TAGGED_SOURCES = 256;
+
+    public enum Outcome {
+        CREATED, DUPLICATE, REPLAYED, BAD_REQUEST, UNAUTHORIZED, UNKNOWN_SOURCE, TOO_LARGE, THROTTLED, ERROR;
+
+        public static Outcome of(int status) {
+            return switch (status) {
+                case 201 -> CREATED;
+                case 200 -> DUPLICATE;
+                case 400 -> BAD_REQUEST;
+                case 401 -> UNAUTHORIZED;
+                case 404 -> UNKNOWN_SOURCE;
+                case 413 -> TOO_LARGE;
+                case 429 -> THROTTLED;
+                default -> ERROR;
+            };
+        }
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Stage {
+        HMAC, PARSE, DEDUPE, INSERT;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record SourceTimers(Map<Outcome, Timer> requests, Map<Stage, Timer> stages) {
+    }
+
+    private final KnownSources knownSources;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, SourceTimers> timers = new ConcurrentHashMap<>();
+
+    public IngestionMetrics(KnownSources knownSources, MeterRegistry meterRegistry) {
+        this.knownSources = knownSources;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void request(String source, Outcome outcome, long nanos) {
+        timers(source).requests().get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void stage(String source, Stage stage, long nanos) {
+        timers(source).stages().get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Timers by source tag, for sources that have recorded anything so far.
+     */
+    public Map<String, SourceTimers> timers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    private SourceTimers timers(String source) {
+        SourceTimers existing = timers.get(source);
+        if (existing != null) {
+            return existing;
+        }
+        boolean tagged = knownSources.isKnown(source) && timers.size() < MAX_TAGGED_SOURCES;
+        return timers.computeIfAbsent(tagged ? source : UNKNOWN_SOURCE, this::register);
+    }
+
+    private SourceTimers register(String source) {
+        Map<Outcome, Timer> requests = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            requests.put(outcome, Timer.builder("webhook.ingest.requests")
+                    .tag("source", source)
+                    .tag("outcome", outcome.tag())
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(meterRegistry));
+        }
+        Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("webhook.ingest.stage")
+                    .tag("source", source)
+                    .tag("stage", stage.tag())
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(meterRegistry));
+        }
+        return new SourceTimers(requests, stages);
+    }
+}
@@ -0,0 +1,107 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterQuery;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one dead-letter replay. Counters are updated while it runs and can be read at any time.
+ */
+public final class ReplayJob {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final UUID id;
+    private final DeadLetterQuery query;
+    private final double maxRate;
+    private final Instant startedAt;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong selected = new AtomicLong();
+    private final AtomicLong requeued = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile long elapsedNanos = -1;
+    private volatile String error;
+
+    ReplayJob(UUID id, DeadLetterQuery query, double maxRate, Instant startedAt) {
+        this.id = id;
+        this.query = query;
+        this.maxRate = maxRate;
+        this.startedAt = startedAt;
+    }
+
+    public UUID id() {
+        return id;
+    }
+
+    public DeadLetterQuery query() {
+        return query;
+    }
+
+    /**
+     * Events per second this replay is held to.
+     */
+    public double maxRate() {
+        return maxRate;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    public Instant finishedAt() {
+        return finishedAt;
+    }
+
+    public String error() {
+        return error;
+    }
+
+    /**
+     * Dead letters read so far.
+     */
+    public long selected() {
+        return selected.get();
+    }
+
+    public long requeued() {
+        return requeued.get();
+    }
+
+    /**
+     * Dead letters removed without requeueing, because their event was requeued meanwhile or is no longer stored.
+     */
+    public long skipped() {
+        return selected.get() - requeued.get();
+    }
+
+    /**
+     * Events requeued per second since the start.
+     */
+    public double eventsPerSecond() {
+        long nanos = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+        return nanos == 0 ? 0 : requeued.get() * 1e9 / nanos;
+    }
+
+    void requeued(int count, int requeuedCount) {
+        selected.addAndGet(count);
+        requeued.addAndGet(requeuedCount);
+    }
+
+    void finish(Instant at, Throwable failure) {
+        elapsedNanos = System.nanoTime() - startNanos;
+        finishedAt = at;
+        if (failure != null) {
+            error = failure.toString();
+        }
+        state = failure == null ? State.COMPLETED : State.FAILED;
+    }
+}
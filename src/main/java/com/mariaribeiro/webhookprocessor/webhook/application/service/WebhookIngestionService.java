@@ -1,15 +1,21 @@
 package com.mariaribeiro.webhookprocessor.webhook.application.service;
 
+import com.mariaribeiro.webhookprocessor.webhook.application.admission.AdmissionControl;
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
 import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
-import jakarta.transaction.Transactional;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventWriter;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static io.micrometer.common.util.StringUtils.isBlank;
@@ -18,36 +24,96 @@ import static io.micrometer.common.util.StringUtils.isBlank;
 @Service
 public class WebhookIngestionService {
 
+    private final WebhookEventWriter writer;
     private final WebhookEventRepository repository;
+    private final IdempotencyCache idempotencyCache;
     private final Clock clock;
+    private final IngestionMetrics metrics;
+    private final AdmissionControl admissionControl;
 
 
-    public WebhookIngestionService(WebhookEventRepository repository, Clock clock) {
+    public WebhookIngestionService(WebhookEventWriter writer, WebhookEventRepository repository, IdempotencyCache idempotencyCache,
+                                   Clock clock, IngestionMetrics metrics, AdmissionControl admissionControl) {
+        this.writer = writer;
         this.repository = repository;
+        this.idempotencyCache = idempotencyCache;
         this.clock = clock;
+        this.metrics = metrics;
+        this.admissionControl = admissionControl;
+        if (!writer.returnsStoredEvent()) {
+            writer.onStored(idempotencyCache::remember);
+        }
     }
 
-    @Transactional
-    public WebhookEvent ingest(String source, String eventKey, String payload){
+    /**
+     * Records the {@code insert} stage around the write and {@code dedupe} for the rest of the
+     * cache round trip; with the cache disabled the database's own duplicate check is part of insert.
+     */
+    public InsertResult ingest(String source, String eventKey, String payload){
         validate(source,eventKey,payload);
 
-        Optional<WebhookEvent> existing = repository.findBySourceAndEventKey(source,eventKey);
+        long start = System.nanoTime();
+        long[] insertNanos = new long[1];
+        InsertResult result = idempotencyCache.getOrInsert(source, eventKey, writer.returnsStoredEvent(), () -> {
+            WebhookEvent toSave = new WebhookEvent(
+                    UUID.randomUUID(),
+                    source,
+                    eventKey,
+                    payload,
+                    EventStatus.RECEIVED,
+                    Instant.now(clock),
+                    null
+            );
+            long insertStart = System.nanoTime();
+            try {
+                return writer.write(toSave);
+            } finally {
+                insertNanos[0] = System.nanoTime() - insertStart;
+                metrics.stage(source, IngestionMetrics.Stage.INSERT, insertNanos[0]);
+                admissionControl.onInsert(source, insertNanos[0]);
+            }
+        });
+        metrics.stage(source, IngestionMetrics.Stage.DEDUPE, System.nanoTime() - start - insertNanos[0]);
+        return result;
+    }
 
-        if(existing.isPresent()){
-            return existing.get();
+    /**
+     * Ingests one chunk of a batch: a single query finds the keys already stored, and the rest go
+     * to the configured writer together. Results are in item order; repeated keys within the chunk
+     * count as duplicates after their first occurrence.
+     */
+    public List<BatchItemResult> ingestAll(String source, List<BatchItem> items) {
+        for (BatchItem item : items) {
+            validate(source, item.eventKey(), item.payload());
         }
 
-        WebhookEvent toSave = new WebhookEvent(
-                UUID.randomUUID(),
-                source,
-                eventKey,
-                payload,
-                EventStatus.RECEIVED,
-                Instant.now(clock),
-                null
-        );
+        Set<String> existing = repository.findExistingEventKeys(source, items.stream().map(BatchItem::eventKey).toList());
+        Instant now = Instant.now(clock);
+        Map<String, WebhookEvent> fresh = new LinkedHashMap<>();
+        for (BatchItem item : items) {
+            if (!existing.contains(item.eventKey()) && !fresh.containsKey(item.eventKey())) {
+                fresh.put(item.eventKey(), new WebhookEvent(UUID.randomUUID(), source, item.eventKey(), item.payload(),
+                        EventStatus.RECEIVED, now, null));
+            }
+        }
 
-        return repository.save(toSave);
+        Map<String, InsertResult> inserted = new LinkedHashMap<>();
+        if (!fresh.isEmpty()) {
+            for (InsertResult result : writer.writeAll(new ArrayList<>(fresh.values()))) {
+                inserted.put(result.event().eventKey(), result);
+            }
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        for (BatchItem item : items) {
+            InsertResult result = inserted.remove(item.eventKey());
+            if (result != null && result.created()) {
+                results.add(new BatchItemResult(item.eventKey(), true, result.event().id()));
+            } else {
+                results.add(new BatchItemResult(item.eventKey(), false, null));
+            }
+        }
+        return results;
     }
 
     private static void validate(String source, String eventKey, String payload){
@@ -57,6 +123,9 @@ public class WebhookIngestionService {
         if(isBlank(eventKey)){
             throw new IllegalArgumentException("EventKey cannot be blank");
         }
+        if(source.length() > WebhookEvent.MAX_SOURCE_LENGTH || eventKey.length() > WebhookEvent.MAX_EVENT_KEY_LENGTH){
+            throw new IllegalArgumentException("Source or eventKey is longer than its column");
+        }
         if(Objects.isNull(payload)){
             throw new IllegalArgumentException("Payload cannot be blank");
         }
@@ -0,0 +1,12 @@
+package com.mariaribeiro.webhookprocessor.webhook.domain.model;
+
+public enum DeadLetterReason {
+    /**
+     * Every attempt the source's retry policy allows failed.
+     */
+    RETRIES_EXHAUSTED,
+    /**
+     * The handler threw {@code PoisonEventException}, so the event was not retried.
+     */
+    REJECTED
+}
@@ -4,5 +4,9 @@ public enum EventStatus {
     RECEIVED,
     PROCESSING,
     PROCESSED,
-    FAILED
+    FAILED,
+    /**
+     * Terminal: retries ran out or the handler rejected the event; replayed only on request.
+     */
+    DEAD_LETTERED
 }
@@ -0,0 +1,24 @@
+package com.mariaribeiro.webhookprocessor.webhook.domain.model;
+
+/**
+ * Spreads events over a fixed number of logical partitions by {@code (source, eventKey)}, so
+ * processing nodes can split the work by partition. The number is stored with each event, which is
+ * why the count is fixed: changing it would leave stored events in partitions computed the old way.
+ */
+public final class LogicalPartitions {
+
+    public static final int COUNT = 64;
+
+    /**
+     * Stable across JVMs: built on {@link String#hashCode()}, whose algorithm is specified.
+     */
+    public static int of(String source, String eventKey) {
+        long h = source.hashCode() * 0x9E3779B97F4A7C15L + eventKey.hashCode();
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) COUNT);
+    }
+
+    private LogicalPartitions() { }
+}
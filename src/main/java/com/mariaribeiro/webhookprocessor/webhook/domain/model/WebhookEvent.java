@@ -11,4 +11,10 @@ public record WebhookEvent(
         EventStatus status,
         Instant receivedAt,
         Instant processedAt) {
+
+    /**
+     * Column widths of {@code webhook_event}; longer values are rejected at ingestion.
+     */
+    public static final int MAX_SOURCE_LENGTH = 50;
+    public static final int MAX_EVENT_KEY_LENGTH = 120;
 }
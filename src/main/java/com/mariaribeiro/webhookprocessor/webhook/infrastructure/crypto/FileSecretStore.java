@@ -0,0 +1,52 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keys from the JSON file at {@code webhook.secret-store.file}, parsed again only when its
+ * modification time or size changes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "webhook.secret-store", name = "file")
+public class FileSecretStore implements SecretStore {
+
+    private static final TypeReference<Map<String, List<SigningKey>>> KEYS = new TypeReference<>() {
+    };
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private Object version;
+    private Map<String, List<SigningKey>> keys;
+
+    public FileSecretStore(WebhookProperties webhookProperties, ObjectMapper objectMapper) {
+        this.file = webhookProperties.getSecretStore().getFile();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized Map<String, List<SigningKey>> load() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            List<Object> current = List.of(attributes.lastModifiedTime(), attributes.size());
+            if (!current.equals(version)) {
+                keys = objectMapper.readValue(Files.readAllBytes(file), KEYS);
+                version = current;
+            }
+            return keys;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read signing keys from " + file, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+final class Hex {
+
+    /**
+     * Decodes {@code s[from, to)} as lowercase or uppercase hex, returning null when it is not valid hex.
+     */
+    static byte[] decode(String s, int from, int to) {
+        int len = to - from;
+        if (len <= 0 || (len & 1) != 0) {
+            return null;
+        }
+        byte[] out = new byte[len / 2];
+        for (int i = 0; i < out.length; i++) {
+            int hi = Character.digit(s.charAt(from + 2 * i), 16);
+            int lo = Character.digit(s.charAt(from + 2 * i + 1), 16);
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return out;
+    }
+
+    private Hex() { }
+}
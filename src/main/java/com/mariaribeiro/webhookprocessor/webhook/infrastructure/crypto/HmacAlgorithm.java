@@ -0,0 +1,23 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+public enum HmacAlgorithm {
+    HMAC_SHA1("HmacSHA1", "sha1="),
+    HMAC_SHA256("HmacSHA256", "sha256="),
+    HMAC_SHA512("HmacSHA512", "sha512=");
+
+    private final String jcaName;
+    private final String prefix;
+
+    HmacAlgorithm(String jcaName, String prefix) {
+        this.jcaName = jcaName;
+        this.prefix = prefix;
+    }
+
+    public String jcaName() {
+        return jcaName;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+}
@@ -4,14 +4,19 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.HexFormat;
 
+/**
+ * One-shot HMAC-SHA256 helpers for callers that sign outside the request path (outbound delivery, tests, tooling).
+ * Request verification goes through {@link SignatureVerifierRegistry}.
+ */
 public class HmacSha256Verifier {
     public static String signHex(String secret, String message) {
         try {
             Mac mac = Mac.getInstance("HmacSHA256");
             mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
             byte[] out = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
-            return toHex(out);
+            return HexFormat.of().formatHex(out);
         } catch (Exception e) {
             throw new IllegalStateException("HMAC error", e);
         }
@@ -24,11 +29,5 @@ public class HmacSha256Verifier {
                 b.getBytes(StandardCharsets.UTF_8));
     }
 
-    private static String toHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder(bytes.length * 2);
-        for (byte bt : bytes) sb.append(String.format("%02x", bt));
-        return sb.toString();
-    }
-
     private HmacSha256Verifier() {}
 }
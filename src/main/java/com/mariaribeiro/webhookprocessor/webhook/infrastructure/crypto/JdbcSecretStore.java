@@ -0,0 +1,45 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keys from the {@code webhook_source_key} table, enabled with {@code webhook.secret-store.jdbc}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "webhook.secret-store", name = "jdbc", havingValue = "true")
+public class JdbcSecretStore implements SecretStore {
+
+    private static final String SELECT_KEYS =
+            "SELECT source, key_id, secret, not_before, not_after FROM webhook_source_key ORDER BY source, key_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcSecretStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<String, List<SigningKey>> load() {
+        Map<String, List<SigningKey>> keys = new HashMap<>();
+        jdbcTemplate.query(SELECT_KEYS, rs -> {
+            keys.computeIfAbsent(rs.getString("source"), source -> new ArrayList<>()).add(new SigningKey(
+                    rs.getString("key_id"), rs.getString("secret"),
+                    toInstant(rs.getObject("not_before", OffsetDateTime.class)),
+                    toInstant(rs.getObject("not_after", OffsetDateTime.class))));
+        });
+        return keys;
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value == null ? null : value.toInstant();
+    }
+}
@@ -0,0 +1,63 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free pool of {@link Mac} instances already initialised with one key.
+ * Acquiring from an empty pool creates a new instance; releasing into a full pool drops it.
+ */
+final class MacPool {
+
+    private final HmacAlgorithm algorithm;
+    private final SecretKeySpec key;
+    private final AtomicReferenceArray<Mac> slots;
+
+    MacPool(HmacAlgorithm algorithm, byte[] secret, int size) {
+        this.algorithm = algorithm;
+        this.key = new SecretKeySpec(secret, algorithm.jcaName());
+        this.slots = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.set(i, newMac());
+        }
+    }
+
+    Mac acquire() {
+        int start = startIndex();
+        for (int i = 0; i < slots.length(); i++) {
+            int idx = (start + i) % slots.length();
+            Mac mac = slots.getAndSet(idx, null);
+            if (mac != null) {
+                return mac;
+            }
+        }
+        return newMac();
+    }
+
+    void release(Mac mac) {
+        mac.reset();
+        int start = startIndex();
+        for (int i = 0; i < slots.length(); i++) {
+            int idx = (start + i) % slots.length();
+            if (slots.get(idx) == null && slots.compareAndSet(idx, null, mac)) {
+                return;
+            }
+        }
+    }
+
+    private int startIndex() {
+        return (int) (Thread.currentThread().threadId() % slots.length());
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(algorithm.jcaName());
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC error", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+/**
+ * Signature header split into the signed timestamp (null when the scheme does not sign one)
+ * and the decoded digests to compare against.
+ */
+public record ParsedSignature(String timestamp, byte[][] digests) {
+}
@@ -0,0 +1,47 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keys from {@code webhook.secrets} (id {@value #DEFAULT_KEY_ID}, no validity window) and
+ * {@code webhook.sources.<name>.keys}.
+ */
+@Component
+public class PropertiesSecretStore implements SecretStore {
+
+    static final String DEFAULT_KEY_ID = "default";
+
+    private final Map<String, List<SigningKey>> keys;
+
+    public PropertiesSecretStore(WebhookProperties webhookProperties) {
+        Map<String, List<SigningKey>> loaded = new HashMap<>();
+        webhookProperties.getSecrets().forEach((source, secret) ->
+                loaded.computeIfAbsent(source, s -> new ArrayList<>()).add(new SigningKey(DEFAULT_KEY_ID, secret, null, null)));
+        webhookProperties.getSources().forEach((source, options) -> {
+            List<WebhookProperties.SourceKey> configured = options.getKeys();
+            for (int i = 0; i < configured.size(); i++) {
+                WebhookProperties.SourceKey key = configured.get(i);
+                loaded.computeIfAbsent(source, s -> new ArrayList<>()).add(new SigningKey(
+                        key.getId() != null ? key.getId() : Integer.toString(i), key.getSecret(),
+                        key.getNotBefore(), key.getNotAfter()));
+            }
+        });
+        this.keys = Map.copyOf(loaded);
+    }
+
+    @Override
+    public Map<String, List<SigningKey>> load() {
+        return keys;
+    }
+
+    @Override
+    public boolean reloadable() {
+        return false;
+    }
+}
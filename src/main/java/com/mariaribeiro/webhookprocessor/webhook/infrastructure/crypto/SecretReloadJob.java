@@ -0,0 +1,63 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reloads the signing keys every {@code webhook.secret-store.reload-interval} when a store can
+ * change after startup. Request threads never wait for it; they keep reading the previous
+ * snapshot until the new one is swapped in.
+ */
+@Slf4j
+@Component
+public class SecretReloadJob {
+
+    private final SignatureVerifierRegistry registry;
+    private final Duration interval;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public SecretReloadJob(SignatureVerifierRegistry registry, WorkerThreads workerThreads,
+                           WebhookProperties webhookProperties) {
+        this.registry = registry;
+        this.interval = webhookProperties.getSecretStore().getReloadInterval();
+        this.thread = registry.reloadable() ? workerThreads.newThread("webhook-secret-reload", this::loop) : null;
+    }
+
+    @PostConstruct
+    void start() {
+        if (thread != null) {
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                Thread.sleep(interval);
+                if (registry.reload()) {
+                    log.info("Reloaded webhook signing keys");
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Reloading webhook signing keys failed; keeping the current ones", e);
+            }
+        }
+    }
+}
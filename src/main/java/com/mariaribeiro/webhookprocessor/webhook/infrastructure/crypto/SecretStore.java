@@ -0,0 +1,23 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where signing keys come from. {@link SignatureVerifierRegistry} combines the keys of every store
+ * by source and calls {@link #load()} again on each reload.
+ */
+public interface SecretStore {
+
+    /**
+     * Keys by source. Throwing leaves the keys currently in use in place.
+     */
+    Map<String, List<SigningKey>> load();
+
+    /**
+     * Whether {@link #load()} can return something new after startup.
+     */
+    default boolean reloadable() {
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import javax.crypto.Mac;
+import java.security.MessageDigest;
+
+/**
+ * One in-progress verification: the body is fed chunk by chunk to the MAC of the key that matched
+ * last while it is read, and {@link #finish} compares the digest, retrying the source's other keys
+ * over the complete body only if that one does not match. Holds a pooled {@link Mac} until
+ * finished or aborted.
+ */
+public final class SignatureCheck {
+
+    private final VerificationResult failure;
+    private final SourceVerifier verifier;
+    private final SourceVerifier.Key[] keys;
+    private final SourceVerifier.Key first;
+    private final String timestamp;
+    private final byte[][] provided;
+    private final long nowEpochSeconds;
+    private Mac mac;
+
+    SignatureCheck(SourceVerifier verifier, SourceVerifier.Key[] keys, SourceVerifier.Key first, Mac mac,
+                   String timestamp, byte[][] provided, long nowEpochSeconds) {
+        this.failure = null;
+        this.verifier = verifier;
+        this.keys = keys;
+        this.first = first;
+        this.mac = mac;
+        this.timestamp = timestamp;
+        this.provided = provided;
+        this.nowEpochSeconds = nowEpochSeconds;
+    }
+
+    private SignatureCheck(VerificationResult failure) {
+        this.failure = failure;
+        this.verifier = null;
+        this.keys = null;
+        this.first = null;
+        this.timestamp = null;
+        this.provided = null;
+        this.nowEpochSeconds = 0;
+    }
+
+    static SignatureCheck failed(VerificationResult failure) {
+        return new SignatureCheck(failure);
+    }
+
+    /**
+     * True when the headers alone already decided the outcome; the body need not be read.
+     */
+    public boolean failedEarly() {
+        return failure != null;
+    }
+
+    public void update(byte[] chunk, int offset, int length) {
+        if (mac != null) {
+            mac.update(chunk, offset, length);
+        }
+    }
+
+    /**
+     * {@code body} is everything passed to {@link #update}, for the source's other keys.
+     */
+    public VerificationResult finish(byte[] body, int offset, int length) {
+        if (failure != null) {
+            return failure;
+        }
+        if (mac == null) {
+            throw new IllegalStateException("Signature check already finished");
+        }
+        byte[] expected;
+        try {
+            expected = mac.doFinal();
+        } finally {
+            abort();
+        }
+        if (matches(expected)) {
+            return VerificationResult.VERIFIED;
+        }
+        for (SourceVerifier.Key key : keys) {
+            if (key != first && key.spec.validAt(nowEpochSeconds) && matches(key.digest(timestamp, body, offset, length))) {
+                verifier.promote(keys, key);
+                return VerificationResult.VERIFIED;
+            }
+        }
+        return VerificationResult.INVALID_SIGNATURE;
+    }
+
+    /**
+     * Returns the MAC to its pool without a result, e.g. when reading the body failed.
+     */
+    public void abort() {
+        if (mac != null) {
+            first.macs.release(mac);
+            mac = null;
+        }
+    }
+
+    private boolean matches(byte[] expected) {
+        for (byte[] digest : provided) {
+            if (MessageDigest.isEqual(expected, digest)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
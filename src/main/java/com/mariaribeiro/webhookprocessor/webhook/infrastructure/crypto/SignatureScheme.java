@@ -0,0 +1,82 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provider-specific layout of the signature headers. Each scheme knows where the signed
+ * timestamp lives (if any) and how the digest is encoded.
+ */
+public enum SignatureScheme {
+
+    /**
+     * Default gateway contract: {@code X-Timestamp: <epoch>} and {@code X-Signature: [sha256=]<hex>}
+     * over {@code <timestamp>.<body>}.
+     */
+    TIMESTAMPED {
+        @Override
+        ParsedSignature parse(String signatureHeader, String timestampHeader, HmacAlgorithm algorithm) {
+            if (timestampHeader == null || timestampHeader.isBlank()) {
+                return new ParsedSignature(null, null);
+            }
+            byte[] digest = decodePrefixed(signatureHeader, algorithm);
+            return new ParsedSignature(timestampHeader, digest == null ? null : new byte[][]{digest});
+        }
+    },
+
+    /**
+     * Stripe style: {@code t=<epoch>,v1=<hex>[,v1=<hex>...]} over {@code <t>.<body>}.
+     */
+    STRIPE {
+        @Override
+        ParsedSignature parse(String signatureHeader, String timestampHeader, HmacAlgorithm algorithm) {
+            String timestamp = null;
+            List<byte[]> digests = new ArrayList<>(2);
+            int start = 0;
+            while (start < signatureHeader.length()) {
+                int end = signatureHeader.indexOf(',', start);
+                if (end < 0) {
+                    end = signatureHeader.length();
+                }
+                if (signatureHeader.startsWith("t=", start)) {
+                    timestamp = signatureHeader.substring(start + 2, end).trim();
+                } else if (signatureHeader.startsWith("v1=", start)) {
+                    byte[] digest = Hex.decode(signatureHeader, start + 3, end);
+                    if (digest != null) {
+                        digests.add(digest);
+                    }
+                }
+                start = end + 1;
+            }
+            return new ParsedSignature(timestamp, digests.isEmpty() ? null : digests.toArray(new byte[0][]));
+        }
+    },
+
+    /**
+     * GitHub style: {@code sha256=<hex>} over the raw body only. No timestamp is signed, so the
+     * replay window does not apply.
+     */
+    GITHUB {
+        @Override
+        ParsedSignature parse(String signatureHeader, String timestampHeader, HmacAlgorithm algorithm) {
+            byte[] digest = decodePrefixed(signatureHeader, algorithm);
+            return new ParsedSignature(null, digest == null ? null : new byte[][]{digest});
+        }
+
+        @Override
+        boolean signsTimestamp() {
+            return false;
+        }
+    };
+
+    abstract ParsedSignature parse(String signatureHeader, String timestampHeader, HmacAlgorithm algorithm);
+
+    boolean signsTimestamp() {
+        return true;
+    }
+
+    private static byte[] decodePrefixed(String header, HmacAlgorithm algorithm) {
+        int from = header.startsWith(algorithm.prefix()) ? algorithm.prefix().length() : 0;
+        return Hex.decode(header, from, header.length());
+    }
+}
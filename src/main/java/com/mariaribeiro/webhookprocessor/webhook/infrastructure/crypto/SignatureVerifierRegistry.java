@@ -0,0 +1,84 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.KnownSources;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source to {@link SourceVerifier} lookup over the keys of every {@link SecretStore}, with the
+ * per-source options under {@code webhook.sources}. Lookups read an immutable snapshot; a reload
+ * builds the next one aside and swaps it in, reusing the verifiers, and so the initialised MACs,
+ * of keys that did not change.
+ */
+@Component
+public class SignatureVerifierRegistry implements KnownSources {
+
+    private final WebhookProperties webhookProperties;
+    private final List<SecretStore> stores;
+    private volatile Map<String, SourceVerifier> verifiers;
+
+    public SignatureVerifierRegistry(WebhookProperties webhookProperties, List<SecretStore> stores) {
+        this.webhookProperties = webhookProperties;
+        this.stores = List.copyOf(stores);
+        this.verifiers = build(Map.of());
+    }
+
+    /**
+     * The source's verifier, or null when it has no keys.
+     */
+    public SourceVerifier find(String source) {
+        return verifiers.get(source);
+    }
+
+    @Override
+    public boolean isKnown(String source) {
+        return verifiers.containsKey(source);
+    }
+
+    public boolean reloadable() {
+        return stores.stream().anyMatch(SecretStore::reloadable);
+    }
+
+    /**
+     * Loads every store again and swaps in the result if any source's keys changed. Returns whether
+     * they did. A store that fails leaves the current keys in place.
+     */
+    public synchronized boolean reload() {
+        Map<String, SourceVerifier> current = verifiers;
+        Map<String, SourceVerifier> next = build(current);
+        boolean changed = next.size() != current.size()
+                || next.entrySet().stream().anyMatch(entry -> entry.getValue() != current.get(entry.getKey()));
+        if (changed) {
+            verifiers = next;
+        }
+        return changed;
+    }
+
+    private Map<String, SourceVerifier> build(Map<String, SourceVerifier> current) {
+        Map<String, List<SigningKey>> keys = new HashMap<>();
+        for (SecretStore store : stores) {
+            store.load().forEach((source, loaded) -> {
+                for (SigningKey key : loaded) {
+                    if (key.secret() != null && !key.secret().isBlank()) {
+                        keys.computeIfAbsent(source, s -> new ArrayList<>()).add(key);
+                    }
+                }
+            });
+        }
+
+        Map<String, SourceVerifier> built = new HashMap<>();
+        keys.forEach((source, sourceKeys) -> {
+            WebhookProperties.SourceProperties options = webhookProperties.sourceOptions(source);
+            SourceVerifier previous = current.get(source);
+            built.put(source, previous != null && previous.matches(sourceKeys, options.getSignatureScheme(), options.getAlgorithm())
+                    ? previous
+                    : new SourceVerifier(source, sourceKeys, options.getSignatureScheme(), options.getAlgorithm(), previous));
+        });
+        return Map.copyOf(built);
+    }
+}
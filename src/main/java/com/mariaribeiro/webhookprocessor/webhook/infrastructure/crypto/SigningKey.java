@@ -0,0 +1,20 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import java.time.Instant;
+
+/**
+ * One secret of a source. It verifies requests from {@code notBefore} (inclusive) until
+ * {@code notAfter} (exclusive); a null bound leaves that side open.
+ */
+public record SigningKey(String id, String secret, Instant notBefore, Instant notAfter) {
+
+    public boolean validAt(long epochSecond) {
+        return (notBefore == null || notBefore.getEpochSecond() <= epochSecond)
+                && (notAfter == null || epochSecond < notAfter.getEpochSecond());
+    }
+
+    @Override
+    public String toString() {
+        return "SigningKey[id=" + id + ", notBefore=" + notBefore + ", notAfter=" + notAfter + "]";
+    }
+}
@@ -0,0 +1,211 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Verifier prepared for a single source: each key is initialised once into pooled {@link Mac}
+ * instances, and the timestamp, separator and body are fed to the MAC without building the
+ * signed message as a String. A source can hold several keys while a secret is rotated; they are
+ * tried in most-recently-successful order, so only requests signed with a key other than the one
+ * that last matched pay for a second MAC.
+ */
+public final class SourceVerifier {
+
+    private static final int POOL_SIZE = 16;
+
+    private final String source;
+    private final SignatureScheme scheme;
+    private final HmacAlgorithm algorithm;
+    private final List<SigningKey> specs;
+    private final Key[] keys;
+    private volatile Key[] order;
+
+    /**
+     * Keys equal to one of {@code previous}'s keep its initialised MACs and their place in its
+     * most-recently-successful order.
+     */
+    public SourceVerifier(String source, List<SigningKey> keys, SignatureScheme scheme, HmacAlgorithm algorithm,
+                          SourceVerifier previous) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No signing key for source " + source);
+        }
+        this.source = source;
+        this.scheme = scheme;
+        this.algorithm = algorithm;
+        this.specs = List.copyOf(keys);
+        this.keys = new Key[specs.size()];
+        boolean reuse = previous != null && previous.algorithm == algorithm;
+        for (int i = 0; i < this.keys.length; i++) {
+            SigningKey spec = specs.get(i);
+            Key existing = reuse ? previous.key(spec) : null;
+            this.keys[i] = existing != null ? existing
+                    : new Key(spec, new MacPool(algorithm, spec.secret().getBytes(StandardCharsets.UTF_8), POOL_SIZE));
+        }
+        Key[] ordered = this.keys.clone();
+        if (reuse) {
+            List<Key> previousOrder = Arrays.asList(previous.order);
+            Arrays.sort(ordered, Comparator.comparingInt(key -> {
+                int rank = previousOrder.indexOf(key);
+                return rank < 0 ? Integer.MAX_VALUE : rank;
+            }));
+        }
+        this.order = ordered;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public SignatureScheme scheme() {
+        return scheme;
+    }
+
+    /**
+     * Whether this verifier was built from exactly these keys and options.
+     */
+    public boolean matches(List<SigningKey> keys, SignatureScheme scheme, HmacAlgorithm algorithm) {
+        return this.scheme == scheme && this.algorithm == algorithm && specs.equals(keys);
+    }
+
+    public VerificationResult verify(String signatureHeader, String timestampHeader,
+                                     byte[] body, int offset, int length,
+                                     long nowEpochSeconds, long replayWindowSeconds) {
+        SignatureCheck check = begin(signatureHeader, timestampHeader, nowEpochSeconds, replayWindowSeconds);
+        check.update(body, offset, length);
+        return check.finish(body, offset, length);
+    }
+
+    /**
+     * Checks the headers and starts a MAC over the signed prefix with the key that matched last;
+     * feed the body with {@link SignatureCheck#update} as it arrives. Header problems, and a source
+     * without a key in effect, fail the check immediately.
+     */
+    public SignatureCheck begin(String signatureHeader, String timestampHeader,
+                                long nowEpochSeconds, long replayWindowSeconds) {
+        if (signatureHeader == null || signatureHeader.isBlank()) {
+            return SignatureCheck.failed(VerificationResult.MISSING_SIGNATURE);
+        }
+        ParsedSignature parsed = scheme.parse(signatureHeader, timestampHeader, algorithm);
+
+        if (scheme.signsTimestamp()) {
+            if (parsed.timestamp() == null || parsed.timestamp().isBlank()) {
+                return SignatureCheck.failed(VerificationResult.MISSING_SIGNATURE);
+            }
+            long ts;
+            try {
+                ts = Long.parseLong(parsed.timestamp());
+            } catch (NumberFormatException e) {
+                return SignatureCheck.failed(VerificationResult.INVALID_TIMESTAMP);
+            }
+            if (Math.abs(nowEpochSeconds - ts) > replayWindowSeconds) {
+                return SignatureCheck.failed(VerificationResult.EXPIRED_TIMESTAMP);
+            }
+        }
+        if (parsed.digests() == null) {
+            return SignatureCheck.failed(VerificationResult.INVALID_SIGNATURE);
+        }
+
+        Key[] candidates = order;
+        Key first = null;
+        for (Key key : candidates) {
+            if (key.spec.validAt(nowEpochSeconds)) {
+                first = key;
+                break;
+            }
+        }
+        if (first == null) {
+            return SignatureCheck.failed(VerificationResult.INVALID_SIGNATURE);
+        }
+
+        String signedTimestamp = scheme.signsTimestamp() ? parsed.timestamp() : null;
+        Mac mac = first.macs.acquire();
+        if (signedTimestamp != null) {
+            updatePrefix(mac, signedTimestamp);
+        }
+        return new SignatureCheck(this, candidates, first, mac, signedTimestamp, parsed.digests(), nowEpochSeconds);
+    }
+
+    /**
+     * Signs {@code body} the same way inbound requests are verified, with the newest key in effect:
+     * the one with the latest {@code notBefore}, later keys winning ties.
+     */
+    public String signHex(long nowEpochSeconds, String timestamp, byte[] body, int offset, int length) {
+        Key newest = null;
+        for (Key key : keys) {
+            if (key.spec.validAt(nowEpochSeconds) && (newest == null || notBefore(key) >= notBefore(newest))) {
+                newest = key;
+            }
+        }
+        if (newest == null) {
+            throw new IllegalStateException("No signing key in effect for source " + source);
+        }
+        return HexFormat.of().formatHex(newest.digest(timestamp, body, offset, length));
+    }
+
+    /**
+     * Moves {@code key} to the front of the order after it verified a request that the front key did not.
+     * Concurrent promotions may overwrite each other; the loser is promoted again on its next match.
+     */
+    void promote(Key[] seen, Key key) {
+        if (seen[0] == key) {
+            return;
+        }
+        Key[] promoted = new Key[seen.length];
+        promoted[0] = key;
+        for (int i = 0, j = 1; i < seen.length; i++) {
+            if (seen[i] != key) {
+                promoted[j++] = seen[i];
+            }
+        }
+        order = promoted;
+    }
+
+    private Key key(SigningKey spec) {
+        for (Key key : keys) {
+            if (key.spec.equals(spec)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static long notBefore(Key key) {
+        return key.spec.notBefore() == null ? Long.MIN_VALUE : key.spec.notBefore().getEpochSecond();
+    }
+
+    static void updatePrefix(Mac mac, String timestamp) {
+        for (int i = 0; i < timestamp.length(); i++) {
+            mac.update((byte) timestamp.charAt(i));
+        }
+        mac.update((byte) '.');
+    }
+
+    static final class Key {
+
+        final SigningKey spec;
+        final MacPool macs;
+
+        Key(SigningKey spec, MacPool macs) {
+            this.spec = spec;
+            this.macs = macs;
+        }
+
+        byte[] digest(String timestamp, byte[] body, int offset, int length) {
+            Mac mac = macs.acquire();
+            try {
+                if (timestamp != null) {
+                    updatePrefix(mac, timestamp);
+                }
+                mac.update(body, offset, length);
+                return mac.doFinal();
+            } finally {
+                macs.release(mac);
+            }
+        }
+    }
+}
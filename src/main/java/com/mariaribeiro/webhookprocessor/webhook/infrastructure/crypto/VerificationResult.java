@@ -0,0 +1,9 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+public enum VerificationResult {
+    VERIFIED,
+    MISSING_SIGNATURE,
+    INVALID_TIMESTAMP,
+    EXPIRED_TIMESTAMP,
+    INVALID_SIGNATURE
+}
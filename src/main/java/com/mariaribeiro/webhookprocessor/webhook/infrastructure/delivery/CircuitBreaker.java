@@ -0,0 +1,64 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.delivery;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure breaker. After {@code failureThreshold} failures in a row calls are refused
+ * for {@code openNanos}; then a single probe is let through, and its outcome closes or re-opens it.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong(CLOSED);
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    CircuitBreaker(int failureThreshold, long openNanos, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    boolean tryAcquire() {
+        long until = openUntil.get();
+        if (until == CLOSED) {
+            return true;
+        }
+        if (nanoClock.getAsLong() - until < 0) {
+            return false;
+        }
+        return probing.compareAndSet(false, true);
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        openUntil.set(CLOSED);
+        probing.set(false);
+    }
+
+    void onFailure() {
+        if (probing.compareAndSet(true, false) || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntil.set(nanoClock.getAsLong() + openNanos);
+        }
+    }
+
+    State state() {
+        long until = openUntil.get();
+        if (until == CLOSED) {
+            return State.CLOSED;
+        }
+        return nanoClock.getAsLong() - until < 0 ? State.OPEN : State.HALF_OPEN;
+    }
+}
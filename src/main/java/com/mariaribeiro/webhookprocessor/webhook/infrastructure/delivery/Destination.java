@@ -0,0 +1,82 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.delivery;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host delivery state: a concurrency limit, a circuit breaker and latency timers. Waiting for a
+ * permit is bounded, so a slow subscriber cannot pile up handler threads behind its limit.
+ */
+final class Destination {
+
+    private final String name;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final CircuitBreaker breaker;
+    private final Timer succeeded;
+    private final Timer failed;
+
+    Destination(String name, int maxConcurrency, long acquireTimeoutNanos, CircuitBreaker breaker, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrency);
+        this.acquireTimeoutNanos = acquireTimeoutNanos;
+        this.breaker = breaker;
+        this.succeeded = latencyTimer(meterRegistry, name, "success");
+        this.failed = latencyTimer(meterRegistry, name, "failure");
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Takes a permit or fails; every successful call must be paired with {@link #complete}.
+     */
+    void acquire() {
+        if (breaker.state() == CircuitBreaker.State.OPEN) {
+            throw new IllegalStateException("Circuit open for destination " + name);
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("Destination " + name + " is at its concurrency limit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for destination " + name, e);
+        }
+        if (!breaker.tryAcquire()) {
+            permits.release();
+            throw new IllegalStateException("Circuit open for destination " + name);
+        }
+    }
+
+    void complete(long elapsedNanos, boolean success) {
+        try {
+            if (success) {
+                succeeded.record(elapsedNanos, TimeUnit.NANOSECONDS);
+                breaker.onSuccess();
+            } else {
+                failed.record(elapsedNanos, TimeUnit.NANOSECONDS);
+                breaker.onFailure();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String destination, String outcome) {
+        return Timer.builder("webhook.delivery.latency")
+                .description("Outbound delivery round trip per subscriber host")
+                .tag("destination", destination)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
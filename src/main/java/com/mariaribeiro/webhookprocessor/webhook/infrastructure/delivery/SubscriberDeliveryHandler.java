@@ -0,0 +1,190 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.delivery;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.application.processing.EventHandlerRegistry;
+import com.mariaribeiro.webhookprocessor.webhook.application.processing.WebhookEventHandler;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeliveryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Fans processed events out to {@code webhook.sources.<source>.subscribers}. All deliveries share
+ * one HTTP/2 client, so requests to the same host are multiplexed over pooled connections. The
+ * body is the stored payload, signed with the subscriber's own secret under the gateway's
+ * {@code X-Timestamp}/{@code X-Signature} contract; a subscriber without one fails startup, as
+ * signing with the source's inbound secret would let anyone holding it forge gateway deliveries. The event fails unless every subscriber answers
+ * 2xx; the subscribers that did are recorded, and its retries only go to the others. Handling is
+ * asynchronous, so no handler thread waits on the subscribers.
+ */
+@Component
+@ConditionalOnProperty(prefix = "webhook.delivery", name = "enabled", havingValue = "true")
+public class SubscriberDeliveryHandler implements WebhookEventHandler {
+
+    private final DeliveryRepository deliveries;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final WebhookProperties.Delivery config;
+    private final Map<String, List<Target>> subscribers;
+    private final ConcurrentMap<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    public SubscriberDeliveryHandler(DeliveryRepository deliveries, MeterRegistry meterRegistry, Clock clock,
+                                     WorkerThreads workerThreads, WebhookProperties webhookProperties) {
+        this.deliveries = deliveries;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.config = webhookProperties.getDelivery();
+        this.executor = workerThreads.newUnboundedExecutor("webhook-delivery-");
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(config.getConnectTimeout())
+                .executor(executor)
+                .build();
+
+        Map<String, List<Target>> bySource = new HashMap<>();
+        webhookProperties.getSources().forEach((source, options) -> {
+            List<Target> targets = new ArrayList<>();
+            for (WebhookProperties.Subscriber subscriber : options.getSubscribers()) {
+                if (subscriber.getSecret() == null || subscriber.getSecret().isBlank()) {
+                    throw new IllegalStateException("No signing secret for subscriber " + subscriber.getUrl() + " of source " + source);
+                }
+                targets.add(new Target(URI.create(subscriber.getUrl()), subscriber.getSecret()));
+            }
+            if (!targets.isEmpty()) {
+                bySource.put(source, List.copyOf(targets));
+            }
+        });
+        this.subscribers = Map.copyOf(bySource);
+    }
+
+    @PreDestroy
+    void stop() {
+        httpClient.close();
+        executor.shutdown();
+    }
+
+    @Override
+    public String source() {
+        return EventHandlerRegistry.ANY_SOURCE;
+    }
+
+    @Override
+    public void handle(WebhookEvent event) throws Exception {
+        try {
+            handleAsync(event).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> handleAsync(WebhookEvent event) {
+        List<Target> targets = subscribers.getOrDefault(event.source(), List.of());
+        if (targets.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Set<String> delivered = deliveries.findDelivered(event.id());
+        byte[] body = event.payload().getBytes(StandardCharsets.UTF_8);
+        String timestamp = Long.toString(clock.instant().getEpochSecond());
+        String message = timestamp + "." + event.payload();
+
+        List<URI> pending = new ArrayList<>(targets.size());
+        List<CompletableFuture<Void>> attempts = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            if (delivered.contains(target.uri().toString())) {
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder(target.uri())
+                    .timeout(config.getRequestTimeout())
+                    .header("Content-Type", "application/json")
+                    .header("X-Timestamp", timestamp)
+                    .header("X-Signature", HmacSha256Verifier.signHex(target.secret(), message))
+                    .header("X-Webhook-Source", event.source())
+                    .header("X-Webhook-Event-Key", event.eventKey())
+                    .header("X-Webhook-Event-Id", event.id().toString())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            pending.add(target.uri());
+            attempts.add(deliver(request));
+        }
+
+        return CompletableFuture.allOf(attempts.toArray(new CompletableFuture[0])).handle((ignored, error) -> {
+            if (error == null) {
+                if (!delivered.isEmpty()) {
+                    deliveries.clear(event.id());
+                }
+                return null;
+            }
+            List<String> succeeded = new ArrayList<>();
+            for (int i = 0; i < attempts.size(); i++) {
+                if (!attempts.get(i).isCompletedExceptionally()) {
+                    succeeded.add(pending.get(i).toString());
+                }
+            }
+            deliveries.recordDelivered(event.id(), succeeded, clock.instant());
+            throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+        });
+    }
+
+    CompletableFuture<Void> deliver(HttpRequest request) {
+        Destination destination = destinationFor(request.uri());
+        try {
+            destination.acquire();
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    destination.complete(System.nanoTime() - start, success);
+                    if (error != null) {
+                        throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                    }
+                    if (!success) {
+                        throw new IllegalStateException("Subscriber " + request.uri() + " answered " + response.statusCode());
+                    }
+                    return null;
+                });
+    }
+
+    Destination destinationFor(URI target) {
+        return destinations.computeIfAbsent(target.getScheme() + "://" + target.getAuthority(), key ->
+                new Destination(target.getAuthority(),
+                        config.getMaxConcurrencyPerDestination(),
+                        config.getAcquireTimeout().toNanos(),
+                        new CircuitBreaker(config.getFailureThreshold(), config.getOpenDuration().toNanos(), System::nanoTime),
+                        meterRegistry));
+    }
+
+    private record Target(URI uri, String secret) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a deflate preset dictionary from sample payloads: JSON tokens (keys with their colon, string
+ * values, literals and punctuation runs) that recur across samples, followed by the first sample in
+ * full so whole runs of structure can match. Deflate matches are cheapest at short distances, so the
+ * most valuable content is written last, next to the data.
+ */
+final class DictionaryTrainer {
+
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    static byte[] train(List<String> samples, int maxSize) {
+        byte[] template = samples.getFirst().getBytes(StandardCharsets.UTF_8);
+        if (template.length > maxSize / 2) {
+            template = new byte[0];
+        }
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (String sample : samples) {
+            for (String token : tokens(sample)) {
+                documentFrequency.merge(token, 1, Integer::sum);
+            }
+        }
+
+        int minFrequency = Math.max(2, samples.size() / 10);
+        List<Scored> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : documentFrequency.entrySet()) {
+            if (entry.getValue() >= minFrequency) {
+                byte[] bytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                candidates.add(new Scored(bytes, (long) entry.getValue() * bytes.length));
+            }
+        }
+        candidates.sort(Comparator.comparingLong(Scored::score).reversed());
+
+        List<Scored> chosen = new ArrayList<>();
+        int size = 0;
+        for (Scored candidate : candidates) {
+            if (size + candidate.bytes().length <= maxSize - template.length) {
+                chosen.add(candidate);
+                size += candidate.bytes().length;
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + template.length);
+        for (int i = chosen.size() - 1; i >= 0; i--) {
+            out.writeBytes(chosen.get(i).bytes());
+        }
+        out.writeBytes(template);
+        return out.toByteArray();
+    }
+
+    static Set<String> tokens(String json) {
+        Set<String> tokens = new HashSet<>();
+        int i = 0;
+        while (i < json.length()) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                int end = i + 1;
+                while (end < json.length() && json.charAt(end) != '"') {
+                    end += json.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 1, json.length());
+                int next = end;
+                while (next < json.length() && Character.isWhitespace(json.charAt(next))) {
+                    next++;
+                }
+                if (next < json.length() && json.charAt(next) == ':') {
+                    end = next + 1;
+                }
+                add(tokens, json.substring(i, end));
+                i = end;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int end = i;
+                while (end < json.length() && json.charAt(end) != '"' && !Character.isWhitespace(json.charAt(end))) {
+                    end++;
+                }
+                add(tokens, json.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private static void add(Set<String> tokens, String token) {
+        if (token.length() >= MIN_TOKEN_LENGTH) {
+            tokens.add(token);
+        }
+    }
+
+    private record Scored(byte[] bytes, long score) {
+    }
+
+    private DictionaryTrainer() { }
+}
@@ -0,0 +1,33 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default writer: one idempotent insert (and one commit) per event on the request thread, and one
+ * batched insert per batch chunk.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "webhook.ingestion", name = "mode", havingValue = "direct", matchIfMissing = true)
+public class DirectWebhookEventWriter implements WebhookEventWriter {
+
+    private final WebhookEventRepository repository;
+
+    @Override
+    public InsertResult write(WebhookEvent webhookEvent) {
+        return repository.insertIfAbsent(webhookEvent);
+    }
+
+    @Override
+    public List<InsertResult> writeAll(List<WebhookEvent> webhookEvents) {
+        return repository.insertAllIfAbsent(webhookEvents);
+    }
+}
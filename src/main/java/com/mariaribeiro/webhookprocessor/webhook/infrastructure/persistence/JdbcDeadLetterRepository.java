@@ -0,0 +1,131 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetter;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterPage;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterQuery;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toInstant;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
+
+/**
+ * Keyset pagination on {@code (dead_lettered_at, event_id)}, served by
+ * {@code idx_webhook_dead_letter_dead_lettered_at} or {@code idx_webhook_dead_letter_source_dead_lettered_at}.
+ * The error filter is a {@code LIKE} scan over whatever rows the other filters leave.
+ */
+@Component
+public class JdbcDeadLetterRepository implements DeadLetterRepository {
+
+    private static final String COLUMNS =
+            "event_id, source, event_key, received_at, dead_lettered_at, reason, last_error, attempt_count";
+
+    // One statement per slice, so its row count is the number requeued whatever the driver reports for batches.
+    // received_at lets PostgreSQL prune partitions; the status guard skips events requeued meanwhile.
+    private static final String REQUEUE =
+            "UPDATE webhook_event SET status = 'RECEIVED', attempt_count = 0, next_attempt_at = NULL " +
+            "WHERE id IN (%s) AND received_at IN (%s) AND status = 'DEAD_LETTERED'";
+
+    private static final String DELETE = "DELETE FROM webhook_dead_letter WHERE event_id IN (%s)";
+
+    private static final RowMapper<DeadLetter> MAPPER = (rs, rowNum) -> new DeadLetter(
+            rs.getObject("event_id", UUID.class),
+            rs.getString("source"),
+            rs.getString("event_key"),
+            toInstant(rs.getObject("received_at", OffsetDateTime.class)),
+            toInstant(rs.getObject("dead_lettered_at", OffsetDateTime.class)),
+            DeadLetterReason.valueOf(rs.getString("reason")),
+            rs.getString("last_error"),
+            rs.getInt("attempt_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcDeadLetterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public DeadLetterPage findPage(DeadLetterQuery query, DeadLetterCursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM webhook_dead_letter WHERE 1 = 1");
+        if (query.source() != null) {
+            sql.append(" AND source = ?");
+            params.add(query.source());
+        }
+        if (query.reason() != null) {
+            sql.append(" AND reason = ?");
+            params.add(query.reason().name());
+        }
+        if (query.from() != null) {
+            sql.append(" AND dead_lettered_at >= ?");
+            params.add(toOffset(query.from()));
+        }
+        if (query.to() != null) {
+            sql.append(" AND dead_lettered_at < ?");
+            params.add(toOffset(query.to()));
+        }
+        if (query.error() != null) {
+            sql.append(" AND LOWER(last_error) LIKE ? ESCAPE '\\'");
+            params.add("%" + escapeLike(query.error().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (after != null) {
+            sql.append(" AND dead_lettered_at >= ? AND (dead_lettered_at, event_id) > (?, ?)");
+            params.add(toOffset(after.deadLetteredAt()));
+            params.add(toOffset(after.deadLetteredAt()));
+            params.add(after.eventId());
+        }
+        sql.append(" ORDER BY dead_lettered_at, event_id LIMIT ?");
+        params.add(limit + 1);
+
+        List<DeadLetter> deadLetters = jdbcTemplate.query(sql.toString(), MAPPER, params.toArray());
+        if (deadLetters.size() <= limit) {
+            return new DeadLetterPage(deadLetters, null);
+        }
+        List<DeadLetter> page = deadLetters.subList(0, limit);
+        DeadLetter last = page.getLast();
+        return new DeadLetterPage(List.copyOf(page), new DeadLetterCursor(last.deadLetteredAt(), last.eventId()));
+    }
+
+    @Override
+    @Transactional
+    public int requeue(List<DeadLetter> deadLetters) {
+        if (deadLetters.isEmpty()) {
+            return 0;
+        }
+        List<Object> ids = new ArrayList<>(deadLetters.size());
+        Set<OffsetDateTime> receivedAts = new LinkedHashSet<>();
+        for (DeadLetter deadLetter : deadLetters) {
+            ids.add(deadLetter.eventId());
+            receivedAts.add(toOffset(deadLetter.receivedAt()));
+        }
+        List<Object> params = new ArrayList<>(ids);
+        params.addAll(receivedAts);
+        // Ids are unique, so matching received_at against the whole set still picks each event's own row.
+        int requeued = jdbcTemplate.update(REQUEUE.formatted(placeholders(ids.size()), placeholders(receivedAts.size())),
+                params.toArray());
+        jdbcTemplate.update(DELETE.formatted(placeholders(ids.size())), ids.toArray());
+        return requeued;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,60 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeliveryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
+
+/**
+ * Rows only exist for events some subscriber has not acknowledged yet: a fan-out that fully
+ * succeeds on its first attempt writes nothing.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcDeliveryRepository implements DeliveryRepository {
+
+    private static final String FIND_DELIVERED =
+            "SELECT subscriber FROM webhook_delivery WHERE event_id = ?";
+
+    private static final String INSERT_DELIVERED =
+            "INSERT INTO webhook_delivery (event_id, subscriber, delivered_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String DELETE =
+            "DELETE FROM webhook_delivery WHERE event_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<String> findDelivered(UUID eventId) {
+        return new HashSet<>(jdbcTemplate.queryForList(FIND_DELIVERED, String.class, eventId));
+    }
+
+    @Override
+    public void recordDelivered(UUID eventId, Collection<String> subscribers, Instant deliveredAt) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        OffsetDateTime at = toOffset(deliveredAt);
+        List<Object[]> rows = new ArrayList<>(subscribers.size());
+        for (String subscriber : subscribers) {
+            rows.add(new Object[]{eventId, subscriber, at});
+        }
+        jdbcTemplate.batchUpdate(INSERT_DELIVERED, rows);
+    }
+
+    @Override
+    public void clear(UUID eventId) {
+        jdbcTemplate.update(DELETE, eventId);
+    }
+}
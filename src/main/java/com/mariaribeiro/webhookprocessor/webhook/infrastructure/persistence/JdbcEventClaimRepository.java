@@ -0,0 +1,206 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.ClaimedEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventClaimRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.StatusUpdate;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.COLUMNS;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.rowMapper;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
+
+@Component
+public class JdbcEventClaimRepository implements EventClaimRepository {
+
+    // Served by idx_webhook_event_status_received_at; SKIP LOCKED lets concurrent workers (threads
+    // or instances) take the next unlocked rows instead of queueing behind the oldest ones.
+    private static final String SELECT_RECEIVED =
+            "SELECT " + COLUMNS + ", attempt_count FROM webhook_event WHERE status = 'RECEIVED' " +
+            "ORDER BY received_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // Served by idx_webhook_event_status_partition_received_at.
+    private static final String SELECT_RECEIVED_IN =
+            "SELECT " + COLUMNS + ", attempt_count FROM webhook_event WHERE status = 'RECEIVED' " +
+            "AND logical_partition IN (%s) ORDER BY received_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_PROCESSING =
+            "UPDATE webhook_event SET status = 'PROCESSING', claimed_at = ?, claimed_by = ? WHERE id = ?";
+
+    // Rows claimed before claimed_at existed have none and count as expired.
+    private static final String RELEASE_EXPIRED =
+            "UPDATE webhook_event SET status = 'RECEIVED', claimed_at = NULL, claimed_by = NULL " +
+            "WHERE status = 'PROCESSING' AND (claimed_at IS NULL OR claimed_at < ?)";
+
+    // Served by idx_webhook_event_status_partition_received_at. Claims without a claimant (leases
+    // off, or made before claimed_by existed) are left to RELEASE_EXPIRED.
+    private static final String RELEASE_DEAD_NODES =
+            "UPDATE webhook_event SET status = 'RECEIVED', claimed_at = NULL, claimed_by = NULL " +
+            "WHERE status = 'PROCESSING' AND logical_partition IN (%s) AND claimed_by NOT IN (%s)";
+
+    private static final String RELEASE =
+            "UPDATE webhook_event SET status = 'RECEIVED', claimed_at = NULL, claimed_by = NULL " +
+            "WHERE status = 'PROCESSING' AND id IN (%s)";
+
+    // Only the claim that is still held may complete: after a release and a new claim, claimed_at
+    // (and claimed_by) no longer match. received_at lets PostgreSQL prune partitions.
+    private static final String COMPLETE =
+            "UPDATE webhook_event SET status = ?, processed_at = ?, attempt_count = ?, next_attempt_at = ? " +
+            "WHERE id = ? AND received_at = ? AND status = 'PROCESSING' " +
+            "AND claimed_at = ? AND claimed_by IS NOT DISTINCT FROM ?";
+
+    private static final String INSERT_DEAD_LETTER =
+            "INSERT INTO webhook_dead_letter " +
+            "(event_id, source, event_key, received_at, dead_lettered_at, reason, last_error, attempt_count) " +
+            "SELECT id, source, event_key, received_at, ?, ?, ?, ? FROM webhook_event WHERE id = ? AND received_at = ? " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final int MAX_ERROR_LENGTH = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final RowMapper<ClaimedEvent> claimedMapper;
+
+    public JdbcEventClaimRepository(JdbcTemplate jdbcTemplate, PayloadCodec codec, Clock clock) {
+        RowMapper<WebhookEvent> eventMapper = rowMapper(codec);
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.claimedMapper = (rs, rowNum) -> {
+            WebhookEvent event = eventMapper.mapRow(rs, rowNum);
+            return new ClaimedEvent(
+                    new WebhookEvent(event.id(), event.source(), event.eventKey(), event.payload(),
+                            EventStatus.PROCESSING, event.receivedAt(), event.processedAt()),
+                    rs.getInt("attempt_count"), null, null);
+        };
+    }
+
+    @Override
+    @Transactional
+    public List<ClaimedEvent> claimReceived(int limit) {
+        return markProcessing(jdbcTemplate.query(SELECT_RECEIVED, claimedMapper, limit), null);
+    }
+
+    @Override
+    @Transactional
+    public List<ClaimedEvent> claimReceived(int limit, int[] partitions, String nodeId) {
+        if (partitions.length == 0) {
+            return List.of();
+        }
+        Object[] params = new Object[partitions.length + 1];
+        for (int i = 0; i < partitions.length; i++) {
+            params[i] = partitions[i];
+        }
+        params[partitions.length] = limit;
+        return markProcessing(jdbcTemplate.query(SELECT_RECEIVED_IN.formatted(placeholders(partitions.length)),
+                claimedMapper, params), nodeId);
+    }
+
+    private List<ClaimedEvent> markProcessing(List<ClaimedEvent> claimed, String nodeId) {
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+        // Stored at the column's precision, so the write-back can match it exactly.
+        Instant claimedAt = Instant.now(clock).truncatedTo(ChronoUnit.MICROS);
+        List<Object[]> ids = new ArrayList<>(claimed.size());
+        List<ClaimedEvent> marked = new ArrayList<>(claimed.size());
+        for (ClaimedEvent c : claimed) {
+            ids.add(new Object[]{toOffset(claimedAt), nodeId, c.event().id()});
+            marked.add(new ClaimedEvent(c.event(), c.attemptCount(), claimedAt, nodeId));
+        }
+        jdbcTemplate.batchUpdate(MARK_PROCESSING, ids);
+        return marked;
+    }
+
+    @Override
+    public int releaseExpiredClaims(Instant claimedBefore) {
+        return jdbcTemplate.update(RELEASE_EXPIRED, toOffset(claimedBefore));
+    }
+
+    @Override
+    public int releaseClaimsOfDeadNodes(int[] partitions, List<String> liveNodes) {
+        if (partitions.length == 0 || liveNodes.isEmpty()) {
+            return 0;
+        }
+        List<Object> params = new ArrayList<>(partitions.length + liveNodes.size());
+        for (int partition : partitions) {
+            params.add(partition);
+        }
+        params.addAll(liveNodes);
+        String sql = RELEASE_DEAD_NODES.formatted(placeholders(partitions.length), placeholders(liveNodes.size()));
+        return jdbcTemplate.update(sql, params.toArray());
+    }
+
+    @Override
+    public int releaseClaims(List<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(RELEASE.formatted(placeholders(eventIds.size())), eventIds.toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    @Override
+    @Transactional
+    public List<StatusUpdate> completeAll(List<StatusUpdate> updates) {
+        if (updates.isEmpty()) {
+            return updates;
+        }
+        List<Object[]> batch = new ArrayList<>(updates.size());
+        for (StatusUpdate update : updates) {
+            ClaimedEvent claim = update.claim();
+            batch.add(new Object[]{
+                    update.status().name(),
+                    toOffset(update.processedAt()),
+                    update.attemptCount(),
+                    toOffset(update.nextAttemptAt()),
+                    update.eventId(),
+                    toOffset(claim.event().receivedAt()),
+                    toOffset(claim.claimedAt()),
+                    claim.claimedBy()});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(COMPLETE, batch);
+
+        // A driver that reports no count (negative) still ran the update; ON CONFLICT covers that case.
+        List<StatusUpdate> completed = new ArrayList<>(updates.size());
+        List<Object[]> deadLetters = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            StatusUpdate update = updates.get(i);
+            completed.add(update);
+            if (update.status() == EventStatus.DEAD_LETTERED) {
+                deadLetters.add(new Object[]{
+                        toOffset(update.processedAt()),
+                        update.deadLetterReason().name(),
+                        truncate(update.lastError()),
+                        update.attemptCount(),
+                        update.eventId(),
+                        toOffset(update.claim().event().receivedAt())});
+            }
+        }
+        if (!deadLetters.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DEAD_LETTER, deadLetters);
+        }
+        return completed;
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,162 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventImportRepository;
+import jakarta.transaction.Transactional;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.INSERT_COLUMNS;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.INSERT;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.INSERT_KEY;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.insertParams;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.keyParams;
+
+/**
+ * On PostgreSQL, streams each chunk with {@code COPY FROM STDIN} into a session-local staging table
+ * and merges it in one statement: keys are claimed in {@code webhook_event_key} with
+ * {@code ON CONFLICT DO NOTHING} and only the events whose key was claimed are inserted. Elsewhere
+ * (H2) the same two steps run as JDBC batches of the whole chunk. Archives often predate the oldest
+ * partition left by retention, so {@link #prepare} creates partitions for the chunk's receive times
+ * first, in their own transactions.
+ */
+@Component
+public class JdbcEventImportRepository implements EventImportRepository {
+
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE IF NOT EXISTS webhook_event_import (LIKE webhook_event INCLUDING DEFAULTS) ON COMMIT DELETE ROWS";
+
+    private static final String COPY = "COPY webhook_event_import (" + INSERT_COLUMNS + ") FROM STDIN";
+
+    private static final String MERGE =
+            "WITH claimed AS (" +
+            "INSERT INTO webhook_event_key (source, event_key, event_id, received_at) " +
+            "SELECT source, event_key, id, received_at FROM webhook_event_import " +
+            "ON CONFLICT DO NOTHING RETURNING event_id) " +
+            "INSERT INTO webhook_event (" + INSERT_COLUMNS + ") " +
+            "SELECT " + INSERT_COLUMNS + " FROM webhook_event_import WHERE id IN (SELECT event_id FROM claimed)";
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PayloadCodec codec;
+    private final PartitionMaintenanceJob partitions;
+    private final boolean copy;
+
+    public JdbcEventImportRepository(JdbcTemplate jdbcTemplate, PayloadCodec codec, PartitionMaintenanceJob partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+        this.partitions = partitions;
+        this.copy = "PostgreSQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+    }
+
+    @Override
+    public void prepare(List<WebhookEvent> events) {
+        Set<Instant> receivedAt = new HashSet<>();
+        for (WebhookEvent event : events) {
+            receivedAt.add(event.receivedAt());
+        }
+        partitions.createCovering(receivedAt);
+    }
+
+    @Override
+    @Transactional
+    public int importAll(List<WebhookEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        return copy ? copyAndMerge(events) : batchInsert(events);
+    }
+
+    private int copyAndMerge(List<WebhookEvent> events) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (OutputStream out = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY, COPY_BUFFER_SIZE)) {
+                for (WebhookEvent event : events) {
+                    writeRow(out, insertParams(codec, event));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+        return jdbcTemplate.update(MERGE);
+    }
+
+    private int batchInsert(List<WebhookEvent> events) {
+        List<Object[]> keys = new ArrayList<>(events.size());
+        for (WebhookEvent event : events) {
+            keys.add(keyParams(event));
+        }
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_KEY, keys);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            if (counts[i] == 1) {
+                rows.add(insertParams(codec, events.get(i)));
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+        return rows.size();
+    }
+
+    /**
+     * One row in COPY's text format: tab-separated, {@code \N} for null, backslash escapes in text
+     * and {@code \\x} hex for bytea.
+     */
+    static void writeRow(OutputStream out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            Object value = values[i];
+            if (value == null) {
+                out.write('\\');
+                out.write('N');
+            } else if (value instanceof byte[] bytes) {
+                out.write("\\\\x".getBytes(StandardCharsets.US_ASCII));
+                out.write(HexFormat.of().formatHex(bytes).getBytes(StandardCharsets.US_ASCII));
+            } else {
+                writeText(out, value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void writeText(OutputStream out, byte[] text) throws IOException {
+        int run = 0;
+        for (int i = 0; i < text.length; i++) {
+            byte escape = switch (text[i]) {
+                case '\\' -> '\\';
+                case '\n' -> 'n';
+                case '\r' -> 'r';
+                case '\t' -> 't';
+                default -> 0;
+            };
+            if (escape != 0) {
+                out.write(text, run, i - run);
+                out.write('\\');
+                out.write(escape);
+                run = i + 1;
+            }
+        }
+        out.write(text, run, text.length - run);
+    }
+}
@@ -0,0 +1,117 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventPage;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventQuery;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventQueryRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.COLUMNS;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.rowMapper;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toInstant;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
+
+/**
+ * Keyset pagination on {@code (received_at, id)}: the cursor becomes a seek predicate, served by
+ * {@code idx_webhook_event_status_received_at}, {@code idx_webhook_event_source_received_at} or, with
+ * neither filter, {@code idx_webhook_event_received_at}, and never an {@code OFFSET}. Exports run in a
+ * transaction with a bounded fetch size, which PgJDBC turns into a server-side cursor.
+ */
+@Component
+public class JdbcEventQueryRepository implements EventQueryRepository {
+
+    private static final String SUMMARY_COLUMNS = "id, source, event_key, status, received_at, processed_at";
+
+    private static final RowMapper<WebhookEvent> SUMMARY_MAPPER = (rs, rowNum) -> new WebhookEvent(
+            rs.getObject("id", UUID.class),
+            rs.getString("source"),
+            rs.getString("event_key"),
+            null,
+            EventStatus.valueOf(rs.getString("status")),
+            toInstant(rs.getObject("received_at", OffsetDateTime.class)),
+            toInstant(rs.getObject("processed_at", OffsetDateTime.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate exportTemplate;
+    private final RowMapper<WebhookEvent> fullMapper;
+
+    public JdbcEventQueryRepository(JdbcTemplate jdbcTemplate, PayloadCodec codec, WebhookProperties webhookProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportTemplate.setFetchSize(webhookProperties.getAdmin().getExportFetchSize());
+        this.fullMapper = rowMapper(codec);
+    }
+
+    @Override
+    public EventPage findPage(EventQuery query, EventCursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = select(query, params);
+        if (after != null) {
+            // The plain bound gives planners an index range; the row comparison breaks ties on id.
+            sql.append(" AND received_at >= ? AND (received_at, id) > (?, ?)");
+            params.add(toOffset(after.receivedAt()));
+            params.add(toOffset(after.receivedAt()));
+            params.add(after.id());
+        }
+        sql.append(" ORDER BY received_at, id LIMIT ?");
+        params.add(limit + 1);
+
+        List<WebhookEvent> events = jdbcTemplate.query(sql.toString(), mapper(query), params.toArray());
+        if (events.size() <= limit) {
+            return new EventPage(events, null);
+        }
+        List<WebhookEvent> page = events.subList(0, limit);
+        WebhookEvent last = page.getLast();
+        return new EventPage(List.copyOf(page), new EventCursor(last.receivedAt(), last.id()));
+    }
+
+    @Override
+    @Transactional
+    public void forEach(EventQuery query, Consumer<WebhookEvent> action) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = select(query, params).append(" ORDER BY received_at, id");
+        RowMapper<WebhookEvent> mapper = mapper(query);
+        exportTemplate.query(sql.toString(), rs -> {
+            action.accept(mapper.mapRow(rs, rs.getRow()));
+        }, params.toArray());
+    }
+
+    private RowMapper<WebhookEvent> mapper(EventQuery query) {
+        return query.includePayload() ? fullMapper : SUMMARY_MAPPER;
+    }
+
+    private static StringBuilder select(EventQuery query, List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(query.includePayload() ? COLUMNS : SUMMARY_COLUMNS)
+                .append(" FROM webhook_event WHERE 1 = 1");
+        if (query.source() != null) {
+            sql.append(" AND source = ?");
+            params.add(query.source());
+        }
+        if (query.status() != null) {
+            sql.append(" AND status = ?");
+            params.add(query.status().name());
+        }
+        if (query.from() != null) {
+            sql.append(" AND received_at >= ?");
+            params.add(toOffset(query.from()));
+        }
+        if (query.to() != null) {
+            sql.append(" AND received_at < ?");
+            params.add(toOffset(query.to()));
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.port.out.PartitionLease;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.PartitionLeaseRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toInstant;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
+
+@Component
+@RequiredArgsConstructor
+public class JdbcPartitionLeaseRepository implements PartitionLeaseRepository {
+
+    private static final String CREATE_PARTITION =
+            "INSERT INTO webhook_partition_lease (logical_partition) VALUES (?) ON CONFLICT DO NOTHING";
+
+    private static final String UPDATE_HEARTBEAT =
+            "UPDATE webhook_processing_node SET heartbeat_at = ? WHERE node_id = ?";
+
+    private static final String INSERT_NODE =
+            "INSERT INTO webhook_processing_node (node_id, heartbeat_at) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    // Conditional on the row's current state, so of two nodes racing for a partition only one update matches.
+    private static final String ACQUIRE =
+            "UPDATE webhook_partition_lease SET owner_id = ?, expires_at = ? " +
+            "WHERE logical_partition = ? AND (owner_id IS NULL OR expires_at <= ?)";
+
+    private static final String RELEASE =
+            "UPDATE webhook_partition_lease SET owner_id = NULL, expires_at = NULL " +
+            "WHERE logical_partition = ? AND owner_id = ?";
+
+    private static final RowMapper<PartitionLease> MAPPER = (rs, rowNum) -> new PartitionLease(
+            rs.getInt("logical_partition"),
+            rs.getString("owner_id"),
+            toInstant(rs.getObject("expires_at", OffsetDateTime.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void createPartitions(int count) {
+        if (count <= jdbcTemplate.queryForObject("SELECT COUNT(*) FROM webhook_partition_lease", Integer.class)) {
+            return;
+        }
+        List<Object[]> partitions = new ArrayList<>(count);
+        for (int partition = 0; partition < count; partition++) {
+            partitions.add(new Object[]{partition});
+        }
+        jdbcTemplate.batchUpdate(CREATE_PARTITION, partitions);
+    }
+
+    @Override
+    public void heartbeat(String nodeId, Instant now) {
+        if (jdbcTemplate.update(UPDATE_HEARTBEAT, toOffset(now), nodeId) == 0) {
+            jdbcTemplate.update(INSERT_NODE, nodeId, toOffset(now));
+        }
+    }
+
+    @Override
+    public List<String> liveNodes(Instant since) {
+        return jdbcTemplate.queryForList(
+                "SELECT node_id FROM webhook_processing_node WHERE heartbeat_at > ? ORDER BY node_id",
+                String.class, toOffset(since));
+    }
+
+    @Override
+    public void removeNodes(Instant before) {
+        jdbcTemplate.update("DELETE FROM webhook_processing_node WHERE heartbeat_at < ?", toOffset(before));
+    }
+
+    @Override
+    public List<PartitionLease> leases() {
+        return jdbcTemplate.query(
+                "SELECT logical_partition, owner_id, expires_at FROM webhook_partition_lease ORDER BY logical_partition",
+                MAPPER);
+    }
+
+    @Override
+    public void renew(String nodeId, Instant expiresAt) {
+        jdbcTemplate.update("UPDATE webhook_partition_lease SET expires_at = ? WHERE owner_id = ?", toOffset(expiresAt), nodeId);
+    }
+
+    @Override
+    public boolean acquire(int partition, String nodeId, Instant now, Instant expiresAt) {
+        return jdbcTemplate.update(ACQUIRE, nodeId, toOffset(expiresAt), partition, toOffset(now)) == 1;
+    }
+
+    @Override
+    public void release(int partition, String nodeId) {
+        jdbcTemplate.update(RELEASE, partition, nodeId);
+    }
+
+    @Override
+    @Transactional
+    public void leave(String nodeId) {
+        jdbcTemplate.update("UPDATE webhook_partition_lease SET owner_id = NULL, expires_at = NULL WHERE owner_id = ?", nodeId);
+        jdbcTemplate.update("DELETE FROM webhook_processing_node WHERE node_id = ?", nodeId);
+    }
+}
@@ -0,0 +1,73 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.port.out.RetryRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.ScheduledRetry;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toInstant;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
+
+@Component
+@RequiredArgsConstructor
+public class JdbcRetryRepository implements RetryRepository {
+
+    // Served by idx_webhook_event_status_next_attempt_at.
+    private static final String FIND_DUE =
+            "SELECT id, next_attempt_at FROM webhook_event " +
+            "WHERE status = 'FAILED' AND next_attempt_at > ? AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at, id LIMIT ?";
+
+    private static final String FIND_DUE_AFTER =
+            "SELECT id, next_attempt_at FROM webhook_event " +
+            "WHERE status = 'FAILED' AND next_attempt_at <= ? " +
+            "AND (next_attempt_at > ? OR (next_attempt_at = ? AND id > ?)) " +
+            "ORDER BY next_attempt_at, id LIMIT ?";
+
+    // The status guard makes a release idempotent when several instances fire the same retry.
+    private static final String RELEASE =
+            "UPDATE webhook_event SET status = 'RECEIVED', next_attempt_at = NULL " +
+            "WHERE id = ? AND status = 'FAILED' AND next_attempt_at IS NOT NULL";
+
+    private static final RowMapper<ScheduledRetry> MAPPER = (rs, rowNum) -> new ScheduledRetry(
+            rs.getObject("id", UUID.class),
+            toInstant(rs.getObject("next_attempt_at", OffsetDateTime.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ScheduledRetry> findDue(Instant after, Instant until, ScheduledRetry resumeFrom, int limit) {
+        if (resumeFrom == null) {
+            return jdbcTemplate.query(FIND_DUE, MAPPER, toOffset(after), toOffset(until), limit);
+        }
+        OffsetDateTime lastAt = toOffset(resumeFrom.nextAttemptAt());
+        return jdbcTemplate.query(FIND_DUE_AFTER, MAPPER, toOffset(until), lastAt, lastAt, resumeFrom.eventId(), limit);
+    }
+
+    @Override
+    @Transactional
+    public int release(Collection<ScheduledRetry> retries) {
+        if (retries.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> batch = new ArrayList<>(retries.size());
+        for (ScheduledRetry retry : retries) {
+            batch.add(new Object[]{retry.eventId()});
+        }
+        int released = 0;
+        for (int count : jdbcTemplate.batchUpdate(RELEASE, batch)) {
+            released += Math.max(count, 0);
+        }
+        return released;
+    }
+}
@@ -0,0 +1,233 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.LogicalPartitions;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Plain JDBC adapter for the ingestion hot path: no persistence context, dirty checking or
+ * entity mapping. Selected with {@code webhook.persistence.mode=jdbc}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "webhook.persistence", name = "mode", havingValue = "jdbc")
+public class JdbcWebhookEventRepository implements WebhookEventRepository {
+
+    static final String COLUMNS = "id, source, event_key, payload, payload_data, status, received_at, processed_at";
+
+    // Idempotency is guarded by webhook_event_key rather than a unique constraint on the event table,
+    // which cannot span its partitions. No conflict target so the statement is accepted by both
+    // PostgreSQL and H2's PostgreSQL mode; the primary key is the table's only unique key.
+    static final String INSERT_KEY =
+            "INSERT INTO webhook_event_key (source, event_key, event_id, received_at) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    /**
+     * {@link #COLUMNS} plus what is only written: the logical partition, derived from the source and key.
+     */
+    static final String INSERT_COLUMNS = COLUMNS + ", logical_partition";
+
+    static final String INSERT =
+            "INSERT INTO webhook_event (" + INSERT_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // A key left without its event, e.g. by retention that dropped the event first; it no longer dedupes anything.
+    static final String DELETE_ORPHAN_KEY =
+            "DELETE FROM webhook_event_key WHERE source = ? AND event_key = ? AND NOT EXISTS " +
+            "(SELECT 1 FROM webhook_event e WHERE e.id = webhook_event_key.event_id AND e.received_at = webhook_event_key.received_at)";
+
+    // Joining on received_at as well lets PostgreSQL prune to the event's partition.
+    private static final String SELECT_BY_KEY =
+            "SELECT " + prefixed("e") + " FROM webhook_event_key k " +
+            "JOIN webhook_event e ON e.id = k.event_id AND e.received_at = k.received_at " +
+            "WHERE k.source = ? AND k.event_key = ?";
+
+    private final JdbcClient jdbc;
+    private final JdbcTemplate jdbcTemplate;
+    private final PayloadCodec codec;
+    private final RowMapper<WebhookEvent> rowMapper;
+
+    public JdbcWebhookEventRepository(JdbcClient jdbc, JdbcTemplate jdbcTemplate, PayloadCodec codec) {
+        this.jdbc = jdbc;
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+        this.rowMapper = rowMapper(codec);
+    }
+
+    /**
+     * Maps {@link #COLUMNS}; the payload is only decoded here, so queries that do not select those
+     * columns never inflate it.
+     */
+    static RowMapper<WebhookEvent> rowMapper(PayloadCodec codec) {
+        return (rs, rowNum) -> {
+            String source = rs.getString("source");
+            return new WebhookEvent(
+                    rs.getObject("id", UUID.class),
+                    source,
+                    rs.getString("event_key"),
+                    codec.decode(source, rs.getString("payload"), rs.getBytes("payload_data")),
+                    EventStatus.valueOf(rs.getString("status")),
+                    toInstant(rs.getObject("received_at", OffsetDateTime.class)),
+                    toInstant(rs.getObject("processed_at", OffsetDateTime.class))
+            );
+        };
+    }
+
+    @Override
+    @Transactional
+    public WebhookEvent save(WebhookEvent webhookEvent) {
+        byte[] payloadData = codec.encode(webhookEvent.source(), webhookEvent.payload());
+        int updated = jdbc.sql("UPDATE webhook_event SET payload = ?, payload_data = ?, status = ?, processed_at = ? WHERE id = ?")
+                .params(payloadData == null ? webhookEvent.payload() : null, payloadData, webhookEvent.status().name(),
+                        toOffset(webhookEvent.processedAt()), webhookEvent.id())
+                .update();
+        if (updated == 0) {
+            insertIfAbsent(webhookEvent);
+        }
+        return webhookEvent;
+    }
+
+    @Override
+    @Transactional
+    public InsertResult insertIfAbsent(WebhookEvent webhookEvent) {
+        int claimed = jdbc.sql(INSERT_KEY)
+                .params(keyParams(webhookEvent))
+                .update();
+        if (claimed == 1) {
+            jdbc.sql(INSERT).params(insertParams(codec, webhookEvent)).update();
+            return new InsertResult(webhookEvent, true);
+        }
+        return findExisting(webhookEvent);
+    }
+
+    /**
+     * Resolves a key conflict to the stored event. A key whose event is gone is treated as absent:
+     * it is deleted and the insert tried once more.
+     */
+    private InsertResult findExisting(WebhookEvent webhookEvent) {
+        Optional<WebhookEvent> existing = findBySourceAndEventKey(webhookEvent.source(), webhookEvent.eventKey());
+        if (existing.isPresent()) {
+            return new InsertResult(existing.get(), false);
+        }
+        jdbc.sql(DELETE_ORPHAN_KEY).params(webhookEvent.source(), webhookEvent.eventKey()).update();
+        if (jdbc.sql(INSERT_KEY).params(keyParams(webhookEvent)).update() == 1) {
+            jdbc.sql(INSERT).params(insertParams(codec, webhookEvent)).update();
+            return new InsertResult(webhookEvent, true);
+        }
+        return new InsertResult(findBySourceAndEventKey(webhookEvent.source(), webhookEvent.eventKey())
+                .orElseThrow(() -> new IllegalStateException(
+                        "Insert skipped but no event found for " + webhookEvent.source() + "/" + webhookEvent.eventKey())), false);
+    }
+
+    /**
+     * One JDBC batch rather than a multi-row VALUES insert: the per-row update counts are what
+     * tell claimed keys from conflicts. Do not enable {@code reWriteBatchedInserts} on PgJDBC,
+     * it replaces those counts with SUCCESS_NO_INFO. Conflicts are resolved after the events are
+     * inserted, so a key repeated within the batch finds the event of its first occurrence.
+     */
+    @Override
+    @Transactional
+    public List<InsertResult> insertAllIfAbsent(List<WebhookEvent> webhookEvents) {
+        List<Object[]> keys = new ArrayList<>(webhookEvents.size());
+        for (WebhookEvent webhookEvent : webhookEvents) {
+            keys.add(keyParams(webhookEvent));
+        }
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_KEY, keys);
+
+        List<Object[]> rows = new ArrayList<>(webhookEvents.size());
+        for (int i = 0; i < webhookEvents.size(); i++) {
+            if (counts[i] == 1) {
+                rows.add(insertParams(codec, webhookEvents.get(i)));
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+
+        List<InsertResult> results = new ArrayList<>(webhookEvents.size());
+        for (int i = 0; i < webhookEvents.size(); i++) {
+            WebhookEvent webhookEvent = webhookEvents.get(i);
+            if (counts[i] == 1) {
+                results.add(new InsertResult(webhookEvent, true));
+            } else {
+                results.add(findExisting(webhookEvent));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Set<String> findExistingEventKeys(String source, Collection<String> eventKeys) {
+        if (eventKeys.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbc.sql("SELECT event_key FROM webhook_event_key WHERE source = :source AND event_key IN (:eventKeys)")
+                .param("source", source)
+                .param("eventKeys", eventKeys)
+                .query(String.class)
+                .list());
+    }
+
+    @Override
+    public Optional<WebhookEvent> findBySourceAndEventKey(String source, String eventId) {
+        return jdbc.sql(SELECT_BY_KEY)
+                .params(source, eventId)
+                .query(rowMapper)
+                .optional();
+    }
+
+    @Override
+    public Optional<WebhookEvent> findById(UUID id) {
+        return jdbc.sql("SELECT " + COLUMNS + " FROM webhook_event WHERE id = ?")
+                .param(id)
+                .query(rowMapper)
+                .optional();
+    }
+
+    static Object[] keyParams(WebhookEvent e) {
+        return new Object[]{e.source(), e.eventKey(), e.id(), toOffset(e.receivedAt())};
+    }
+
+    static Object[] insertParams(PayloadCodec codec, WebhookEvent e) {
+        byte[] payloadData = codec.encode(e.source(), e.payload());
+        return new Object[]{
+                e.id(),
+                e.source(),
+                e.eventKey(),
+                payloadData == null ? e.payload() : null,
+                payloadData,
+                e.status().name(),
+                toOffset(e.receivedAt()),
+                toOffset(e.processedAt()),
+                LogicalPartitions.of(e.source(), e.eventKey())
+        };
+    }
+
+    private static String prefixed(String alias) {
+        return alias + "." + COLUMNS.replace(", ", ", " + alias + ".");
+    }
+
+    static OffsetDateTime toOffset(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+
+    static Instant toInstant(OffsetDateTime value) {
+        return value == null ? null : value.toInstant();
+    }
+}
@@ -0,0 +1,46 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Width of a {@code webhook_event} partition. Ranges are aligned to UTC days, and weeks start on Monday.
+ */
+public enum PartitionInterval {
+
+    DAY {
+        @Override
+        Instant floor(Instant instant) {
+            return instant.truncatedTo(ChronoUnit.DAYS);
+        }
+
+        @Override
+        Instant next(Instant start) {
+            return floor(start).plus(1, ChronoUnit.DAYS);
+        }
+    },
+
+    WEEK {
+        @Override
+        Instant floor(Instant instant) {
+            LocalDate day = LocalDate.ofInstant(instant, ZoneOffset.UTC);
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        Instant next(Instant start) {
+            return floor(start).plus(7, ChronoUnit.DAYS);
+        }
+    };
+
+    abstract Instant floor(Instant instant);
+
+    /**
+     * Start of the range after the one containing {@code start}.
+     */
+    abstract Instant next(Instant start);
+}
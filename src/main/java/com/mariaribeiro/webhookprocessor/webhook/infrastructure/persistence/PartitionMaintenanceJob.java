@@ -0,0 +1,302 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toInstant;
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
+
+/**
+ * Keeps {@code webhook_event} partitions created {@code premake} intervals ahead and applies retention.
+ * Once every source's retention has passed, a partition is detached and dropped whole. Sources with a
+ * shorter retention, and every source on databases without partitioning (H2), are trimmed with
+ * batched deletes. Event keys go with their events, never after them, or earlier when a dedupe horizon is set.
+ */
+@Slf4j
+@Component
+public class PartitionMaintenanceJob {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    // lower_bound is null for the legacy partition, which starts at MINVALUE.
+    private static final String SELECT_PARTITIONS =
+            "SELECT c.relname AS name, " +
+            "(regexp_match(pg_get_expr(c.relpartbound, c.oid), 'FROM \\(''([^'']+)''\\)'))[1]::timestamptz AS lower_bound, " +
+            "(regexp_match(pg_get_expr(c.relpartbound, c.oid), 'TO \\(''([^'']+)''\\)'))[1]::timestamptz AS upper_bound " +
+            "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'webhook_event'::regclass";
+
+    // %s takes an optional source filter.
+    private static final String SELECT_EXPIRED =
+            "SELECT id, source, event_key, received_at FROM webhook_event WHERE received_at < ?%s LIMIT ?";
+
+    // Matching the event id leaves alone a key that has since been claimed again by a newer event.
+    private static final String DELETE_EVENT_KEY =
+            "DELETE FROM webhook_event_key WHERE source = ? AND event_key = ? AND event_id = ?";
+
+    // received_at lets PostgreSQL prune to the event's partition.
+    private static final String DELETE_EVENT = "DELETE FROM webhook_event WHERE id = ? AND received_at = ?";
+
+    private static final String DELETE_KEYS =
+            "DELETE FROM webhook_event_key WHERE (source, event_key) IN " +
+            "(SELECT source, event_key FROM webhook_event_key WHERE received_at < ?%s LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final WebhookProperties webhookProperties;
+    private final WebhookProperties.Partitioning config;
+    private final boolean partitioned;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public PartitionMaintenanceJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Clock clock,
+                                   WorkerThreads workerThreads, WebhookProperties webhookProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.webhookProperties = webhookProperties;
+        this.config = webhookProperties.getPersistence().getPartitioning();
+        this.partitioned = "PostgreSQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        this.thread = workerThreads.newThread("webhook-partition-maintenance", this::loop);
+    }
+
+    @PostConstruct
+    void start() {
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join();
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                runOnce();
+                Thread.sleep(config.getMaintenanceInterval());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Partition maintenance failed", e);
+                try {
+                    Thread.sleep(config.getMaintenanceInterval());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    void runOnce() {
+        Instant now = Instant.now(clock);
+        Duration dropAfter = null;
+        if (partitioned) {
+            List<Partition> partitions = partitions();
+            createAhead(partitions, now);
+            dropAfter = longestRetention();
+            if (dropAfter != null) {
+                dropBefore(partitions, now.minus(dropAfter));
+            }
+        }
+        trim(now, dropAfter);
+    }
+
+    /**
+     * Creates the current range and {@code premake} more. Ranges an import created further ahead or
+     * behind are left alone, and the ones in between still get created as they come up.
+     */
+    private void createAhead(List<Partition> partitions, Instant now) {
+        PartitionInterval interval = config.getInterval();
+        List<Instant> ahead = new ArrayList<>();
+        Instant start = interval.floor(now);
+        for (int i = 0; i <= config.getPremake(); i++) {
+            ahead.add(start);
+            start = interval.next(start);
+        }
+        createCovering(partitions, ahead);
+    }
+
+    /**
+     * Creates partitions for those of {@code instants} no partition covers, such as archived events
+     * older than the oldest partition left by retention, or future ones beyond {@code premake}.
+     */
+    public void createCovering(Collection<Instant> instants) {
+        if (partitioned && !instants.isEmpty()) {
+            createCovering(partitions(), instants);
+        }
+    }
+
+    /**
+     * Each new range is one interval, cut short where it would overlap an existing partition: the
+     * first range after a change of interval (or after the legacy partition) may be short, so every
+     * later one is aligned.
+     */
+    private void createCovering(List<Partition> existing, Collection<Instant> instants) {
+        List<Partition> partitions = new ArrayList<>(existing);
+        PartitionInterval interval = config.getInterval();
+        for (Instant at : new TreeSet<>(instants)) {
+            Instant start = interval.floor(at);
+            Instant end = interval.next(start);
+            boolean covered = false;
+            for (Partition partition : partitions) {
+                boolean startsBefore = partition.lowerBound() == null || !partition.lowerBound().isAfter(at);
+                if (startsBefore && partition.upperBound().isAfter(at)) {
+                    covered = true;
+                    break;
+                }
+                if (startsBefore && partition.upperBound().isAfter(start)) {
+                    start = partition.upperBound();
+                } else if (!startsBefore && partition.lowerBound().isBefore(end)) {
+                    end = partition.lowerBound();
+                }
+            }
+            if (!covered) {
+                partitions.add(new Partition(create(start, end), start, end));
+            }
+        }
+    }
+
+    private String create(Instant start, Instant end) {
+        String name = "webhook_event_p" + PARTITION_SUFFIX.format(start);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF webhook_event FOR VALUES FROM ('"
+                + toOffset(start) + "') TO ('" + toOffset(end) + "')");
+        log.info("Created partition {} [{}, {})", name, start, end);
+        return name;
+    }
+
+    private void dropBefore(List<Partition> partitions, Instant cutoff) {
+        for (Partition partition : partitions) {
+            if (!partition.upperBound().isAfter(cutoff)) {
+                // Keys first: should the drop fail, events are left without keys rather than keys without events.
+                deleteKeysBefore(partition.upperBound());
+                // CONCURRENTLY avoids blocking inserts into the other partitions; it cannot run in a transaction.
+                jdbcTemplate.execute("ALTER TABLE webhook_event DETACH PARTITION " + partition.name() + " CONCURRENTLY");
+                jdbcTemplate.execute("DROP TABLE " + partition.name());
+                log.info("Dropped partition {} (events before {})", partition.name(), partition.upperBound());
+            }
+        }
+    }
+
+    /**
+     * Deletes events whose retention is shorter than what partition drops cover: per overridden source,
+     * then for every other source under the default retention. Also drops keys past the dedupe horizon.
+     */
+    private void trim(Instant now, Duration dropAfter) {
+        List<String> overridden = new ArrayList<>();
+        webhookProperties.getSources().forEach((source, options) -> {
+            if (options.getRetention() != null) {
+                overridden.add(source);
+                if (shorter(options.getRetention(), dropAfter)) {
+                    trimEvents(" AND source = ?", toOffset(now.minus(options.getRetention())), source);
+                }
+            }
+        });
+        if (config.getRetention() != null && shorter(config.getRetention(), dropAfter)) {
+            OffsetDateTime cutoff = toOffset(now.minus(config.getRetention()));
+            String others = overridden.isEmpty() ? ""
+                    : " AND source NOT IN (" + String.join(", ", Collections.nCopies(overridden.size(), "?")) + ")";
+            List<Object> params = new ArrayList<>(List.of(cutoff));
+            params.addAll(overridden);
+            trimEvents(others, params.toArray());
+        }
+        if (config.getDedupeHorizon() != null) {
+            deleteKeysBefore(now.minus(config.getDedupeHorizon()));
+        }
+    }
+
+    private static boolean shorter(Duration retention, Duration dropAfter) {
+        return dropAfter == null || retention.compareTo(dropAfter) < 0;
+    }
+
+    /**
+     * Deletes the events {@link #SELECT_EXPIRED} finds for {@code filter}, a batch per transaction
+     * that removes their keys before the events themselves.
+     */
+    private void trimEvents(String filter, Object... params) {
+        Object[] args = Arrays.copyOf(params, params.length + 1);
+        args[params.length] = config.getDeleteBatchSize();
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Object[]> keys = new ArrayList<>();
+                List<Object[]> events = new ArrayList<>();
+                jdbcTemplate.query(SELECT_EXPIRED.formatted(filter), rs -> {
+                    Object id = rs.getObject("id");
+                    keys.add(new Object[]{rs.getString("source"), rs.getString("event_key"), id});
+                    events.add(new Object[]{id, rs.getObject("received_at", OffsetDateTime.class)});
+                }, args);
+                if (!events.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_EVENT_KEY, keys);
+                    jdbcTemplate.batchUpdate(DELETE_EVENT, events);
+                }
+                return events.size();
+            });
+        } while (deleted != null && deleted == config.getDeleteBatchSize() && running);
+    }
+
+    private void deleteKeysBefore(Instant before) {
+        deleteInBatches(DELETE_KEYS.formatted(""), toOffset(before));
+    }
+
+    /**
+     * Repeats a delete whose last parameter is the batch size until it removes less than a full batch.
+     */
+    private void deleteInBatches(String sql, Object... params) {
+        Object[] args = Arrays.copyOf(params, params.length + 1);
+        args[params.length] = config.getDeleteBatchSize();
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, args);
+        } while (deleted == config.getDeleteBatchSize() && running);
+    }
+
+    /**
+     * Age after which no source keeps events, or null if some source keeps them forever.
+     */
+    private Duration longestRetention() {
+        Duration longest = config.getRetention();
+        if (longest == null) {
+            return null;
+        }
+        for (WebhookProperties.SourceProperties options : webhookProperties.getSources().values()) {
+            if (options.getRetention() != null && options.getRetention().compareTo(longest) > 0) {
+                longest = options.getRetention();
+            }
+        }
+        return longest;
+    }
+
+    private List<Partition> partitions() {
+        return jdbcTemplate.query(SELECT_PARTITIONS, (rs, rowNum) -> new Partition(rs.getString("name"),
+                toInstant(rs.getObject("lower_bound", OffsetDateTime.class)),
+                toInstant(rs.getObject("upper_bound", OffsetDateTime.class))));
+    }
+
+    private record Partition(String name, Instant lowerBound, Instant upperBound) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes payloads for the {@code payload_data} column. The first byte is a codec id, so rows written
+ * with different codecs stay readable side by side, as do rows from before compression was enabled,
+ * which keep their payload in the {@code payload} text column.
+ *
+ * <pre>
+ * IDENTITY            [0][utf-8]
+ * DEFLATE             [1][raw length][deflate]
+ * DEFLATE_DICTIONARY  [2][dictionary id][raw length][deflate]
+ * </pre>
+ */
+@Component
+public class PayloadCodec {
+
+    static final byte IDENTITY = 0;
+    static final byte DEFLATE = 1;
+    static final byte DEFLATE_DICTIONARY = 2;
+
+    private static final int POOL_SIZE = 16;
+
+    private final boolean enabled;
+    private final int level;
+    private final PayloadDictionaries dictionaries;
+    private final MeterRegistry meterRegistry;
+    private final ArrayBlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final ArrayBlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final ConcurrentHashMap<String, SourceMeters> meters = new ConcurrentHashMap<>();
+
+    public PayloadCodec(WebhookProperties webhookProperties, PayloadDictionaries dictionaries, MeterRegistry meterRegistry) {
+        WebhookProperties.Compression config = webhookProperties.getPersistence().getCompression();
+        this.enabled = config.isEnabled();
+        this.level = config.getLevel();
+        this.dictionaries = dictionaries;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Bytes for {@code payload_data}, or null when compression is off and the payload goes to the text column.
+     */
+    public byte[] encode(String source, String payload) {
+        if (!enabled) {
+            return null;
+        }
+        long start = System.nanoTime();
+        byte[] raw = payload.getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = deflate(raw, dictionaries.current(source));
+        SourceMeters sourceMeters = meters(source);
+        sourceMeters.encode().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        sourceMeters.rawBytes().increment(raw.length);
+        sourceMeters.storedBytes().increment(encoded.length);
+        return encoded;
+    }
+
+    /**
+     * The payload of a row: {@code text} for rows written uncompressed, otherwise {@code data} decoded.
+     */
+    public String decode(String source, String text, byte[] data) {
+        if (data == null) {
+            return text;
+        }
+        long start = System.nanoTime();
+        String payload = switch (data[0]) {
+            case IDENTITY -> new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE -> inflate(data, 1, null);
+            case DEFLATE_DICTIONARY -> inflate(data, 5, dictionaries.data(readInt(data, 1)));
+            default -> throw new IllegalStateException("Unknown payload codec " + data[0]);
+        };
+        meters(source).decode().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return payload;
+    }
+
+    private byte[] deflate(byte[] raw, PayloadDictionaries.Dictionary dictionary) {
+        int header = dictionary == null ? 5 : 9;
+        // Output that does not fit in the raw size is not worth keeping.
+        byte[] out = new byte[header + raw.length];
+        Deflater deflater = acquireDeflater();
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary.data());
+            }
+            deflater.setInput(raw);
+            deflater.finish();
+            int length = header;
+            while (!deflater.finished() && length < out.length) {
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            if (!deflater.finished()) {
+                return identity(raw);
+            }
+            if (dictionary == null) {
+                out[0] = DEFLATE;
+            } else {
+                out[0] = DEFLATE_DICTIONARY;
+                writeInt(out, 1, dictionary.id());
+            }
+            writeInt(out, header - 4, raw.length);
+            return Arrays.copyOf(out, length);
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private String inflate(byte[] data, int offset, byte[] dictionary) {
+        byte[] raw = new byte[readInt(data, offset)];
+        Inflater inflater = acquireInflater();
+        try {
+            inflater.setInput(data, offset + 4, data.length - offset - 4);
+            int length = 0;
+            while (length < raw.length) {
+                int read = inflater.inflate(raw, length, raw.length - length);
+                if (read == 0) {
+                    if (inflater.needsDictionary() && dictionary != null) {
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsDictionary() || inflater.needsInput() || inflater.finished()) {
+                        throw new IllegalStateException("Corrupt compressed payload");
+                    }
+                }
+                length += read;
+            }
+            return new String(raw, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed payload", e);
+        } finally {
+            inflater.reset();
+            if (!inflaters.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static byte[] identity(byte[] raw) {
+        byte[] out = new byte[raw.length + 1];
+        out[0] = IDENTITY;
+        System.arraycopy(raw, 0, out, 1, raw.length);
+        return out;
+    }
+
+    private Deflater acquireDeflater() {
+        Deflater deflater = deflaters.poll();
+        return deflater != null ? deflater : new Deflater(level);
+    }
+
+    private Inflater acquireInflater() {
+        Inflater inflater = inflaters.poll();
+        return inflater != null ? inflater : new Inflater();
+    }
+
+    private SourceMeters meters(String source) {
+        return meters.computeIfAbsent(source, this::register);
+    }
+
+    private SourceMeters register(String source) {
+        SourceMeters sourceMeters = new SourceMeters(
+                Timer.builder("webhook.payload.codec").tag("source", source).tag("operation", "encode").register(meterRegistry),
+                Timer.builder("webhook.payload.codec").tag("source", source).tag("operation", "decode").register(meterRegistry),
+                Counter.builder("webhook.payload.bytes").tag("source", source).tag("form", "raw").register(meterRegistry),
+                Counter.builder("webhook.payload.bytes").tag("source", source).tag("form", "stored").register(meterRegistry));
+        Gauge.builder("webhook.payload.compression.ratio", sourceMeters, SourceMeters::ratio)
+                .tag("source", source)
+                .description("Raw payload bytes per stored byte for payloads encoded by this instance")
+                .register(meterRegistry);
+        return sourceMeters;
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] source, int offset) {
+        return (source[offset] & 0xFF) << 24
+                | (source[offset + 1] & 0xFF) << 16
+                | (source[offset + 2] & 0xFF) << 8
+                | (source[offset + 3] & 0xFF);
+    }
+
+    private record SourceMeters(Timer encode, Timer decode, Counter rawBytes, Counter storedBytes) {
+
+        double ratio() {
+            double stored = storedBytes.count();
+            return stored == 0 ? Double.NaN : rawBytes.count() / stored;
+        }
+    }
+}
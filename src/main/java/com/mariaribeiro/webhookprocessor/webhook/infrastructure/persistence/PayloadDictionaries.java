@@ -0,0 +1,72 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
+
+/**
+ * Per-source deflate dictionaries. Compressed rows carry the id of the dictionary they were written
+ * with, so a source can be retrained without making older rows unreadable; dictionaries are never deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayloadDictionaries {
+
+    record Dictionary(int id, byte[] data) {
+    }
+
+    private final JdbcClient jdbc;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Optional<Dictionary>> current = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, byte[]> byId = new ConcurrentHashMap<>();
+
+    /**
+     * The dictionary new payloads of {@code source} are written with, or null if it has none.
+     */
+    Dictionary current(String source) {
+        return current.computeIfAbsent(source, this::loadLatest).orElse(null);
+    }
+
+    byte[] data(int id) {
+        return byId.computeIfAbsent(id, key -> jdbc.sql("SELECT data FROM payload_dictionary WHERE id = ?")
+                .param(key)
+                .query(byte[].class)
+                .optional()
+                .orElseThrow(() -> new IllegalStateException("Unknown payload dictionary " + key)));
+    }
+
+    /**
+     * Drops the cached dictionary of {@code source} so one trained by another instance is picked up.
+     */
+    void refresh(String source) {
+        current.remove(source);
+    }
+
+    Dictionary store(String source, byte[] data) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.sql("INSERT INTO payload_dictionary (source, data, created_at) VALUES (?, ?, ?)")
+                .params(source, data, toOffset(Instant.now(clock)))
+                .update(keys, "id");
+        Dictionary dictionary = new Dictionary(Objects.requireNonNull(keys.getKey()).intValue(), data);
+        byId.put(dictionary.id(), data);
+        current.put(source, Optional.of(dictionary));
+        return dictionary;
+    }
+
+    private Optional<Dictionary> loadLatest(String source) {
+        return jdbc.sql("SELECT id, data FROM payload_dictionary WHERE source = ? ORDER BY id DESC LIMIT 1")
+                .param(source)
+                .query((rs, rowNum) -> new Dictionary(rs.getInt("id"), rs.getBytes("data")))
+                .optional();
+    }
+}
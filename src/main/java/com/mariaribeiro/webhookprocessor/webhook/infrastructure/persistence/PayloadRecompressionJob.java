@@ -0,0 +1,125 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Background side of payload compression: trains dictionaries for sources that ask for one once
+ * enough payloads are stored, and moves rows still in the {@code payload} text column into
+ * {@code payload_data}, walking the primary key in batches.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "webhook.persistence.compression", name = "enabled", havingValue = "true")
+public class PayloadRecompressionJob {
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private static final String SELECT_TEXT_ROWS =
+            "SELECT id, source, payload FROM webhook_event WHERE payload_data IS NULL AND id > ? ORDER BY id LIMIT ?";
+
+    // The guard skips rows rewritten by the application since they were read.
+    private static final String MOVE_TO_DATA =
+            "UPDATE webhook_event SET payload = NULL, payload_data = ? WHERE id = ? AND payload_data IS NULL";
+
+    private static final String SELECT_SAMPLES =
+            "SELECT source, payload, payload_data FROM webhook_event WHERE source = ? ORDER BY received_at DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PayloadCodec codec;
+    private final PayloadDictionaries dictionaries;
+    private final Map<String, WebhookProperties.SourceProperties> sources;
+    private final int dictionarySize;
+    private final int dictionarySamples;
+    private final int batchSize;
+    private final Duration interval;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public PayloadRecompressionJob(JdbcTemplate jdbcTemplate, PayloadCodec codec, PayloadDictionaries dictionaries,
+                                   WorkerThreads workerThreads, WebhookProperties webhookProperties) {
+        WebhookProperties.Compression config = webhookProperties.getPersistence().getCompression();
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+        this.dictionaries = dictionaries;
+        this.sources = webhookProperties.getSources();
+        this.dictionarySize = (int) config.getDictionarySize().toBytes();
+        this.dictionarySamples = config.getDictionarySamples();
+        this.batchSize = config.getRecompressBatchSize();
+        this.interval = config.getRecompressInterval();
+        this.thread = workerThreads.newThread("webhook-payload-recompression", this::loop);
+    }
+
+    @PostConstruct
+    void start() {
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join();
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                Thread.sleep(interval);
+                runOnce();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Payload re-compression pass failed", e);
+            }
+        }
+    }
+
+    void runOnce() {
+        trainDictionaries();
+        UUID after = FIRST_ID;
+        while (running) {
+            List<Object[]> rows = jdbcTemplate.query(SELECT_TEXT_ROWS, (rs, rowNum) -> new Object[]{
+                    codec.encode(rs.getString("source"), rs.getString("payload")),
+                    rs.getObject("id", UUID.class)}, after, batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(MOVE_TO_DATA, rows);
+            if (rows.size() < batchSize) {
+                return;
+            }
+            after = (UUID) rows.getLast()[1];
+        }
+    }
+
+    private void trainDictionaries() {
+        sources.forEach((source, options) -> {
+            if (!options.isCompressionDictionary()) {
+                return;
+            }
+            dictionaries.refresh(source);
+            if (dictionaries.current(source) != null) {
+                return;
+            }
+            List<String> samples = jdbcTemplate.query(SELECT_SAMPLES, (rs, rowNum) -> codec.decode(
+                    source, rs.getString("payload"), rs.getBytes("payload_data")), source, dictionarySamples);
+            if (samples.size() < dictionarySamples) {
+                return;
+            }
+            PayloadDictionaries.Dictionary dictionary = dictionaries.store(source, DictionaryTrainer.train(samples, dictionarySize));
+            log.info("Trained payload dictionary {} for source {} ({} bytes)", dictionary.id(), source, dictionary.data().length);
+        });
+    }
+}
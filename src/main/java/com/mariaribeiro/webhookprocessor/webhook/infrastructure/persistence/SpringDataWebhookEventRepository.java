@@ -1,13 +1,37 @@
 package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface SpringDataWebhookEventRepository extends JpaRepository<WebhookEventEntity, UUID> {
 
-    Optional<WebhookEventEntity> findBySourceAndEventKey(String source, String eventKey);
+    @Query(value = "SELECT e.* FROM webhook_event_key k " +
+            "JOIN webhook_event e ON e.id = k.event_id AND e.received_at = k.received_at " +
+            "WHERE k.source = :source AND k.event_key = :eventKey", nativeQuery = true)
+    Optional<WebhookEventEntity> findBySourceAndEventKey(@Param("source") String source, @Param("eventKey") String eventKey);
+
+    @Query(value = "SELECT event_key FROM webhook_event_key WHERE source = :source AND event_key IN (:eventKeys)", nativeQuery = true)
+    List<String> findEventKeys(@Param("source") String source, @Param("eventKeys") Collection<String> eventKeys);
+
+    @Modifying
+    @Query(value = "INSERT INTO webhook_event_key (source, event_key, event_id, received_at) " +
+            "VALUES (:source, :eventKey, :eventId, :receivedAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertKey(@Param("source") String source, @Param("eventKey") String eventKey,
+                  @Param("eventId") UUID eventId, @Param("receivedAt") OffsetDateTime receivedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM webhook_event_key WHERE source = :source AND event_key = :eventKey AND NOT EXISTS " +
+            "(SELECT 1 FROM webhook_event e WHERE e.id = webhook_event_key.event_id AND e.received_at = webhook_event_key.received_at)",
+            nativeQuery = true)
+    int deleteOrphanKey(@Param("source") String source, @Param("eventKey") String eventKey);
 }
@@ -17,11 +17,6 @@ import java.util.UUID;
 @Entity
 @Table(
         name = "webhook_event",
-        uniqueConstraints = {@UniqueConstraint(
-                name = "uk_webhook_event_source_event_id",
-                columnNames = {"source", "event_id"}
-        )
-        },
         indexes = {
                 @Index(name = "idx_webhook_event_status_received_at", columnList = "status, received_at") }
 )
@@ -37,9 +32,15 @@ public class WebhookEventEntity {
     @Column(name = "event_key", nullable = false, length = 120)
     private String eventKey;
 
-    @Column(nullable = false, columnDefinition = "text")
+    /**
+     * Set for rows written with compression off; otherwise null and the payload is in {@link #payloadData}.
+     */
+    @Column(columnDefinition = "text")
     private String payload;
 
+    @Column(name = "payload_data")
+    private byte[] payloadData;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private EventStatus status;
@@ -50,6 +51,9 @@ public class WebhookEventEntity {
     @Column(name = "processed_at")
     private Instant processedAt;
 
+    @Column(name = "logical_partition", nullable = false)
+    private short logicalPartition;
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
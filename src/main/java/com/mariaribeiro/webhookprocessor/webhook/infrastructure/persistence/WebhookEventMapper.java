@@ -1,27 +1,31 @@
 package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
 
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.LogicalPartitions;
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
 
 final class WebhookEventMapper {
 
-    static WebhookEventEntity toEntity(WebhookEvent e) {
+    static WebhookEventEntity toEntity(WebhookEvent e, PayloadCodec codec) {
+        byte[] payloadData = codec.encode(e.source(), e.payload());
         return new WebhookEventEntity(
                 e.id(),
                 e.source(),
                 e.eventKey(),
-                e.payload(),
+                payloadData == null ? e.payload() : null,
+                payloadData,
                 e.status(),
                 e.receivedAt(),
-                e.processedAt()
+                e.processedAt(),
+                (short) LogicalPartitions.of(e.source(), e.eventKey())
         );
     }
 
-    static WebhookEvent toDomain(WebhookEventEntity e) {
+    static WebhookEvent toDomain(WebhookEventEntity e, PayloadCodec codec) {
         return new WebhookEvent(
                 e.getId(),
                 e.getSource(),
                 e.getEventKey(),
-                e.getPayload(),
+                codec.decode(e.getSource(), e.getPayload(), e.getPayloadData()),
                 e.getStatus(),
                 e.getReceivedAt(),
                 e.getProcessedAt()
@@ -30,4 +34,3 @@ final class WebhookEventMapper {
 
     private WebhookEventMapper() { }
 }
-
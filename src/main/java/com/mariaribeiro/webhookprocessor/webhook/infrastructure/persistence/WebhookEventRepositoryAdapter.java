@@ -1,41 +1,101 @@
 package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
 
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
 import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.JdbcWebhookEventRepository.toOffset;
 import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.WebhookEventMapper.toDomain;
 import static com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.WebhookEventMapper.toEntity;
 
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "webhook.persistence", name = "mode", havingValue = "jpa", matchIfMissing = true)
 public class WebhookEventRepositoryAdapter implements WebhookEventRepository {
 
     private final SpringDataWebhookEventRepository repo;
+    private final EntityManager entityManager;
+    private final PayloadCodec codec;
 
     @Override
     @Transactional
     public WebhookEvent save(WebhookEvent webhookEvent) {
-        WebhookEventEntity entity = toEntity(webhookEvent);
+        if (!repo.existsById(webhookEvent.id())) {
+            return insertIfAbsent(webhookEvent).event();
+        }
+        WebhookEventEntity entity = toEntity(webhookEvent, codec);
         WebhookEventEntity saved = repo.save(entity);
-        return toDomain(saved);
+        return toDomain(saved, codec);
+    }
+
+    @Override
+    @Transactional
+    public InsertResult insertIfAbsent(WebhookEvent webhookEvent) {
+        int claimed = repo.insertKey(webhookEvent.source(), webhookEvent.eventKey(), webhookEvent.id(),
+                toOffset(webhookEvent.receivedAt()));
+        if (claimed == 0) {
+            Optional<WebhookEventEntity> existing = repo.findBySourceAndEventKey(webhookEvent.source(), webhookEvent.eventKey());
+            if (existing.isPresent()) {
+                return new InsertResult(toDomain(existing.get(), codec), false);
+            }
+            // The key outlived its event, so it no longer dedupes anything: drop it and claim it again.
+            repo.deleteOrphanKey(webhookEvent.source(), webhookEvent.eventKey());
+            claimed = repo.insertKey(webhookEvent.source(), webhookEvent.eventKey(), webhookEvent.id(),
+                    toOffset(webhookEvent.receivedAt()));
+            if (claimed == 0) {
+                WebhookEventEntity winner = repo.findBySourceAndEventKey(webhookEvent.source(), webhookEvent.eventKey())
+                        .orElseThrow(() -> new IllegalStateException(
+                                "Key taken but no event found for " + webhookEvent.source() + "/" + webhookEvent.eventKey()));
+                return new InsertResult(toDomain(winner, codec), false);
+            }
+        }
+        // persist instead of save: the id is assigned, so save would merge and select first
+        entityManager.persist(toEntity(webhookEvent, codec));
+        return new InsertResult(webhookEvent, true);
+    }
+
+    @Override
+    @Transactional
+    public List<InsertResult> insertAllIfAbsent(List<WebhookEvent> webhookEvents) {
+        List<InsertResult> results = new ArrayList<>(webhookEvents.size());
+        for (WebhookEvent webhookEvent : webhookEvents) {
+            results.add(insertIfAbsent(webhookEvent));
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public Set<String> findExistingEventKeys(String source, Collection<String> eventKeys) {
+        if (eventKeys.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(repo.findEventKeys(source, eventKeys));
     }
 
     @Override
     @Transactional
     public Optional<WebhookEvent> findBySourceAndEventKey(String source, String eventId) {
-        return repo.findBySourceAndEventKey(source,eventId).map(WebhookEventMapper::toDomain);
+        return repo.findBySourceAndEventKey(source,eventId).map(entity -> toDomain(entity, codec));
     }
 
     @Override
     @Transactional
     public Optional<WebhookEvent> findById(UUID id) {
-        return repo.findById(id).map(WebhookEventMapper::toDomain);
+        return repo.findById(id).map(entity -> toDomain(entity, codec));
     }
 
 }
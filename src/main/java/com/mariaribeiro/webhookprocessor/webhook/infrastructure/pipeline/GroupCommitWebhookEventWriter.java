@@ -0,0 +1,169 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Group commit: request threads publish into a {@link MpscRingBuffer} and wait; one writer
+ * thread drains it into batched inserts, committing when {@code batch-size} events are collected
+ * or {@code linger} has passed since the first one. A request still only completes after the
+ * transaction holding its event commits, and gives up waiting after {@code write-timeout}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "webhook.ingestion", name = "mode", havingValue = "group-commit")
+public class GroupCommitWebhookEventWriter implements WebhookEventWriter {
+
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+
+    private final WebhookEventRepository repository;
+    private final MpscRingBuffer<PendingWrite> buffer;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long publishTimeoutNanos;
+    private final long writeTimeoutNanos;
+    private final DistributionSummary batchSizes;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public GroupCommitWebhookEventWriter(WebhookEventRepository repository, WorkerThreads workerThreads,
+                                         WebhookProperties webhookProperties, MeterRegistry meterRegistry) {
+        WebhookProperties.GroupCommit config = webhookProperties.getIngestion().getGroupCommit();
+        this.repository = repository;
+        this.buffer = new MpscRingBuffer<>(config.getCapacity());
+        this.batchSize = config.getBatchSize();
+        this.lingerNanos = config.getLinger().toNanos();
+        this.publishTimeoutNanos = config.getPublishTimeout().toNanos();
+        this.writeTimeoutNanos = config.getWriteTimeout().toNanos();
+
+        this.batchSizes = DistributionSummary.builder("webhook.ingestion.batch.size")
+                .description("Events committed per group")
+                .maximumExpectedValue((double) batchSize)
+                .register(meterRegistry);
+        Gauge.builder("webhook.ingestion.queue.depth", buffer, MpscRingBuffer::size).register(meterRegistry);
+
+        this.writer = workerThreads.newThread("webhook-group-commit", this::drainLoop);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join();
+        // A write that raced the last drain would otherwise wait out its whole timeout.
+        IllegalStateException stopped = new IllegalStateException("Group commit writer stopped");
+        buffer.drain(pending -> pending.result().completeExceptionally(stopped), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public InsertResult write(WebhookEvent webhookEvent) {
+        return PendingWrites.await(publish(webhookEvent), writeTimeoutNanos, "Group commit");
+    }
+
+    /**
+     * Publishes the whole chunk before waiting, so it shares commits with concurrent requests.
+     */
+    @Override
+    public List<InsertResult> writeAll(List<WebhookEvent> webhookEvents) {
+        List<CompletableFuture<InsertResult>> results = new ArrayList<>(webhookEvents.size());
+        for (WebhookEvent webhookEvent : webhookEvents) {
+            results.add(publish(webhookEvent));
+        }
+        return PendingWrites.awaitAll(results, writeTimeoutNanos, "Group commit");
+    }
+
+    private CompletableFuture<InsertResult> publish(WebhookEvent webhookEvent) {
+        PendingWrite pending = new PendingWrite(webhookEvent, new CompletableFuture<>());
+        if (!running || !buffer.offer(pending, publishTimeoutNanos)) {
+            throw new IllegalStateException("Ingestion queue is full");
+        }
+        return pending.result();
+    }
+
+    private void drainLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drain(batch::add, batchSize) == 0) {
+                buffer.awaitItems(IDLE_PARK_NANOS);
+                continue;
+            }
+            long deadline = System.nanoTime() + lingerNanos;
+            while (batch.size() < batchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                if (buffer.drain(batch::add, batchSize - batch.size()) == 0) {
+                    buffer.awaitItems(remaining);
+                }
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        batchSizes.record(batch.size());
+        try {
+            insert(batch);
+        } catch (Throwable e) {
+            // Anything, Errors included, fails the batch only: the writer thread has to outlive it.
+            log.warn("Group commit of {} events failed", batch.size(), e);
+            for (PendingWrite pending : batch) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Inserts {@code batch}, halving it while the database rejects its data, so an event it will never
+     * accept fails only its own write. Any other failure fails what is left of the batch.
+     */
+    private void insert(List<PendingWrite> batch) {
+        List<WebhookEvent> events = new ArrayList<>(batch.size());
+        for (PendingWrite pending : batch) {
+            events.add(pending.event());
+        }
+        List<InsertResult> results;
+        try {
+            results = repository.insertAllIfAbsent(events);
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                log.warn("Rejected event {}/{}: {}", events.getFirst().source(), events.getFirst().eventKey(),
+                        e.getMostSpecificCause().toString());
+                batch.getFirst().result().completeExceptionally(e);
+                return;
+            }
+            int half = batch.size() / 2;
+            insert(batch.subList(0, half));
+            insert(batch.subList(half, batch.size()));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results.get(i));
+        }
+    }
+
+    private record PendingWrite(WebhookEvent event, CompletableFuture<InsertResult> result) { }
+}
@@ -0,0 +1,189 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of accepted events in memory-mapped segment files. One appender thread calls
+ * {@link #append} and one replay thread calls {@link #read} and {@link #checkpoint}; the
+ * checkpoint file records how far the replay has stored events, so segments before it are deleted.
+ * Opening a journal recovers every intact record after the checkpoint and always starts appending
+ * to a new segment, so a torn tail is never written over.
+ */
+final class Journal implements AutoCloseable {
+
+    private static final String CHECKPOINT = "checkpoint";
+    private static final String CHECKPOINT_TMP = "checkpoint.tmp";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+
+    private JournalSegment active;
+    private volatile long appended;
+
+    private JournalSegment reading;
+    private int readOffset;
+    private volatile long replayed;
+
+    Journal(Path directory, int segmentSize, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+
+        long[] checkpoint = readCheckpoint();
+        long pending = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(p -> p.getFileName().toString().endsWith(JournalSegment.SUFFIX)).sorted().toList()) {
+                JournalSegment segment = JournalSegment.open(path);
+                if (segment.id < checkpoint[0]) {
+                    segment.delete();
+                    continue;
+                }
+                int offset = 0;
+                for (int length; (length = JournalRecords.length(segment.buffer, offset, segment.capacity())) > 0; offset += length) {
+                    if (segment.id > checkpoint[0] || offset >= checkpoint[1]) {
+                        pending++;
+                    }
+                }
+                segment.written = offset;
+                segment.sealed = true;
+                segments.put(segment.id, segment);
+            }
+        }
+        this.appended = pending;
+
+        long nextId = segments.isEmpty() ? Math.max(1, checkpoint[0]) : segments.lastKey() + 1;
+        this.active = JournalSegment.create(directory, nextId, segmentSize);
+        segments.put(active.id, active);
+
+        Map.Entry<Long, JournalSegment> first = segments.ceilingEntry(checkpoint[0]);
+        this.reading = first.getValue();
+        this.readOffset = first.getKey() == checkpoint[0] ? (int) Math.min(checkpoint[1], reading.written) : 0;
+    }
+
+    /**
+     * Appends the events and, with fsync on, forces them to the device. They are visible to
+     * {@link #read} once this returns.
+     */
+    void append(List<WebhookEvent> events) throws IOException {
+        int start = active.written;
+        int position = start;
+        for (WebhookEvent event : events) {
+            int length = JournalRecords.write(active.buffer, position, active.capacity(), event);
+            if (length < 0) {
+                if (position == 0) {
+                    throw new IllegalArgumentException("Event " + event.id() + " does not fit in a journal segment");
+                }
+                publish(start, position);
+                JournalSegment next = JournalSegment.create(directory, active.id + 1, segmentSize);
+                segments.put(next.id, next);
+                active.sealed = true;
+                active = next;
+                start = 0;
+                position = 0;
+                length = JournalRecords.write(active.buffer, 0, active.capacity(), event);
+                if (length < 0) {
+                    throw new IllegalArgumentException("Event " + event.id() + " does not fit in a journal segment");
+                }
+            }
+            position += length;
+        }
+        publish(start, position);
+        appended += events.size();
+    }
+
+    private void publish(int start, int end) {
+        if (fsync && end > start) {
+            active.force(start, end - start);
+        }
+        active.written = end;
+    }
+
+    /**
+     * Up to {@code max} events after the last one read, in append order.
+     */
+    List<WebhookEvent> read(int max) {
+        List<WebhookEvent> events = new ArrayList<>();
+        while (events.size() < max) {
+            boolean sealed = reading.sealed;
+            int limit = reading.written;
+            if (readOffset < limit) {
+                int length = JournalRecords.length(reading.buffer, readOffset, limit);
+                if (length < 0) {
+                    throw new IllegalStateException("Corrupt journal record in " + reading.path + " at " + readOffset);
+                }
+                events.add(JournalRecords.read(reading.buffer, readOffset));
+                readOffset += length;
+            } else if (sealed) {
+                reading = segments.higherEntry(reading.id).getValue();
+                readOffset = 0;
+            } else {
+                break;
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Records that everything returned by {@link #read} so far is stored, and deletes the segments
+     * before the current one.
+     */
+    void checkpoint(int events) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(16).putLong(0, reading.id).putLong(8, readOffset);
+        Path tmp = directory.resolve(CHECKPOINT_TMP);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(data);
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        replayed += events;
+
+        for (Map.Entry<Long, JournalSegment> done; (done = segments.firstEntry()).getKey() < reading.id; ) {
+            segments.remove(done.getKey());
+            done.getValue().delete();
+        }
+    }
+
+    /**
+     * Appended events not yet checkpointed.
+     */
+    long lag() {
+        return appended - replayed;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private long[] readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT);
+        if (!Files.exists(path)) {
+            return new long[]{0, 0};
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        return new long[]{data.getLong(0), data.getLong(8)};
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (JournalSegment segment : segments.values()) {
+            segment.close();
+        }
+    }
+}
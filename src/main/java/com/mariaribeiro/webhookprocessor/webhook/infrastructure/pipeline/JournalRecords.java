@@ -0,0 +1,99 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal record framing: {@code [int bodyLength][int crc32c(body)][body]}, where the body holds
+ * the event id, receive time, source, event key and payload. A zero length marks the end of the
+ * written part of a segment; a length that overruns the segment or a CRC mismatch marks a torn write.
+ */
+final class JournalRecords {
+
+    static final int HEADER = 8;
+
+    private static final int FIXED_BODY = 16 + 8 + 4 + 4 + 4 + 4;
+
+    private JournalRecords() {
+    }
+
+    /**
+     * Writes {@code event} at {@code offset} and returns the bytes used, or -1 if it does not fit
+     * before {@code limit}.
+     */
+    static int write(ByteBuffer buffer, int offset, int limit, WebhookEvent event) {
+        byte[] source = event.source().getBytes(StandardCharsets.UTF_8);
+        byte[] eventKey = event.eventKey().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = event.payload().getBytes(StandardCharsets.UTF_8);
+        long bodyLength = (long) FIXED_BODY + source.length + eventKey.length + payload.length;
+        if (offset + HEADER + bodyLength > limit) {
+            return -1;
+        }
+
+        int position = offset + HEADER;
+        buffer.putLong(position, event.id().getMostSignificantBits());
+        buffer.putLong(position + 8, event.id().getLeastSignificantBits());
+        buffer.putLong(position + 16, event.receivedAt().getEpochSecond());
+        buffer.putInt(position + 24, event.receivedAt().getNano());
+        position = putBytes(buffer, position + 28, source);
+        position = putBytes(buffer, position, eventKey);
+        putBytes(buffer, position, payload);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + HEADER, (int) bodyLength));
+        buffer.putInt(offset, (int) bodyLength);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        return HEADER + (int) bodyLength;
+    }
+
+    /**
+     * Bytes used by the intact record at {@code offset}, or -1 at the end of the written data or
+     * at a torn record.
+     */
+    static int length(ByteBuffer buffer, int offset, int limit) {
+        if (offset + HEADER > limit) {
+            return -1;
+        }
+        int bodyLength = buffer.getInt(offset);
+        if (bodyLength < FIXED_BODY || bodyLength > limit - offset - HEADER) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + HEADER, bodyLength));
+        return (int) crc.getValue() == buffer.getInt(offset + 4) ? HEADER + bodyLength : -1;
+    }
+
+    /**
+     * Reads the record at {@code offset}, which {@link #length} must have accepted.
+     */
+    static WebhookEvent read(ByteBuffer buffer, int offset) {
+        int position = offset + HEADER;
+        UUID id = new UUID(buffer.getLong(position), buffer.getLong(position + 8));
+        Instant receivedAt = Instant.ofEpochSecond(buffer.getLong(position + 16), buffer.getInt(position + 24));
+        position += 28;
+        String source = getString(buffer, position);
+        position += 4 + buffer.getInt(position);
+        String eventKey = getString(buffer, position);
+        position += 4 + buffer.getInt(position);
+        String payload = getString(buffer, position);
+        return new WebhookEvent(id, source, eventKey, payload, EventStatus.RECEIVED, receivedAt, null);
+    }
+
+    private static int putBytes(ByteBuffer buffer, int position, byte[] bytes) {
+        buffer.putInt(position, bytes.length);
+        buffer.put(position + 4, bytes);
+        return position + 4 + bytes.length;
+    }
+
+    private static String getString(ByteBuffer buffer, int position) {
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped journal file. Only the appender writes to it; {@link #written} publishes how
+ * far records are complete, and {@link #sealed} that no more will follow.
+ */
+final class JournalSegment {
+
+    static final String SUFFIX = ".journal";
+
+    final long id;
+    final Path path;
+    final MappedByteBuffer buffer;
+    private final FileChannel channel;
+    volatile int written;
+    volatile boolean sealed;
+
+    private JournalSegment(long id, Path path, FileChannel channel, int size) throws IOException {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    static JournalSegment create(Path directory, long id, int size) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", id, SUFFIX));
+        return new JournalSegment(id, path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), size);
+    }
+
+    static JournalSegment open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long id = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(id, path, channel, (int) channel.size());
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    void force(int offset, int length) {
+        buffer.force(offset, length);
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,286 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Write-ahead journal: request threads publish into a {@link MpscRingBuffer} and wait while one
+ * appender thread writes batches to the {@link Journal} and forces them to disk; a request is
+ * acknowledged as created once its batch is durable, whatever the database is doing. A replay
+ * thread drains the journal into {@link WebhookEventRepository#insertAllIfAbsent} and checkpoints
+ * after each stored batch, retrying the same batch while the database is unavailable. A batch the
+ * database rejects for its data is split in halves until the offending events are isolated; those are
+ * appended to {@code quarantine.ndjson} in the journal directory so the rest can be stored. Replaying
+ * after a crash repeats at most the batch after the checkpoint, which the idempotent insert absorbs.
+ * A duplicate is only answered as such when {@code webhook.idempotency} remembers its key; otherwise
+ * it is acknowledged with a new id and dropped when replayed. Keys are remembered once replayed,
+ * with the id that was actually stored. A request gives up waiting after {@code write-timeout}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "webhook.ingestion", name = "mode", havingValue = "journal")
+public class JournalWebhookEventWriter implements WebhookEventWriter {
+
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+    private static final String QUARANTINE = "quarantine.ndjson";
+
+    private final WebhookEventRepository repository;
+    private final Journal journal;
+    private final Path quarantineFile;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+    private final MpscRingBuffer<PendingAppend> buffer;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long publishTimeoutNanos;
+    private final long writeTimeoutNanos;
+    private final int replayBatchSize;
+    private final Duration replayRetryInterval;
+    private final DistributionSummary batchSizes;
+    private final Counter replayFailures;
+    private final Counter quarantined;
+    private final Thread appender;
+    private final Thread replayer;
+    private volatile boolean running = true;
+    private volatile boolean replaying = true;
+    private volatile Consumer<WebhookEvent> storedListener = event -> { };
+
+    public JournalWebhookEventWriter(WebhookEventRepository repository, ObjectMapper objectMapper, WorkerThreads workerThreads,
+                                     WebhookProperties webhookProperties, MeterRegistry meterRegistry) throws IOException {
+        WebhookProperties.Journal config = webhookProperties.getIngestion().getJournal();
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.journal = new Journal(config.getDirectory(), (int) config.getSegmentSize().toBytes(), config.isFsync());
+        this.quarantineFile = config.getDirectory().resolve(QUARANTINE);
+        this.fsync = config.isFsync();
+        this.buffer = new MpscRingBuffer<>(config.getCapacity());
+        this.batchSize = config.getBatchSize();
+        this.lingerNanos = config.getLinger().toNanos();
+        this.publishTimeoutNanos = config.getPublishTimeout().toNanos();
+        this.writeTimeoutNanos = config.getWriteTimeout().toNanos();
+        this.replayBatchSize = config.getReplayBatchSize();
+        this.replayRetryInterval = config.getReplayRetryInterval();
+
+        this.batchSizes = DistributionSummary.builder("webhook.journal.batch.size")
+                .description("Events appended per forced write")
+                .maximumExpectedValue((double) batchSize)
+                .register(meterRegistry);
+        this.replayFailures = Counter.builder("webhook.journal.replay.failures").register(meterRegistry);
+        this.quarantined = Counter.builder("webhook.journal.replay.quarantined")
+                .description("Journaled events the database rejected, moved to the quarantine file")
+                .register(meterRegistry);
+        Gauge.builder("webhook.journal.lag", journal, Journal::lag)
+                .description("Journaled events not yet stored in the database")
+                .register(meterRegistry);
+        Gauge.builder("webhook.journal.segments", journal, Journal::segmentCount).register(meterRegistry);
+
+        this.appender = workerThreads.newThread("webhook-journal-appender", this::appendLoop);
+        this.replayer = workerThreads.newThread("webhook-journal-replayer", this::replayLoop);
+    }
+
+    @PostConstruct
+    void start() {
+        appender.start();
+        replayer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        running = false;
+        appender.join();
+        // A write that raced the last drain would otherwise wait out its whole timeout.
+        IllegalStateException stopped = new IllegalStateException("Journal writer stopped");
+        buffer.drain(pending -> pending.result().completeExceptionally(stopped), Integer.MAX_VALUE);
+        replaying = false;
+        LockSupport.unpark(replayer);
+        replayer.join();
+        journal.close();
+    }
+
+    @Override
+    public InsertResult write(WebhookEvent webhookEvent) {
+        return PendingWrites.await(publish(webhookEvent), writeTimeoutNanos, "Journal append");
+    }
+
+    /**
+     * Publishes the whole chunk before waiting, so it is forced to disk in as few writes as the batch size allows.
+     */
+    @Override
+    public List<InsertResult> writeAll(List<WebhookEvent> webhookEvents) {
+        List<CompletableFuture<InsertResult>> results = new ArrayList<>(webhookEvents.size());
+        for (WebhookEvent webhookEvent : webhookEvents) {
+            results.add(publish(webhookEvent));
+        }
+        return PendingWrites.awaitAll(results, writeTimeoutNanos, "Journal append");
+    }
+
+    private CompletableFuture<InsertResult> publish(WebhookEvent webhookEvent) {
+        PendingAppend pending = new PendingAppend(webhookEvent, new CompletableFuture<>());
+        if (!running) {
+            throw new IllegalStateException("Journal writer stopped");
+        }
+        if (!buffer.offer(pending, publishTimeoutNanos)) {
+            throw new IllegalStateException("Journal queue is full");
+        }
+        return pending.result();
+    }
+
+    @Override
+    public boolean returnsStoredEvent() {
+        return false;
+    }
+
+    @Override
+    public void onStored(Consumer<WebhookEvent> listener) {
+        this.storedListener = listener;
+    }
+
+    long lag() {
+        return journal.lag();
+    }
+
+    private void appendLoop() {
+        List<PendingAppend> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drain(batch::add, batchSize) == 0) {
+                buffer.awaitItems(IDLE_PARK_NANOS);
+                continue;
+            }
+            long deadline = System.nanoTime() + lingerNanos;
+            while (batch.size() < batchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                if (buffer.drain(batch::add, batchSize - batch.size()) == 0) {
+                    buffer.awaitItems(remaining);
+                }
+            }
+            append(batch);
+            batch.clear();
+        }
+    }
+
+    private void append(List<PendingAppend> batch) {
+        batchSizes.record(batch.size());
+        List<WebhookEvent> events = new ArrayList<>(batch.size());
+        for (PendingAppend pending : batch) {
+            events.add(pending.event());
+        }
+        try {
+            journal.append(events);
+            for (PendingAppend pending : batch) {
+                pending.result().complete(new InsertResult(pending.event(), true));
+            }
+        } catch (Throwable e) {
+            // Errors included: the appender thread has to outlive a failed batch.
+            log.warn("Journal append of {} events failed", batch.size(), e);
+            Throwable failure = e instanceof IOException io ? new UncheckedIOException(io) : e;
+            for (PendingAppend pending : batch) {
+                pending.result().completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Waits by parking rather than sleeping: stopping must not interrupt the thread, since an
+     * interrupt closes the file channel a checkpoint may be writing.
+     */
+    private void replayLoop() {
+        List<WebhookEvent> events = List.of();
+        while (replaying) {
+            try {
+                if (events.isEmpty()) {
+                    events = journal.read(replayBatchSize);
+                    if (events.isEmpty()) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                        continue;
+                    }
+                }
+                store(events);
+                journal.checkpoint(events.size());
+                events = List.of();
+            } catch (IOException | RuntimeException e) {
+                replayFailures.increment();
+                log.warn("Replaying {} journaled events failed; retrying in {}", events.size(), replayRetryInterval, e);
+                LockSupport.parkNanos(replayRetryInterval.toNanos());
+            }
+        }
+    }
+
+    /**
+     * Stores {@code events}, halving the batch while the database rejects its data. Any other failure
+     * propagates, and the whole batch is retried; halves already stored are absorbed by the idempotent insert.
+     */
+    private void store(List<WebhookEvent> events) throws IOException {
+        try {
+            for (InsertResult result : repository.insertAllIfAbsent(events)) {
+                storedListener.accept(result.event());
+            }
+        } catch (DataIntegrityViolationException e) {
+            if (events.size() == 1) {
+                quarantine(events.getFirst(), e);
+                return;
+            }
+            int half = events.size() / 2;
+            store(events.subList(0, half));
+            store(events.subList(half, events.size()));
+        }
+    }
+
+    private void quarantine(WebhookEvent event, DataIntegrityViolationException cause) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("id", event.id().toString());
+        line.put("source", event.source());
+        line.put("eventKey", event.eventKey());
+        line.put("receivedAt", event.receivedAt().toString());
+        line.put("error", cause.getMostSpecificCause().toString());
+        line.put("payload", event.payload());
+        byte[] bytes = objectMapper.writeValueAsBytes(line);
+        try (FileChannel channel = FileChannel.open(quarantineFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 1).put(bytes).put((byte) '\n').flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(true);
+            }
+        }
+        quarantined.increment();
+        log.error("Quarantined journaled event {} ({}/{}): the database rejects it", event.id(), event.source(),
+                event.eventKey(), cause);
+    }
+
+    private record PendingAppend(WebhookEvent event, CompletableFuture<InsertResult> result) { }
+}
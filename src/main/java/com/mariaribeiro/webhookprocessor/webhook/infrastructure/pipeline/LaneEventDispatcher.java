@@ -0,0 +1,245 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.application.processing.EventDispatcher;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ordered handling: each event goes to one of a fixed set of lanes by a hash of its ordering key
+ * (see {@link OrderingKeyExtractor}). A lane is a {@link MpscRingBuffer} drained by one thread, so
+ * events with the same key are handled one at a time in dispatch order while other lanes run in
+ * parallel. A full lane blocks the claimer dispatching into it, which holds back further claims.
+ * Per lane, {@code webhook.lanes.depth} and {@code webhook.lanes.lag} (how long the event being
+ * handled has been in the lane) are published, and lanes that take a disproportionate share of
+ * the work, or fill up to half their capacity, are flagged by {@code webhook.lanes.hot} and logged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "webhook.processing.lanes", name = "enabled", havingValue = "true")
+public class LaneEventDispatcher implements EventDispatcher {
+
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+    private static final long BACKPRESSURE_WAIT_NANOS = 1_000_000;
+
+    private final OrderingKeyExtractor keys;
+    private final Lane[] lanes;
+    private final double hotLaneFactor;
+    private final long hotLaneMinEvents;
+    private final long hotLaneCheckIntervalNanos;
+    private final Timer blocked;
+    private final Thread monitor;
+    private volatile boolean running = true;
+
+    public LaneEventDispatcher(ObjectMapper objectMapper, WorkerThreads workerThreads, WebhookProperties webhookProperties,
+                               MeterRegistry meterRegistry) {
+        WebhookProperties.Lanes config = webhookProperties.getProcessing().getLanes();
+        this.keys = new OrderingKeyExtractor(objectMapper, webhookProperties);
+        this.hotLaneFactor = config.getHotLaneFactor();
+        this.hotLaneMinEvents = Math.max(config.getHotLaneMinEvents(), 1);
+        this.hotLaneCheckIntervalNanos = config.getHotLaneCheckInterval().toNanos();
+        int count = config.getCount() > 0 ? config.getCount() : Runtime.getRuntime().availableProcessors();
+        this.lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            Lane lane = new Lane(config.getCapacity());
+            lane.thread = workerThreads.newThread("webhook-lane-" + i, lane::drainLoop);
+            lanes[i] = lane;
+
+            String tag = Integer.toString(i);
+            Gauge.builder("webhook.lanes.depth", lane.queue, MpscRingBuffer::size)
+                    .description("Events waiting in the lane")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            TimeGauge.builder("webhook.lanes.lag", lane, TimeUnit.NANOSECONDS, Lane::lagNanos)
+                    .description("Time the event being handled has spent in the lane")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            Gauge.builder("webhook.lanes.hot", lane, l -> l.hot ? 1 : 0)
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+        }
+        this.blocked = Timer.builder("webhook.lanes.blocked")
+                .description("Time claimers waited for room in a full lane")
+                .register(meterRegistry);
+        this.monitor = workerThreads.newThread("webhook-lane-monitor", this::monitorLoop);
+    }
+
+    @PostConstruct
+    void start() {
+        for (Lane lane : lanes) {
+            lane.thread.start();
+        }
+        monitor.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        monitor.interrupt();
+        monitor.join();
+        for (Lane lane : lanes) {
+            lane.thread.join();
+            // A dispatch that raced the last drain: run it here rather than leave its claimer waiting.
+            lane.queue.drain(lane::run, Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> dispatch(WebhookEvent event, Supplier<T> task) {
+        return dispatch(event, keys.keyFor(event), task);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> dispatch(WebhookEvent event, String key, Supplier<T> task) {
+        Lane lane = lanes[laneOf(key)];
+        Task<T> pending = new Task<>(task, new CompletableFuture<>(), System.nanoTime());
+        if (!running) {
+            throw new IllegalStateException("Lanes are stopped");
+        }
+        if (!lane.queue.offer(pending)) {
+            long start = System.nanoTime();
+            // Claimed events must reach a lane or they stay PROCESSING, so an interrupt is kept for later.
+            boolean interrupted = false;
+            while (!lane.queue.offer(pending, BACKPRESSURE_WAIT_NANOS)) {
+                if (!running) {
+                    throw new IllegalStateException("Lanes are stopped");
+                }
+                interrupted |= Thread.interrupted();
+            }
+            blocked.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lane.lastKey = key;
+        return pending.result();
+    }
+
+    @Override
+    public String orderingKey(WebhookEvent event) {
+        return keys.keyFor(event);
+    }
+
+    @Override
+    public boolean ordered() {
+        return true;
+    }
+
+    int laneOf(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x45D9F3B;
+        h ^= h >>> 16;
+        return Math.floorMod(h, lanes.length);
+    }
+
+    /**
+     * Flags lanes whose queue is at least half full, or that completed {@code hot-lane-factor} times
+     * the per-lane average and at least {@code hot-lane-min-events} since the previous check, so a
+     * handful of events on a quiet instance does not flag a lane.
+     */
+    void checkHotLanes() {
+        long[] completed = new long[lanes.length];
+        long total = 0;
+        for (int i = 0; i < lanes.length; i++) {
+            long count = lanes[i].completed.get();
+            completed[i] = count - lanes[i].completedAtLastCheck;
+            lanes[i].completedAtLastCheck = count;
+            total += completed[i];
+        }
+        double average = (double) total / lanes.length;
+        for (int i = 0; i < lanes.length; i++) {
+            Lane lane = lanes[i];
+            int depth = lane.queue.size();
+            boolean hot = depth >= lane.queue.capacity() / 2
+                    || (lanes.length > 1 && completed[i] >= hotLaneMinEvents && completed[i] >= hotLaneFactor * average);
+            if (hot && !lane.hot) {
+                log.warn("Lane {} is hot: {} queued, {} handled since the last check against {} per lane; last ordering key {}",
+                        i, depth, completed[i], Math.round(average), lane.lastKey);
+            }
+            lane.hot = hot;
+        }
+    }
+
+    boolean isHot(int lane) {
+        return lanes[lane].hot;
+    }
+
+    private void monitorLoop() {
+        while (running) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(hotLaneCheckIntervalNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            checkHotLanes();
+        }
+    }
+
+    private final class Lane {
+
+        final MpscRingBuffer<Task<?>> queue;
+        final AtomicLong completed = new AtomicLong();
+        Thread thread;
+        volatile Task<?> current;
+        volatile String lastKey;
+        volatile boolean hot;
+        long completedAtLastCheck;
+
+        Lane(int capacity) {
+            this.queue = new MpscRingBuffer<>(capacity);
+        }
+
+        double lagNanos() {
+            Task<?> task = current;
+            return task == null ? 0 : System.nanoTime() - task.enqueuedNanos();
+        }
+
+        void drainLoop() {
+            while (running || !queue.isEmpty()) {
+                // One at a time: the ring frees a slot only when drain returns, so the depth and
+                // the backpressure then count the event being handled plus those waiting.
+                if (queue.drain(this::run, 1) == 0) {
+                    queue.awaitItems(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        private void run(Task<?> task) {
+            current = task;
+            try {
+                task.run();
+            } finally {
+                current = null;
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    private record Task<T>(Supplier<T> supplier, CompletableFuture<T> result, long enqueuedNanos) {
+
+        void run() {
+            try {
+                result.complete(supplier.get());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
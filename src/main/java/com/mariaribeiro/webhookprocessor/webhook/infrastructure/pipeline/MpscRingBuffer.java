@@ -0,0 +1,121 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, preallocated multi-producer / single-consumer ring. Producers claim a sequence with
+ * a CAS and publish it per slot; the single consumer drains published slots in order and
+ * frees them by advancing its cursor. No locks are taken on either side.
+ */
+public final class MpscRingBuffer<T> {
+
+    private static final long PRODUCER_BACKOFF_NANOS = 50_000;
+
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong producerSequence = new AtomicLong(-1);
+    private final AtomicLong consumerSequence = new AtomicLong(-1);
+    private volatile Thread consumer;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Publishes {@code item} if there is a free slot, without blocking.
+     */
+    public boolean offer(T item) {
+        long current;
+        long next;
+        do {
+            current = producerSequence.get();
+            next = current + 1;
+            if (next - items.length() > consumerSequence.get()) {
+                return false;
+            }
+        } while (!producerSequence.compareAndSet(current, next));
+
+        int idx = (int) next & mask;
+        items.set(idx, item);
+        published.set(idx, next);
+
+        Thread waiting = consumer;
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+        return true;
+    }
+
+    /**
+     * Publishes {@code item}, backing off while the ring is full for at most {@code timeoutNanos}.
+     */
+    public boolean offer(T item, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (!offer(item)) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(PRODUCER_BACKOFF_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published items to {@code sink} in sequence order. Consumer thread only.
+     */
+    public int drain(Consumer<? super T> sink, int max) {
+        long cursor = consumerSequence.get();
+        int drained = 0;
+        while (drained < max) {
+            long next = cursor + 1;
+            int idx = (int) next & mask;
+            if (published.get(idx) != next) {
+                break;
+            }
+            T item = items.get(idx);
+            items.set(idx, null);
+            sink.accept(item);
+            cursor = next;
+            drained++;
+        }
+        if (drained > 0) {
+            consumerSequence.set(cursor);
+        }
+        return drained;
+    }
+
+    /**
+     * Parks the consumer until a producer publishes or {@code timeoutNanos} elapses. Consumer thread only.
+     */
+    public void awaitItems(long timeoutNanos) {
+        consumer = Thread.currentThread();
+        if (isEmpty()) {
+            LockSupport.parkNanos(this, timeoutNanos);
+        }
+    }
+
+    public int size() {
+        return (int) (producerSequence.get() - consumerSequence.get());
+    }
+
+    public boolean isEmpty() {
+        return size() <= 0;
+    }
+
+    public int capacity() {
+        return items.length();
+    }
+}
@@ -0,0 +1,75 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ordering key of an event: its source, plus the scalar at the source's {@code ordering-key-path}
+ * in the stored payload when one is configured. The payload is walked with a streaming parser and
+ * left as soon as the value is found. An event whose payload lacks the value falls back to the
+ * source alone, which keeps it ordered with, rather than apart from, the other events of its source.
+ */
+final class OrderingKeyExtractor {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, String[]> pathsBySource;
+
+    OrderingKeyExtractor(ObjectMapper objectMapper, WebhookProperties webhookProperties) {
+        this.objectMapper = objectMapper;
+        Map<String, String[]> bySource = new HashMap<>();
+        webhookProperties.getSources().forEach((source, options) -> {
+            if (options.getOrderingKeyPath() != null) {
+                bySource.put(source, parse(options.getOrderingKeyPath()));
+            }
+        });
+        this.pathsBySource = Map.copyOf(bySource);
+    }
+
+    String keyFor(WebhookEvent event) {
+        String[] path = pathsBySource.get(event.source());
+        if (path == null || event.payload() == null) {
+            return event.source();
+        }
+        String value = find(event.payload(), path);
+        return value == null ? event.source() : event.source() + ':' + value;
+    }
+
+    private String find(String payload, String[] path) {
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            int depth = 0;
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (!path[depth].equals(name)) {
+                    parser.skipChildren();
+                } else if (depth == path.length - 1) {
+                    return token.isScalarValue() && token != JsonToken.VALUE_NULL ? parser.getValueAsString() : null;
+                } else if (token == JsonToken.START_OBJECT) {
+                    depth++;
+                } else {
+                    return null;
+                }
+            }
+            return null;
+        } catch (JacksonException e) {
+            return null;
+        }
+    }
+
+    private static String[] parse(String path) {
+        if (path == null || !path.startsWith("$.") || path.endsWith(".") || path.contains("..") || path.contains("[")) {
+            throw new IllegalArgumentException("Unsupported ordering key path: " + path);
+        }
+        return path.substring(2).split("\\.");
+    }
+}
@@ -0,0 +1,48 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Request-side wait of the writers that hand events to a background thread. The wait is bounded,
+ * so a request never hangs on a writer thread that died or stopped; a timed-out event may still be
+ * written later, which the idempotent insert makes safe to retry.
+ */
+final class PendingWrites {
+
+    private PendingWrites() {
+    }
+
+    static <T> T await(CompletableFuture<T> result, long timeoutNanos, String what) {
+        try {
+            return result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(what + " did not complete within " + Duration.ofNanos(timeoutNanos));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(what + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + what, e);
+        }
+    }
+
+    /**
+     * Waits for all results within one {@code timeoutNanos} overall, not one per result.
+     */
+    static <T> List<T> awaitAll(List<CompletableFuture<T>> results, long timeoutNanos, String what) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        List<T> values = new ArrayList<>(results.size());
+        for (CompletableFuture<T> result : results) {
+            values.add(await(result, Math.max(0, deadline - System.nanoTime()), what));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.time.Instant;
+
+/**
+ * Event handed to a worker together with how many handling attempts already failed. {@code claimedAt}
+ * and {@code claimedBy} (null without partition leases) identify this claim, so an outcome written
+ * back after the claim was released and taken again is recognized as stale.
+ */
+public record ClaimedEvent(WebhookEvent event, int attemptCount, Instant claimedAt, String claimedBy) {
+}
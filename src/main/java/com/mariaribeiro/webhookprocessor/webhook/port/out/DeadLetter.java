@@ -0,0 +1,20 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Why and when an event was dead-lettered. The event itself stays in {@code webhook_event}.
+ */
+public record DeadLetter(
+        UUID eventId,
+        String source,
+        String eventKey,
+        Instant receivedAt,
+        Instant deadLetteredAt,
+        DeadLetterReason reason,
+        String lastError,
+        int attemptCount) {
+}
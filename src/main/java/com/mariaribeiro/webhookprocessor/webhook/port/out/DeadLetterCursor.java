@@ -0,0 +1,10 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position after the last dead letter of a page, in {@code (deadLetteredAt, eventId)} order.
+ */
+public record DeadLetterCursor(Instant deadLetteredAt, UUID eventId) {
+}
@@ -0,0 +1,9 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.util.List;
+
+/**
+ * {@code next} is null on the last page.
+ */
+public record DeadLetterPage(List<DeadLetter> deadLetters, DeadLetterCursor next) {
+}
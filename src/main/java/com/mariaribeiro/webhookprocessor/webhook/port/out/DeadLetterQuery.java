@@ -0,0 +1,18 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+
+import java.time.Instant;
+
+/**
+ * Filter over dead letters; null fields are not filtered on. {@code from} (inclusive) and {@code to}
+ * (exclusive) bound the time of dead-lettering, and {@code error} matches a case-insensitive
+ * substring of the last error.
+ */
+public record DeadLetterQuery(
+        String source,
+        DeadLetterReason reason,
+        Instant from,
+        Instant to,
+        String error) {
+}
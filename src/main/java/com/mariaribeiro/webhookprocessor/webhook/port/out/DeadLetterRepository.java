@@ -0,0 +1,19 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.util.List;
+
+/**
+ * Quarantine of {@code DEAD_LETTERED} events. Rows are written by
+ * {@link EventClaimRepository#completeAll(List)} together with the status.
+ */
+public interface DeadLetterRepository {
+
+    DeadLetterPage findPage(DeadLetterQuery query, DeadLetterCursor after, int limit);
+
+    /**
+     * Puts the events back to {@code RECEIVED} with a fresh attempt count and removes their dead
+     * letters, in one transaction. Returns how many events were requeued; the rest were no longer
+     * dead-lettered or no longer stored.
+     */
+    int requeue(List<DeadLetter> deadLetters);
+}
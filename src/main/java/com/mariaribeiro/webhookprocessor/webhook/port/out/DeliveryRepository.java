@@ -0,0 +1,24 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Subscribers that already acknowledged an event, so that a retry is only sent to the ones that did not.
+ */
+public interface DeliveryRepository {
+
+    Set<String> findDelivered(UUID eventId);
+
+    /**
+     * Records the subscribers as having acknowledged the event; ones already recorded are kept as they are.
+     */
+    void recordDelivered(UUID eventId, Collection<String> subscribers, Instant deliveredAt);
+
+    /**
+     * Forgets the event's deliveries once every subscriber has it.
+     */
+    void clear(UUID eventId);
+}
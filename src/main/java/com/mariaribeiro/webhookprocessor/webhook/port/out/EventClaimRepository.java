@@ -0,0 +1,46 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Work queue view of {@code webhook_event} for the processing workers.
+ */
+public interface EventClaimRepository {
+
+    /**
+     * Moves up to {@code limit} of the oldest {@code RECEIVED} events to {@code PROCESSING} and
+     * returns them. Rows claimed by a concurrent caller are skipped rather than waited on.
+     */
+    List<ClaimedEvent> claimReceived(int limit);
+
+    /**
+     * Like {@link #claimReceived(int)}, only from events in the given logical partitions, and
+     * recording {@code nodeId} as the claimant.
+     */
+    List<ClaimedEvent> claimReceived(int limit, int[] partitions, String nodeId);
+
+    /**
+     * Puts {@code PROCESSING} events claimed before {@code claimedBefore} back to {@code RECEIVED},
+     * so claims lost to a crash or a failed write-back are picked up again.
+     */
+    int releaseExpiredClaims(Instant claimedBefore);
+
+    /**
+     * Puts {@code PROCESSING} events in the given partitions back to {@code RECEIVED} when the node
+     * that claimed them is not one of {@code liveNodes}, for a node taking over a dead node's partitions.
+     */
+    int releaseClaimsOfDeadNodes(int[] partitions, List<String> liveNodes);
+
+    /**
+     * Puts the given {@code PROCESSING} events back to {@code RECEIVED}, for claims that were never handed to a handler.
+     */
+    int releaseClaims(List<UUID> eventIds);
+
+    /**
+     * Writes the outcomes whose claim is still held, dead letters included, and returns those. An
+     * outcome whose event was released and claimed again, or already completed, is left out.
+     */
+    List<StatusUpdate> completeAll(List<StatusUpdate> updates);
+}
@@ -0,0 +1,10 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position after the last event of a page, in {@code (receivedAt, id)} order.
+ */
+public record EventCursor(Instant receivedAt, UUID id) {
+}
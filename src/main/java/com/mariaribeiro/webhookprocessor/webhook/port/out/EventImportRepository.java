@@ -0,0 +1,24 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.util.List;
+
+/**
+ * Bulk load of archived events, outside the ingestion path.
+ */
+public interface EventImportRepository {
+
+    /**
+     * Readies storage for the events, outside the transaction of {@link #importAll}; on a
+     * partitioned table, creates the partitions their receive times need.
+     */
+    default void prepare(List<WebhookEvent> events) {
+    }
+
+    /**
+     * Stores the events whose {@code (source, eventKey)} is not stored yet, including earlier in
+     * the same list, in one transaction. Returns how many were stored.
+     */
+    int importAll(List<WebhookEvent> events);
+}
@@ -0,0 +1,11 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.util.List;
+
+/**
+ * {@code next} is null on the last page.
+ */
+public record EventPage(List<WebhookEvent> events, EventCursor next) {
+}
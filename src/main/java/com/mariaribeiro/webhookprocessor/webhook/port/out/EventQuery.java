@@ -0,0 +1,17 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+
+import java.time.Instant;
+
+/**
+ * Filter for admin reads; null fields are not filtered on. {@code from} is inclusive and {@code to}
+ * exclusive. Events come back with a null payload unless {@code includePayload} is set.
+ */
+public record EventQuery(
+        String source,
+        EventStatus status,
+        Instant from,
+        Instant to,
+        boolean includePayload) {
+}
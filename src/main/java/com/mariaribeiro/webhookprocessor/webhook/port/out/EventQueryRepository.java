@@ -0,0 +1,22 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Read-only view of {@code webhook_event} for triage, ordered by {@code (receivedAt, id)}.
+ */
+public interface EventQueryRepository {
+
+    /**
+     * Up to {@code limit} events after {@code after} (from the start when null). Seeks past the cursor
+     * instead of skipping rows, so every page costs the same.
+     */
+    EventPage findPage(EventQuery query, EventCursor after, int limit);
+
+    /**
+     * Hands every matching event to {@code action} as it is read, without holding the result in memory.
+     */
+    void forEach(EventQuery query, Consumer<WebhookEvent> action);
+}
@@ -0,0 +1,9 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+/**
+ * Outcome of an idempotent insert: the stored event and whether this call created it.
+ */
+public record InsertResult(WebhookEvent event, boolean created) {
+}
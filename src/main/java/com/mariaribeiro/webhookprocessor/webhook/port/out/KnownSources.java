@@ -0,0 +1,9 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+/**
+ * Sources that currently have a signing key. Cheap enough to ask on every request.
+ */
+public interface KnownSources {
+
+    boolean isKnown(String source);
+}
@@ -0,0 +1,9 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.time.Instant;
+
+/**
+ * {@code ownerId} and {@code expiresAt} are null for a partition nobody has held yet or that was released.
+ */
+public record PartitionLease(int partition, String ownerId, Instant expiresAt) {
+}
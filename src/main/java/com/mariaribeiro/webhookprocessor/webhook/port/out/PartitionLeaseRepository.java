@@ -0,0 +1,49 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Shared state of the processing nodes: their heartbeats and which node leases each logical partition.
+ */
+public interface PartitionLeaseRepository {
+
+    /**
+     * Creates the unowned leases of partitions {@code 0..count-1} that do not exist yet.
+     */
+    void createPartitions(int count);
+
+    /**
+     * Records that {@code nodeId} is alive, registering it on the first call.
+     */
+    void heartbeat(String nodeId, Instant now);
+
+    /**
+     * Ids of the nodes whose last heartbeat is after {@code since}, in ascending order.
+     */
+    List<String> liveNodes(Instant since);
+
+    /**
+     * Forgets nodes whose last heartbeat is before {@code before}.
+     */
+    void removeNodes(Instant before);
+
+    List<PartitionLease> leases();
+
+    /**
+     * Moves the expiry of every lease {@code nodeId} still owns to {@code expiresAt}.
+     */
+    void renew(String nodeId, Instant expiresAt);
+
+    /**
+     * Takes the lease if it is unowned or expired at {@code now}; false if another node holds it.
+     */
+    boolean acquire(int partition, String nodeId, Instant now, Instant expiresAt);
+
+    void release(int partition, String nodeId);
+
+    /**
+     * Releases every lease of {@code nodeId} and forgets the node.
+     */
+    void leave(String nodeId);
+}
@@ -0,0 +1,19 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface RetryRepository {
+
+    /**
+     * Pending retries with {@code after < next_attempt_at <= until}, ordered by
+     * {@code (next_attempt_at, id)} and starting strictly after {@code resumeFrom} when given.
+     */
+    List<ScheduledRetry> findDue(Instant after, Instant until, ScheduledRetry resumeFrom, int limit);
+
+    /**
+     * Puts waiting events back to {@code RECEIVED} so workers claim them again.
+     */
+    int release(Collection<ScheduledRetry> retries);
+}
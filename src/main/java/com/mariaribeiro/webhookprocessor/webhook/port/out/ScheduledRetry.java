@@ -0,0 +1,7 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ScheduledRetry(UUID eventId, Instant nextAttemptAt) {
+}
@@ -0,0 +1,29 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Final state of one handling attempt of {@code claim}. {@code nextAttemptAt} is set only for failures
+ * that will be retried; {@code deadLetterReason} and {@code lastError} only for {@code DEAD_LETTERED}.
+ */
+public record StatusUpdate(
+        ClaimedEvent claim,
+        EventStatus status,
+        Instant processedAt,
+        int attemptCount,
+        Instant nextAttemptAt,
+        DeadLetterReason deadLetterReason,
+        String lastError) {
+
+    public StatusUpdate(ClaimedEvent claim, EventStatus status, Instant processedAt, int attemptCount, Instant nextAttemptAt) {
+        this(claim, status, processedAt, attemptCount, nextAttemptAt, null, null);
+    }
+
+    public UUID eventId() {
+        return claim.event().id();
+    }
+}
@@ -2,13 +2,33 @@ package com.mariaribeiro.webhookprocessor.webhook.port.out;
 
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface WebhookEventRepository {
 
     WebhookEvent save(WebhookEvent webhookEvent);
 
+    /**
+     * Inserts the event unless one already exists for its {@code (source, eventKey)}, in which
+     * case the stored event is returned instead.
+     */
+    InsertResult insertIfAbsent(WebhookEvent webhookEvent);
+
+    /**
+     * Batch form of {@link #insertIfAbsent(WebhookEvent)} committed as one unit; results are in
+     * the same order as {@code webhookEvents}.
+     */
+    List<InsertResult> insertAllIfAbsent(List<WebhookEvent> webhookEvents);
+
+    /**
+     * The subset of {@code eventKeys} already stored for {@code source}, in one query.
+     */
+    Set<String> findExistingEventKeys(String source, Collection<String> eventKeys);
+
     Optional<WebhookEvent> findBySourceAndEventKey(String source, String eventId);
 
     Optional<WebhookEvent> findById(UUID id);
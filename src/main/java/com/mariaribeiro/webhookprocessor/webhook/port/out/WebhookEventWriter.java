@@ -0,0 +1,43 @@
+package com.mariaribeiro.webhookprocessor.webhook.port.out;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Write side of ingestion. Implementations decide how an accepted event reaches durable storage
+ * (one statement per event, grouped commits, a local journal replayed later, ...) but only return
+ * once it is durable.
+ */
+public interface WebhookEventWriter {
+
+    InsertResult write(WebhookEvent webhookEvent);
+
+    /**
+     * Writes the fresh events of one batch chunk, with results in the same order. The default writes
+     * them one at a time.
+     */
+    default List<InsertResult> writeAll(List<WebhookEvent> webhookEvents) {
+        List<InsertResult> results = new ArrayList<>(webhookEvents.size());
+        for (WebhookEvent webhookEvent : webhookEvents) {
+            results.add(write(webhookEvent));
+        }
+        return results;
+    }
+
+    /**
+     * False for writers that acknowledge before the database has the event, whose result may still
+     * lose to a stored duplicate. Those report what was stored through {@link #onStored(Consumer)}.
+     */
+    default boolean returnsStoredEvent() {
+        return true;
+    }
+
+    /**
+     * Registers a callback for events as they are stored, called only by writers that do not return them.
+     */
+    default void onStored(Consumer<WebhookEvent> listener) {
+    }
+}
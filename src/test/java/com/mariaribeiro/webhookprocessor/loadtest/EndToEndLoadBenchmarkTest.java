@@ -0,0 +1,79 @@
+package com.mariaribeiro.webhookprocessor.loadtest;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the whole gateway (capture filter, controller, service, persistence) over real HTTP at a
+ * fixed arrival rate, then writes {@code target/load-report.txt} and {@code target/load-report.hgrm}.
+ * Run with {@code mvn test -Pbenchmark -Dtest=EndToEndLoadBenchmarkTest}; tune with {@code -Dload.*},
+ * see {@link LoadProfile#fromSystemProperties(List)}. Point it at PostgreSQL with
+ * {@code -Dspring.datasource.url=...} and friends.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "webhook.secrets.load-alpha=secret-load-alpha",
+        "webhook.secrets.load-beta=secret-load-beta",
+        "webhook.secrets.load-gamma=secret-load-gamma"
+})
+@ActiveProfiles("test")
+class EndToEndLoadBenchmarkTest {
+
+    private static final List<String> SOURCES = List.of("load-alpha", "load-beta", "load-gamma");
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    WebhookProperties webhookProperties;
+
+    @Autowired
+    Environment environment;
+
+    @Value("${spring.datasource.url}")
+    String datasourceUrl;
+
+    @Test
+    void sustainsConfiguredArrivalRate() throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties(SOURCES);
+        RequestMix mix = new RequestMix(profile, webhookProperties.getSecrets(), Clock.systemUTC());
+
+        LoadResult result;
+        try (LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + port), mix)) {
+            if (!profile.warmup().isZero()) {
+                generator.run(profile.ratePerSecond(), profile.warmup());
+            }
+            result = generator.run(profile.ratePerSecond(), profile.duration());
+        }
+
+        Map<String, String> context = new LinkedHashMap<>();
+        context.put("persistence", webhookProperties.getPersistence().getMode());
+        context.put("writer", webhookProperties.getIngestion().getMode());
+        context.put("datasource", datasourceUrl);
+        context.put("threads", environment.getProperty("spring.threads.virtual.enabled", "false").equals("true")
+                ? "virtual" : "platform");
+        context.put("jvm", Runtime.version() + ", " + Runtime.getRuntime().availableProcessors() + " cpus");
+        result.summary(profile, context, System.out);
+        result.write(profile, context, Path.of("target", "load-report.txt"), Path.of("target", "load-report.hgrm"));
+
+        assertThat(result.failures()).isZero();
+        assertThat(result.latencies().getTotalCount())
+                .isEqualTo(profile.ratePerSecond() * profile.duration().toSeconds());
+    }
+}
@@ -0,0 +1,83 @@
+package com.mariaribeiro.webhookprocessor.loadtest;
+
+import com.mariaribeiro.webhookprocessor.loadtest.RequestMix.PlannedRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: request {@code i} is due at {@code start + i / rate} whether or not earlier
+ * requests have completed, and its latency is measured from that due time. A stalled gateway
+ * therefore shows up as queueing latency on every request it delayed instead of as a lower send
+ * rate (coordinated omission).
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final RequestMix mix;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+
+    LoadGenerator(URI baseUri, RequestMix mix) {
+        this.baseUri = baseUri;
+        this.mix = mix;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+    }
+
+    LoadResult run(int ratePerSecond, Duration duration) throws InterruptedException {
+        int total = Math.toIntExact(ratePerSecond * duration.toSeconds());
+        double intervalNanos = 1e9 / ratePerSecond;
+        LoadResult result = new LoadResult(ratePerSecond, duration);
+        CountDownLatch completed = new CountDownLatch(total);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            PlannedRequest planned = mix.next();
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/webhooks/" + planned.source()))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .header("X-Timestamp", planned.timestamp())
+                    .header("X-Signature", "sha256=" + planned.signature())
+                    .POST(HttpRequest.BodyPublishers.ofString(planned.body()))
+                    .build();
+
+            long due = start + (long) (i * intervalNanos);
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - due;
+                int status = error == null ? response.statusCode() : -1;
+                result.record(planned.kind(), status, latency);
+                if (status == RequestMix.Kind.NEW.expectedStatus && planned.kind() == RequestMix.Kind.NEW) {
+                    mix.acknowledged(planned);
+                }
+                completed.countDown();
+            });
+        }
+        if (!completed.await(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(completed.getCount() + " requests still in flight after the run");
+        }
+        result.finished(System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        executor.close();
+    }
+}
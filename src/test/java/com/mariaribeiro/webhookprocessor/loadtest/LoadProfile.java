@@ -0,0 +1,84 @@
+package com.mariaribeiro.webhookprocessor.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * What the load generator sends and how fast. Every field can be overridden with a {@code -Dload.*}
+ * system property, see {@link #fromSystemProperties(List)}.
+ */
+record LoadProfile(
+        List<String> sources,
+        int ratePerSecond,
+        Duration warmup,
+        Duration duration,
+        double duplicateRatio,
+        double badSignatureRatio,
+        double expiredRatio,
+        PayloadSizes payloadSizes,
+        long seed) {
+
+    LoadProfile {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("load.rate must be positive: " + ratePerSecond);
+        }
+        if (duplicateRatio + badSignatureRatio + expiredRatio > 1) {
+            throw new IllegalArgumentException("duplicate, bad signature and expired ratios add up to more than 1");
+        }
+    }
+
+    static LoadProfile fromSystemProperties(List<String> defaultSources) {
+        String sources = System.getProperty("load.sources");
+        return new LoadProfile(
+                sources == null ? defaultSources : List.of(sources.split(",")),
+                Integer.getInteger("load.rate", 200),
+                Duration.parse(System.getProperty("load.warmup", "PT5S")),
+                Duration.parse(System.getProperty("load.duration", "PT30S")),
+                Double.parseDouble(System.getProperty("load.duplicate-ratio", "0.10")),
+                Double.parseDouble(System.getProperty("load.bad-signature-ratio", "0.02")),
+                Double.parseDouble(System.getProperty("load.expired-ratio", "0.02")),
+                PayloadSizes.parse(System.getProperty("load.payload-sizes", "512:70,4096:25,65536:5")),
+                Long.getLong("load.seed", 42));
+    }
+
+    /**
+     * Weighted payload sizes in bytes, written as {@code size:weight,size:weight}.
+     */
+    record PayloadSizes(int[] sizes, int[] cumulativeWeights) {
+
+        static PayloadSizes parse(String spec) {
+            String[] entries = spec.split(",");
+            int[] sizes = new int[entries.length];
+            int[] cumulative = new int[entries.length];
+            int total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                String[] parts = entries[i].trim().split(":");
+                sizes[i] = Integer.parseInt(parts[0]);
+                total += parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+                cumulative[i] = total;
+            }
+            return new PayloadSizes(sizes, cumulative);
+        }
+
+        int pick(SplittableRandom random) {
+            int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (roll < cumulativeWeights[i]) {
+                    return sizes[i];
+                }
+            }
+            return sizes[sizes.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder spec = new StringBuilder();
+            for (int i = 0; i < sizes.length; i++) {
+                int weight = cumulativeWeights[i] - (i == 0 ? 0 : cumulativeWeights[i - 1]);
+                spec.append(i == 0 ? "" : ",").append(sizes[i]).append(':').append(weight);
+            }
+            return spec.toString();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.mariaribeiro.webhookprocessor.loadtest;
+
+import com.mariaribeiro.webhookprocessor.loadtest.RequestMix.Kind;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies in microseconds per {@link Kind} and overall, plus responses whose status was not the
+ * one the kind expects.
+ */
+final class LoadResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final int ratePerSecond;
+    private final Duration duration;
+    private final Histogram all = histogram();
+    private final Map<Kind, Histogram> byKind = new EnumMap<>(Kind.class);
+    private final Map<Kind, AtomicLong> unexpected = new EnumMap<>(Kind.class);
+    private final AtomicLong errors = new AtomicLong();
+    private volatile long elapsedNanos;
+
+    LoadResult(int ratePerSecond, Duration duration) {
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        for (Kind kind : Kind.values()) {
+            byKind.put(kind, histogram());
+            unexpected.put(kind, new AtomicLong());
+        }
+    }
+
+    void record(Kind kind, int status, long latencyNanos) {
+        if (status < 0) {
+            errors.incrementAndGet();
+        } else if (status != kind.expectedStatus) {
+            unexpected.get(kind).incrementAndGet();
+        }
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+        all.recordValue(micros);
+        byKind.get(kind).recordValue(micros);
+    }
+
+    void finished(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    long failures() {
+        long failures = errors.get();
+        for (AtomicLong count : unexpected.values()) {
+            failures += count.get();
+        }
+        return failures;
+    }
+
+    Histogram latencies() {
+        return all;
+    }
+
+    /**
+     * Writes the summary to {@code report} and the full overall distribution, in HdrHistogram's
+     * percentile format (plottable with its online plotter), to {@code distribution}.
+     */
+    void write(LoadProfile profile, Map<String, String> environment, Path report, Path distribution) throws IOException {
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            summary(profile, environment, out);
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(distribution), false, "UTF-8")) {
+            all.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    void summary(LoadProfile profile, Map<String, String> environment, PrintStream out) {
+        double achieved = all.getTotalCount() / (elapsedNanos / 1e9);
+        out.printf(Locale.ROOT, "Webhook gateway load report, %s%n%n", Instant.now());
+        out.printf(Locale.ROOT, "%-14s %d req/s for %s (warmup %s), achieved %.1f req/s%n",
+                "target", ratePerSecond, duration, profile.warmup(), achieved);
+        out.printf(Locale.ROOT, "%-14s duplicates %.2f, bad signatures %.2f, expired %.2f%n",
+                "mix", profile.duplicateRatio(), profile.badSignatureRatio(), profile.expiredRatio());
+        out.printf(Locale.ROOT, "%-14s %s (bytes:weight)%n", "payload sizes", profile.payloadSizes());
+        out.printf(Locale.ROOT, "%-14s %s%n", "sources", String.join(", ", profile.sources()));
+        out.printf(Locale.ROOT, "%-14s %d%n", "seed", profile.seed());
+        environment.forEach((key, value) -> out.printf(Locale.ROOT, "%-14s %s%n", key, value));
+        out.println();
+        out.printf(Locale.ROOT, "%-14s %9s %10s %10s %10s %10s %11s%n",
+                "kind", "count", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "unexpected");
+        for (Kind kind : Kind.values()) {
+            row(out, kind.name(), byKind.get(kind), unexpected.get(kind).get());
+        }
+        row(out, "ALL", all, failures() - errors.get());
+        out.printf(Locale.ROOT, "%nTransport errors: %d%n", errors.get());
+    }
+
+    private static void row(PrintStream out, String label, Histogram histogram, long unexpected) {
+        out.printf(Locale.ROOT, "%-14s %9d %10.2f %10.2f %10.2f %10.2f %11d%n", label, histogram.getTotalCount(),
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI, unexpected);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+}
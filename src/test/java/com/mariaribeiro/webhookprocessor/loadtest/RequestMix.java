@@ -0,0 +1,110 @@
+package com.mariaribeiro.webhookprocessor.loadtest;
+
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Produces signed requests in the proportions of a {@link LoadProfile}. Duplicates re-send the exact
+ * body of an event the gateway already answered 201 for, so they are known to hit the dedupe path
+ * rather than race the original.
+ */
+final class RequestMix {
+
+    /**
+     * Older than the gateway's replay window by a wide margin.
+     */
+    private static final long EXPIRED_AGE_SECONDS = 3_600;
+    private static final int DUPLICATE_POOL_SIZE = 10_000;
+
+    enum Kind {
+        NEW(201),
+        DUPLICATE(200),
+        BAD_SIGNATURE(401),
+        EXPIRED(401);
+
+        final int expectedStatus;
+
+        Kind(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    record PlannedRequest(Kind kind, String source, String body, String timestamp, String signature) {
+    }
+
+    private record Sent(String source, String body) {
+    }
+
+    private final LoadProfile profile;
+    private final Map<String, String> secrets;
+    private final Clock clock;
+    private final SplittableRandom random;
+    private final Map<Integer, String> padding = new HashMap<>();
+    private final List<Sent> acknowledged = new ArrayList<>();
+    private long sequence;
+
+    RequestMix(LoadProfile profile, Map<String, String> secrets, Clock clock) {
+        for (String source : profile.sources()) {
+            if (!secrets.containsKey(source)) {
+                throw new IllegalArgumentException("No secret configured for load source " + source);
+            }
+        }
+        this.profile = profile;
+        this.secrets = secrets;
+        this.clock = clock;
+        this.random = new SplittableRandom(profile.seed());
+    }
+
+    synchronized PlannedRequest next() {
+        double roll = random.nextDouble();
+        long now = clock.instant().getEpochSecond();
+        if (roll < profile.duplicateRatio() && !acknowledged.isEmpty()) {
+            Sent original = acknowledged.get(random.nextInt(acknowledged.size()));
+            return signed(Kind.DUPLICATE, original.source(), original.body(), now);
+        }
+        String source = profile.sources().get(random.nextInt(profile.sources().size()));
+        String body = body(source, profile.payloadSizes().pick(random));
+        roll -= profile.duplicateRatio();
+        if (roll >= 0 && roll < profile.badSignatureRatio()) {
+            String timestamp = Long.toString(now);
+            String signature = HmacSha256Verifier.signHex("not-" + secrets.get(source), timestamp + "." + body);
+            return new PlannedRequest(Kind.BAD_SIGNATURE, source, body, timestamp, signature);
+        }
+        roll -= profile.badSignatureRatio();
+        if (roll >= 0 && roll < profile.expiredRatio()) {
+            return signed(Kind.EXPIRED, source, body, now - EXPIRED_AGE_SECONDS);
+        }
+        return signed(Kind.NEW, source, body, now);
+    }
+
+    /**
+     * Makes a request that got its expected 201 available for later duplicates.
+     */
+    synchronized void acknowledged(PlannedRequest request) {
+        Sent sent = new Sent(request.source(), request.body());
+        if (acknowledged.size() < DUPLICATE_POOL_SIZE) {
+            acknowledged.add(sent);
+        } else {
+            acknowledged.set(random.nextInt(DUPLICATE_POOL_SIZE), sent);
+        }
+    }
+
+    private PlannedRequest signed(Kind kind, String source, String body, long epochSeconds) {
+        String timestamp = Long.toString(epochSeconds);
+        return new PlannedRequest(kind, source, body, timestamp,
+                HmacSha256Verifier.signHex(secrets.get(source), timestamp + "." + body));
+    }
+
+    private String body(String source, int size) {
+        String eventKey = "load_" + source + "_" + profile.seed() + "_" + ++sequence + "_" + clock.millis();
+        String head = "{\"eventKey\":\"" + eventKey + "\",\"payload\":{\"sequence\":" + sequence + ",\"pad\":\"";
+        int padLength = Math.max(0, size - head.length() - 3);
+        return head + padding.computeIfAbsent(padLength, "x"::repeat) + "\"}}";
+    }
+}
@@ -0,0 +1,192 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.ClaimedEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventClaimRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.StatusUpdate;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.admin.enabled=true",
+        "webhook.admin.dead-letter-replay.chunk-size=4",
+        "webhook.admin.dead-letter-replay.max-rate=20"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AdminDeadLetterControllerIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    EventClaimRepository claims;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    String source;
+    List<UUID> timeouts;
+    UUID rejected;
+
+    @BeforeEach
+    void setUp() {
+        source = "dlq-" + UUID.randomUUID().toString().substring(0, 8);
+        Instant at = Instant.now().minusSeconds(1);
+        timeouts = new ArrayList<>();
+        List<StatusUpdate> updates = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            ClaimedEvent claim = claim(store("evt_" + i));
+            timeouts.add(claim.event().id());
+            updates.add(new StatusUpdate(claim, EventStatus.DEAD_LETTERED, at, 3, null,
+                    DeadLetterReason.RETRIES_EXHAUSTED, "java.net.SocketTimeoutException: Read timed out"));
+        }
+        ClaimedEvent bad = claim(store("evt_bad"));
+        rejected = bad.event().id();
+        updates.add(new StatusUpdate(bad, EventStatus.DEAD_LETTERED, at, 1, null,
+                DeadLetterReason.REJECTED, "PoisonEventException: 100%_unparseable"));
+        claims.completeAll(updates);
+    }
+
+    @Test
+    void shouldPageDeadLettersByFilter() throws Exception {
+        JsonNode first = getJson("/admin/dead-letters?source=" + source + "&limit=6");
+        JsonNode second = getJson("/admin/dead-letters?source=" + source + "&limit=6&after=" + first.get("next").asString());
+
+        assertThat(first.get("deadLetters")).hasSize(6);
+        assertThat(second.get("deadLetters")).hasSize(4);
+        assertThat(second.get("next").isNull()).isTrue();
+
+        JsonNode byError = getJson(get("/admin/dead-letters").param("source", source).param("error", "100%_UNPARSEABLE"));
+        assertThat(byError.get("deadLetters")).hasSize(1);
+        JsonNode deadLetter = byError.get("deadLetters").get(0);
+        assertThat(deadLetter.get("eventId").asString()).isEqualTo(rejected.toString());
+        assertThat(deadLetter.get("reason").asString()).isEqualTo("REJECTED");
+        assertThat(deadLetter.get("attemptCount").asInt()).isEqualTo(1);
+        assertThat(getJson(get("/admin/dead-letters").param("source", source).param("error", "100% unparseable")).get("deadLetters")).isEmpty();
+        assertThat(getJson("/admin/dead-letters?source=" + source + "&reason=RETRIES_EXHAUSTED").get("deadLetters")).hasSize(9);
+        assertThat(repository.findById(rejected).orElseThrow().status()).isEqualTo(EventStatus.DEAD_LETTERED);
+
+        mockMvc.perform(get("/admin/dead-letters?after=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReplayMatchingDeadLettersUnderTheRateCeiling() throws Exception {
+        String location = mockMvc.perform(post("/admin/dead-letters/replays")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"source\":\"" + source + "\",\"error\":\"timed out\",\"maxRate\":1000}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+        JsonNode job = await(location);
+
+        assertThat(job.get("state").asString()).isEqualTo("COMPLETED");
+        assertThat(job.get("maxRate").asDouble()).isEqualTo(20);
+        assertThat(job.get("selected").asLong()).isEqualTo(9);
+        assertThat(job.get("requeued").asLong()).isEqualTo(9);
+        assertThat(job.get("skipped").asLong()).isZero();
+        assertThat(job.get("eventsPerSecond").asDouble()).isLessThanOrEqualTo(20);
+        for (UUID id : timeouts) {
+            assertThat(repository.findById(id).orElseThrow().status()).isEqualTo(EventStatus.RECEIVED);
+            assertThat(jdbcTemplate.queryForObject("SELECT attempt_count FROM webhook_event WHERE id = ?", Integer.class, id))
+                    .isZero();
+        }
+        assertThat(repository.findById(rejected).orElseThrow().status()).isEqualTo(EventStatus.DEAD_LETTERED);
+        assertThat(getJson("/admin/dead-letters?source=" + source).get("deadLetters")).hasSize(1);
+    }
+
+    @Test
+    void shouldCountDeadLettersWhoseEventWasRequeuedMeanwhileAsSkipped() throws Exception {
+        jdbcTemplate.update("UPDATE webhook_event SET status = 'RECEIVED' WHERE id = ?", timeouts.getFirst());
+
+        String location = mockMvc.perform(post("/admin/dead-letters/replays")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"source\":\"" + source + "\",\"reason\":\"RETRIES_EXHAUSTED\"}"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+        JsonNode job = await(location);
+
+        assertThat(job.get("state").asString()).isEqualTo("COMPLETED");
+        assertThat(job.get("selected").asLong()).isEqualTo(9);
+        assertThat(job.get("requeued").asLong()).isEqualTo(8);
+        assertThat(job.get("skipped").asLong()).isEqualTo(1);
+        assertThat(getJson("/admin/dead-letters?source=" + source).get("deadLetters")).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectInvalidReplays() throws Exception {
+        mockMvc.perform(post("/admin/dead-letters/replays")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"source\":\"" + source + "\",\"maxRate\":0}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/admin/dead-letters/replays/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private WebhookEvent store(String eventKey) {
+        return repository.insertIfAbsent(new WebhookEvent(UUID.randomUUID(), source, eventKey, "{}",
+                EventStatus.RECEIVED, Instant.now(), null)).event();
+    }
+
+    // Claimed by hand: claimReceived would take the oldest events of every test class sharing the database.
+    private ClaimedEvent claim(WebhookEvent event) {
+        Instant claimedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        jdbcTemplate.update("UPDATE webhook_event SET status = 'PROCESSING', claimed_at = ? WHERE id = ?",
+                claimedAt.atOffset(ZoneOffset.UTC), event.id());
+        return new ClaimedEvent(repository.findById(event.id()).orElseThrow(), 0, claimedAt, null);
+    }
+
+    private JsonNode getJson(String uri) throws Exception {
+        return getJson(get(uri));
+    }
+
+    private JsonNode getJson(MockHttpServletRequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode await(String location) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (true) {
+            JsonNode job = getJson(location);
+            if (!job.get("state").asString().equals("RUNNING") || System.nanoTime() > deadline) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.admin.enabled=true"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AdminEventControllerIT {
+
+    private static final Instant BASE = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    String source;
+
+    List<WebhookEvent> stored;
+
+    @BeforeEach
+    void setUp() {
+        source = "admin-" + UUID.randomUUID().toString().substring(0, 8);
+        stored = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Pairs share a timestamp so paging has to break ties on id.
+            stored.add(insert(BASE.plusSeconds(i / 2), i == 4 ? EventStatus.FAILED : EventStatus.RECEIVED));
+        }
+    }
+
+    @Test
+    void shouldPageWithCursorInReceivedAtAndIdOrder() throws Exception {
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            JsonNode page = getJson("/admin/events?source=" + source + "&limit=2" + (after == null ? "" : "&after=" + after));
+            page.get("events").forEach(event -> {
+                seen.add(event.get("id").asString());
+                assertThat(event.has("payload")).isFalse();
+            });
+            after = page.get("next").isNull() ? null : page.get("next").asString();
+            pages++;
+        } while (after != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(stored.stream()
+                .sorted((a, b) -> a.receivedAt().equals(b.receivedAt())
+                        ? compareAsDatabase(a.id(), b.id()) : a.receivedAt().compareTo(b.receivedAt()))
+                .map(event -> event.id().toString())
+                .toList());
+    }
+
+    @Test
+    void shouldFilterByStatusAndRange() throws Exception {
+        JsonNode failed = getJson("/admin/events?source=" + source + "&status=FAILED");
+        JsonNode range = getJson("/admin/events?source=" + source + "&from=" + BASE.plusSeconds(1) + "&to=" + BASE.plusSeconds(2));
+
+        assertThat(failed.get("events")).hasSize(1);
+        assertThat(failed.get("events").get(0).get("id").asString()).isEqualTo(stored.get(4).id().toString());
+        assertThat(range.get("events")).hasSize(2);
+    }
+
+    @Test
+    void shouldIncludePayloadOnlyWhenRequested() throws Exception {
+        JsonNode page = getJson("/admin/events?source=" + source + "&limit=1&includePayload=true");
+
+        assertThat(page.get("events").get(0).get("payload").get("n").isInt()).isTrue();
+    }
+
+    @Test
+    void shouldExportAllMatchesAsNdjson() throws Exception {
+        String body = mockMvc.perform(get("/admin/events/export?source=" + source + "&includePayload=true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> lines = body.lines().map(objectMapper::readTree).toList();
+        assertThat(lines).hasSize(5);
+        assertThat(lines).allSatisfy(line -> assertThat(line.get("payload").has("n")).isTrue());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/admin/events?after=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode getJson(String uri) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private WebhookEvent insert(Instant receivedAt, EventStatus status) {
+        UUID id = UUID.randomUUID();
+        WebhookEvent event = new WebhookEvent(id, source, "evt_" + id, "{\"n\":1}", status, receivedAt, null);
+        repository.insertIfAbsent(event);
+        return event;
+    }
+
+    // H2 and PostgreSQL compare UUIDs as unsigned bytes, unlike UUID.compareTo.
+    private static int compareAsDatabase(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,135 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.admin.enabled=true",
+        "webhook.admin.bulk-import.directory=target/import-it",
+        "webhook.admin.bulk-import.chunk-size=3"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AdminImportControllerIT {
+
+    private static final Path DIRECTORY = Path.of("target/import-it");
+    private static final Instant BASE = Instant.parse("2025-06-01T00:00:00Z");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    String source;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        source = "import-" + UUID.randomUUID().toString().substring(0, 8);
+        Files.createDirectories(DIRECTORY);
+    }
+
+    @Test
+    void shouldImportArchiveSkippingDuplicatesAndInvalidLines() throws Exception {
+        repository.insertIfAbsent(new WebhookEvent(UUID.randomUUID(), source, "evt_0", "{\"n\":0}",
+                EventStatus.PROCESSED, BASE, BASE));
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lines.add(line(UUID.randomUUID(), "evt_" + i, "{\"n\": " + i + "}"));
+        }
+        lines.add(line(UUID.randomUUID(), "evt_3", "{\"n\":3}"));
+        lines.add("");
+        lines.add("{\"source\":\"" + source + "\",\"payload\":{}}");
+        lines.add("not json");
+        UUID escaped = UUID.randomUUID();
+        lines.add(line(escaped, "evt_escaped", "{\"text\":\"tab\\there \\\\ \\\"quoted\\\" é\"}"));
+        String file = write(lines);
+
+        String location = mockMvc.perform(post("/admin/imports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"files\":[\"" + file + "\"]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+        JsonNode job = await(location);
+
+        assertThat(job.get("state").asString()).isEqualTo("COMPLETED");
+        assertThat(job.get("lines").asLong()).isEqualTo(14);
+        assertThat(job.get("invalid").asLong()).isEqualTo(2);
+        assertThat(job.get("stored").asLong()).isEqualTo(10);
+        assertThat(job.get("duplicates").asLong()).isEqualTo(2);
+        assertThat(repository.findBySourceAndEventKey(source, "evt_0").orElseThrow().payload()).isEqualTo("{\"n\":0}");
+        WebhookEvent imported = repository.findBySourceAndEventKey(source, "evt_5").orElseThrow();
+        assertThat(imported.payload()).isEqualTo("{\"n\": 5}");
+        assertThat(imported.status()).isEqualTo(EventStatus.PROCESSED);
+        assertThat(imported.receivedAt()).isEqualTo(BASE);
+        assertThat(repository.findBySourceAndEventKey(source, "evt_escaped").orElseThrow().payload())
+                .isEqualTo("{\"text\":\"tab\\there \\\\ \\\"quoted\\\" é\"}");
+    }
+
+    @Test
+    void shouldRejectFilesOutsideTheImportDirectory() throws Exception {
+        for (String file : new String[]{"../pom.xml", "missing.ndjson", ""}) {
+            mockMvc.perform(post("/admin/imports")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"files\":[\"" + file + "\"]}"))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/admin/imports/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private String line(UUID id, String eventKey, String payload) {
+        return "{\"id\":\"" + id + "\",\"source\":\"" + source + "\",\"eventKey\":\"" + eventKey
+                + "\",\"status\":\"PROCESSED\",\"receivedAt\":\"" + BASE + "\",\"processedAt\":\"" + BASE
+                + "\",\"payload\":" + payload + "}";
+    }
+
+    private String write(List<String> lines) throws Exception {
+        String name = source + ".ndjson";
+        Files.write(DIRECTORY.resolve(name), lines, StandardCharsets.UTF_8);
+        return name;
+    }
+
+    private JsonNode await(String location) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (true) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (!job.get("state").asString().equals("RUNNING") || System.nanoTime() > deadline) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
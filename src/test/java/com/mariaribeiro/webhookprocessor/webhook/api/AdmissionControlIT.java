@@ -0,0 +1,66 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.admission.enabled=true",
+        "webhook.secrets.limited=secret-limited",
+        "webhook.sources.limited.rate-limit=0.01",
+        "webhook.sources.limited.burst=2",
+        "webhook.secrets.open=secret-open"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AdmissionControlIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void shouldShedOverBudgetSourceBeforeVerifyingIt() throws Exception {
+        ingest("limited", "secret-limited").andExpect(status().isCreated());
+        ingest("limited", "secret-limited").andExpect(status().isCreated());
+
+        // A bad signature still gets 429: the request is shed before the body is read.
+        ingest("limited", "wrong-secret")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"));
+
+        ingest("open", "secret-open").andExpect(status().isCreated());
+        assertThat(meterRegistry.find("webhook.admission.shed")
+                .tags("source", "limited", "reason", "rate").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("webhook.ingest.requests")
+                .tags("source", "limited", "outcome", "throttled").timer().count()).isEqualTo(1);
+    }
+
+    private ResultActions ingest(String source, String secret) throws Exception {
+        String body = "{\"eventKey\":\"evt_" + UUID.randomUUID() + "\",\"payload\":{}}";
+        String timestamp = Long.toString(Instant.now().getEpochSecond());
+        return mockMvc.perform(post("/webhooks/" + source)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Timestamp", timestamp)
+                .header("X-Signature", HmacSha256Verifier.signHex(secret, timestamp + "." + body))
+                .content(body));
+    }
+}
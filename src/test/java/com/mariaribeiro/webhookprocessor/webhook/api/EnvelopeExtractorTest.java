@@ -0,0 +1,116 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EnvelopeExtractorTest {
+
+    private final EnvelopeExtractor extractor = new EnvelopeExtractor(new ObjectMapper(), properties());
+
+    @Test
+    void shouldKeepPayloadBytesExactlyAsSent() {
+        byte[] body = bytes("{ \"payload\" : { \"b\" : [1, 2.50] ,\"a\":\"\\u00e9\"} , \"eventKey\":\"evt_1\"}");
+
+        WebhookEnvelope envelope = extractor.extract("default", body, 0, body.length);
+
+        assertThat(envelope.eventKey()).isEqualTo("evt_1");
+        assertThat(envelope.payload(body)).isEqualTo("{ \"b\" : [1, 2.50] ,\"a\":\"\\u00e9\"}");
+    }
+
+    @Test
+    void shouldSliceScalarPayloadsAndHonourOffset() {
+        byte[] body = bytes("xx{\"eventKey\":42,\"payload\":\"ação\"}yy");
+
+        WebhookEnvelope envelope = extractor.extract("default", body, 2, body.length - 4);
+
+        assertThat(envelope.eventKey()).isEqualTo("42");
+        assertThat(envelope.payload(body)).isEqualTo("\"ação\"");
+    }
+
+    @Test
+    void shouldUseWholeBodyAsPayloadForRootPath() {
+        byte[] body = bytes("{\"id\":\"evt_9\",\"type\":\"charge.succeeded\",\"data\":{}}");
+
+        WebhookEnvelope envelope = extractor.extract("stripe", body, 0, body.length);
+
+        assertThat(envelope.eventKey()).isEqualTo("evt_9");
+        assertThat(envelope.payload(body)).isEqualTo(new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldFindKeyNestedInsidePayload() {
+        byte[] body = bytes("{\"meta\":{\"id\":\"no\"},\"data\":{\"x\":[{\"id\":\"no\"}],\"object\":{\"id\":\"obj_1\",\"n\":{}}}}");
+
+        WebhookEnvelope envelope = extractor.extract("nested", body, 0, body.length);
+
+        assertThat(envelope.eventKey()).isEqualTo("obj_1");
+        assertThat(envelope.payload(body)).isEqualTo("{\"x\":[{\"id\":\"no\"}],\"object\":{\"id\":\"obj_1\",\"n\":{}}}");
+    }
+
+    @Test
+    void shouldRejectMissingFieldsAndMalformedBodies() {
+        assertThat(extract("{\"payload\":{}}")).isNull();
+        assertThat(extract("{\"eventKey\":\"evt_1\"}")).isNull();
+        assertThat(extract("{\"eventKey\":null,\"payload\":{}}")).isNull();
+        assertThat(extract("{\"eventKey\":{\"a\":1},\"payload\":{}}")).isNull();
+        assertThat(extract("{\"eventKey\":\"evt_1\",\"payload\":{\"a\":")).isNull();
+        assertThat(extract("[1,2]")).isNull();
+    }
+
+    @Test
+    void shouldStreamMultiMegabytePayload() {
+        StringBuilder json = new StringBuilder("{\"payload\":[");
+        for (int i = 0; i < 200_000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"n\":").append(i).append(",\"s\":\"abcdefghij\"}");
+        }
+        json.append("],\"eventKey\":\"evt_big\"}");
+        byte[] body = bytes(json.toString());
+
+        WebhookEnvelope envelope = extractor.extract("default", body, 0, body.length);
+
+        assertThat(body.length).isGreaterThan(5_000_000);
+        assertThat(envelope.eventKey()).isEqualTo("evt_big");
+        assertThat(envelope.payloadOffset()).isEqualTo("{\"payload\":".length());
+        assertThat(envelope.payloadLength()).isEqualTo(body.length - "{\"payload\":".length() - ",\"eventKey\":\"evt_big\"}".length());
+    }
+
+    @Test
+    void shouldRejectUnsupportedPaths() {
+        WebhookProperties properties = new WebhookProperties();
+        WebhookProperties.SourceProperties options = new WebhookProperties.SourceProperties();
+        options.getEnvelope().setEventKeyPath("$.items[0].id");
+        properties.getSources().put("bad", options);
+
+        assertThatThrownBy(() -> new EnvelopeExtractor(new ObjectMapper(), properties))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private WebhookEnvelope extract(String json) {
+        byte[] body = bytes(json);
+        return extractor.extract("default", body, 0, body.length);
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static WebhookProperties properties() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.getSources().put("stripe", source("$.id", "$"));
+        properties.getSources().put("nested", source("$.data.object.id", "$.data"));
+        return properties;
+    }
+
+    private static WebhookProperties.SourceProperties source(String eventKeyPath, String payloadPath) {
+        WebhookProperties.SourceProperties options = new WebhookProperties.SourceProperties();
+        options.getEnvelope().setEventKeyPath(eventKeyPath);
+        options.getEnvelope().setPayloadPath(payloadPath);
+        return options;
+    }
+}
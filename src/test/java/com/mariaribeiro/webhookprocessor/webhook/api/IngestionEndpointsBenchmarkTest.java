@@ -0,0 +1,88 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares events/sec through {@code POST /webhooks/{source}} (one request per event) and
+ * {@code POST /webhooks/{source}/batch} (one signed NDJSON body per {@value #BATCH_SIZE} events).
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.secrets.bench=secret-bench"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class IngestionEndpointsBenchmarkTest {
+
+    private static final int EVENTS = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final String SECRET = "secret-bench";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void compareSingleAndBatchEndpoints() throws Exception {
+        double single = singleEventsPerSecond();
+        double batch = batchEventsPerSecond();
+
+        System.out.printf("%-8s %10s %14s%n", "endpoint", "events", "events/sec");
+        System.out.printf("%-8s %10d %14.0f%n", "single", EVENTS, single);
+        System.out.printf("%-8s %10d %14.0f%n", "batch", EVENTS, batch);
+        assertThat(batch).isGreaterThan(single);
+    }
+
+    private double singleEventsPerSecond() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            String body = line("evt_" + UUID.randomUUID());
+            String timestamp = Long.toString(Instant.now().getEpochSecond());
+            mockMvc.perform(post("/webhooks/bench")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header("X-Timestamp", timestamp)
+                            .header("X-Signature", HmacSha256Verifier.signHex(SECRET, timestamp + "." + body))
+                            .content(body))
+                    .andExpect(status().isCreated());
+        }
+        return EVENTS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double batchEventsPerSecond() throws Exception {
+        long start = System.nanoTime();
+        for (int sent = 0; sent < EVENTS; sent += BATCH_SIZE) {
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                body.append(line("evt_" + UUID.randomUUID())).append('\n');
+            }
+            String timestamp = Long.toString(Instant.now().getEpochSecond());
+            mockMvc.perform(post("/webhooks/bench/batch")
+                            .contentType(WebhookBatchController.NDJSON)
+                            .header("X-Timestamp", timestamp)
+                            .header("X-Signature", HmacSha256Verifier.signHex(SECRET, timestamp + "." + body))
+                            .content(body.toString()))
+                    .andExpect(status().isOk());
+        }
+        return EVENTS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static String line(String eventKey) {
+        return "{\"eventKey\":\"" + eventKey + "\",\"payload\":{\"amount\":100,\"currency\":\"EUR\"}}";
+    }
+}
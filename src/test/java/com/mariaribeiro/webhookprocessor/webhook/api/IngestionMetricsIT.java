@@ -0,0 +1,98 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.secrets.metered=secret-metered"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class IngestionMetricsIT {
+
+    private static final String SECRET = "secret-metered";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void shouldBreakDownRequestsByOutcomeAndStage() throws Exception {
+        String body = "{\"eventKey\":\"evt_" + UUID.randomUUID() + "\",\"payload\":{\"amount\":1}}";
+        long now = Instant.now().getEpochSecond();
+        ingest("metered", body, SECRET, now, 201);
+        ingest("metered", body, SECRET, now - 1, 200);
+        ingest("metered", body, SECRET, now - 1, 202);
+        ingest("metered", body, "wrong-secret", now, 401);
+        ingest("metered", "{\"payload\":{}}", SECRET, now, 400);
+
+        String json = mockMvc.perform(get("/actuator/webhooks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode breakdown = objectMapper.readTree(json);
+        JsonNode source = breakdown.path("sources").path("metered");
+
+        for (String outcome : new String[]{"created", "duplicate", "replayed", "unauthorized", "bad_request"}) {
+            assertThat(source.path("requests").path(outcome).path("count").asLong()).as(outcome).isEqualTo(1);
+        }
+        assertThat(source.path("requests").path("created").path("percentilesMs").has("p99")).isTrue();
+        assertThat(source.path("stages").path("hmac").path("count").asLong()).isEqualTo(4);
+        assertThat(source.path("stages").path("parse").path("count").asLong()).isEqualTo(3);
+        assertThat(source.path("stages").path("dedupe").path("count").asLong()).isEqualTo(2);
+        assertThat(source.path("stages").path("insert").path("count").asLong()).isEqualTo(1);
+        assertThat(breakdown.path("pools").properties())
+                .anySatisfy(pool -> assertThat(pool.getValue().path("acquire").path("count").asLong()).isPositive());
+
+        mockMvc.perform(get("/actuator/webhooks/metered")).andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldTagUnconfiguredSourcesAsUnknown() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            ingest("probe-" + UUID.randomUUID(), "{\"eventKey\":\"evt_1\",\"payload\":{}}", SECRET,
+                    Instant.now().getEpochSecond(), 404);
+        }
+
+        assertThat(meterRegistry.find("webhook.ingest.requests").timers())
+                .extracting(timer -> timer.getId().getTag("source"))
+                .allSatisfy(tag -> assertThat(tag).isIn("metered", "unknown"));
+        Timer unknown = meterRegistry.find("webhook.ingest.requests")
+                .tags("source", "unknown", "outcome", "unknown_source").timer();
+        assertThat(unknown).isNotNull();
+        assertThat(unknown.count()).isGreaterThanOrEqualTo(20);
+    }
+
+    private void ingest(String source, String body, String secret, long epochSecond, int expectedStatus) throws Exception {
+        String timestamp = Long.toString(epochSecond);
+        mockMvc.perform(post("/webhooks/" + source)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Timestamp", timestamp)
+                        .header("X-Signature", HmacSha256Verifier.signHex(secret, timestamp + "." + body))
+                        .content(body))
+                .andExpect(status().is(expectedStatus));
+    }
+}
@@ -0,0 +1,70 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.SignatureVerifierRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "webhook.secret-store.jdbc=true",
+        "webhook.secret-store.reload-interval=1h"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SecretRotationIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    SignatureVerifierRegistry registry;
+
+    @Test
+    void shouldPickUpKeysRotatedInTheTable() throws Exception {
+        String source = "rotated-" + UUID.randomUUID().toString().substring(0, 8);
+        ingest(source, "first-secret", 404);
+
+        jdbcTemplate.update("INSERT INTO webhook_source_key (source, key_id, secret) VALUES (?, ?, ?)",
+                source, "v1", "first-secret");
+        assertThat(registry.reload()).isTrue();
+        ingest(source, "first-secret", 201);
+
+        jdbcTemplate.update("INSERT INTO webhook_source_key (source, key_id, secret) VALUES (?, ?, ?)",
+                source, "v2", "second-secret");
+        assertThat(registry.reload()).isTrue();
+        ingest(source, "second-secret", 201);
+        ingest(source, "first-secret", 201);
+
+        jdbcTemplate.update("DELETE FROM webhook_source_key WHERE source = ? AND key_id = ?", source, "v1");
+        assertThat(registry.reload()).isTrue();
+        ingest(source, "first-secret", 401);
+        ingest(source, "second-secret", 201);
+    }
+
+    private void ingest(String source, String secret, int expectedStatus) throws Exception {
+        String body = "{\"eventKey\":\"evt_" + UUID.randomUUID() + "\",\"payload\":{}}";
+        String timestamp = Long.toString(Instant.now().getEpochSecond());
+        mockMvc.perform(post("/webhooks/" + source)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Timestamp", timestamp)
+                        .header("X-Signature", HmacSha256Verifier.signHex(secret, timestamp + "." + body))
+                        .content(body))
+                .andExpect(status().is(expectedStatus));
+    }
+}
@@ -0,0 +1,130 @@
+package com.mariaribeiro.webhookprocessor.webhook.api;
+
+import com.mariaribeiro.webhookprocessor.webhook.application.service.WebhookIngestionService;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.secrets.batch=secret-batch",
+        "webhook.ingestion.batch-chunk-size=2"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class WebhookBatchControllerIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    WebhookIngestionService ingestionService;
+
+    @Test
+    void shouldReportCreatedDuplicateAndInvalidPerLine() throws Exception {
+        String existing = "evt_" + UUID.randomUUID();
+        String fresh = "evt_" + UUID.randomUUID();
+        ingest(line(existing, "{\"v\":0}"));
+
+        String body = String.join("\n",
+                line(fresh, "{ \"v\" : 1 }"),
+                line(existing, "{\"v\":2}"),
+                "{\"payload\":{}}",
+                "",
+                line(fresh, "{\"v\":3}"),
+                "not json") + "\n";
+
+        List<JsonNode> results = ingest(body);
+
+        assertThat(results).extracting(node -> node.get("status").asString())
+                .containsExactly("created", "duplicate", "invalid", "duplicate", "invalid");
+        assertThat(results).extracting(node -> node.get("line").asInt())
+                .containsExactly(1, 2, 3, 5, 6);
+        UUID createdId = UUID.fromString(results.get(0).get("id").asString());
+        assertThat(repository.findById(createdId).orElseThrow().payload()).isEqualTo("{ \"v\" : 1 }");
+    }
+
+    @Test
+    void shouldMarkEventKeysLongerThanTheColumnInvalid() throws Exception {
+        String fresh = "evt_" + UUID.randomUUID();
+        String body = line("k".repeat(WebhookEvent.MAX_EVENT_KEY_LENGTH + 1), "{}") + "\n" + line(fresh, "{}") + "\n";
+
+        List<JsonNode> results = ingest(body);
+
+        assertThat(results).extracting(node -> node.get("status").asString()).containsExactly("invalid", "created");
+    }
+
+    @Test
+    void shouldAnswerErrorForTheLinesOfAChunkThatFailedAndIngestTheRest() throws Exception {
+        doCallRealMethod()
+                .doThrow(new IllegalStateException("Ingestion queue is full"))
+                .doCallRealMethod()
+                .when(ingestionService).ingestAll(eq("batch"), anyList());
+        String run = "evt_" + UUID.randomUUID() + "_";
+        String body = String.join("\n",
+                line(run + 1, "{}"), line(run + 2, "{}"),
+                line(run + 3, "{}"), "not json",
+                line(run + 4, "{}")) + "\n";
+
+        List<JsonNode> results = ingest(body);
+
+        assertThat(results).extracting(node -> node.get("status").asString())
+                .containsExactly("created", "created", "error", "invalid", "created");
+        assertThat(results.get(2).get("eventKey").asString()).isEqualTo(run + 3);
+        assertThat(repository.findBySourceAndEventKey("batch", run + 3)).isEmpty();
+        assertThat(repository.findBySourceAndEventKey("batch", run + 4)).isPresent();
+    }
+
+    @Test
+    void shouldRejectBatchWithInvalidSignature() throws Exception {
+        mockMvc.perform(post("/webhooks/batch/batch")
+                        .contentType(WebhookBatchController.NDJSON)
+                        .header("X-Timestamp", Long.toString(Instant.now().getEpochSecond()))
+                        .header("X-Signature", "deadbeef")
+                        .content(line("evt_1", "{}")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private List<JsonNode> ingest(String body) throws Exception {
+        String timestamp = Long.toString(Instant.now().getEpochSecond());
+        MvcResult result = mockMvc.perform(post("/webhooks/batch/batch")
+                        .contentType(WebhookBatchController.NDJSON)
+                        .header("X-Timestamp", timestamp)
+                        .header("X-Signature", HmacSha256Verifier.signHex("secret-batch", timestamp + "." + body))
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        return result.getResponse().getContentAsString().lines().map(objectMapper::readTree).toList();
+    }
+
+    private static String line(String eventKey, String payload) {
+        return "{\"eventKey\":\"" + eventKey + "\",\"payload\":" + payload + "}";
+    }
+}
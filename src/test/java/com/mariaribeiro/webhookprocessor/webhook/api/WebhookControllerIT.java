@@ -5,6 +5,7 @@ import com.mariaribeiro.webhookprocessor.webhook.application.service.WebhookInge
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
 import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
 import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,12 +21,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -53,6 +52,8 @@ class WebhookControllerIT {
         WebhookProperties webhookProperties() {
             WebhookProperties p = new WebhookProperties();
             p.setSecrets(Map.of("stripe", "secret-123"));
+            // Tests resend the same signed request against different mocks.
+            p.getIngestion().getReplayCache().setEnabled(false);
             return p;
         }
 
@@ -68,9 +69,6 @@ class WebhookControllerIT {
         String timestamp = "1767225900";
         String sigHex = HmacSha256Verifier.signHex("secret-123", timestamp + "." + rawBody);
 
-        when(repository.findBySourceAndEventKey("stripe", "evt_123"))
-                .thenReturn(Optional.empty());
-
         WebhookEvent saved = new WebhookEvent(
                 UUID.randomUUID(),
                 "stripe",
@@ -82,7 +80,7 @@ class WebhookControllerIT {
         );
 
         when(ingestionService.ingest(eq("stripe"), eq("evt_123"), anyString()))
-                .thenReturn(saved);
+                .thenReturn(new InsertResult(saved, true));
 
         mockMvc.perform(post("/webhooks/stripe")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -105,9 +103,6 @@ class WebhookControllerIT {
         String timestamp = "1767225900";
         String sigHex = HmacSha256Verifier.signHex("secret-123", timestamp + "." + rawBody);
 
-        when(repository.findBySourceAndEventKey("stripe", "evt_123"))
-                .thenReturn(Optional.of(mock(WebhookEvent.class))); // já existe
-
         WebhookEvent existing = new WebhookEvent(
                 UUID.randomUUID(),
                 "stripe",
@@ -119,7 +114,7 @@ class WebhookControllerIT {
         );
 
         when(ingestionService.ingest(eq("stripe"), eq("evt_123"), anyString()))
-                .thenReturn(existing);
+                .thenReturn(new InsertResult(existing, false)); // já existe
 
         mockMvc.perform(post("/webhooks/stripe")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -131,6 +126,69 @@ class WebhookControllerIT {
                 .andExpect(jsonPath("$.eventKey").value("evt_123"));
     }
 
+    @Test
+    void shouldIngestPayloadExactlyAsSent() throws Exception {
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-01T00:10:00Z"));
+        String rawBody = """
+                {"eventKey" : "evt_456", "payload" : { "amount": 10.50, "tags": [ "a" ] }}
+                """.trim();
+        String payload = """
+                { "amount": 10.50, "tags": [ "a" ] }""";
+
+        String timestamp = "1767225900";
+        String sigHex = HmacSha256Verifier.signHex("secret-123", timestamp + "." + rawBody);
+
+        WebhookEvent saved = new WebhookEvent(UUID.randomUUID(), "stripe", "evt_456", payload,
+                EventStatus.RECEIVED, Instant.parse("2026-01-01T00:05:00Z"), null);
+        when(ingestionService.ingest("stripe", "evt_456", payload))
+                .thenReturn(new InsertResult(saved, true));
+
+        mockMvc.perform(post("/webhooks/stripe")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Timestamp", timestamp)
+                        .header("X-Signature", sigHex)
+                        .content(rawBody))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void shouldReturn400WhenEnvelopeHasNoEventKey() throws Exception {
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-01T00:10:00Z"));
+        String rawBody = """
+                {"payload":{"hello":"world"}}
+                """.trim();
+
+        String timestamp = "1767225900";
+        String sigHex = HmacSha256Verifier.signHex("secret-123", timestamp + "." + rawBody);
+
+        mockMvc.perform(post("/webhooks/stripe")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Timestamp", timestamp)
+                        .header("X-Signature", sigHex)
+                        .content(rawBody))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturn400WhenTheEventKeyIsLongerThanItsColumn() throws Exception {
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-01T00:10:00Z"));
+        String rawBody = """
+                {"eventKey":"%s","payload":{"hello":"world"}}
+                """.formatted("k".repeat(121)).trim();
+        when(ingestionService.ingest(eq("stripe"), anyString(), anyString()))
+                .thenThrow(new IllegalArgumentException("Source or eventKey is longer than its column"));
+
+        String timestamp = "1767225900";
+        String sigHex = HmacSha256Verifier.signHex("secret-123", timestamp + "." + rawBody);
+
+        mockMvc.perform(post("/webhooks/stripe")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Timestamp", timestamp)
+                        .header("X-Signature", sigHex)
+                        .content(rawBody))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldReturn401WhenSignatureIsInvalid() throws Exception {
         when(clock.instant()).thenReturn(Instant.parse("2026-01-01T00:10:00Z"));
@@ -0,0 +1,229 @@
+package com.mariaribeiro.webhookprocessor.webhook.api.security;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.application.service.IngestionMetrics;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.PropertiesSecretStore;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.SignatureVerifierRegistry;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.VerificationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RawBodyCaptureFilterTest {
+
+    private static final String TIMESTAMP = "1767225900";
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochSecond(1767225900), ZoneOffset.UTC);
+
+    private final RawBodyCaptureFilter filter = filter();
+
+    @Test
+    void shouldVerifySignatureWhileReadingSmallChunksOfUnknownLength() throws Exception {
+        String body = "{\"eventKey\":\"evt_1\",\"payload\":\"" + "x".repeat(20_000) + "\"}";
+        MockHttpServletRequest request = chunked(body.getBytes(StandardCharsets.UTF_8),
+                HmacSha256Verifier.signHex("secret-123", TIMESTAMP + "." + body), 7);
+
+        CapturedBody captured = run(request, new MockHttpServletResponse());
+
+        assertThat(captured.verification()).isEqualTo(VerificationResult.VERIFIED);
+        assertThat(new String(captured.buffer(), 0, captured.length(), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void shouldReportInvalidSignatureToController() throws Exception {
+        MockHttpServletRequest request = request("{}", "deadbeef");
+
+        CapturedBody captured = run(request, new MockHttpServletResponse());
+
+        assertThat(captured.verification()).isEqualTo(VerificationResult.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void shouldMarkUnknownSources() throws Exception {
+        MockHttpServletRequest request = request("{}", "deadbeef");
+        request.setRequestURI("/webhooks/unknown");
+
+        assertThat(run(request, new MockHttpServletResponse()).sourceKnown()).isFalse();
+    }
+
+    @Test
+    void shouldRejectDeclaredOversizedBodyBeforeReading() throws Exception {
+        MockHttpServletRequest request = request("x".repeat(65_537), "deadbeef");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(run(request, response)).isNull();
+        assertThat(response.getStatus()).isEqualTo(413);
+    }
+
+    @Test
+    void shouldRejectOversizedBodyOfUnknownLength() throws Exception {
+        byte[] body = new byte[65_537];
+        Arrays.fill(body, (byte) 'a');
+        MockHttpServletRequest request = chunked(body, HmacSha256Verifier.signHex("secret-123", TIMESTAMP + "."), 1000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(run(request, response)).isNull();
+        assertThat(response.getStatus()).isEqualTo(413);
+    }
+
+    @Test
+    void shouldAcceptBodyOfExactlyTheLimit() throws Exception {
+        String body = "\"" + "a".repeat(65_534) + "\"";
+        MockHttpServletRequest request = chunked(body.getBytes(StandardCharsets.UTF_8),
+                HmacSha256Verifier.signHex("secret-123", TIMESTAMP + "." + body), 1000);
+
+        CapturedBody captured = run(request, new MockHttpServletResponse());
+
+        assertThat(captured.length()).isEqualTo(65_536);
+        assertThat(captured.verification()).isEqualTo(VerificationResult.VERIFIED);
+    }
+
+    @Test
+    void shouldTreatOnlySourceScopedBatchPathAsBatch() {
+        assertThat(RawBodyCaptureFilter.isBatch("/webhooks/stripe/batch")).isTrue();
+        assertThat(RawBodyCaptureFilter.isBatch("/webhooks/batch")).isFalse();
+        assertThat(RawBodyCaptureFilter.isBatch("/webhooks//batch")).isFalse();
+        assertThat(RawBodyCaptureFilter.isBatch("/webhooks/stripe/batch/x")).isFalse();
+        assertThat(RawBodyCaptureFilter.isBatch("/webhooks/stripe/notbatch")).isFalse();
+        assertThat(RawBodyCaptureFilter.sourceOf("/webhooks/batch")).isEqualTo("batch");
+    }
+
+    @Test
+    void shouldReuseBuffersOfTheSameSizeClass() {
+        BodyBufferPool pool = new BodyBufferPool(1 << 20);
+        byte[] first = pool.acquire(5_000);
+        pool.release(first);
+
+        assertThat(first).hasSize(8192);
+        assertThat(pool.acquire(6_000)).isSameAs(first);
+    }
+
+    @Test
+    void shouldAnswerByteIdenticalReplayWithoutReadingIt() throws Exception {
+        String body = "{\"eventKey\":\"evt_1\",\"payload\":{}}";
+        String signature = HmacSha256Verifier.signHex("secret-123", TIMESTAMP + "." + body);
+        assertThat(run(request(body, signature), new MockHttpServletResponse()).verification())
+                .isEqualTo(VerificationResult.VERIFIED);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(run(request(body, signature), response)).isNull();
+        assertThat(response.getStatus()).isEqualTo(202);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString()).isEqualTo("{\"replayed\":true}");
+
+        // Failed verifications are not remembered.
+        assertThat(run(request(body, "deadbeef"), new MockHttpServletResponse()).verification())
+                .isEqualTo(VerificationResult.INVALID_SIGNATURE);
+        assertThat(run(request(body, "deadbeef"), new MockHttpServletResponse())).isNotNull();
+    }
+
+    @Test
+    void shouldExpireReplayFingerprintsAfterTheWindowAndStayWithinCapacity() {
+        SignatureReplayCache cache = new SignatureReplayCache(300_000, 10, 110);
+        cache.remember(42, 1_000);
+
+        assertThat(cache.seen(42, 1_000)).isTrue();
+        assertThat(cache.seen(42, 300_999)).isTrue();
+        assertThat(cache.seen(42, 331_000)).isFalse();
+
+        cache = new SignatureReplayCache(300_000, 10, 110);
+        for (long fingerprint = 1; fingerprint <= 1_000; fingerprint++) {
+            cache.remember(fingerprint, 400_000);
+        }
+        assertThat(cache.size()).isEqualTo(10);
+    }
+
+    private CapturedBody run(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<CapturedBody> captured = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                captured.set((CapturedBody) req.getAttribute(CapturedBody.ATTRIBUTE));
+            }
+        };
+        filter.doFilter(request, response, chain);
+        return captured.get();
+    }
+
+    private static MockHttpServletRequest request(String body, String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/webhooks/stripe");
+        request.addHeader("X-Timestamp", TIMESTAMP);
+        request.addHeader("X-Signature", signature);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /**
+     * Request without a declared length whose stream returns at most {@code chunk} bytes per read.
+     */
+    private static MockHttpServletRequest chunked(byte[] body, String signature, int chunk) {
+        ByteArrayInputStream source = new ByteArrayInputStream(body);
+        ServletInputStream stream = new ServletInputStream() {
+            @Override
+            public int read() {
+                return source.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return source.read(b, off, Math.min(len, chunk));
+            }
+
+            @Override
+            public boolean isFinished() {
+                return source.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+            }
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/webhooks/stripe") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return stream;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.addHeader("X-Timestamp", TIMESTAMP);
+        request.addHeader("X-Signature", signature);
+        return request;
+    }
+
+    private static RawBodyCaptureFilter filter() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setSecrets(Map.of("stripe", "secret-123"));
+        properties.getIngestion().setMaxBodySize(DataSize.ofKilobytes(64));
+        SignatureVerifierRegistry verifiers = new SignatureVerifierRegistry(properties, List.of(new PropertiesSecretStore(properties)));
+        return new RawBodyCaptureFilter(verifiers, CLOCK, properties,
+                new IngestionMetrics(verifiers, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+    }
+}
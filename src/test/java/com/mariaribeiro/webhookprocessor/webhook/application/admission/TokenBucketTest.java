@@ -0,0 +1,101 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldAllowBurstThenReportTimeUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bucket.tryAcquire(TimeUnit.MILLISECONDS.toNanos(40))).isEqualTo(TimeUnit.MILLISECONDS.toNanos(60));
+        assertThat(bucket.tryAcquire(TimeUnit.MILLISECONDS.toNanos(100))).isZero();
+    }
+
+    @Test
+    void shouldCarryFractionalRefillAcrossCalls() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        while (bucket.tryAcquire(0) == 0) {
+            // drain the initial burst
+        }
+
+        // Polling every 30ms must still yield exactly one token per 100ms.
+        int acquired = 0;
+        for (long now = 30; now <= 1_000; now += 30) {
+            if (bucket.tryAcquire(TimeUnit.MILLISECONDS.toNanos(now)) == 0) {
+                acquired++;
+            }
+        }
+        assertThat(acquired).isEqualTo(9);
+    }
+
+    @Test
+    void shouldNeverRefillBeyondCapacity() {
+        TokenBucket bucket = new TokenBucket(1_000, 5, 0);
+
+        int acquired = 0;
+        while (bucket.tryAcquire(60 * SECOND) == 0) {
+            acquired++;
+        }
+        assertThat(acquired).isEqualTo(5);
+    }
+
+    @Test
+    void shouldHandOutEachTokenOnceUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(0.001, 10_000, 0);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5_000; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        assertThat(acquired).hasValue(10_000);
+    }
+
+    @Test
+    void shouldCutLimitOnSlowSamplesAndGrowItBackAdditively() {
+        AimdLimiter limiter = new AimdLimiter(true, 10, 2, 20, TimeUnit.MILLISECONDS.toNanos(100), 0.5);
+
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limiter.limit()).isEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        for (int i = 0; i < 6; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertThat(limiter.limit()).isEqualTo(6);
+        assertThat(limiter.tryAcquire()).isTrue();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(TimeUnit.SECONDS.toNanos(1));
+        }
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+}
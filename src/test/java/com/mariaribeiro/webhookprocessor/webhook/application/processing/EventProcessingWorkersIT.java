@@ -0,0 +1,319 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.application.retry.RetryScheduler;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence.ConcurrencyLimitingDataSource;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.ClaimedEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventClaimRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.StatusUpdate;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "webhook.persistence.mode=jdbc",
+        "webhook.processing.enabled=true",
+        "webhook.processing.workers=0",
+        "webhook.processing.batch-size=10",
+        "webhook.processing.retry-tick=10ms",
+        "webhook.sources.worker-test.retry.max-attempts=1",
+        "webhook.sources.retry-test.retry.max-attempts=2",
+        "webhook.sources.retry-test.retry.initial-backoff=500ms",
+        "webhook.sources.retry-test.retry.max-backoff=500ms"
+})
+@ActiveProfiles("test")
+class EventProcessingWorkersIT {
+
+    @Autowired
+    EventProcessingWorkers workers;
+
+    @Autowired
+    EventClaimRepository claims;
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PartitionCoordinator partitions;
+
+    @Autowired
+    EventHandlerRegistry handlers;
+
+    @Autowired
+    RetryScheduler retryScheduler;
+
+    @Autowired
+    Clock clock;
+
+    @Autowired
+    WorkerThreads workerThreads;
+
+    @Autowired
+    WebhookProperties webhookProperties;
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        WebhookEventHandler failingHandler() {
+            return handlerFor("worker-test");
+        }
+
+        @Bean
+        WebhookEventHandler retryingHandler() {
+            return handlerFor("retry-test");
+        }
+
+        private static WebhookEventHandler handlerFor(String source) {
+            return new WebhookEventHandler() {
+                @Override
+                public String source() {
+                    return source;
+                }
+
+                @Override
+                public void handle(WebhookEvent event) {
+                    if (event.eventKey().startsWith("poison")) {
+                        throw new PoisonEventException("unparseable");
+                    }
+                    if (event.eventKey().startsWith("fail")) {
+                        throw new IllegalStateException("rejected");
+                    }
+                }
+            };
+        }
+    }
+
+    @Test
+    void shouldProcessReceivedEventsAndRecordFinalStatus() {
+        WebhookEvent ok = store("ok_" + UUID.randomUUID());
+        WebhookEvent failing = store("fail_" + UUID.randomUUID());
+
+        drain();
+
+        WebhookEvent processed = repository.findById(ok.id()).orElseThrow();
+        assertThat(processed.status()).isEqualTo(EventStatus.PROCESSED);
+        assertThat(processed.processedAt()).isNotNull();
+        assertThat(repository.findById(failing.id()).orElseThrow().status()).isEqualTo(EventStatus.DEAD_LETTERED);
+        assertThat(deadLetterReason(failing.id())).isEqualTo("RETRIES_EXHAUSTED");
+    }
+
+    @Test
+    void shouldDeadLetterRejectedEventWithoutRetrying() {
+        WebhookEvent poison = store("retry-test", "poison_" + UUID.randomUUID());
+
+        drain();
+
+        assertThat(repository.findById(poison.id()).orElseThrow().status()).isEqualTo(EventStatus.DEAD_LETTERED);
+        assertThat(nextAttemptAt(poison.id())).isNull();
+        assertThat(deadLetterReason(poison.id())).isEqualTo("REJECTED");
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM webhook_dead_letter WHERE event_id = ?", String.class, poison.id()))
+                .contains("unparseable");
+    }
+
+    @Test
+    void shouldLimitDatabaseConcurrencyInVirtualThreadMode() {
+        assertThat(dataSource).isInstanceOf(ConcurrencyLimitingDataSource.class);
+
+        WebhookEvent ok = store("ok_" + UUID.randomUUID());
+        drain();
+
+        assertThat(repository.findById(ok.id()).orElseThrow().status()).isEqualTo(EventStatus.PROCESSED);
+    }
+
+    @Test
+    void shouldRetryFailedEventUntilAttemptsAreExhausted() throws Exception {
+        WebhookEvent failing = store("retry-test", "fail_" + UUID.randomUUID());
+
+        drain();
+        WebhookEvent afterFirst = repository.findById(failing.id()).orElseThrow();
+        assertThat(afterFirst.status()).isEqualTo(EventStatus.FAILED);
+        assertThat(nextAttemptAt(failing.id())).isNotNull();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (repository.findById(failing.id()).orElseThrow().status() != EventStatus.RECEIVED) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+
+        drain();
+        assertThat(repository.findById(failing.id()).orElseThrow().status()).isEqualTo(EventStatus.DEAD_LETTERED);
+        assertThat(nextAttemptAt(failing.id())).isNull();
+        assertThat(deadLetterReason(failing.id())).isEqualTo("RETRIES_EXHAUSTED");
+        assertThat(jdbcTemplate.queryForObject("SELECT attempt_count FROM webhook_event WHERE id = ?", Integer.class, failing.id()))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldNeverHandOutTheSameEventToConcurrentClaimers() throws Exception {
+        List<UUID> stored = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            stored.add(store("ok_" + UUID.randomUUID()).id());
+        }
+
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        List<UUID> duplicates = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> loops = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                loops.add(executor.submit(() -> {
+                    List<ClaimedEvent> batch;
+                    while (!(batch = claims.claimReceived(7)).isEmpty()) {
+                        for (ClaimedEvent claimed : batch) {
+                            if (!seen.add(claimed.event().id())) {
+                                synchronized (duplicates) {
+                                    duplicates.add(claimed.event().id());
+                                }
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> loop : loops) {
+                loop.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(duplicates).isEmpty();
+        assertThat(seen).containsAll(stored);
+    }
+
+    @Test
+    void shouldReturnExpiredClaimsToReceived() {
+        drain();
+        WebhookEvent stranded = store("ok_" + UUID.randomUUID());
+        WebhookEvent recent = store("ok_" + UUID.randomUUID());
+        assertThat(claims.claimReceived(10)).extracting(claimed -> claimed.event().id())
+                .contains(stranded.id(), recent.id());
+        jdbcTemplate.update("UPDATE webhook_event SET claimed_at = claimed_at - INTERVAL '10' MINUTE WHERE id = ?", stranded.id());
+
+        assertThat(workers.releaseExpiredClaims()).isEqualTo(1);
+
+        assertThat(repository.findById(stranded.id()).orElseThrow().status()).isEqualTo(EventStatus.RECEIVED);
+        assertThat(repository.findById(recent.id()).orElseThrow().status()).isEqualTo(EventStatus.PROCESSING);
+        drain();
+        assertThat(repository.findById(stranded.id()).orElseThrow().status()).isEqualTo(EventStatus.PROCESSED);
+        claims.releaseExpiredClaims(Instant.now().plusSeconds(1));
+        drain();
+    }
+
+    @Test
+    void shouldDropTheOutcomeOfAClaimThatWasReleasedAndTakenAgain() {
+        drain();
+        WebhookEvent event = store("ok_" + UUID.randomUUID());
+        ClaimedEvent first = claimed(event);
+        claims.releaseClaims(List.of(event.id()));
+        ClaimedEvent second = claimed(event);
+        StatusUpdate late = new StatusUpdate(first, EventStatus.DEAD_LETTERED, Instant.now(), 1, null,
+                DeadLetterReason.RETRIES_EXHAUSTED, "late");
+        StatusUpdate current = new StatusUpdate(second, EventStatus.FAILED, Instant.now(), 2, Instant.now().plusSeconds(60));
+
+        assertThat(claims.completeAll(List.of(late, current))).containsExactly(current);
+        assertThat(claims.completeAll(List.of(late))).isEmpty();
+
+        assertThat(repository.findById(event.id()).orElseThrow().status()).isEqualTo(EventStatus.FAILED);
+        assertThat(jdbcTemplate.queryForObject("SELECT attempt_count FROM webhook_event WHERE id = ?", Integer.class, event.id()))
+                .isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM webhook_dead_letter WHERE event_id = ?", Integer.class, event.id()))
+                .isZero();
+    }
+
+    @Test
+    void shouldReturnClaimedEventsTheDispatcherRefusesToReceived() {
+        drain();
+        WebhookEvent dispatched = store("ok_" + UUID.randomUUID());
+        WebhookEvent refused = store("ok_" + UUID.randomUUID());
+        EventDispatcher stopping = new EventDispatcher() {
+            boolean stopped;
+
+            @Override
+            public <T> CompletableFuture<T> dispatch(WebhookEvent event, Supplier<T> task) {
+                if (stopped) {
+                    throw new IllegalStateException("Lanes are stopped");
+                }
+                stopped = true;
+                return CompletableFuture.completedFuture(task.get());
+            }
+
+            @Override
+            public boolean ordered() {
+                return true;
+            }
+        };
+        EventProcessingWorkers stoppingWorkers = new EventProcessingWorkers(claims, partitions, handlers, stopping,
+                retryScheduler, clock, workerThreads, webhookProperties);
+
+        assertThat(stoppingWorkers.processBatch()).isEqualTo(1);
+
+        assertThat(repository.findById(dispatched.id()).orElseThrow().status()).isEqualTo(EventStatus.PROCESSED);
+        assertThat(repository.findById(refused.id()).orElseThrow().status()).isEqualTo(EventStatus.RECEIVED);
+        drain();
+        assertThat(repository.findById(refused.id()).orElseThrow().status()).isEqualTo(EventStatus.PROCESSED);
+    }
+
+    private ClaimedEvent claimed(WebhookEvent event) {
+        return claims.claimReceived(10).stream()
+                .filter(claimed -> claimed.event().id().equals(event.id()))
+                .findFirst().orElseThrow();
+    }
+
+    private void drain() {
+        while (workers.processBatch() > 0) {
+            // drain everything that is RECEIVED, including rows left by other tests
+        }
+    }
+
+    private Object nextAttemptAt(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT next_attempt_at FROM webhook_event WHERE id = ?", Object.class, id);
+    }
+
+    private String deadLetterReason(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT reason FROM webhook_dead_letter WHERE event_id = ?", String.class, id);
+    }
+
+    private WebhookEvent store(String eventKey) {
+        return store("worker-test", eventKey);
+    }
+
+    private WebhookEvent store(String source, String eventKey) {
+        WebhookEvent event = new WebhookEvent(UUID.randomUUID(), source, eventKey, "{}",
+                EventStatus.RECEIVED, Instant.now(), null);
+        return repository.insertIfAbsent(event).event();
+    }
+}
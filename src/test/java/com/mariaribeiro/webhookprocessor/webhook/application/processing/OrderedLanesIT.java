@@ -0,0 +1,145 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Own database: the running claim loops would otherwise take events other test classes expect to claim themselves.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ordered-lanes;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "webhook.persistence.mode=jdbc",
+        "webhook.processing.enabled=true",
+        "webhook.processing.workers=4",
+        "webhook.processing.batch-size=5",
+        "webhook.processing.poll-interval=10ms",
+        "webhook.processing.lanes.enabled=true",
+        "webhook.processing.lanes.count=4",
+        "webhook.processing.retry-tick=10ms",
+        "webhook.sources.lanes-test.ordering-key-path=$.object.id",
+        "webhook.sources.lanes-retry-test.ordering-key-path=$.object.id",
+        "webhook.sources.lanes-retry-test.retry.initial-backoff=300ms",
+        "webhook.sources.lanes-retry-test.retry.max-backoff=300ms"
+})
+@ActiveProfiles("test")
+class OrderedLanesIT {
+
+    static final Map<String, List<Integer>> HANDLED = new ConcurrentHashMap<>();
+    static final Set<String> THREADS = ConcurrentHashMap.newKeySet();
+    static final List<Integer> RETRIED = new CopyOnWriteArrayList<>();
+    static final AtomicBoolean FAILED_ONCE = new AtomicBoolean();
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        WebhookEventHandler orderRecordingHandler() {
+            return new WebhookEventHandler() {
+                @Override
+                public String source() {
+                    return "lanes-test";
+                }
+
+                @Override
+                public void handle(WebhookEvent event) throws InterruptedException {
+                    String object = event.payload().substring(event.payload().indexOf("obj_"), event.payload().indexOf("\"}"));
+                    int sequence = Integer.parseInt(event.eventKey().substring(event.eventKey().lastIndexOf('_') + 1));
+                    HANDLED.computeIfAbsent(object, k -> new ArrayList<>()).add(sequence);
+                    THREADS.add(Thread.currentThread().getName());
+                    Thread.sleep(1);
+                }
+            };
+        }
+
+        @Bean
+        WebhookEventHandler failingOnceHandler() {
+            return new WebhookEventHandler() {
+                @Override
+                public String source() {
+                    return "lanes-retry-test";
+                }
+
+                @Override
+                public void handle(WebhookEvent event) {
+                    int sequence = Integer.parseInt(event.eventKey().substring(event.eventKey().lastIndexOf('_') + 1));
+                    if (sequence == 0 && FAILED_ONCE.compareAndSet(false, true)) {
+                        throw new IllegalStateException("Downstream unavailable");
+                    }
+                    RETRIED.add(sequence);
+                }
+            };
+        }
+    }
+
+    @Test
+    void shouldHandleEventsOfTheSameObjectInReceivedOrder() throws Exception {
+        Instant base = Instant.now().minusSeconds(60);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<WebhookEvent> events = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String payload = "{\"type\":\"updated\",\"object\":{\"id\":\"obj_" + run + "_" + (i % 8) + "\"}}";
+            events.add(new WebhookEvent(UUID.randomUUID(), "lanes-test", "evt_" + run + "_" + i, payload,
+                    EventStatus.RECEIVED, base.plusMillis(i), null));
+        }
+        repository.insertAllIfAbsent(events);
+
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (HANDLED.values().stream().mapToInt(List::size).sum() < events.size()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+
+        assertThat(HANDLED).hasSize(8);
+        HANDLED.values().forEach(sequences -> assertThat(sequences).hasSize(25).isSorted());
+        assertThat(THREADS).allSatisfy(name -> assertThat(name).startsWith("webhook-lane-")).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void shouldHoldLaterEventsOfTheSameObjectBehindARetry() throws Exception {
+        Instant base = Instant.now().minusSeconds(60);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String payload = "{\"type\":\"updated\",\"object\":{\"id\":\"obj_" + run + "\"}}";
+        List<WebhookEvent> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(new WebhookEvent(UUID.randomUUID(), "lanes-retry-test", "evt_" + run + "_" + i, payload,
+                    EventStatus.RECEIVED, base.plusMillis(i), null));
+        }
+        repository.insertAllIfAbsent(events);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (RETRIED.size() < events.size()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+
+        assertThat(FAILED_ONCE).isTrue();
+        assertThat(RETRIED).containsExactly(0, 1, 2);
+        // The last handler call returns before its outcome is written.
+        for (WebhookEvent event : events) {
+            while (repository.findById(event.id()).orElseThrow().status() != EventStatus.PROCESSED) {
+                assertThat(System.currentTimeMillis()).isLessThan(deadline);
+                Thread.sleep(20);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.WebhookProcessorApplication;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.LogicalPartitions;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several application contexts in one JVM acting as processing nodes over one shared H2 database.
+ */
+class PartitionLeasesIT {
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final Map<UUID, String> handledBy = new ConcurrentHashMap<>();
+    private final Set<UUID> handledTwice = ConcurrentHashMap.newKeySet();
+    private final String database = "leases-" + UUID.randomUUID();
+    private final CountDownLatch hung = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        hung.countDown();
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void shouldSplitPartitionsAndRebalanceWhenNodesJoinAndLeave() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            nodes.add(startNode(database, "node-" + i, Duration.ZERO, handledBy, handledTwice));
+        }
+        await(() -> isPartitioned(nodes), Duration.ofSeconds(10));
+        assertThat(nodes).extracting(node -> owned(node).length).containsExactlyInAnyOrder(22, 21, 21);
+
+        WebhookEventRepository repository = nodes.getFirst().getBean(WebhookEventRepository.class);
+        List<WebhookEvent> events = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            events.add(new WebhookEvent(UUID.randomUUID(), "leases", "evt_" + i, "{}", EventStatus.RECEIVED, Instant.now(), null));
+        }
+        repository.insertAllIfAbsent(events);
+        await(() -> handledBy.size() == events.size(), Duration.ofSeconds(20));
+
+        assertThat(handledTwice).isEmpty();
+        assertThat(new HashSet<>(handledBy.values())).containsExactlyInAnyOrder("node-0", "node-1", "node-2");
+        Integer partitions = nodes.getFirst().getBean(JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(DISTINCT logical_partition) FROM webhook_event WHERE source = 'leases'", Integer.class);
+        assertThat(partitions).isGreaterThan(LogicalPartitions.COUNT / 2);
+
+        nodes.removeFirst().close();
+        await(() -> isPartitioned(nodes), Duration.ofSeconds(10));
+        assertThat(nodes).extracting(node -> owned(node).length).containsExactly(32, 32);
+    }
+
+    @Test
+    void shouldTakeOverThePartitionsAndClaimsOfANodeThatStopsHeartbeating() throws Exception {
+        nodes.add(startNode(database, "node-0", new WebhookEventHandler() {
+            @Override
+            public String source() {
+                return EventHandlerRegistry.ANY_SOURCE;
+            }
+
+            @Override
+            public void handle(WebhookEvent event) throws InterruptedException {
+                hung.await();
+            }
+        }));
+        for (int i = 1; i < 3; i++) {
+            nodes.add(startNode(database, "node-" + i, Duration.ZERO, handledBy, handledTwice));
+        }
+        await(() -> isPartitioned(nodes), Duration.ofSeconds(10));
+
+        ConfigurableApplicationContext silent = nodes.getFirst();
+        JdbcTemplate jdbcTemplate = silent.getBean(JdbcTemplate.class);
+        List<WebhookEvent> events = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            events.add(new WebhookEvent(UUID.randomUUID(), "leases", "evt_" + i, "{}", EventStatus.RECEIVED, Instant.now(), null));
+        }
+        silent.getBean(WebhookEventRepository.class).insertAllIfAbsent(events);
+        await(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM webhook_event WHERE status = 'PROCESSING' AND claimed_by = 'node-0'",
+                Integer.class) > 0, Duration.ofSeconds(10));
+
+        // The node hangs: no more heartbeats, but it never leaves and its handlers never return.
+        silent.getBean(PartitionCoordinator.class).stopHeartbeat();
+        List<ConfigurableApplicationContext> survivors = nodes.subList(1, nodes.size());
+        await(() -> isPartitioned(survivors), Duration.ofSeconds(10));
+        assertThat(survivors).extracting(node -> owned(node).length).containsExactly(32, 32);
+
+        await(() -> handledBy.size() == events.size(), Duration.ofSeconds(20));
+        assertThat(handledTwice).isEmpty();
+        assertThat(new HashSet<>(handledBy.values())).containsExactlyInAnyOrder("node-1", "node-2");
+    }
+
+    static ConfigurableApplicationContext startNode(String database, String nodeId, Duration handlingTime,
+                                                    Map<UUID, String> handledBy, Set<UUID> handledTwice) {
+        return startNode(database, nodeId, new WebhookEventHandler() {
+            @Override
+            public String source() {
+                return EventHandlerRegistry.ANY_SOURCE;
+            }
+
+            @Override
+            public void handle(WebhookEvent event) throws InterruptedException {
+                if (handledBy.putIfAbsent(event.id(), nodeId) != null) {
+                    handledTwice.add(event.id());
+                }
+                if (handlingTime.isPositive()) {
+                    Thread.sleep(handlingTime);
+                }
+            }
+        });
+    }
+
+    static ConfigurableApplicationContext startNode(String database, String nodeId, WebhookEventHandler handler) {
+        return new SpringApplicationBuilder(WebhookProcessorApplication.class)
+                .profiles("test")
+                .initializers(context -> context.getBeanFactory().registerSingleton("recordingHandler", handler))
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database
+                                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+                        "--server.port=0",
+                        "--webhook.persistence.mode=jdbc",
+                        "--webhook.processing.enabled=true",
+                        "--webhook.processing.workers=1",
+                        "--webhook.processing.batch-size=20",
+                        "--webhook.processing.handler-concurrency=4",
+                        "--webhook.processing.poll-interval=20ms",
+                        "--webhook.processing.leases.enabled=true",
+                        "--webhook.processing.leases.node-id=" + nodeId,
+                        "--webhook.processing.leases.heartbeat-interval=100ms",
+                        "--webhook.processing.leases.lease-duration=1s");
+    }
+
+    /**
+     * True once the nodes' partitions are disjoint and cover every partition.
+     */
+    static boolean isPartitioned(List<ConfigurableApplicationContext> nodes) {
+        Set<Integer> seen = new HashSet<>();
+        int total = 0;
+        for (ConfigurableApplicationContext node : nodes) {
+            int[] owned = owned(node);
+            total += owned.length;
+            Arrays.stream(owned).forEach(seen::add);
+        }
+        return total == LogicalPartitions.COUNT && seen.size() == LogicalPartitions.COUNT;
+    }
+
+    static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within " + timeout).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static int[] owned(ConfigurableApplicationContext node) {
+        return node.getBean(PartitionCoordinator.class).owned();
+    }
+}
@@ -0,0 +1,75 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.processing;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.mariaribeiro.webhookprocessor.webhook.application.processing.PartitionLeasesIT.await;
+import static com.mariaribeiro.webhookprocessor.webhook.application.processing.PartitionLeasesIT.isPartitioned;
+import static com.mariaribeiro.webhookprocessor.webhook.application.processing.PartitionLeasesIT.startNode;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Processed events per second with 1, 2 and 4 leased nodes sharing one H2 database. Each node's
+ * handler concurrency is fixed and handling takes a fixed time, as if waiting on a downstream
+ * call, so throughput should grow with the node count. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class PartitionScalingBenchmarkTest {
+
+    private static final int EVENTS = 4_000;
+    private static final Duration HANDLING_TIME = Duration.ofMillis(5);
+
+    @Test
+    void throughputScalesWithNodes() throws Exception {
+        Map<Integer, Double> rates = new LinkedHashMap<>();
+        for (int nodes : new int[]{1, 2, 4}) {
+            rates.put(nodes, run(nodes));
+        }
+
+        System.out.printf("%6s %12s %8s%n", "nodes", "events/s", "speedup");
+        rates.forEach((nodes, rate) -> System.out.printf("%6d %12.0f %8.2f%n", nodes, rate, rate / rates.get(1)));
+        assertThat(rates.get(2) / rates.get(1)).isGreaterThan(1.6);
+        assertThat(rates.get(4) / rates.get(1)).isGreaterThan(3.0);
+    }
+
+    private static double run(int count) throws Exception {
+        String database = "scaling-" + UUID.randomUUID();
+        Map<UUID, String> handledBy = new ConcurrentHashMap<>();
+        Set<UUID> handledTwice = ConcurrentHashMap.newKeySet();
+        List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                nodes.add(startNode(database, "node-" + i, HANDLING_TIME, handledBy, handledTwice));
+            }
+            await(() -> isPartitioned(nodes), Duration.ofSeconds(10));
+
+            List<WebhookEvent> events = new ArrayList<>(EVENTS);
+            for (int i = 0; i < EVENTS; i++) {
+                events.add(new WebhookEvent(UUID.randomUUID(), "scaling", "evt_" + i, "{}", EventStatus.RECEIVED, Instant.now(), null));
+            }
+            long start = System.nanoTime();
+            nodes.getFirst().getBean(WebhookEventRepository.class).insertAllIfAbsent(events);
+            await(() -> handledBy.size() == EVENTS, Duration.ofMinutes(2));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            assertThat(handledTwice).isEmpty();
+            return EVENTS / seconds;
+        } finally {
+            nodes.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK = 10;
+
+    @Test
+    void shouldFireItemsOnlyOnceTheirTickHasElapsed() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 5);
+
+        assertThat(wheel.advanceTo(9)).isEmpty();
+        assertThat(wheel.advanceTo(10)).containsExactly("b");
+        assertThat(wheel.advanceTo(29)).isEmpty();
+        assertThat(wheel.advanceTo(30)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldKeepDeadlinesBeyondOneRevolutionForLaterRounds() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 4, 0);
+        wheel.schedule("far", 105);
+
+        assertThat(wheel.advanceTo(100)).isEmpty();
+        assertThat(wheel.advanceTo(110)).containsExactly("far");
+    }
+
+    @Test
+    void shouldFireOverdueItemsOnNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 4, 0);
+        wheel.advanceTo(50);
+        wheel.schedule("late", 1);
+
+        assertThat(wheel.advanceTo(60)).containsExactly("late");
+    }
+
+    @Test
+    void shouldHoldManyTimeouts() {
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(TICK, 512, 0);
+        for (int i = 0; i < 200_000; i++) {
+            wheel.schedule(i, (i % 1000) * TICK);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = 0; now <= 1001 * TICK; now += TICK) {
+            fired.addAll(wheel.advanceTo(now));
+        }
+        assertThat(fired).hasSize(200_000);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldDrawBackoffWithinJitterBoundsAndCapAtMax() {
+        RetryPolicy policy = new RetryPolicy(5, Duration.ofSeconds(1), Duration.ofSeconds(10), 2.0);
+
+        assertThat(policy.backoff(1)).isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+        assertThat(policy.backoff(3)).isBetween(Duration.ofSeconds(2), Duration.ofSeconds(4));
+        assertThat(policy.backoff(10)).isBetween(Duration.ofSeconds(5), Duration.ofSeconds(10));
+        assertThat(policy.shouldRetry(4)).isTrue();
+        assertThat(policy.shouldRetry(5)).isFalse();
+    }
+}
@@ -0,0 +1,96 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.DeadLetterReason;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetter;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterCursor;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterPage;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterQuery;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeadLetterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadLetterServiceTest {
+
+    IdempotencyCacheTest.MutableClock clock;
+    WebhookProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        clock = new IdempotencyCacheTest.MutableClock(Instant.parse("2025-06-01T00:00:00Z"));
+        properties = new WebhookProperties();
+        properties.getAdmin().getDeadLetterReplay().setMaxRate(100);
+    }
+
+    @Test
+    void shouldKeepConcurrentReplaysTogetherUnderTheCeiling() throws Exception {
+        DeadLetterService service = new DeadLetterService(new StubRepository(50), new WorkerThreads(true), clock, properties);
+
+        long start = System.nanoTime();
+        ReplayJob first = service.startReplay(query("first"), null);
+        ReplayJob second = service.startReplay(query("second"), null);
+        await(first);
+        await(second);
+        long elapsedNanos = System.nanoTime() - start;
+
+        assertThat(first.requeued() + second.requeued()).isEqualTo(100);
+        // 100 events at 100 per second; each replay alone would be done in half a second.
+        assertThat(elapsedNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    void shouldForgetFinishedReplaysAfterTheRetention() throws Exception {
+        properties.getAdmin().getDeadLetterReplay().setJobRetention(Duration.ofMinutes(10));
+        DeadLetterService service = new DeadLetterService(new StubRepository(1), new WorkerThreads(true), clock, properties);
+
+        ReplayJob job = await(service.startReplay(query("only"), null));
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(service.findReplay(job.id())).isSameAs(job);
+
+        clock.advance(Duration.ofMinutes(6));
+        assertThat(service.findReplay(job.id())).isNull();
+    }
+
+    private static DeadLetterQuery query(String source) {
+        return new DeadLetterQuery(source, null, null, null, null);
+    }
+
+    private static ReplayJob await(ReplayJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.state() == ReplayJob.State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return job;
+    }
+
+    /**
+     * Serves {@code perSource} dead letters for any source on one page and requeues all of them.
+     */
+    private record StubRepository(int perSource) implements DeadLetterRepository {
+
+        @Override
+        public DeadLetterPage findPage(DeadLetterQuery query, DeadLetterCursor after, int limit) {
+            List<DeadLetter> deadLetters = new ArrayList<>();
+            for (int i = 0; i < perSource; i++) {
+                deadLetters.add(new DeadLetter(UUID.randomUUID(), query.source(), "evt_" + i, Instant.EPOCH, Instant.EPOCH,
+                        DeadLetterReason.RETRIES_EXHAUSTED, "timed out", 5));
+            }
+            return new DeadLetterPage(deadLetters, null);
+        }
+
+        @Override
+        public int requeue(List<DeadLetter> deadLetters) {
+            return deadLetters.size();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventImportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventImportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    IdempotencyCacheTest.MutableClock clock;
+    WebhookProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        clock = new IdempotencyCacheTest.MutableClock(Instant.parse("2025-06-01T00:00:00Z"));
+        properties = new WebhookProperties();
+        WebhookProperties.BulkImport config = properties.getAdmin().getBulkImport();
+        config.setDirectory(directory);
+        config.setChunkSize(1);
+        config.setParseThreads(1);
+    }
+
+    @Test
+    void shouldFailTheJobWhenReadingFailsWithTheQueueFull() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        EventImportRepository repository = events -> {
+            try {
+                loading.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return events.size();
+        };
+        EventImportService service = new EventImportService(repository, new WorkerThreads(true), clock, properties);
+        Path archive = Files.write(directory.resolve("archive.ndjson"), List.of("evt_1", "evt_2", "evt_3"));
+
+        // The first chunk holds the loader while the next two fill the queue; then the missing file fails the read.
+        ImportJob job = service.start(List.of(archive, directory.resolve("missing.ndjson")), parser());
+        Thread.sleep(200);
+        loading.countDown();
+
+        assertThat(await(job).state()).isEqualTo(ImportJob.State.FAILED);
+        assertThat(job.error()).contains("missing.ndjson");
+        assertThat(job.stored()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldForgetFinishedJobsAfterTheRetention() throws Exception {
+        properties.getAdmin().getBulkImport().setJobRetention(Duration.ofMinutes(10));
+        EventImportService service = new EventImportService(List::size, new WorkerThreads(true), clock, properties);
+        Path archive = Files.write(directory.resolve("archive.ndjson"), List.of("evt_1"));
+
+        ImportJob job = await(service.start(List.of(archive), parser()));
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(service.find(job.id())).isSameAs(job);
+
+        clock.advance(Duration.ofMinutes(6));
+        assertThat(service.find(job.id())).isNull();
+    }
+
+    private Function<String, WebhookEvent> parser() {
+        return line -> new WebhookEvent(UUID.randomUUID(), "archive", line, "{}", EventStatus.PROCESSED,
+                Instant.now(clock), Instant.now(clock));
+    }
+
+    private static ImportJob await(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.state() == ImportJob.State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return job;
+    }
+}
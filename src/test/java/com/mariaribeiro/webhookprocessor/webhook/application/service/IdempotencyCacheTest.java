@@ -0,0 +1,206 @@
+package com.mariaribeiro.webhookprocessor.webhook.application.service;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyCacheTest {
+
+    MutableClock clock;
+    WebhookProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        properties = new WebhookProperties();
+        properties.getIdempotency().setTtl(Duration.ofMinutes(1));
+        properties.getIdempotency().setMaxSize(2);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentFirstDeliveriesIntoSingleInsert() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(properties, clock, new SimpleMeterRegistry());
+        AtomicInteger inserts = new AtomicInteger();
+        CountDownLatch insertStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<InsertResult>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.getOrInsert("stripe", "evt_1", () -> {
+                inserts.incrementAndGet();
+                insertStarted.countDown();
+                await(release);
+                return new InsertResult(event("evt_1"), true);
+            })));
+            insertStarted.await(5, TimeUnit.SECONDS);
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> cache.getOrInsert("stripe", "evt_1", () -> {
+                    inserts.incrementAndGet();
+                    return new InsertResult(event("evt_1"), true);
+                })));
+            }
+            while (cache.coalesced() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            long created = 0;
+            for (Future<InsertResult> result : results) {
+                if (result.get(5, TimeUnit.SECONDS).created()) {
+                    created++;
+                }
+            }
+            assertThat(inserts).hasValue(1);
+            assertThat(created).isEqualTo(1);
+            assertThat(cache.coalesced()).isEqualTo(callers - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        IdempotencyCache cache = new IdempotencyCache(properties, clock, new SimpleMeterRegistry());
+        cache.getOrInsert("stripe", "evt_1", () -> new InsertResult(event("evt_1"), true));
+
+        clock.advance(Duration.ofMinutes(2));
+        cache.getOrInsert("stripe", "evt_1", () -> new InsertResult(event("evt_1"), false));
+
+        assertThat(cache.hits()).isZero();
+        assertThat(cache.misses()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldOnlyQueueNodesPutWithinTheTtlBelowTheBounds() {
+        properties.getIdempotency().setMaxSize(1_000);
+        IdempotencyCache cache = new IdempotencyCache(properties, clock, new SimpleMeterRegistry());
+        for (int i = 0; i < 500; i++) {
+            cache.remember(event("evt_" + i));
+            cache.remember(event("evt_" + i));
+            clock.advance(Duration.ofSeconds(1));
+        }
+
+        // Two puts a second, one of them replaced: at most the last minute's nodes are left, not all 1000.
+        assertThat(cache.size()).isEqualTo(60);
+        assertThat(cache.queued()).isLessThanOrEqualTo(120);
+    }
+
+    @Test
+    void shouldEvictOldestEntriesBeyondMaxSize() {
+        IdempotencyCache cache = new IdempotencyCache(properties, clock, new SimpleMeterRegistry());
+        for (String key : List.of("evt_1", "evt_2", "evt_3")) {
+            cache.getOrInsert("stripe", key, () -> new InsertResult(event(key), true));
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.getOrInsert("stripe", "evt_3", () -> new InsertResult(event("evt_3"), false));
+        cache.getOrInsert("stripe", "evt_1", () -> new InsertResult(event("evt_1"), false));
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictOldestEntriesBeyondMaxWeight() {
+        properties.getIdempotency().setMaxSize(100);
+        properties.getIdempotency().setMaxWeight(DataSize.ofBytes(500));
+        IdempotencyCache cache = new IdempotencyCache(properties, clock, new SimpleMeterRegistry());
+        for (String key : List.of("evt_1", "evt_2", "evt_3")) {
+            cache.getOrInsert("stripe", key, () -> new InsertResult(event(key), true));
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.weight()).isLessThanOrEqualTo(500);
+    }
+
+    @Test
+    void shouldAnswerHitsWithIdAndReceiveTimeOnly() {
+        IdempotencyCache cache = new IdempotencyCache(properties, clock, new SimpleMeterRegistry());
+        WebhookEvent stored = event("evt_1");
+        cache.getOrInsert("stripe", "evt_1", () -> new InsertResult(stored, true));
+
+        WebhookEvent hit = cache.getOrInsert("stripe", "evt_1", () -> new InsertResult(event("evt_1"), false)).event();
+
+        assertThat(hit.id()).isEqualTo(stored.id());
+        assertThat(hit.receivedAt()).isEqualTo(stored.receivedAt());
+        assertThat(hit.payload()).isNull();
+        assertThat(hit.status()).isNull();
+    }
+
+    @Test
+    void shouldOnlyRememberStoredEventsForWritersThatAcknowledgeEarly() {
+        IdempotencyCache cache = new IdempotencyCache(properties, clock, new SimpleMeterRegistry());
+        WebhookEvent acknowledged = event("evt_1");
+        cache.getOrInsert("stripe", "evt_1", false, () -> new InsertResult(acknowledged, true));
+        assertThat(cache.size()).isZero();
+
+        WebhookEvent stored = event("evt_1");
+        cache.remember(stored);
+        InsertResult duplicate = cache.getOrInsert("stripe", "evt_1", false, () -> new InsertResult(event("evt_1"), true));
+
+        assertThat(duplicate.created()).isFalse();
+        assertThat(duplicate.event().id()).isEqualTo(stored.id());
+    }
+
+    private static WebhookEvent event(String eventKey) {
+        return new WebhookEvent(UUID.randomUUID(), "stripe", eventKey, "{}", EventStatus.RECEIVED, Instant.now(), null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,50 +1,66 @@
 package com.mariaribeiro.webhookprocessor.webhook.application.service;
 
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.webhook.application.admission.AdmissionControl;
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
 import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.lang.reflect.Field;
 import java.time.Clock;
 import java.time.Instant;
-import java.util.Optional;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class WebhookIngestionServiceTest {
 
+    @Mock
+    WebhookEventWriter writer;
+
     @Mock
     WebhookEventRepository repository;
 
+    @Captor
+    ArgumentCaptor<List<WebhookEvent>> inserted;
+
     Clock fixedClock;
 
-    @InjectMocks
+    IdempotencyCache idempotencyCache;
+
     WebhookIngestionService service;
 
     @BeforeEach
-    void setUp() throws Exception {
+    void setUp() {
         fixedClock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), Clock.systemUTC().getZone());
-        Field clockField = WebhookIngestionService.class.getDeclaredField("clock");
-        clockField.setAccessible(true);
-        clockField.set(service, fixedClock);
+        idempotencyCache = new IdempotencyCache(new WebhookProperties(), fixedClock, new SimpleMeterRegistry());
+        WebhookProperties properties = new WebhookProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        lenient().when(writer.returnsStoredEvent()).thenReturn(true);
+        service = new WebhookIngestionService(writer, repository, idempotencyCache, fixedClock,
+                new IngestionMetrics(source -> true, meterRegistry), new AdmissionControl(properties, source -> true, meterRegistry));
     }
 
     @Test
     void shouldCreateAndSaveWhenEventDoesNotExist() {
-        when(repository.findBySourceAndEventKey("stripe", "evt_123"))
-                .thenReturn(Optional.empty());
-
         ArgumentCaptor<WebhookEvent> captor = ArgumentCaptor.forClass(WebhookEvent.class);
 
         WebhookEvent saved = new WebhookEvent(
@@ -57,11 +73,11 @@ class WebhookIngestionServiceTest {
                 null
         );
 
-        when(repository.save(any(WebhookEvent.class))).thenReturn(saved);
+        when(writer.write(any(WebhookEvent.class))).thenReturn(new InsertResult(saved, true));
 
-        WebhookEvent result = service.ingest("stripe", "evt_123", "{\"hello\":\"world\"}");
+        InsertResult result = service.ingest("stripe", "evt_123", "{\"hello\":\"world\"}");
 
-        verify(repository).save(captor.capture());
+        verify(writer).write(captor.capture());
         WebhookEvent toSave = captor.getValue();
 
         assertThat(toSave.source()).isEqualTo("stripe");
@@ -71,11 +87,20 @@ class WebhookIngestionServiceTest {
         assertThat(toSave.receivedAt()).isEqualTo(Instant.parse("2024-01-01T00:00:00Z"));
         assertThat(toSave.processedAt()).isNull();
 
-        assertThat(result).isEqualTo(saved);
+        assertThat(result.created()).isTrue();
+        assertThat(result.event()).isEqualTo(saved);
+    }
+
+    @Test
+    void shouldRejectEventKeysLongerThanTheColumnBeforeWriting() {
+        assertThatThrownBy(() -> service.ingest("stripe", "k".repeat(WebhookEvent.MAX_EVENT_KEY_LENGTH + 1), "{}"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(writer, never()).write(any());
     }
 
     @Test
-    void shouldReturnExistingAndNotSaveWhenDuplicate() {
+    void shouldReturnExistingWhenDuplicate() {
         WebhookEvent existing = new WebhookEvent(
                 UUID.fromString("11111111-1111-1111-1111-111111111111"),
                 "stripe",
@@ -86,12 +111,59 @@ class WebhookIngestionServiceTest {
                 null
         );
 
-        when(repository.findBySourceAndEventKey("stripe", "evt_123"))
-                .thenReturn(Optional.of(existing));
+        when(writer.write(any(WebhookEvent.class)))
+                .thenReturn(new InsertResult(existing, false));
+
+        InsertResult result = service.ingest("stripe", "evt_123", "{\"hello\":\"world\"}");
+
+        assertThat(result.created()).isFalse();
+        assertThat(result.event()).isEqualTo(existing);
+    }
+
+    @Test
+    void shouldAnswerKnownDuplicateFromCacheWithoutTouchingRepository() {
+        WebhookEvent stored = new WebhookEvent(
+                UUID.randomUUID(),
+                "stripe",
+                "evt_123",
+                "{\"hello\":\"world\"}",
+                EventStatus.RECEIVED,
+                Instant.parse("2024-01-01T00:00:00Z"),
+                null
+        );
+        when(writer.write(any(WebhookEvent.class))).thenReturn(new InsertResult(stored, true));
+
+        service.ingest("stripe", "evt_123", "{\"hello\":\"world\"}");
+        InsertResult duplicate = service.ingest("stripe", "evt_123", "{\"hello\":\"world\"}");
 
-        WebhookEvent result = service.ingest("stripe", "evt_123", "{\"hello\":\"world\"}");
+        verify(writer, times(1)).write(any());
+        assertThat(duplicate.created()).isFalse();
+        assertThat(duplicate.event().id()).isEqualTo(stored.id());
+        assertThat(duplicate.event().receivedAt()).isEqualTo(stored.receivedAt());
+        assertThat(idempotencyCache.hits()).isEqualTo(1);
+        assertThat(idempotencyCache.misses()).isEqualTo(1);
+    }
 
-        verify(repository, never()).save(any());
-        assertThat(result).isEqualTo(existing);
+    @Test
+    void shouldDedupeBatchWithOneLookupAndOneWriteThroughTheWriter() {
+        when(repository.findExistingEventKeys(eq("stripe"), anyCollection())).thenReturn(Set.of("evt_old"));
+        when(writer.writeAll(anyList())).thenAnswer(invocation -> {
+            List<WebhookEvent> events = invocation.getArgument(0);
+            return events.stream().map(e -> new InsertResult(e, true)).toList();
+        });
+
+        List<BatchItemResult> results = service.ingestAll("stripe", List.of(
+                new BatchItem("evt_new", "{}"),
+                new BatchItem("evt_old", "{}"),
+                new BatchItem("evt_new", "{}")));
+
+        verify(writer).writeAll(inserted.capture());
+        assertThat(inserted.getValue().size()).isEqualTo(1);
+        assertThat(results.get(0).created()).isTrue();
+        assertThat(results.get(0).eventId()).isEqualTo(inserted.getValue().get(0).id());
+        assertThat(results.get(1).created()).isFalse();
+        assertThat(results.get(2).created()).isFalse();
+        verify(writer, never()).write(any());
+        verify(repository, never()).insertAllIfAbsent(anyList());
     }
-}
\ No newline at end of file
+}
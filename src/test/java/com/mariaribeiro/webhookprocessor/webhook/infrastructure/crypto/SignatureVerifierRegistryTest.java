@@ -0,0 +1,180 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignatureVerifierRegistryTest {
+
+    private static final long NOW = 1767225900L;
+    private static final byte[] BODY = "{\"eventKey\":\"evt_123\",\"payload\":{\"hello\":\"world\"}}".getBytes(StandardCharsets.UTF_8);
+
+    SignatureVerifierRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setSecrets(Map.of(
+                "internal", "secret-123",
+                "stripe", "whsec_stripe",
+                "github", "gh-secret",
+                "legacy", "sha1-secret"));
+
+        WebhookProperties.SourceProperties stripe = new WebhookProperties.SourceProperties();
+        stripe.setSignatureScheme(SignatureScheme.STRIPE);
+        WebhookProperties.SourceProperties github = new WebhookProperties.SourceProperties();
+        github.setSignatureScheme(SignatureScheme.GITHUB);
+        WebhookProperties.SourceProperties legacy = new WebhookProperties.SourceProperties();
+        legacy.setAlgorithm(HmacAlgorithm.HMAC_SHA1);
+        properties.setSources(Map.of("stripe", stripe, "github", github, "legacy", legacy));
+
+        registry = new SignatureVerifierRegistry(properties, List.of(new PropertiesSecretStore(properties)));
+    }
+
+    @Test
+    void shouldVerifyDefaultTimestampedScheme() {
+        String sig = hmac("HmacSHA256", "secret-123", NOW + "." + new String(BODY, StandardCharsets.UTF_8));
+
+        assertThat(verify("internal", "sha256=" + sig, String.valueOf(NOW))).isEqualTo(VerificationResult.VERIFIED);
+        assertThat(verify("internal", sig, String.valueOf(NOW))).isEqualTo(VerificationResult.VERIFIED);
+        assertThat(verify("internal", "sha256=deadbeef", String.valueOf(NOW))).isEqualTo(VerificationResult.INVALID_SIGNATURE);
+        assertThat(verify("internal", sig, String.valueOf(NOW - 600))).isEqualTo(VerificationResult.EXPIRED_TIMESTAMP);
+        assertThat(verify("internal", sig, "not-a-number")).isEqualTo(VerificationResult.INVALID_TIMESTAMP);
+        assertThat(verify("internal", sig, null)).isEqualTo(VerificationResult.MISSING_SIGNATURE);
+    }
+
+    @Test
+    void shouldVerifyStripeHeaderWithAnyMatchingV1() {
+        String sig = hmac("HmacSHA256", "whsec_stripe", NOW + "." + new String(BODY, StandardCharsets.UTF_8));
+
+        assertThat(verify("stripe", "t=" + NOW + ",v1=00ff,v1=" + sig, null)).isEqualTo(VerificationResult.VERIFIED);
+        assertThat(verify("stripe", "t=" + NOW + ",v1=00ff", null)).isEqualTo(VerificationResult.INVALID_SIGNATURE);
+        assertThat(verify("stripe", "v1=" + sig, null)).isEqualTo(VerificationResult.MISSING_SIGNATURE);
+    }
+
+    @Test
+    void shouldVerifyGithubBodyOnlySignatureWithoutTimestamp() {
+        String sig = hmac("HmacSHA256", "gh-secret", new String(BODY, StandardCharsets.UTF_8));
+
+        assertThat(verify("github", "sha256=" + sig, null)).isEqualTo(VerificationResult.VERIFIED);
+    }
+
+    @Test
+    void shouldHonourConfiguredAlgorithm() {
+        String sig = hmac("HmacSHA1", "sha1-secret", NOW + "." + new String(BODY, StandardCharsets.UTF_8));
+
+        assertThat(verify("legacy", "sha1=" + sig, String.valueOf(NOW))).isEqualTo(VerificationResult.VERIFIED);
+    }
+
+    @Test
+    void shouldSignLikeLegacyHelper() {
+        SourceVerifier verifier = registry.find("internal");
+        String message = NOW + "." + new String(BODY, StandardCharsets.UTF_8);
+
+        assertThat(verifier.signHex(NOW, String.valueOf(NOW), BODY, 0, BODY.length))
+                .isEqualTo(HmacSha256Verifier.signHex("secret-123", message));
+    }
+
+    @Test
+    void shouldReturnNullForUnknownSource() {
+        assertThat(registry.find("unknown")).isNull();
+        assertThat(registry.isKnown("unknown")).isFalse();
+        assertThat(registry.isKnown("internal")).isTrue();
+    }
+
+    @Test
+    void shouldAcceptEveryKeyInEffectDuringRotation() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setSources(Map.of("rotating", new WebhookProperties.SourceProperties()));
+        SignatureVerifierRegistry rotating = new SignatureVerifierRegistry(properties, List.of(() -> Map.of("rotating", List.of(
+                new SigningKey("old", "old-secret", null, Instant.ofEpochSecond(NOW + 60)),
+                new SigningKey("new", "new-secret", Instant.ofEpochSecond(NOW - 60), null),
+                new SigningKey("next", "next-secret", Instant.ofEpochSecond(NOW + 3600), null)))));
+        SourceVerifier verifier = rotating.find("rotating");
+        String message = NOW + "." + new String(BODY, StandardCharsets.UTF_8);
+
+        for (String secret : new String[]{"new-secret", "old-secret", "old-secret", "new-secret"}) {
+            assertThat(verifier.verify(hmac("HmacSHA256", secret, message), String.valueOf(NOW), BODY, 0, BODY.length, NOW, 300))
+                    .as(secret).isEqualTo(VerificationResult.VERIFIED);
+        }
+        assertThat(verifier.verify(hmac("HmacSHA256", "next-secret", message), String.valueOf(NOW), BODY, 0, BODY.length, NOW, 300))
+                .isEqualTo(VerificationResult.INVALID_SIGNATURE);
+        String later = (NOW + 120) + "." + new String(BODY, StandardCharsets.UTF_8);
+        assertThat(verifier.verify(hmac("HmacSHA256", "old-secret", later), String.valueOf(NOW + 120), BODY, 0, BODY.length, NOW + 120, 300))
+                .isEqualTo(VerificationResult.INVALID_SIGNATURE);
+        assertThat(verifier.signHex(NOW, String.valueOf(NOW), BODY, 0, BODY.length))
+                .isEqualTo(hmac("HmacSHA256", "new-secret", message));
+    }
+
+    @Test
+    void shouldSwapInReloadedKeysAndKeepUnchangedVerifiers() {
+        WebhookProperties properties = new WebhookProperties();
+        AtomicReference<Map<String, List<SigningKey>>> keys = new AtomicReference<>(Map.of(
+                "a", List.of(new SigningKey("1", "a-secret", null, null)),
+                "b", List.of(new SigningKey("1", "b-secret", null, null))));
+        SignatureVerifierRegistry reloading = new SignatureVerifierRegistry(properties, List.of(keys::get));
+        SourceVerifier a = reloading.find("a");
+
+        assertThat(reloading.reload()).isFalse();
+        keys.set(Map.of(
+                "a", List.of(new SigningKey("1", "a-secret", null, null)),
+                "c", List.of(new SigningKey("1", "c-secret", null, null))));
+        assertThat(reloading.reload()).isTrue();
+
+        assertThat(reloading.find("a")).isSameAs(a);
+        assertThat(reloading.find("b")).isNull();
+        assertThat(reloading.find("c")).isNotNull();
+    }
+
+    @Test
+    void shouldReadKeysFromFileAgainWhenItChanges(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("keys.json");
+        Files.writeString(file, "{\"file\":[{\"id\":\"k1\",\"secret\":\"file-secret\",\"notAfter\":\"2030-01-01T00:00:00Z\"}]}");
+        WebhookProperties properties = new WebhookProperties();
+        properties.getSecretStore().setFile(file);
+        SignatureVerifierRegistry fromFile = new SignatureVerifierRegistry(properties,
+                List.of(new FileSecretStore(properties, JsonMapper.builder().build())));
+        String message = NOW + "." + new String(BODY, StandardCharsets.UTF_8);
+
+        assertThat(fromFile.find("file").verify(hmac("HmacSHA256", "file-secret", message), String.valueOf(NOW),
+                BODY, 0, BODY.length, NOW, 300)).isEqualTo(VerificationResult.VERIFIED);
+
+        Files.writeString(file, "{\"file\":[{\"id\":\"k2\",\"secret\":\"rotated-secret\"}]}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(1)));
+        assertThat(fromFile.reload()).isTrue();
+
+        assertThat(fromFile.find("file").verify(hmac("HmacSHA256", "rotated-secret", message), String.valueOf(NOW),
+                BODY, 0, BODY.length, NOW, 300)).isEqualTo(VerificationResult.VERIFIED);
+    }
+
+    private VerificationResult verify(String source, String signature, String timestamp) {
+        return registry.find(source)
+                .verify(signature, timestamp, BODY, 0, BODY.length, NOW, 300);
+    }
+
+    private static String hmac(String algorithm, String secret, String message) {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
+            return HexFormat.of().formatHex(mac.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.delivery;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.infrastructure.crypto.HmacSha256Verifier;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.DeliveryRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubscriberDeliveryHandlerTest {
+
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryDeliveries deliveries = new InMemoryDeliveries();
+    private SubscriberDeliveryHandler handler;
+
+    @AfterEach
+    void tearDown() {
+        if (handler != null) {
+            handler.stop();
+        }
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void shouldDeliverSignedPayloadToEverySubscriber() throws Exception {
+        ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+        URI first = stub(0, 200, received);
+        URI second = stub(0, 204, received);
+        WebhookProperties properties = properties(Map.of("github", List.of(first, second)));
+        handler = handler(properties);
+
+        handler.handle(event("github", "{\"hello\":\"world\"}"));
+
+        assertThat(received).hasSize(2);
+        for (Received request : received) {
+            String body = new String(request.body(), StandardCharsets.UTF_8);
+            assertThat(body).isEqualTo("{\"hello\":\"world\"}");
+            assertThat(request.signature())
+                    .isEqualTo(HmacSha256Verifier.signHex("outbound-github", request.timestamp() + "." + body))
+                    .isNotEqualTo(HmacSha256Verifier.signHex("secret-github", request.timestamp() + "." + body));
+        }
+    }
+
+    @Test
+    void shouldRefuseSubscribersWithoutAnOutboundSecret() throws Exception {
+        WebhookProperties properties = properties(Map.of("github", List.of(stub(0, 200, new ConcurrentLinkedQueue<>()))));
+        properties.getSources().get("github").getSubscribers().getFirst().setSecret(null);
+
+        assertThatThrownBy(() -> handler(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No signing secret for subscriber");
+    }
+
+    @Test
+    void shouldRetryOnlyTheSubscribersThatFailed() throws Exception {
+        ConcurrentLinkedQueue<Received> accepting = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Received> failing = new ConcurrentLinkedQueue<>();
+        URI ok = stub(0, 200, accepting);
+        URI down = stub(0, 503, failing);
+        handler = handler(properties(Map.of("github", List.of(ok, down))));
+        WebhookEvent event = event("github", "{}");
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThatThrownBy(() -> handler.handle(event)).hasMessageContaining("answered 503");
+        }
+
+        assertThat(accepting).hasSize(1);
+        assertThat(failing).hasSize(2);
+        assertThat(deliveries.findDelivered(event.id())).containsExactly(ok.toString());
+    }
+
+    @Test
+    void shouldOpenCircuitAfterConsecutiveFailures() throws Exception {
+        ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+        URI failing = stub(0, 503, received);
+        WebhookProperties properties = properties(Map.of("github", List.of(failing)));
+        properties.getDelivery().setFailureThreshold(3);
+        handler = handler(properties);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> handler.handle(event("github", "{}"))).hasMessageContaining("answered 503");
+        }
+        assertThatThrownBy(() -> handler.handle(event("github", "{}"))).hasMessageContaining("Circuit open");
+
+        assertThat(received).hasSize(3);
+        assertThat(handler.destinationFor(failing).circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldKeepFastSubscriberLatencyLowWhileAnotherIsSlow() throws Exception {
+        URI slow = stub(300, 200, new ConcurrentLinkedQueue<>());
+        URI fast = stub(0, 200, new ConcurrentLinkedQueue<>());
+        WebhookProperties properties = properties(Map.of("slow", List.of(slow), "fast", List.of(fast)));
+        properties.getDelivery().setMaxConcurrencyPerDestination(4);
+        properties.getDelivery().setAcquireTimeout(Duration.ofMillis(200));
+        handler = handler(properties);
+
+        int events = 2_000;
+        AtomicInteger slowRejected = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        long start = System.nanoTime();
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < events; i++) {
+            String source = i % 10 == 0 ? "slow" : "fast";
+            calls.add(callers.submit(() -> {
+                try {
+                    handler.handle(event(source, "{}"));
+                } catch (IllegalStateException e) {
+                    if (!source.equals("slow")) {
+                        throw e;
+                    }
+                    slowRejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> call : calls) {
+            call.get(30, TimeUnit.SECONDS);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        callers.shutdown();
+
+        Timer fastLatency = meterRegistry.get("webhook.delivery.latency")
+                .tags("destination", fast.getAuthority(), "outcome", "success").timer();
+
+        assertThat(fastLatency.count()).isEqualTo(events - events / 10);
+        assertThat(slowRejected.get()).isPositive();
+        assertThat(fastLatency.max(TimeUnit.MILLISECONDS)).isLessThan(300);
+        assertThat(events / elapsedSeconds).isGreaterThan(100);
+    }
+
+    private URI stub(long delayMillis, int status, ConcurrentLinkedQueue<Received> received) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/hook", exchange -> respond(exchange, delayMillis, status, received));
+        server.start();
+        servers.add(server);
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/hook");
+    }
+
+    private static void respond(HttpExchange exchange, long delayMillis, int status, ConcurrentLinkedQueue<Received> received)
+            throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        received.add(new Received(exchange.getRequestHeaders().getFirst("X-Signature"),
+                exchange.getRequestHeaders().getFirst("X-Timestamp"), body));
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private SubscriberDeliveryHandler handler(WebhookProperties properties) {
+        return new SubscriberDeliveryHandler(deliveries, meterRegistry, CLOCK, new WorkerThreads(false), properties);
+    }
+
+    private static WebhookProperties properties(Map<String, List<URI>> subscribers) {
+        WebhookProperties properties = new WebhookProperties();
+        properties.getDelivery().setEnabled(true);
+        subscribers.forEach((source, uris) -> {
+            properties.getSecrets().put(source, "secret-" + source);
+            WebhookProperties.SourceProperties options = new WebhookProperties.SourceProperties();
+            options.setSubscribers(uris.stream().map(uri -> {
+                WebhookProperties.Subscriber subscriber = new WebhookProperties.Subscriber();
+                subscriber.setUrl(uri.toString());
+                subscriber.setSecret("outbound-" + source);
+                return subscriber;
+            }).collect(Collectors.toCollection(ArrayList::new)));
+            properties.getSources().put(source, options);
+        });
+        return properties;
+    }
+
+    private static WebhookEvent event(String source, String payload) {
+        return new WebhookEvent(UUID.randomUUID(), source, "evt_" + UUID.randomUUID(), payload,
+                EventStatus.PROCESSING, Instant.now(CLOCK), null);
+    }
+
+    static final class InMemoryDeliveries implements DeliveryRepository {
+
+        private final Map<UUID, Set<String>> delivered = new ConcurrentHashMap<>();
+
+        @Override
+        public Set<String> findDelivered(UUID eventId) {
+            return Set.copyOf(delivered.getOrDefault(eventId, Set.of()));
+        }
+
+        @Override
+        public void recordDelivered(UUID eventId, Collection<String> subscribers, Instant deliveredAt) {
+            delivered.computeIfAbsent(eventId, id -> ConcurrentHashMap.newKeySet()).addAll(subscribers);
+        }
+
+        @Override
+        public void clear(UUID eventId) {
+            delivered.remove(eventId);
+        }
+    }
+
+    private record Received(String signature, String timestamp, byte[] body) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares request threads under injected DB latency: a Tomcat-sized platform pool against virtual
+ * threads queued on {@link ConcurrencyLimitingDataSource}. Requests arrive at a fixed rate (open model);
+ * latency is measured from the intended arrival time. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ExecutionModeBenchmarkTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int REQUESTS_PER_SECOND = 300;
+    private static final Duration RUN = Duration.ofSeconds(3);
+    private static final Duration DB_LATENCY = Duration.ofMillis(30);
+
+    @Test
+    void compareExecutionModesUnderDbLatency() throws Exception {
+        try (HikariDataSource pool = pool()) {
+            Result platform = run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), pool);
+            Result virtual = run("virtual", Executors.newVirtualThreadPerTaskExecutor(),
+                    new ConcurrencyLimitingDataSource(pool, POOL_SIZE, Duration.ofSeconds(30)));
+
+            System.out.printf("%-9s %10s %12s %10s %10s%n", "mode", "requests", "max-inflight", "p50-ms", "p99-ms");
+            for (Result result : new Result[]{platform, virtual}) {
+                System.out.printf("%-9s %10d %12d %10.1f %10.1f%n", result.mode(), result.requests(),
+                        result.maxInFlight(), result.p50Millis(), result.p99Millis());
+            }
+            assertThat(platform.requests()).isEqualTo(virtual.requests());
+        }
+    }
+
+    private static Result run(String mode, ExecutorService executor, DataSource dataSource) throws Exception {
+        int requests = (int) (REQUESTS_PER_SECOND * RUN.toSeconds());
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / REQUESTS_PER_SECOND;
+        AtomicLongArray latencies = new AtomicLongArray(requests);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            int slot = i;
+            executor.execute(() -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    query(dataSource);
+                } finally {
+                    inFlight.decrementAndGet();
+                    latencies.set(slot, System.nanoTime() - intended);
+                    done.countDown();
+                }
+            });
+        }
+        assertThat(done.await(2, TimeUnit.MINUTES)).isTrue();
+        executor.shutdown();
+
+        long[] sorted = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        return new Result(mode, requests, maxInFlight.get(),
+                sorted[requests / 2] / 1e6, sorted[(int) (requests * 0.99)] / 1e6);
+    }
+
+    private static void query(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+            Thread.sleep(DB_LATENCY.toMillis());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HikariDataSource pool() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(30_000);
+        return new HikariDataSource(config);
+    }
+
+    private record Result(String mode, int requests, int maxInFlight, double p50Millis, double p99Millis) {
+    }
+}
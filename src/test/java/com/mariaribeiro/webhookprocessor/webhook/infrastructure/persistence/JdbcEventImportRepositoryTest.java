@@ -0,0 +1,24 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcEventImportRepositoryTest {
+
+    @Test
+    void shouldWriteCopyTextRowsWithEscapes() throws Exception {
+        UUID id = UUID.randomUUID();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        JdbcEventImportRepository.writeRow(out, new Object[]{
+                id, "a\\b\tc\nd\re é", null, new byte[]{0x00, 0x1f, (byte) 0xff}});
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo(id + "\ta\\\\b\\tc\\nd\\re é\t\\N\t\\\\x001fff\n");
+    }
+}
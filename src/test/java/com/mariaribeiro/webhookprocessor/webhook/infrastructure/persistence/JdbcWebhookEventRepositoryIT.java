@@ -0,0 +1,104 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+@SpringBootTest(properties = "webhook.persistence.mode=jdbc")
+@ActiveProfiles("test")
+class JdbcWebhookEventRepositoryIT {
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldUseJdbcAdapter() {
+        assertThat(repository).isInstanceOf(JdbcWebhookEventRepository.class);
+    }
+
+    @Test
+    void shouldInsertOnceAndReturnStoredEventOnConflict() {
+        String eventKey = "evt_" + UUID.randomUUID();
+        WebhookEvent first = event(eventKey, "{\"v\":1}");
+        WebhookEvent second = event(eventKey, "{\"v\":2}");
+
+        InsertResult created = repository.insertIfAbsent(first);
+        InsertResult duplicate = repository.insertIfAbsent(second);
+
+        assertThat(created.created()).isTrue();
+        assertThat(duplicate.created()).isFalse();
+        assertThat(duplicate.event().id()).isEqualTo(first.id());
+        assertThat(duplicate.event().payload()).isEqualTo("{\"v\":1}");
+        assertThat(duplicate.event().receivedAt()).isEqualTo(first.receivedAt());
+        assertThat(repository.findById(first.id())).isPresent();
+    }
+
+    @Test
+    void shouldFindExistingKeysInOneQuery() {
+        WebhookEvent stored = event("evt_" + UUID.randomUUID(), "{}");
+        repository.insertIfAbsent(stored);
+
+        assertThat(repository.findExistingEventKeys("stripe", List.of(stored.eventKey(), "evt_missing")))
+                .containsExactly(stored.eventKey());
+        assertThat(repository.findExistingEventKeys("stripe", List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldBatchInsertAndReportConflictsPerRow() {
+        String eventKey = "evt_" + UUID.randomUUID();
+        WebhookEvent existing = event(eventKey, "{\"v\":1}");
+        repository.insertIfAbsent(existing);
+
+        WebhookEvent fresh = event("evt_" + UUID.randomUUID(), "{\"v\":2}");
+        List<InsertResult> results = repository.insertAllIfAbsent(List.of(fresh, event(eventKey, "{\"v\":3}")));
+
+        assertThat(results).extracting(InsertResult::created).containsExactly(true, false);
+        assertThat(results.get(1).event().id()).isEqualTo(existing.id());
+        assertThat(repository.findById(fresh.id())).isPresent();
+    }
+
+    @Test
+    void shouldTreatAKeyWhoseEventIsGoneAsAbsent() {
+        WebhookEvent dropped = event("evt_" + UUID.randomUUID(), "{\"v\":1}");
+        repository.insertIfAbsent(dropped);
+        jdbcTemplate.update("DELETE FROM webhook_event WHERE id = ?", dropped.id());
+        WebhookEvent again = event(dropped.eventKey(), "{\"v\":2}");
+
+        InsertResult result = repository.insertIfAbsent(again);
+
+        assertThat(result.created()).isTrue();
+        assertThat(repository.findBySourceAndEventKey("stripe", dropped.eventKey()))
+                .hasValueSatisfying(found -> assertThat(found.id()).isEqualTo(again.id()));
+        assertThat(repository.insertAllIfAbsent(List.of(event(dropped.eventKey(), "{\"v\":3}"))))
+                .extracting(InsertResult::created).containsExactly(false);
+    }
+
+    private static WebhookEvent event(String eventKey, String payload) {
+        return new WebhookEvent(
+                UUID.randomUUID(),
+                "stripe",
+                eventKey,
+                payload,
+                EventStatus.RECEIVED,
+                Instant.now().truncatedTo(ChronoUnit.MICROS),
+                null
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionIntervalTest {
+
+    @Test
+    void shouldAlignDailyRangesToUtcMidnight() {
+        Instant instant = Instant.parse("2026-10-18T15:30:00Z");
+
+        assertThat(PartitionInterval.DAY.floor(instant)).isEqualTo(Instant.parse("2026-10-18T00:00:00Z"));
+        assertThat(PartitionInterval.DAY.next(instant)).isEqualTo(Instant.parse("2026-10-19T00:00:00Z"));
+    }
+
+    @Test
+    void shouldAlignWeeklyRangesToMonday() {
+        Instant sunday = Instant.parse("2026-10-18T15:30:00Z");
+
+        assertThat(PartitionInterval.WEEK.floor(sunday)).isEqualTo(Instant.parse("2026-10-12T00:00:00Z"));
+        assertThat(PartitionInterval.WEEK.next(sunday)).isEqualTo(Instant.parse("2026-10-19T00:00:00Z"));
+    }
+
+    @Test
+    void shouldAlignAfterUnalignedStart() {
+        Instant wednesday = Instant.parse("2026-10-14T00:00:00Z");
+
+        assertThat(PartitionInterval.WEEK.next(wednesday)).isEqualTo(Instant.parse("2026-10-19T00:00:00Z"));
+    }
+}
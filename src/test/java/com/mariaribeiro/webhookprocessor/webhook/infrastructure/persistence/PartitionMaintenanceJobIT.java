@@ -0,0 +1,81 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 has no partitioning, so this covers the batched-delete side of retention.
+ */
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.persistence.partitioning.retention=30d",
+        "webhook.persistence.partitioning.dedupe-horizon=10d",
+        "webhook.persistence.partitioning.maintenance-interval=1h",
+        "webhook.persistence.partitioning.delete-batch-size=2",
+        "webhook.sources.retention-short.retention=1d"
+})
+@ActiveProfiles("test")
+class PartitionMaintenanceJobIT {
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    PartitionMaintenanceJob job;
+
+    @Test
+    void shouldApplySourceAndDefaultRetention() {
+        WebhookEvent shortOld = insert("retention-short", Duration.ofDays(2));
+        WebhookEvent shortFresh = insert("retention-short", Duration.ZERO);
+        WebhookEvent defaultKept = insert("retention-default", Duration.ofDays(2));
+        List<WebhookEvent> defaultExpired = List.of(
+                insert("retention-default", Duration.ofDays(40)),
+                insert("retention-default", Duration.ofDays(41)),
+                insert("retention-default", Duration.ofDays(42)));
+
+        job.runOnce();
+
+        assertThat(repository.findById(shortOld.id())).isEmpty();
+        assertThat(repository.findById(shortFresh.id())).isPresent();
+        assertThat(repository.findById(defaultKept.id())).isPresent();
+        assertThat(defaultExpired).allSatisfy(event -> assertThat(repository.findById(event.id())).isEmpty());
+        assertThat(repository.findExistingEventKeys("retention-short", List.of(shortOld.eventKey(), shortFresh.eventKey())))
+                .containsExactly(shortFresh.eventKey());
+        assertThat(repository.findExistingEventKeys("retention-default",
+                defaultExpired.stream().map(WebhookEvent::eventKey).toList())).isEmpty();
+        WebhookEvent reused = new WebhookEvent(UUID.randomUUID(), "retention-short", shortOld.eventKey(), "{}",
+                EventStatus.RECEIVED, Instant.now().truncatedTo(ChronoUnit.MICROS), null);
+        assertThat(repository.insertIfAbsent(reused).created()).isTrue();
+    }
+
+    @Test
+    void shouldForgetKeysPastDedupeHorizon() {
+        WebhookEvent event = insert("retention-horizon", Duration.ofDays(15));
+
+        job.runOnce();
+
+        assertThat(repository.findById(event.id())).isPresent();
+        assertThat(repository.findExistingEventKeys("retention-horizon", List.of(event.eventKey()))).isEmpty();
+    }
+
+    private WebhookEvent insert(String source, Duration age) {
+        UUID id = UUID.randomUUID();
+        WebhookEvent event = new WebhookEvent(id, source, "evt_" + id, "{}", EventStatus.RECEIVED,
+                Instant.now().minus(age).truncatedTo(ChronoUnit.MICROS), null);
+        assertThat(repository.insertIfAbsent(event).created()).isTrue();
+        return event;
+    }
+}
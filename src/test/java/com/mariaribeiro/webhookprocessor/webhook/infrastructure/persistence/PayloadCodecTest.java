@@ -0,0 +1,100 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PayloadCodecTest {
+
+    @Mock
+    PayloadDictionaries dictionaries;
+
+    SimpleMeterRegistry meterRegistry;
+
+    PayloadCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.getPersistence().getCompression().setEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        codec = new PayloadCodec(properties, dictionaries, meterRegistry);
+    }
+
+    @Test
+    void shouldDeflateAndRoundTrip() {
+        String payload = payload(1).repeat(10);
+
+        byte[] encoded = codec.encode("stripe", payload);
+
+        assertThat(encoded[0]).isEqualTo(PayloadCodec.DEFLATE);
+        assertThat(encoded.length).isLessThan(payload.length() / 4);
+        assertThat(codec.decode("stripe", null, encoded)).isEqualTo(payload);
+        assertThat(meterRegistry.get("webhook.payload.compression.ratio").tag("source", "stripe").gauge().value())
+                .isGreaterThan(4.0);
+        assertThat(meterRegistry.get("webhook.payload.codec").tag("operation", "decode").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepIncompressiblePayloadsAsIs() {
+        byte[] encoded = codec.encode("stripe", "{}");
+
+        assertThat(encoded).containsExactly(PayloadCodec.IDENTITY, '{', '}');
+        assertThat(codec.decode("stripe", null, encoded)).isEqualTo("{}");
+    }
+
+    @Test
+    void shouldReadRowsWrittenBeforeCompression() {
+        assertThat(codec.decode("stripe", "{\"legacy\":true}", null)).isEqualTo("{\"legacy\":true}");
+    }
+
+    @Test
+    void shouldNotEncodeWhenDisabled() {
+        PayloadCodec disabled = new PayloadCodec(new WebhookProperties(), dictionaries, meterRegistry);
+
+        assertThat(disabled.encode("stripe", payload(1))).isNull();
+    }
+
+    @Test
+    void shouldShrinkSmallPayloadsWithTrainedDictionary() {
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            samples.add(payload(i));
+        }
+        byte[] dictionary = DictionaryTrainer.train(samples, 4096);
+        String payload = payload(1000);
+        byte[] plain = codec.encode("stripe", payload);
+
+        when(dictionaries.current("stripe")).thenReturn(new PayloadDictionaries.Dictionary(7, dictionary));
+        when(dictionaries.data(7)).thenReturn(dictionary);
+        byte[] withDictionary = codec.encode("stripe", payload);
+
+        assertThat(withDictionary[0]).isEqualTo(PayloadCodec.DEFLATE_DICTIONARY);
+        assertThat(withDictionary.length).isLessThan(plain.length / 2);
+        assertThat(codec.decode("stripe", null, withDictionary)).isEqualTo(payload);
+    }
+
+    @Test
+    void shouldRejectUnknownCodec() {
+        assertThatThrownBy(() -> codec.decode("stripe", null, new byte[]{42, 1, 2}))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String payload(int i) {
+        return "{\"id\":\"evt_" + i + "\",\"type\":\"payment_intent.succeeded\",\"livemode\":false," +
+                "\"data\":{\"object\":{\"object\":\"payment_intent\",\"amount\":" + (1000 + i) +
+                ",\"currency\":\"eur\",\"status\":\"succeeded\",\"capture_method\":\"automatic\"}}}";
+    }
+}
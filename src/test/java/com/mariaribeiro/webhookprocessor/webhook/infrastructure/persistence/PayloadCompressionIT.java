@@ -0,0 +1,93 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.persistence.compression.enabled=true",
+        "webhook.persistence.compression.dictionary-samples=20",
+        "webhook.persistence.compression.recompress-interval=1h",
+        "webhook.sources.compress-dict.compression-dictionary=true"
+})
+@ActiveProfiles("test")
+class PayloadCompressionIT {
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PayloadRecompressionJob job;
+
+    @Test
+    void shouldStoreNewPayloadsCompressed() {
+        WebhookEvent event = event("compress-new", "{\"amount\":100,\"currency\":\"EUR\",\"note\":\"" + "x".repeat(200) + "\"}");
+
+        repository.insertIfAbsent(event);
+
+        Map<String, Object> row = row(event.id());
+        assertThat(row.get("payload")).isNull();
+        assertThat((byte[]) row.get("payload_data")).startsWith(PayloadCodec.DEFLATE);
+        assertThat(repository.findById(event.id()).orElseThrow().payload()).isEqualTo(event.payload());
+    }
+
+    @Test
+    void shouldReadAndRecompressRowsWrittenAsText() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO webhook_event (id, source, event_key, payload, status, received_at) VALUES (?, ?, ?, ?, ?, ?)",
+                id, "compress-legacy", "evt_" + id, "{\"legacy\":true}", "RECEIVED", OffsetDateTime.now(ZoneOffset.UTC));
+        assertThat(repository.findById(id).orElseThrow().payload()).isEqualTo("{\"legacy\":true}");
+
+        job.runOnce();
+
+        Map<String, Object> row = row(id);
+        assertThat(row.get("payload")).isNull();
+        assertThat(row.get("payload_data")).isNotNull();
+        assertThat(repository.findById(id).orElseThrow().payload()).isEqualTo("{\"legacy\":true}");
+    }
+
+    @Test
+    void shouldTrainDictionaryOnceEnoughSamplesAreStored() {
+        for (int i = 0; i < 20; i++) {
+            repository.insertIfAbsent(event("compress-dict", sample(i)));
+        }
+
+        job.runOnce();
+
+        WebhookEvent event = event("compress-dict", sample(100));
+        repository.insertIfAbsent(event);
+        assertThat((byte[]) row(event.id()).get("payload_data")).startsWith(PayloadCodec.DEFLATE_DICTIONARY);
+        assertThat(repository.findById(event.id()).orElseThrow().payload()).isEqualTo(event.payload());
+    }
+
+    private Map<String, Object> row(UUID id) {
+        return jdbcTemplate.queryForMap("SELECT payload, payload_data FROM webhook_event WHERE id = ?", id);
+    }
+
+    private static WebhookEvent event(String source, String payload) {
+        UUID id = UUID.randomUUID();
+        return new WebhookEvent(id, source, "evt_" + id, payload, EventStatus.RECEIVED, Instant.now(), null);
+    }
+
+    private static String sample(int i) {
+        return "{\"type\":\"invoice.paid\",\"data\":{\"invoice\":\"in_" + i + "\",\"customer\":\"cus_" + i +
+                "\",\"amount_paid\":" + (500 + i) + ",\"currency\":\"eur\",\"billing_reason\":\"subscription_cycle\"}}";
+    }
+}
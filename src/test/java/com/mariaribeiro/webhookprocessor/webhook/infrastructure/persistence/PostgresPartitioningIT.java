@@ -0,0 +1,103 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.EventImportRepository;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the changelog, including the PostgreSQL-only partitioning changeset, against a real
+ * PostgreSQL. Skipped where Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "webhook.persistence.mode=jdbc",
+        "webhook.persistence.partitioning.premake=2"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresPartitioningIT {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Autowired
+    WebhookEventRepository repository;
+
+    @Autowired
+    EventImportRepository imports;
+
+    @Autowired
+    PartitionMaintenanceJob job;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldPartitionEventsByReceiveTime() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = 'webhook_event'::regclass", Integer.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns WHERE table_name = 'webhook_event'", String.class))
+                .contains("logical_partition", "claimed_at");
+
+        job.runOnce();
+        WebhookEvent stored = repository.insertIfAbsent(event(Instant.now())).event();
+        WebhookEvent ahead = repository.insertIfAbsent(event(Instant.now().plus(Duration.ofDays(2)))).event();
+
+        assertThat(repository.findById(stored.id())).isPresent();
+        assertThat(partitionOf(ahead)).startsWith("webhook_event_p");
+    }
+
+    @Test
+    void shouldCreatePartitionsForImportedEventsOutsideTheExistingOnes() {
+        // As if retention had dropped the legacy partition, which covers everything before the migration.
+        jdbcTemplate.execute("ALTER TABLE webhook_event DETACH PARTITION webhook_event_legacy");
+        jdbcTemplate.execute("DROP TABLE webhook_event_legacy");
+        job.runOnce();
+        Instant now = Instant.now();
+        List<WebhookEvent> archived = List.of(
+                event(now.minus(Duration.ofDays(400))),
+                event(now.minus(Duration.ofDays(400))),
+                event(now.minus(Duration.ofDays(30))),
+                event(now.plus(Duration.ofDays(60))));
+
+        imports.prepare(archived);
+        assertThat(imports.importAll(archived)).isEqualTo(archived.size());
+
+        for (WebhookEvent event : archived) {
+            assertThat(repository.findById(event.id())).isPresent();
+        }
+        assertThat(partitionOf(archived.get(0))).isEqualTo(partitionOf(archived.get(1)));
+
+        // Partitions created ahead by the import leave the regular ones in between to maintenance.
+        job.runOnce();
+        assertThat(repository.insertIfAbsent(event(now.plus(Duration.ofDays(1)))).created()).isTrue();
+    }
+
+    private String partitionOf(WebhookEvent event) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM webhook_event WHERE id = ?",
+                String.class, event.id());
+    }
+
+    private static WebhookEvent event(Instant receivedAt) {
+        return new WebhookEvent(UUID.randomUUID(), "partitioning", "evt_" + UUID.randomUUID(), "{}",
+                EventStatus.RECEIVED, receivedAt.truncatedTo(ChronoUnit.MICROS), null);
+    }
+}
@@ -2,6 +2,7 @@ package com.mariaribeiro.webhookprocessor.webhook.infrastructure.persistence;
 
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
 import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
 import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +10,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -45,4 +48,30 @@ class WebhookEventRepositoryIT {
         assertThat(found).isPresent();
         assertThat(found.get().payload()).contains("hello");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnExistingEventWhenInsertingDuplicate() {
+        String eventKey = "evt_" + UUID.randomUUID();
+        WebhookEvent first = new WebhookEvent(UUID.randomUUID(), "stripe", eventKey, "{\"v\":1}",
+                EventStatus.RECEIVED, Instant.now(), null);
+        WebhookEvent second = new WebhookEvent(UUID.randomUUID(), "stripe", eventKey, "{\"v\":2}",
+                EventStatus.RECEIVED, Instant.now(), null);
+
+        InsertResult created = repository.insertIfAbsent(first);
+        InsertResult duplicate = repository.insertIfAbsent(second);
+
+        assertThat(created.created()).isTrue();
+        assertThat(duplicate.created()).isFalse();
+        assertThat(duplicate.event().id()).isEqualTo(first.id());
+    }
+
+    @Test
+    void shouldFindExistingKeysInOneQuery() {
+        String eventKey = "evt_" + UUID.randomUUID();
+        repository.insertIfAbsent(new WebhookEvent(UUID.randomUUID(), "stripe", eventKey, "{}",
+                EventStatus.RECEIVED, Instant.now(), null));
+
+        assertThat(repository.findExistingEventKeys("stripe", List.of(eventKey, "evt_missing")))
+                .isEqualTo(Set.of(eventKey));
+    }
+}
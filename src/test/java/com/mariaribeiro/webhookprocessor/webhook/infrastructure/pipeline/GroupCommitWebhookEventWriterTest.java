@@ -0,0 +1,198 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitWebhookEventWriterTest {
+
+    InMemoryRepository repository;
+    SimpleMeterRegistry meterRegistry;
+    GroupCommitWebhookEventWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.getIngestion().getGroupCommit().setCapacity(256);
+        properties.getIngestion().getGroupCommit().setBatchSize(32);
+        properties.getIngestion().getGroupCommit().setLinger(Duration.ofMillis(5));
+        repository = new InMemoryRepository();
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new GroupCommitWebhookEventWriter(repository, new WorkerThreads(true), properties, meterRegistry);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void shouldGroupConcurrentWritesIntoFewerCommits() throws Exception {
+        int writes = 512;
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<InsertResult>> results = new ArrayList<>();
+            for (int i = 0; i < writes; i++) {
+                String eventKey = "evt_" + i;
+                results.add(executor.submit(() -> writer.write(event(eventKey))));
+            }
+            for (Future<InsertResult> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).created()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(repository.stored).hasSize(writes);
+        assertThat(repository.batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(writes);
+        assertThat(repository.batchSizes.size()).isLessThan(writes);
+        assertThat(repository.batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(32));
+        assertThat(meterRegistry.get("webhook.ingestion.batch.size").summary().count())
+                .isEqualTo(repository.batchSizes.size());
+    }
+
+    @Test
+    void shouldCommitABatchChunkInGroupsAndAnswerInOrder() {
+        List<WebhookEvent> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            events.add(event("evt_chunk_" + i));
+        }
+
+        List<InsertResult> results = writer.writeAll(events);
+
+        assertThat(results).extracting(result -> result.event().id())
+                .containsExactlyElementsOf(events.stream().map(WebhookEvent::id).toList());
+        assertThat(results).allSatisfy(result -> assertThat(result.created()).isTrue());
+        assertThat(repository.batchSizes.size()).isLessThan(events.size());
+    }
+
+    @Test
+    void shouldReturnStoredEventForDuplicates() {
+        WebhookEvent first = writer.write(event("evt_dup")).event();
+
+        InsertResult duplicate = writer.write(event("evt_dup"));
+
+        assertThat(duplicate.created()).isFalse();
+        assertThat(duplicate.event().id()).isEqualTo(first.id());
+    }
+
+    @Test
+    void shouldFailOnlyTheBatchWhenTheRepositoryThrowsAnError() {
+        repository.failNext = new OutOfMemoryError("simulated");
+
+        assertThatThrownBy(() -> writer.write(event("evt_error")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThat(writer.write(event("evt_after")).created()).isTrue();
+    }
+
+    @Test
+    void shouldFailOnlyTheWriteWhoseEventTheDatabaseRejects() {
+        repository.rejected = "evt_rejected_7";
+        List<WebhookEvent> events = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            events.add(event("evt_rejected_" + i));
+        }
+
+        assertThatThrownBy(() -> writer.writeAll(events)).isInstanceOf(DataIntegrityViolationException.class);
+
+        // One writer thread commits in publish order, so the rest of the chunk is done once this returns.
+        assertThat(writer.write(event("evt_rejected_after")).created()).isTrue();
+        assertThat(repository.stored).hasSize(16).doesNotContainKey("stripe/evt_rejected_7");
+    }
+
+    @Test
+    void shouldStopWaitingAfterTheWriteTimeout() throws InterruptedException {
+        writer.stop();
+        WebhookProperties properties = new WebhookProperties();
+        properties.getIngestion().getGroupCommit().setWriteTimeout(Duration.ofMillis(50));
+        writer = new GroupCommitWebhookEventWriter(repository, new WorkerThreads(true), properties, new SimpleMeterRegistry());
+        // Never started: nothing drains the buffer.
+
+        assertThatThrownBy(() -> writer.write(event("evt_stuck")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not complete");
+    }
+
+    private static WebhookEvent event(String eventKey) {
+        return new WebhookEvent(UUID.randomUUID(), "stripe", eventKey, "{}", EventStatus.RECEIVED, Instant.now(), null);
+    }
+
+    static final class InMemoryRepository implements WebhookEventRepository {
+
+        final Map<String, WebhookEvent> stored = new ConcurrentHashMap<>();
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        volatile Error failNext;
+        volatile String rejected;
+
+        @Override
+        public WebhookEvent save(WebhookEvent webhookEvent) {
+            stored.put(webhookEvent.source() + "/" + webhookEvent.eventKey(), webhookEvent);
+            return webhookEvent;
+        }
+
+        @Override
+        public InsertResult insertIfAbsent(WebhookEvent webhookEvent) {
+            WebhookEvent existing = stored.putIfAbsent(webhookEvent.source() + "/" + webhookEvent.eventKey(), webhookEvent);
+            return existing == null ? new InsertResult(webhookEvent, true) : new InsertResult(existing, false);
+        }
+
+        @Override
+        public List<InsertResult> insertAllIfAbsent(List<WebhookEvent> webhookEvents) {
+            batchSizes.add(webhookEvents.size());
+            Error failure = failNext;
+            if (failure != null) {
+                failNext = null;
+                throw failure;
+            }
+            if (webhookEvents.stream().anyMatch(event -> event.eventKey().equals(rejected))) {
+                throw new DataIntegrityViolationException("value too long for event_key");
+            }
+            return webhookEvents.stream().map(this::insertIfAbsent).toList();
+        }
+
+        @Override
+        public Set<String> findExistingEventKeys(String source, Collection<String> eventKeys) {
+            return eventKeys.stream().filter(key -> stored.containsKey(source + "/" + key)).collect(Collectors.toSet());
+        }
+
+        @Override
+        public Optional<WebhookEvent> findBySourceAndEventKey(String source, String eventId) {
+            return Optional.ofNullable(stored.get(source + "/" + eventId));
+        }
+
+        @Override
+        public Optional<WebhookEvent> findById(UUID id) {
+            return stored.values().stream().filter(e -> e.id().equals(id)).findFirst();
+        }
+    }
+}
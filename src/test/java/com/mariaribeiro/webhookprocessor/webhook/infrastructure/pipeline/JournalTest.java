@@ -0,0 +1,109 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackAppendedEventsAcrossSegments() throws IOException {
+        List<WebhookEvent> events = events(50, "x".repeat(100));
+        try (Journal journal = new Journal(directory, 1024, true)) {
+            journal.append(events.subList(0, 20));
+            journal.append(events.subList(20, 50));
+
+            List<WebhookEvent> read = new ArrayList<>(journal.read(30));
+            read.addAll(journal.read(100));
+
+            assertThat(read).containsExactlyElementsOf(events);
+            assertThat(journal.segmentCount()).isGreaterThan(1);
+            assertThat(journal.lag()).isEqualTo(50);
+
+            journal.checkpoint(read.size());
+
+            assertThat(journal.lag()).isZero();
+            assertThat(journal.segmentCount()).isEqualTo(1);
+            assertThat(segmentFiles()).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldRecoverEventsAfterTheCheckpointOnReopen() throws IOException {
+        List<WebhookEvent> events = events(10, "{\"n\":1}");
+        try (Journal journal = new Journal(directory, 4096, true)) {
+            journal.append(events);
+            assertThat(journal.read(4)).containsExactlyElementsOf(events.subList(0, 4));
+            journal.checkpoint(4);
+            journal.read(3);
+        }
+
+        try (Journal reopened = new Journal(directory, 4096, true)) {
+            assertThat(reopened.lag()).isEqualTo(6);
+            assertThat(reopened.read(100)).containsExactlyElementsOf(events.subList(4, 10));
+
+            WebhookEvent later = events(1, "{}").getFirst();
+            reopened.append(List.of(later));
+            assertThat(reopened.read(100)).containsExactly(later);
+        }
+    }
+
+    @Test
+    void shouldStopRecoveryAtATornRecord() throws IOException {
+        List<WebhookEvent> events = events(3, "{\"n\":1}");
+        try (Journal journal = new Journal(directory, 4096, true)) {
+            journal.append(events);
+        }
+        Path segment = segmentFiles().getFirst();
+        int recordLength = JournalRecords.HEADER + ByteBuffer.wrap(Files.readAllBytes(segment)).getInt(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 2L * recordLength + JournalRecords.HEADER + 3);
+        }
+
+        try (Journal reopened = new Journal(directory, 4096, true)) {
+            assertThat(reopened.read(100)).containsExactlyElementsOf(events.subList(0, 2));
+        }
+    }
+
+    @Test
+    void shouldRejectEventLargerThanASegment() throws IOException {
+        try (Journal journal = new Journal(directory, 256, true)) {
+            assertThatThrownBy(() -> journal.append(events(1, "x".repeat(512))))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(JournalSegment.SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static List<WebhookEvent> events(int count, String payload) {
+        List<WebhookEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new WebhookEvent(UUID.randomUUID(), "stripe", "evt_" + UUID.randomUUID(), payload,
+                    EventStatus.RECEIVED, Instant.ofEpochSecond(1767225900, i), null));
+        }
+        return events;
+    }
+}
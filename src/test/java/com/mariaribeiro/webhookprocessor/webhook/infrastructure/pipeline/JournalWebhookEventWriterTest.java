@@ -0,0 +1,223 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.InsertResult;
+import com.mariaribeiro.webhookprocessor.webhook.port.out.WebhookEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalWebhookEventWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldAcknowledgeWhileTheDatabaseIsDownAndDrainOnceItRecovers() throws Exception {
+        FlakyRepository repository = new FlakyRepository();
+        repository.down = true;
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JournalWebhookEventWriter writer = writer(repository, meterRegistry);
+        writer.start();
+        try {
+            for (int i = 0; i < 20; i++) {
+                assertThat(writer.write(event("evt_" + i)).created()).isTrue();
+            }
+            assertThat(repository.stored.stored).isEmpty();
+            assertThat(meterRegistry.get("webhook.journal.lag").gauge().value()).isEqualTo(20);
+
+            repository.down = false;
+            awaitLag(writer, 0);
+
+            assertThat(repository.stored.stored).hasSize(20);
+            assertThat(meterRegistry.get("webhook.journal.replay.failures").counter().count()).isPositive();
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void shouldReplayJournaledEventsAfterRestart() throws Exception {
+        FlakyRepository repository = new FlakyRepository();
+        repository.down = true;
+        JournalWebhookEventWriter first = writer(repository, new SimpleMeterRegistry());
+        first.start();
+        first.write(event("evt_1"));
+        first.write(event("evt_2"));
+        first.stop();
+
+        repository.down = false;
+        JournalWebhookEventWriter second = writer(repository, new SimpleMeterRegistry());
+        second.start();
+        try {
+            awaitLag(second, 0);
+            assertThat(repository.stored.stored).containsOnlyKeys("stripe/evt_1", "stripe/evt_2");
+        } finally {
+            second.stop();
+        }
+    }
+
+    @Test
+    void shouldReportStoredEventsOnlyOnceReplayed() throws Exception {
+        FlakyRepository repository = new FlakyRepository();
+        WebhookEvent stored = repository.stored.insertIfAbsent(event("evt_1")).event();
+        repository.down = true;
+        JournalWebhookEventWriter writer = writer(repository, new SimpleMeterRegistry());
+        List<WebhookEvent> reported = new CopyOnWriteArrayList<>();
+        writer.onStored(reported::add);
+        writer.start();
+        try {
+            WebhookEvent acknowledged = writer.write(event("evt_1")).event();
+            assertThat(writer.returnsStoredEvent()).isFalse();
+            assertThat(reported).isEmpty();
+
+            repository.down = false;
+            awaitLag(writer, 0);
+
+            assertThat(reported).extracting(WebhookEvent::id).containsExactly(stored.id());
+            assertThat(acknowledged.id()).isNotEqualTo(stored.id());
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void shouldQuarantineAnEventTheDatabaseRejectsAndStoreTheRest() throws Exception {
+        FlakyRepository repository = new FlakyRepository();
+        repository.down = true;
+        repository.rejected = "evt_bad";
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JournalWebhookEventWriter writer = writer(repository, meterRegistry);
+        writer.start();
+        try {
+            for (String key : List.of("evt_1", "evt_2", "evt_bad", "evt_3", "evt_4")) {
+                writer.write(event(key));
+            }
+
+            repository.down = false;
+            awaitLag(writer, 0);
+
+            assertThat(repository.stored.stored).containsOnlyKeys("stripe/evt_1", "stripe/evt_2", "stripe/evt_3", "stripe/evt_4");
+            assertThat(Files.readAllLines(directory.resolve("quarantine.ndjson")))
+                    .singleElement().asString().contains("\"eventKey\":\"evt_bad\"", "value too long");
+            assertThat(meterRegistry.get("webhook.journal.replay.quarantined").counter().count()).isEqualTo(1);
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void shouldFailWritesStillBufferedWhenStopped() throws Exception {
+        JournalWebhookEventWriter writer = writer(new FlakyRepository(), new SimpleMeterRegistry());
+        // Never started: the write stays in the buffer until stop fails it.
+        CompletableFuture<InsertResult> pending = CompletableFuture.supplyAsync(() -> writer.write(event("evt_1")));
+        Thread.sleep(100);
+        writer.stop();
+
+        assertThatThrownBy(() -> pending.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Journal writer stopped");
+    }
+
+    @Test
+    void shouldStopWaitingAfterTheWriteTimeout() throws Exception {
+        WebhookProperties properties = new WebhookProperties();
+        properties.getIngestion().getJournal().setDirectory(directory);
+        properties.getIngestion().getJournal().setWriteTimeout(Duration.ofMillis(50));
+        JournalWebhookEventWriter writer = new JournalWebhookEventWriter(new FlakyRepository(), new ObjectMapper(), new WorkerThreads(true),
+                properties, new SimpleMeterRegistry());
+        try {
+            assertThatThrownBy(() -> writer.write(event("evt_stuck")))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("did not complete");
+        } finally {
+            writer.stop();
+        }
+    }
+
+    private JournalWebhookEventWriter writer(WebhookEventRepository repository, SimpleMeterRegistry meterRegistry) throws Exception {
+        WebhookProperties properties = new WebhookProperties();
+        WebhookProperties.Journal config = properties.getIngestion().getJournal();
+        config.setDirectory(directory);
+        config.setCapacity(64);
+        config.setLinger(Duration.ofMillis(1));
+        config.setReplayRetryInterval(Duration.ofMillis(20));
+        return new JournalWebhookEventWriter(repository, new ObjectMapper(), new WorkerThreads(true), properties, meterRegistry);
+    }
+
+    private static void awaitLag(JournalWebhookEventWriter writer, long lag) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (writer.lag() != lag && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(writer.lag()).isEqualTo(lag);
+    }
+
+    private static WebhookEvent event(String eventKey) {
+        return new WebhookEvent(UUID.randomUUID(), "stripe", eventKey, "{}", EventStatus.RECEIVED, Instant.now(), null);
+    }
+
+    static final class FlakyRepository implements WebhookEventRepository {
+
+        final GroupCommitWebhookEventWriterTest.InMemoryRepository stored = new GroupCommitWebhookEventWriterTest.InMemoryRepository();
+        volatile boolean down;
+        volatile String rejected;
+
+        @Override
+        public WebhookEvent save(WebhookEvent webhookEvent) {
+            return stored.save(webhookEvent);
+        }
+
+        @Override
+        public InsertResult insertIfAbsent(WebhookEvent webhookEvent) {
+            return stored.insertIfAbsent(webhookEvent);
+        }
+
+        @Override
+        public List<InsertResult> insertAllIfAbsent(List<WebhookEvent> webhookEvents) {
+            if (down) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            if (webhookEvents.stream().anyMatch(event -> event.eventKey().equals(rejected))) {
+                throw new DataIntegrityViolationException("value too long for type character varying(120)");
+            }
+            return stored.insertAllIfAbsent(webhookEvents);
+        }
+
+        @Override
+        public Set<String> findExistingEventKeys(String source, Collection<String> eventKeys) {
+            return stored.findExistingEventKeys(source, eventKeys);
+        }
+
+        @Override
+        public Optional<WebhookEvent> findBySourceAndEventKey(String source, String eventId) {
+            return stored.findBySourceAndEventKey(source, eventId);
+        }
+
+        @Override
+        public Optional<WebhookEvent> findById(UUID id) {
+            return stored.findById(id);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.mariaribeiro.webhookprocessor.webhook.infrastructure.pipeline;
+
+import com.mariaribeiro.webhookprocessor.config.WebhookProperties;
+import com.mariaribeiro.webhookprocessor.config.WorkerThreads;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.EventStatus;
+import com.mariaribeiro.webhookprocessor.webhook.domain.model.WebhookEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaneEventDispatcherTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    LaneEventDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void shouldHandleEventsWithTheSameKeyInDispatchOrder() {
+        start(4, 256);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String object = "obj_" + (i % 10);
+            int sequence = i;
+            results.add(dispatcher.dispatch(event(object), () -> {
+                if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                    Thread.yield();
+                }
+                seen.computeIfAbsent(object, k -> new ArrayList<>()).add(sequence);
+                return sequence;
+            }));
+        }
+        results.forEach(CompletableFuture::join);
+
+        assertThat(seen).hasSize(10);
+        seen.values().forEach(sequences -> assertThat(sequences).isSorted().hasSize(40));
+    }
+
+    @Test
+    void shouldRunDifferentLanesInParallel() throws Exception {
+        start(4, 256);
+        String first = "shop:obj_a";
+        String second = keyOnAnotherLane(first);
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        Supplier<Boolean> meet = () -> {
+            try {
+                bothRunning.await(5, TimeUnit.SECONDS);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        };
+
+        CompletableFuture<Boolean> a = dispatcher.dispatch(event(first.substring(5)), meet);
+        CompletableFuture<Boolean> b = dispatcher.dispatch(event(second.substring(5)), meet);
+
+        assertThat(a.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(b.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldBlockTheDispatcherWhileTheLaneIsFull() throws Exception {
+        start(1, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        dispatcher.dispatch(event("obj"), () -> {
+            running.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.dispatch(event("obj"), () -> true);
+
+        CompletableFuture<CompletableFuture<Boolean>> blocked = CompletableFuture.supplyAsync(
+                () -> dispatcher.dispatch(event("obj"), () -> true));
+        Thread.sleep(100);
+        assertThat(blocked).isNotDone();
+
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("webhook.lanes.blocked").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFlagALaneTakingMostOfTheWork() {
+        start(8, 256);
+        dispatcher.checkHotLanes();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(dispatcher.dispatch(event("hot"), () -> true));
+        }
+        results.forEach(CompletableFuture::join);
+
+        dispatcher.checkHotLanes();
+
+        int lane = dispatcher.laneOf("shop:hot");
+        assertThat(dispatcher.isHot(lane)).isTrue();
+        assertThat(meterRegistry.get("webhook.lanes.hot").tag("lane", Integer.toString(lane)).gauge().value()).isEqualTo(1);
+        dispatcher.checkHotLanes();
+        assertThat(dispatcher.isHot(lane)).isFalse();
+    }
+
+    @Test
+    void shouldNotFlagALaneForAFewEventsOnAQuietInstance() {
+        start(8, 256);
+        dispatcher.checkHotLanes();
+        dispatcher.dispatch(event("quiet"), () -> true).join();
+
+        dispatcher.checkHotLanes();
+
+        assertThat(dispatcher.isHot(dispatcher.laneOf("shop:quiet"))).isFalse();
+    }
+
+    @Test
+    void shouldFallBackToTheSourceWhenThePayloadHasNoOrderingKey() {
+        OrderingKeyExtractor keys = new OrderingKeyExtractor(new ObjectMapper(), properties(1, 2));
+
+        assertThat(keys.keyFor(event("obj_1"))).isEqualTo("shop:obj_1");
+        assertThat(keys.keyFor(withPayload("shop", "{\"data\":{\"other\":1,\"object\":{\"id\":7}}}"))).isEqualTo("shop:7");
+        assertThat(keys.keyFor(withPayload("shop", "{\"data\":{\"object\":{}}}"))).isEqualTo("shop");
+        assertThat(keys.keyFor(withPayload("shop", "not json"))).isEqualTo("shop");
+        assertThat(keys.keyFor(withPayload("other", "{\"data\":{\"object\":{\"id\":7}}}"))).isEqualTo("other");
+    }
+
+    private void start(int lanes, int capacity) {
+        dispatcher = new LaneEventDispatcher(new ObjectMapper(), new WorkerThreads(false), properties(lanes, capacity), meterRegistry);
+        dispatcher.start();
+    }
+
+    private String keyOnAnotherLane(String key) {
+        for (int i = 0; ; i++) {
+            String candidate = "shop:obj_" + i;
+            if (dispatcher.laneOf(candidate) != dispatcher.laneOf(key)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static WebhookProperties properties(int lanes, int capacity) {
+        WebhookProperties properties = new WebhookProperties();
+        properties.getProcessing().getLanes().setCount(lanes);
+        properties.getProcessing().getLanes().setCapacity(capacity);
+        WebhookProperties.SourceProperties shop = new WebhookProperties.SourceProperties();
+        shop.setOrderingKeyPath("$.data.object.id");
+        properties.getSources().put("shop", shop);
+        return properties;
+    }
+
+    private static WebhookEvent event(String objectId) {
+        return withPayload("shop", "{\"type\":\"updated\",\"data\":{\"object\":{\"id\":\"" + objectId + "\"}}}");
+    }
+
+    private static WebhookEvent withPayload(String source, String payload) {
+        return new WebhookEvent(UUID.randomUUID(), source, "evt_" + UUID.randomUUID(), payload,
+                EventStatus.PROCESSING, Instant.now(), null);
+    }
+}